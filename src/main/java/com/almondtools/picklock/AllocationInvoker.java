@@ -0,0 +1,47 @@
+package com.almondtools.picklock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates instances of a class without running a constructor (see {@link Instantiator#allocate()}). This handler is resolved for parameterless
+ * allocator methods (<code>allocate()</code>, see {@link StaticInvocationResolver#resolveAllocatorInvocator(java.lang.reflect.Method)}), constructor
+ * methods (<code>create()</code>) always run a constructor. All fields of the created instance have their default values.
+ */
+public class AllocationInvoker implements StaticMethodInvocationHandler, MethodHandleBacked {
+
+	private Class<?> type;
+	private MethodHandle handle;
+
+	/**
+	 * Allocates instances of the given type
+	 * @param type the type to allocate
+	 * @throws PicklockException if the JVM does not permit to allocate instances of type
+	 */
+	public AllocationInvoker(Class<?> type) {
+		Instantiator instantiator = Instantiator.of(type);
+		if (!instantiator.canAllocate()) {
+			throw new PicklockException("cannot allocate " + type.getName());
+		}
+		this.type = type;
+		this.handle = instantiator.allocationHandle();
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object... args) throws Throwable {
+		if (args != null && args.length != 0) {
+			throw new IllegalArgumentException("allocations can only be invoked with no argument, was " + args.length + " arguments");
+		}
+		return (Object) handle.invokeExact();
+	}
+
+}
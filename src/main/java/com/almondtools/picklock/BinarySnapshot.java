@@ -0,0 +1,581 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes the (private) primitive and string fields of objects of a given class into a {@link ByteBuffer} (e.g. a direct or memory mapped buffer) and
+ * materializes objects from such buffers, see {@link Picklock#snapshot(Class)}, e.g.
+ *
+ * <p>
+ * <code>BinarySnapshot&lt;House&gt; snapshot = Picklock.snapshot(House.class);</code><br/>
+ * <code>snapshot.export(houses, new File("houses.bin"));</code><br/>
+ * <code>List&lt;House&gt; restored = snapshot.importFrom(new File("houses.bin"));</code>
+ *
+ * <p>
+ * The schema of a snapshot is derived from the class layout: all non-static, non-transient fields of primitive type or of type {@link String}
+ * (declared by the class or its super classes, super class fields first, fields of one class ordered by name). Each field is resolved by name with
+ * {@link InvocationResolver#resolveField(String, Class, Annotation[])}, so a custom resolver (see {@link Picklock#snapshot(Class, InvocationResolver)})
+ * may exclude fields (by resolving them to null) or redirect them. Fields shadowed by a field of the same name in a sub class resolve to the sub class
+ * field, they are not part of the snapshot (as other fields). Each field is read and written by a method handle of its exact type, so no value is
+ * boxed and no intermediate structure is built. Fields that cannot be accessed by method handles (e.g. final fields of hidden classes) are rejected
+ * when the snapshot is built.
+ *
+ * <p>
+ * The binary format is a header (magic number, hash of the schema, number of records) followed by the records. A record contains the values of all
+ * fields in the order of the schema, booleans as single byte, strings as length (-1 for null) followed by their chars. All values are written in the
+ * byte order of the buffer. Snapshots are cached per class, they are immutable and may be shared between threads.
+ *
+ * <p>
+ * Materialized objects are created without running a constructor (see {@link Instantiator#allocate()}), their fields are written like by
+ * {@link FieldSetter} (also final fields, see {@link FinalUtil}). Fields that are not part of the schema keep their default values.
+ *
+ * @param <T>
+ *            the class of the objects to write
+ * @author Stefan Mandel
+ */
+public final class BinarySnapshot<T> {
+
+	/**
+	 * the magic number starting each snapshot ("PKLS")
+	 */
+	public static final int MAGIC = 0x504B4C53;
+
+	/**
+	 * the size of the header (magic number, schema hash, number of records) in bytes
+	 */
+	public static final int HEADER_SIZE = 12;
+
+	private static final int BOOLEAN = 0;
+	private static final int BYTE = 1;
+	private static final int SHORT = 2;
+	private static final int CHAR = 3;
+	private static final int INT = 4;
+	private static final int LONG = 5;
+	private static final int FLOAT = 6;
+	private static final int DOUBLE = 7;
+	private static final int STRING = 8;
+
+	private static final ClassValue<BinarySnapshot<?>> SNAPSHOTS = new ClassValue<BinarySnapshot<?>>() {
+
+		@Override
+		protected BinarySnapshot<?> computeValue(Class<?> type) {
+			return compile(type);
+		}
+	};
+
+	private final Class<T> type;
+	private final Slot[] slots;
+	private final String schema;
+	private final int fixedSize;
+	private final MethodHandle allocator;
+
+	private BinarySnapshot(Class<T> type, Slot[] slots) {
+		this.type = type;
+		this.slots = slots;
+		StringBuilder schema = new StringBuilder(type.getName()).append('{');
+		int fixedSize = 0;
+		for (Slot slot : slots) {
+			schema.append(slot.field.getType().getName()).append(' ').append(slot.field.getName()).append(';');
+			fixedSize += slot.size;
+		}
+		this.schema = schema.append('}').toString();
+		this.fixedSize = fixedSize;
+		this.allocator = Instantiator.of(type).allocationHandle();
+	}
+
+	/**
+	 * returns the snapshot of the given class, the snapshot is computed on the first call and shared afterwards.
+	 *
+	 * @param type
+	 *            the class of the objects to write
+	 * @return the snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> BinarySnapshot<T> of(Class<T> type) {
+		return (BinarySnapshot<T>) SNAPSHOTS.get(type);
+	}
+
+	/**
+	 * compiles an (uncached) snapshot of the class of the given resolver, the fields of the schema are resolved by this resolver.
+	 *
+	 * @param type
+	 *            the class of the objects to write
+	 * @param resolver
+	 *            the resolver of the fields (resolving the class type)
+	 * @return the snapshot
+	 * @throws PicklockException
+	 *             if the resolver does not resolve type or if a resolved field cannot be accessed by method handles
+	 */
+	static <T> BinarySnapshot<T> of(Class<T> type, InvocationResolver resolver) {
+		if (resolver.getType() != type) {
+			throw new PicklockException("cannot snapshot " + type.getName() + " with resolver of " + resolver.getType().getName());
+		}
+		return compile(type, resolver);
+	}
+
+	private static <T> BinarySnapshot<T> compile(Class<T> type) {
+		return compile(type, new InvocationResolver(type, InvokerFactory.METHOD_HANDLES));
+	}
+
+	private static <T> BinarySnapshot<T> compile(Class<T> type, InvocationResolver resolver) {
+		List<Slot> slots = new ArrayList<Slot>();
+		List<Field> resolved = new ArrayList<Field>();
+		List<MemberIndex> hierarchy = MemberIndex.of(type).hierarchy();
+		for (int i = hierarchy.size() - 1; i >= 0; i--) {
+			List<Field> fields = new ArrayList<Field>(hierarchy.get(i).fields());
+			Collections.sort(fields, new Comparator<Field>() {
+				@Override
+				public int compare(Field o1, Field o2) {
+					return o1.getName().compareTo(o2.getName());
+				}
+			});
+			for (Field declared : fields) {
+				Field field = resolver.resolveField(declared.getName(), declared.getType(), new Annotation[0]);
+				if (field == null || resolved.contains(field)) {
+					continue;
+				}
+				int kind = kindOf(field.getType());
+				int modifiers = field.getModifiers();
+				if (kind < 0 || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+					continue;
+				}
+				resolved.add(field);
+				slots.add(new Slot(field, kind));
+			}
+		}
+		return new BinarySnapshot<T>(type, slots.toArray(new Slot[0]));
+	}
+
+	private static int kindOf(Class<?> type) {
+		if (type == boolean.class) {
+			return BOOLEAN;
+		} else if (type == byte.class) {
+			return BYTE;
+		} else if (type == short.class) {
+			return SHORT;
+		} else if (type == char.class) {
+			return CHAR;
+		} else if (type == int.class) {
+			return INT;
+		} else if (type == long.class) {
+			return LONG;
+		} else if (type == float.class) {
+			return FLOAT;
+		} else if (type == double.class) {
+			return DOUBLE;
+		} else if (type == String.class) {
+			return STRING;
+		} else {
+			return -1;
+		}
+	}
+
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * @return the fields contained in each record (in the order of the schema)
+	 */
+	public List<Field> getFields() {
+		List<Field> fields = new ArrayList<Field>(slots.length);
+		for (Slot slot : slots) {
+			fields.add(slot.field);
+		}
+		return fields;
+	}
+
+	/**
+	 * @return a textual description of the schema (the class and the types and names of its fields)
+	 */
+	public String getSchema() {
+		return schema;
+	}
+
+	/**
+	 * @param object
+	 *            the object to write
+	 * @return the number of bytes the record of the given object occupies
+	 * @throws PicklockException
+	 *             if a field could not be read
+	 */
+	public int sizeOf(T object) {
+		int size = fixedSize;
+		int i = 0;
+		try {
+			for (; i < slots.length; i++) {
+				Slot slot = slots[i];
+				if (slot.kind == STRING) {
+					String value = (String) slot.getter.invokeExact((Object) object);
+					if (value != null) {
+						size += value.length() * 2;
+					}
+				}
+			}
+			return size;
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot get " + slots[i].field, e);
+		}
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to write
+	 * @return the number of bytes the header and the records of the given objects occupy
+	 * @throws PicklockException
+	 *             if a field could not be read
+	 */
+	public long sizeOf(List<? extends T> objects) {
+		long size = HEADER_SIZE;
+		for (T object : objects) {
+			size += sizeOf(object);
+		}
+		return size;
+	}
+
+	/**
+	 * writes the header of a snapshot with the given number of records
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param count
+	 *            the number of records following the header
+	 */
+	public void writeHeader(ByteBuffer buffer, int count) {
+		buffer.putInt(MAGIC);
+		buffer.putInt(schema.hashCode());
+		buffer.putInt(count);
+	}
+
+	/**
+	 * writes the record of the given object (without header)
+	 *
+	 * @param object
+	 *            the object to write
+	 * @param buffer
+	 *            the buffer to write to
+	 * @throws PicklockException
+	 *             if a field could not be read
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer has not enough space for the record
+	 */
+	public void write(T object, ByteBuffer buffer) {
+		int i = 0;
+		try {
+			for (; i < slots.length; i++) {
+				Slot slot = slots[i];
+				MethodHandle getter = slot.getter;
+				switch (slot.kind) {
+				case BOOLEAN:
+					buffer.put((boolean) getter.invokeExact((Object) object) ? (byte) 1 : (byte) 0);
+					break;
+				case BYTE:
+					buffer.put((byte) getter.invokeExact((Object) object));
+					break;
+				case SHORT:
+					buffer.putShort((short) getter.invokeExact((Object) object));
+					break;
+				case CHAR:
+					buffer.putChar((char) getter.invokeExact((Object) object));
+					break;
+				case INT:
+					buffer.putInt((int) getter.invokeExact((Object) object));
+					break;
+				case LONG:
+					buffer.putLong((long) getter.invokeExact((Object) object));
+					break;
+				case FLOAT:
+					buffer.putFloat((float) getter.invokeExact((Object) object));
+					break;
+				case DOUBLE:
+					buffer.putDouble((double) getter.invokeExact((Object) object));
+					break;
+				default:
+					putString(buffer, (String) getter.invokeExact((Object) object));
+					break;
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot get " + slots[i].field, e);
+		}
+	}
+
+	private static void putString(ByteBuffer buffer, String value) {
+		if (value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		int length = value.length();
+		buffer.putInt(length);
+		for (int i = 0; i < length; i++) {
+			buffer.putChar(value.charAt(i));
+		}
+	}
+
+	/**
+	 * writes the header and the records of all given objects
+	 *
+	 * @param objects
+	 *            the objects to write
+	 * @param buffer
+	 *            the buffer to write to
+	 * @throws PicklockException
+	 *             if a field could not be read
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer has not enough space for the snapshot (see {@link #sizeOf(List)})
+	 */
+	public void writeAll(List<? extends T> objects, ByteBuffer buffer) {
+		writeHeader(buffer, objects.size());
+		for (T object : objects) {
+			write(object, buffer);
+		}
+	}
+
+	/**
+	 * writes the header and the records of all given objects into the given file (replacing its content). The file is memory mapped, such that
+	 * the records are written directly into the file.
+	 *
+	 * @param objects
+	 *            the objects to write
+	 * @param file
+	 *            the file to write to
+	 * @return the number of bytes written
+	 * @throws IOException
+	 *             if the file could not be mapped
+	 * @throws PicklockException
+	 *             if a field could not be read or if the snapshot exceeds the size of a single mapped buffer
+	 */
+	public long export(List<? extends T> objects, File file) throws IOException {
+		long size = sizeOf(objects);
+		if (size > Integer.MAX_VALUE) {
+			throw new PicklockException("cannot export snapshot of " + size + " bytes into a single buffer");
+		}
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw"); FileChannel channel = out.getChannel()) {
+			out.setLength(size);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			writeAll(objects, buffer);
+			buffer.force();
+		}
+		return size;
+	}
+
+	/**
+	 * reads and validates the header of a snapshot
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @return the number of records following the header
+	 * @throws PicklockException
+	 *             if the buffer does not start with a header of a snapshot of this schema
+	 */
+	public int readHeader(ByteBuffer buffer) {
+		if (buffer.getInt() != MAGIC) {
+			throw new PicklockException("cannot read snapshot of " + type.getName() + ", buffer does not start with a snapshot (or has another byte order)");
+		}
+		if (buffer.getInt() != schema.hashCode()) {
+			throw new PicklockException("cannot read snapshot of " + type.getName() + ", schema does not match " + schema);
+		}
+		return buffer.getInt();
+	}
+
+	/**
+	 * reads one record (without header) into a new object (created without constructor)
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @return the materialized object
+	 * @throws PicklockException
+	 *             if the class cannot be instantiated or if a field could not be written
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the buffer does not contain a complete record
+	 */
+	public T read(ByteBuffer buffer) {
+		if (allocator == null) {
+			throw new PicklockException("cannot instantiate " + type.getName());
+		}
+		Object object;
+		try {
+			object = (Object) allocator.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate " + type.getName(), e);
+		}
+		T materialized = type.cast(object);
+		read(buffer, materialized);
+		return materialized;
+	}
+
+	/**
+	 * reads one record (without header) into the given object
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @param object
+	 *            the object to write the fields of
+	 * @throws PicklockException
+	 *             if a field could not be written
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the buffer does not contain a complete record
+	 */
+	public void read(ByteBuffer buffer, T object) {
+		int i = 0;
+		try {
+			for (; i < slots.length; i++) {
+				Slot slot = slots[i];
+				MethodHandle setter = slot.setter;
+				switch (slot.kind) {
+				case BOOLEAN:
+					setter.invokeExact((Object) object, buffer.get() != 0);
+					break;
+				case BYTE:
+					setter.invokeExact((Object) object, buffer.get());
+					break;
+				case SHORT:
+					setter.invokeExact((Object) object, buffer.getShort());
+					break;
+				case CHAR:
+					setter.invokeExact((Object) object, buffer.getChar());
+					break;
+				case INT:
+					setter.invokeExact((Object) object, buffer.getInt());
+					break;
+				case LONG:
+					setter.invokeExact((Object) object, buffer.getLong());
+					break;
+				case FLOAT:
+					setter.invokeExact((Object) object, buffer.getFloat());
+					break;
+				case DOUBLE:
+					setter.invokeExact((Object) object, buffer.getDouble());
+					break;
+				default:
+					setter.invokeExact((Object) object, getString(buffer));
+					break;
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot set " + slots[i].field, e);
+		}
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = buffer.getChar();
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * reads the header and all records of a snapshot into new objects
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @return the materialized objects (in the order of the records)
+	 * @throws PicklockException
+	 *             if the header does not match this snapshot, if the record count of the header exceeds the buffer, if the class cannot be instantiated
+	 *             or if a field could not be written
+	 */
+	public List<T> readAll(ByteBuffer buffer) {
+		int count = readHeader(buffer);
+		if (count < 0 || (long) count * fixedSize > buffer.remaining()) {
+			throw new PicklockException("cannot read snapshot of " + type.getName() + ", header announces " + count + " records, but buffer has only "
+				+ buffer.remaining() + " bytes left");
+		}
+		List<T> objects = new ArrayList<T>(fixedSize > 0 ? count : 0);
+		for (int i = 0; i < count; i++) {
+			objects.add(read(buffer));
+		}
+		return objects;
+	}
+
+	/**
+	 * reads the header and all records of a snapshot from the given file into new objects. The file is memory mapped, such that the records are read
+	 * directly from the file.
+	 *
+	 * @param file
+	 *            the file to read from (written by {@link #export(List, File)})
+	 * @return the materialized objects (in the order of the records)
+	 * @throws IOException
+	 *             if the file could not be mapped
+	 * @throws PicklockException
+	 *             if the header does not match this snapshot, if the class cannot be instantiated or if a field could not be written
+	 */
+	public List<T> importFrom(File file) throws IOException {
+		try (RandomAccessFile in = new RandomAccessFile(file, "r"); FileChannel channel = in.getChannel()) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return readAll(buffer);
+		}
+	}
+
+	private static class Slot {
+
+		private final Field field;
+		private final int kind;
+		private final int size;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		Slot(Field field, int kind) {
+			this.field = field;
+			this.kind = kind;
+			this.size = sizeOf(kind);
+			this.getter = handleOf(field, InvokerFactory.METHOD_HANDLES.createFieldGetter(field, null), methodType(field.getType(), Object.class));
+			this.setter = handleOf(field, InvokerFactory.METHOD_HANDLES.createFieldSetter(field, null), methodType(void.class, Object.class, field.getType()));
+		}
+
+		private static MethodHandle handleOf(Field field, MethodInvocationHandler handler, MethodType type) {
+			MethodHandle handle = handler instanceof MethodHandleBacked ? ((MethodHandleBacked) handler).handleOf(type) : null;
+			if (handle == null) {
+				throw new PicklockException("cannot snapshot field " + field + ", it cannot be accessed by method handles");
+			}
+			return handle;
+		}
+
+		private static int sizeOf(int kind) {
+			switch (kind) {
+			case BOOLEAN:
+			case BYTE:
+				return 1;
+			case SHORT:
+			case CHAR:
+				return 2;
+			case INT:
+			case FLOAT:
+			case STRING:
+				return 4;
+			default:
+				return 8;
+			}
+		}
+
+	}
+
+}
@@ -2,9 +2,8 @@ package com.almondtools.picklock;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * ClassAccess is a Decorator for the static interface of a java class. Usage:
@@ -69,11 +68,18 @@ import java.util.Map;
  */
 public class ClassAccess extends StaticInvocationResolver implements InvocationHandler {
 
-	private Map<Method, StaticMethodInvocationHandler> methods;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ClassAccess, DispatchTable> METHODS = AtomicReferenceFieldUpdater.newUpdater(ClassAccess.class, DispatchTable.class, "methods");
+
+	private volatile DispatchTable<StaticMethodInvocationHandler> methods;
 
 	public ClassAccess(Class<?> type) {
-		super(type);
-		this.methods = new HashMap<Method, StaticMethodInvocationHandler>();
+		this(type, InvokerFactory.REFLECTION);
+	}
+
+	public ClassAccess(Class<?> type, InvokerFactory invokers) {
+		super(type, invokers);
+		this.methods = new DispatchTable<StaticMethodInvocationHandler>(Collections.<Method, StaticMethodInvocationHandler> emptyMap());
 	}
 
 	/**
@@ -87,6 +93,22 @@ public class ClassAccess extends StaticInvocationResolver implements InvocationH
 		return new ClassAccess(type);
 	}
 
+	/**
+	 * wraps the given class. Beyond {@link #unlock(Class)} the static members of the class are invoked by handlers of the given factory, e.g.
+	 * 
+	 * <p>
+	 * <code>ClassAccess.unlock(ClassToUnlock.class, InvokerFactory.METHOD_HANDLES).features(InterfaceOfTheDecorator.class);</code>
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param invokers
+	 *            the factory for the handlers invoking the static members of type
+	 * @return the wrapped class
+	 */
+	public static ClassAccess unlock(Class<?> type, InvokerFactory invokers) {
+		return new ClassAccess(type, invokers);
+	}
+
 	/**
 	 * wraps the given class. The result of this method is a {@link ClassSnoop} object which enables the user to check if the wrapped class
 	 * is compatible with a specific unlocked interface class. Note that in this case the "static" interface (all static methods including the constructor)
@@ -109,18 +131,55 @@ public class ClassAccess extends StaticInvocationResolver implements InvocationH
 	 * @throws NoSuchMethodException
 	 *             if a method of the interface class could not be mapped according to the upper rules
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> T features(Class<T> interfaceClass) {
 		try {
-			for (Method method : interfaceClass.getDeclaredMethods()) {
-				methods.put(method, findInvocationHandler(method));
-			}
-			return (T) Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, this);
+			StaticInvocationPlan plan = resolvePlan(interfaceClass);
+			install(plan.getDispatch());
+			return getInvokers().createProxy(interfaceClass, this);
 		} catch (NoSuchMethodException e) {
 			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + getType());
 		}
 	}
 
+	/**
+	 * resolves the plan for the given interface. Plans of plain class accesses are shared through the {@link InvocationPlanCache}, subclasses overriding the
+	 * resolution are resolved for each class access.
+	 */
+	private StaticInvocationPlan resolvePlan(Class<?> interfaceClass) throws NoSuchMethodException {
+		if (getClass() == ClassAccess.class) {
+			return InvocationPlanCache.staticPlan(this, interfaceClass);
+		} else {
+			return StaticInvocationPlan.resolve(this, interfaceClass);
+		}
+	}
+
+	/**
+	 * installs the given handlers (merged with the already installed handlers). The installed table is immutable and replaced atomically, so concurrent
+	 * calls to {@link #features(Class)} do not lose handlers and concurrent invocations always see a complete table.
+	 */
+	private void install(DispatchTable<StaticMethodInvocationHandler> table) {
+		while (true) {
+			DispatchTable<StaticMethodInvocationHandler> current = methods;
+			DispatchTable<StaticMethodInvocationHandler> next = current.size() == 0 ? table : table.merge(current);
+			if (current == next || METHODS.compareAndSet(this, current, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param method
+	 *            a method of an interface passed to {@link #features(Class)}
+	 * @return the handler the given method is mapped to, or null if the method was not mapped
+	 */
+	public StaticMethodInvocationHandler getHandler(Method method) {
+		return methods.get(method);
+	}
+
+	DispatchTable<StaticMethodInvocationHandler> getHandlers() {
+		return methods;
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 		StaticMethodInvocationHandler handler = methods.get(method);
@@ -0,0 +1,96 @@
+package com.almondtools.picklock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A process-wide cache for entries that refer to several classes (e.g. an unlocked class and a feature interface). Each entry is attached (with
+ * {@link ClassValue}) to the one of its classes whose class loader is the most specific, i.e. all other class loaders (including the one of picklock)
+ * are this loader or its ancestors. Such an entry is only reachable as long as this class is, and it only refers to classes of loaders that are reachable
+ * from this class anyway, so cached entries do not prevent any class loader from being unloaded.
+ *
+ * <p>
+ * Entries referring to classes of unrelated class loaders (neither is an ancestor of the other) cannot be attached safely, they are not cached.
+ *
+ * @param <K>
+ *            the type of the keys, a key must identify all classes of its entry
+ * @param <V>
+ *            the type of the cached values
+ */
+final class ClassCache<K, V> {
+
+	private final ClassValue<ConcurrentMap<K, V>> entries = new ClassValue<ConcurrentMap<K, V>>() {
+
+		@Override
+		protected ConcurrentMap<K, V> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<K, V>();
+		}
+
+	};
+
+	/**
+	 * @param key
+	 *            the key of the entry
+	 * @param classes
+	 *            the classes the entry refers to
+	 * @return the cached value, or null if there is none
+	 */
+	V get(K key, Class<?>... classes) {
+		Class<?> owner = ownerOf(classes);
+		if (owner == null) {
+			return null;
+		}
+		return entries.get(owner).get(key);
+	}
+
+	/**
+	 * caches the value, unless there is already a cached value for the key
+	 *
+	 * @param key
+	 *            the key of the entry
+	 * @param value
+	 *            the value to cache
+	 * @param classes
+	 *            the classes the entry refers to
+	 * @return the cached value (the already cached value or the given one)
+	 */
+	V putIfAbsent(K key, V value, Class<?>... classes) {
+		Class<?> owner = ownerOf(classes);
+		if (owner == null) {
+			return value;
+		}
+		V concurrent = entries.get(owner).putIfAbsent(key, value);
+		return concurrent == null ? value : concurrent;
+	}
+
+	/**
+	 * @param classes
+	 *            the classes an entry refers to
+	 * @return the class with the most specific class loader (picklock itself is always taken into account), or null if the class loaders are unrelated
+	 */
+	static Class<?> ownerOf(Class<?>... classes) {
+		Class<?> owner = ClassCache.class;
+		for (Class<?> clazz : classes) {
+			if (isAncestor(owner.getClassLoader(), clazz.getClassLoader())) {
+				owner = clazz;
+			} else if (!isAncestor(clazz.getClassLoader(), owner.getClassLoader())) {
+				return null;
+			}
+		}
+		return owner;
+	}
+
+	private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+		if (ancestor == null) {
+			return true;
+		}
+		while (loader != null) {
+			if (loader == ancestor) {
+				return true;
+			}
+			loader = loader.getParent();
+		}
+		return false;
+	}
+
+}
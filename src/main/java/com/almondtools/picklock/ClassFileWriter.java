@@ -0,0 +1,377 @@
+package com.almondtools.picklock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class files of generated proxy classes. Only the small subset of the class file format needed by {@link ProxyClassGenerator} is supported:
+ * straight-line code (no branches, so no stack map frames are needed), fields, methods and the constant pool entries these refer to.
+ */
+final class ClassFileWriter {
+
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_PRIVATE = 0x0002;
+	static final int ACC_STATIC = 0x0008;
+	static final int ACC_FINAL = 0x0010;
+	static final int ACC_SUPER = 0x0020;
+
+	static final int ICONST_0 = 0x03;
+	static final int BIPUSH = 0x10;
+	static final int SIPUSH = 0x11;
+	static final int LDC_W = 0x13;
+	static final int ILOAD = 0x15;
+	static final int LLOAD = 0x16;
+	static final int FLOAD = 0x17;
+	static final int DLOAD = 0x18;
+	static final int ALOAD = 0x19;
+	static final int AALOAD = 0x32;
+	static final int POP = 0x57;
+	static final int DUP = 0x59;
+	static final int IRETURN = 0xac;
+	static final int LRETURN = 0xad;
+	static final int FRETURN = 0xae;
+	static final int DRETURN = 0xaf;
+	static final int ARETURN = 0xb0;
+	static final int RETURN = 0xb1;
+	static final int GETSTATIC = 0xb2;
+	static final int PUTSTATIC = 0xb3;
+	static final int GETFIELD = 0xb4;
+	static final int PUTFIELD = 0xb5;
+	static final int INVOKEVIRTUAL = 0xb6;
+	static final int INVOKESPECIAL = 0xb7;
+	static final int INVOKESTATIC = 0xb8;
+
+	private static final int MAGIC = 0xcafebabe;
+	private static final int VERSION_JAVA_7 = 51;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private ByteArrayOutputStream pool;
+	private DataOutputStream poolOut;
+	private Map<String, Integer> constants;
+	private int constantCount;
+
+	private int codeAttribute;
+	private int access;
+	private int thisClass;
+	private int superClass;
+	private List<Integer> interfaces;
+	private List<byte[]> fields;
+	private List<byte[]> methods;
+
+	ClassFileWriter(int access, String name, String superName, String... interfaceNames) {
+		this.pool = new ByteArrayOutputStream();
+		this.poolOut = new DataOutputStream(pool);
+		this.constants = new HashMap<String, Integer>();
+		this.constantCount = 1;
+		this.codeAttribute = utf8Constant("Code");
+		this.access = access;
+		this.thisClass = classConstant(name);
+		this.superClass = classConstant(superName);
+		this.interfaces = new ArrayList<Integer>();
+		for (String interfaceName : interfaceNames) {
+			interfaces.add(classConstant(interfaceName));
+		}
+		this.fields = new ArrayList<byte[]>();
+		this.methods = new ArrayList<byte[]>();
+	}
+
+	static String internalName(Class<?> clazz) {
+		return clazz.getName().replace('.', '/');
+	}
+
+	static String descriptor(Class<?> type) {
+		if (type == void.class) {
+			return "V";
+		} else if (type == boolean.class) {
+			return "Z";
+		} else if (type == byte.class) {
+			return "B";
+		} else if (type == char.class) {
+			return "C";
+		} else if (type == short.class) {
+			return "S";
+		} else if (type == int.class) {
+			return "I";
+		} else if (type == long.class) {
+			return "J";
+		} else if (type == float.class) {
+			return "F";
+		} else if (type == double.class) {
+			return "D";
+		} else if (type.isArray()) {
+			return internalName(type);
+		} else {
+			return "L" + internalName(type) + ";";
+		}
+	}
+
+	static String methodDescriptor(Class<?> returnType, Class<?>... parameterTypes) {
+		StringBuilder buffer = new StringBuilder("(");
+		for (Class<?> parameterType : parameterTypes) {
+			buffer.append(descriptor(parameterType));
+		}
+		return buffer.append(')').append(descriptor(returnType)).toString();
+	}
+
+	static int slots(Class<?> type) {
+		if (type == void.class) {
+			return 0;
+		} else if (type == long.class || type == double.class) {
+			return 2;
+		} else {
+			return 1;
+		}
+	}
+
+	static int loadOpcode(Class<?> type) {
+		if (type == long.class) {
+			return LLOAD;
+		} else if (type == float.class) {
+			return FLOAD;
+		} else if (type == double.class) {
+			return DLOAD;
+		} else if (type.isPrimitive()) {
+			return ILOAD;
+		} else {
+			return ALOAD;
+		}
+	}
+
+	static int returnOpcode(Class<?> type) {
+		if (type == void.class) {
+			return RETURN;
+		} else if (type == long.class) {
+			return LRETURN;
+		} else if (type == float.class) {
+			return FRETURN;
+		} else if (type == double.class) {
+			return DRETURN;
+		} else if (type.isPrimitive()) {
+			return IRETURN;
+		} else {
+			return ARETURN;
+		}
+	}
+
+	void field(int access, String name, String descriptor) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeShort(access);
+			out.writeShort(utf8Constant(name));
+			out.writeShort(utf8Constant(descriptor));
+			out.writeShort(0);
+			fields.add(bytes.toByteArray());
+		} catch (IOException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	Code method(int access, String name, String descriptor) {
+		return new Code(access, name, descriptor);
+	}
+
+	int fieldConstant(String owner, String name, String descriptor) {
+		return memberConstant(CONSTANT_FIELDREF, owner, name, descriptor);
+	}
+
+	int methodConstant(String owner, String name, String descriptor) {
+		return memberConstant(CONSTANT_METHODREF, owner, name, descriptor);
+	}
+
+	int stringConstant(String value) {
+		String key = "S" + value;
+		Integer index = constants.get(key);
+		if (index == null) {
+			int utf8 = utf8Constant(value);
+			index = constant(key);
+			writeConstant(CONSTANT_STRING, utf8);
+		}
+		return index;
+	}
+
+	private int classConstant(String name) {
+		String key = "C" + name;
+		Integer index = constants.get(key);
+		if (index == null) {
+			int utf8 = utf8Constant(name);
+			index = constant(key);
+			writeConstant(CONSTANT_CLASS, utf8);
+		}
+		return index;
+	}
+
+	private int memberConstant(int tag, String owner, String name, String descriptor) {
+		String key = tag + owner + '.' + name + descriptor;
+		Integer index = constants.get(key);
+		if (index == null) {
+			int classIndex = classConstant(owner);
+			int nameAndType = nameAndTypeConstant(name, descriptor);
+			index = constant(key);
+			writeConstant(tag, classIndex, nameAndType);
+		}
+		return index;
+	}
+
+	private int nameAndTypeConstant(String name, String descriptor) {
+		String key = "T" + name + ' ' + descriptor;
+		Integer index = constants.get(key);
+		if (index == null) {
+			int nameIndex = utf8Constant(name);
+			int descriptorIndex = utf8Constant(descriptor);
+			index = constant(key);
+			writeConstant(CONSTANT_NAME_AND_TYPE, nameIndex, descriptorIndex);
+		}
+		return index;
+	}
+
+	private int utf8Constant(String value) {
+		String key = "U" + value;
+		Integer index = constants.get(key);
+		if (index == null) {
+			index = constant(key);
+			try {
+				poolOut.writeByte(CONSTANT_UTF8);
+				poolOut.writeUTF(value);
+			} catch (IOException e) {
+				throw new PicklockException(e);
+			}
+		}
+		return index;
+	}
+
+	private int constant(String key) {
+		int index = constantCount;
+		constants.put(key, index);
+		constantCount++;
+		return index;
+	}
+
+	private void writeConstant(int tag, int... indexes) {
+		try {
+			poolOut.writeByte(tag);
+			for (int index : indexes) {
+				poolOut.writeShort(index);
+			}
+		} catch (IOException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	byte[] toByteArray() {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeShort(0);
+			out.writeShort(VERSION_JAVA_7);
+			out.writeShort(constantCount);
+			out.write(pool.toByteArray());
+			out.writeShort(access);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(interfaces.size());
+			for (int index : interfaces) {
+				out.writeShort(index);
+			}
+			out.writeShort(fields.size());
+			for (byte[] field : fields) {
+				out.write(field);
+			}
+			out.writeShort(methods.size());
+			for (byte[] method : methods) {
+				out.write(method);
+			}
+			out.writeShort(0);
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	/**
+	 * The code of one method. Stack and local sizes are tracked by the caller, since the supported code is straight-line.
+	 */
+	final class Code {
+
+		private int access;
+		private String name;
+		private String descriptor;
+		private ByteArrayOutputStream bytes;
+
+		private Code(int access, String name, String descriptor) {
+			this.access = access;
+			this.name = name;
+			this.descriptor = descriptor;
+			this.bytes = new ByteArrayOutputStream();
+		}
+
+		Code op(int opcode) {
+			bytes.write(opcode);
+			return this;
+		}
+
+		Code op(int opcode, int index) {
+			bytes.write(opcode);
+			bytes.write(index >>> 8);
+			bytes.write(index);
+			return this;
+		}
+
+		Code load(Class<?> type, int local) {
+			if (local > 0xff) {
+				throw new PicklockException("too many local variables in " + name);
+			}
+			bytes.write(loadOpcode(type));
+			bytes.write(local);
+			return this;
+		}
+
+		Code push(int value) {
+			if (value <= 5) {
+				bytes.write(ICONST_0 + value);
+			} else if (value <= Byte.MAX_VALUE) {
+				bytes.write(BIPUSH);
+				bytes.write(value);
+			} else {
+				op(SIPUSH, value);
+			}
+			return this;
+		}
+
+		void end(int maxStack, int maxLocals) {
+			try {
+				byte[] code = bytes.toByteArray();
+				ByteArrayOutputStream method = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(method);
+				out.writeShort(access);
+				out.writeShort(utf8Constant(name));
+				out.writeShort(utf8Constant(descriptor));
+				out.writeShort(1);
+				out.writeShort(codeAttribute);
+				out.writeInt(12 + code.length);
+				out.writeShort(maxStack);
+				out.writeShort(maxLocals);
+				out.writeInt(code.length);
+				out.write(code);
+				out.writeShort(0);
+				out.writeShort(0);
+				methods.add(method.toByteArray());
+			} catch (IOException e) {
+				throw new PicklockException(e);
+			}
+		}
+	}
+
+}
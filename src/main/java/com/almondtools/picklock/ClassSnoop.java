@@ -28,10 +28,8 @@ public class ClassSnoop extends StaticInvocationResolver {
 	 */
 	public List<Method> onConflicts(Class<?> interfaceClazz) {
 		List<Method> conflicts = new LinkedList<Method>();
-		for (Method method : interfaceClazz.getDeclaredMethods()) {
-			try {
-				findInvocationHandler(method);
-			} catch (NoSuchMethodException e) {
+		for (Method method : MemberIndex.of(interfaceClazz).methods()) {
+			if (resolveInvocationHandler(method) == null) {
 				conflicts.add(method);
 			}
 		}
@@ -0,0 +1,77 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
+import static java.lang.invoke.MethodType.genericMethodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given constructor with a method handle. Beyond {@link ConstructorInvoker} access is checked only once (on construction) and
+ * exceptions are thrown directly (not wrapped into {@link InvocationTargetException}).
+ */
+public class ConstructorHandleInvoker implements StaticMethodInvocationHandler, MethodHandleBacked {
+
+	private Constructor<?> constructor;
+	private Conversion arguments;
+	private Conversion result;
+	private MethodHandle handle;
+	private MethodHandle invoker;
+
+	/**
+	 * Invokes the given constructor
+	 * @param constructor the constructor to invoke
+	 * @throws IllegalAccessException if the constructor could not be unreflected
+	 */
+	public ConstructorHandleInvoker(Constructor<?> constructor) throws IllegalAccessException {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
+		this.constructor = constructor;
+		constructor.setAccessible(true);
+		this.handle = MethodHandles.lookup().unreflectConstructor(constructor);
+		this.invoker = handle.asType(genericMethodType(handle.type().parameterCount()))
+			.asSpreader(Object[].class, constructor.getParameterTypes().length);
+	}
+
+	/**
+	 * Invokes the given constructor. Beyond {@link #ConstructorHandleInvoker(Constructor)} this constructor also converts the constructor signature
+	 * @param constructor the constructor to invoke
+	 * @param target the target signature (source arguments, target result)
+	 * @throws IllegalAccessException if the constructor could not be unreflected
+	 * @see Convert 
+	 */
+	public ConstructorHandleInvoker(Constructor<?> constructor, Method target) throws IllegalAccessException {
+		this(constructor);
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), constructor.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), constructor.getDeclaringClass());
+		}
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (arguments != Conversion.NONE || result != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object... args) throws Throwable {
+		return r((Object) invoker.invokeExact(a(args)));
+	}
+
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
+	}
+
+}
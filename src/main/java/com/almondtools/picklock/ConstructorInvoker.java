@@ -1,7 +1,7 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertArguments;
-import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -13,13 +13,16 @@ import java.lang.reflect.Method;
 public class ConstructorInvoker implements StaticMethodInvocationHandler {
 
 	private Constructor<?> constructor;
-	private Method target;
+	private Conversion arguments;
+	private Conversion result;
 
 	/**
 	 * Invokes the given constructor
 	 * @param constructor the constructor to invoke
 	 */
 	public ConstructorInvoker(Constructor<?> constructor) {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
 		this.constructor = constructor;
 		constructor.setAccessible(true);
 	}
@@ -31,7 +34,10 @@ public class ConstructorInvoker implements StaticMethodInvocationHandler {
 	 */
 	public ConstructorInvoker(Constructor<?> constructor, Method target) {
 		this(constructor);
-		this.target = target;
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), constructor.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), constructor.getDeclaringClass());
+		}
 	}
 
 	/**
@@ -55,18 +61,12 @@ public class ConstructorInvoker implements StaticMethodInvocationHandler {
 		}
 	}
 
-	private Object[] a(Object[] args) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-		if (target == null) {
-			return args;
-		}
-		return convertArguments(target.getParameterTypes(), constructor.getParameterTypes(), args);
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
 	}
 
-	private Object r(Object result) throws NoSuchMethodException {
-		if (target == null) {
-			return result;
-		}
-		return convertResult(target.getReturnType(), constructor.getDeclaringClass(), result);
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
 	}
 
 }
@@ -0,0 +1,73 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * An {@link InvocationHandler} resolving the target object of each call from a context (see
+ * {@link ObjectAccess#contextual(Class, Class, ThreadLocal)}). The handlers of the interface are resolved once, a call additionally costs just the
+ * lookup of the context.
+ */
+public class ContextInvocationHandler implements InvocationHandler {
+
+	static final MethodHandle TARGET = target();
+
+	private Class<?> type;
+	private DispatchTable<MethodInvocationHandler> handlers;
+	private ThreadLocal<?> context;
+
+	public ContextInvocationHandler(InvocationPlan plan, ThreadLocal<?> context) {
+		this.type = plan.getType();
+		this.handlers = plan.getDispatch();
+		this.context = context;
+	}
+
+	private static MethodHandle target() {
+		try {
+			return MethodHandles.lookup().findStatic(ContextInvocationHandler.class, "target", methodType(Object.class, ThreadLocal.class, Class.class));
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	/**
+	 * returns the object currently bound to the given context
+	 * 
+	 * @param context
+	 *            the context
+	 * @param type
+	 *            the type the object must be an instance of
+	 * @return the object of the context
+	 * @throws PicklockException
+	 *             if the context does not contain an object of the given type
+	 */
+	static Object target(ThreadLocal<?> context, Class<?> type) {
+		Object object = context.get();
+		if (!type.isInstance(object)) {
+			throw new PicklockException("cannot bind " + (object == null ? null : object.getClass()) + " to context proxy of " + type);
+		}
+		return object;
+	}
+
+	public ThreadLocal<?> getContext() {
+		return context;
+	}
+
+	/**
+	 * @return the object currently bound to the context (or null if there is none)
+	 */
+	public Object getObject() {
+		return context.get();
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		MethodInvocationHandler handler = handlers.get(method);
+		return handler.invoke(target(context, type), args);
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.almondtools.picklock;
+
+/**
+ * A conversion of a value from the signature of a feature interface to the signature of the unlocked member (or vice versa). Conversions are determined
+ * once when an invocation handler is created (see {@link Converter}), unconverted members use {@link #NONE}.
+ */
+public interface Conversion {
+
+	Conversion NONE = new Conversion() {
+
+		@Override
+		public Object convert(Object value) {
+			return value;
+		}
+	};
+
+	Object convert(Object value) throws ReflectiveOperationException;
+}
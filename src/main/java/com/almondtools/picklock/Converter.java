@@ -7,12 +7,12 @@ import static com.almondtools.picklock.SignatureUtil.isSetter;
 import static com.almondtools.picklock.SignatureUtil.propertyOf;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +58,19 @@ public class Converter {
 		return propertyPairs;
 	}
 
+	/**
+	 * @return the getter/setter pairs of all readable properties, the setter of read-only properties is null
+	 */
+	public List<Method[]> getReadablePropertyPairs() {
+		List<Method[]> propertyPairs = new ArrayList<Method[]>();
+		for (Method[] pair : properties.values()) {
+			if (pair[0] != null) {
+				propertyPairs.add(pair);
+			}
+		}
+		return propertyPairs;
+	}
+
 	public static String[] determineNeededConversions(Annotation[][] parameterAnnotations, Class<?>[] parameterTypes) {
 		String[] convert = new String[parameterAnnotations.length];
 		for (int i = 0; i < parameterAnnotations.length; i++) {
@@ -98,6 +111,89 @@ public class Converter {
 		}
 	}
 
+	/**
+	 * determines the conversion of the arguments of an invocation (an Object[]). The conversion of each argument is determined once (see
+	 * {@link #argumentConversion(Class, Class)}), the resulting conversion only applies the conversions of the arguments that need conversion.
+	 * 
+	 * @param targetTypes
+	 *            the parameter types of the interface method
+	 * @param methodTypes
+	 *            the parameter types of the invoked member
+	 * @return the conversion for the arguments, {@link Conversion#NONE} if no argument needs conversion
+	 */
+	public static Conversion argumentsConversion(Class<?>[] targetTypes, Class<?>[] methodTypes) {
+		if (Arrays.equals(targetTypes, methodTypes)) {
+			return Conversion.NONE;
+		}
+		Conversion[] slots = new Conversion[targetTypes.length];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = argumentConversion(targetTypes[i], methodTypes[i]);
+		}
+		return new ArgumentsConversion(slots);
+	}
+
+	/**
+	 * determines the conversion of a single argument:
+	 * 
+	 * <ul>
+	 * <li>arguments of equal types are not converted ({@link Conversion#NONE})</li>
+	 * <li>otherwise proxies of unlocked objects are unwrapped to the unlocked object</li>
+	 * <li>and other objects are converted by constructing an object of the member type and copying the properties (see {@link #convert(Object, Class, Class)})</li>
+	 * </ul>
+	 * 
+	 * @param targetType
+	 *            the parameter type of the interface method
+	 * @param methodType
+	 *            the parameter type of the member (e.g. the field type)
+	 * @return the conversion for the argument, {@link Conversion#NONE} if it needs no conversion
+	 */
+	public static Conversion argumentConversion(Class<?> targetType, Class<?> methodType) {
+		if (targetType.equals(methodType)) {
+			return Conversion.NONE;
+		}
+		return new UnwrapOrCopyConversion(targetType, methodType);
+	}
+
+	/**
+	 * determines the conversion of the result of an invocation:
+	 * 
+	 * <ul>
+	 * <li>results assignable to the target type are not converted ({@link Conversion#NONE})</li>
+	 * <li>otherwise results are wrapped with a template (see {@link ObjectAccess#template(Class, Class)}) which is cached for the last class of results</li>
+	 * </ul>
+	 * 
+	 * @param targetType
+	 *            the result type of the interface method
+	 * @param methodType
+	 *            the result type of the member
+	 * @return the conversion for the result, {@link Conversion#NONE} if it needs no conversion
+	 */
+	public static Conversion resultConversion(Class<?> targetType, Class<?> methodType) {
+		if (targetType.isAssignableFrom(methodType)) {
+			return Conversion.NONE;
+		}
+		return new WrapConversion<Object>(targetType);
+	}
+
+	/**
+	 * @param object
+	 *            the object to unwrap
+	 * @return the unlocked object if the given object is a proxy created by {@link ObjectAccess} or {@link Unlocker}, null otherwise
+	 */
+	public static Object unwrap(Object object) {
+		if (object instanceof Proxy) {
+			InvocationHandler invocationHandler = Proxy.getInvocationHandler((Proxy) object);
+			if (invocationHandler instanceof ObjectAccess) {
+				return ((ObjectAccess) invocationHandler).getObject();
+			} else if (invocationHandler instanceof ProxyUnlocker.BoundInvocationHandler) {
+				return ((ProxyUnlocker.BoundInvocationHandler) invocationHandler).getObject();
+			} else if (invocationHandler instanceof ContextInvocationHandler) {
+				return ((ContextInvocationHandler) invocationHandler).getObject();
+			}
+		}
+		return null;
+	}
+
 	public static boolean isConverted(Method method) {
 		if (method.getAnnotation(Convert.class) != null) {
 			return true;
@@ -116,41 +212,112 @@ public class Converter {
 
 	public static Object convert(Object object, Class<?> clazz, Class<?> accessibleClass) throws InstantiationException, IllegalAccessException, NoSuchMethodException, IllegalArgumentException,
 		InvocationTargetException, SecurityException {
-		if (object instanceof Proxy) {
-			InvocationHandler invocationHandler = Proxy.getInvocationHandler((Proxy) object);
-			if (invocationHandler instanceof ObjectAccess) {
-				return ((ObjectAccess) invocationHandler).getObject();
-			}
-		}
-		Object converted = createBaseObject(clazz, accessibleClass);
-		Object accessible = ObjectAccess.unlock(converted).features(accessibleClass);
-		for (Method[] getSetPair : findProperties(accessibleClass)) {
-			Method get = getSetPair[0];
-			get.setAccessible(true);
-			Method set = getSetPair[1];
-			set.setAccessible(true);
-			Object value = get.invoke(object);
-			set.invoke(accessible, value);
+		return convert(object, clazz, accessibleClass, InstantiationStrategy.DEFAULT);
+	}
+
+	/**
+	 * converts the object to an instance of clazz (unless it is an unlocked instance of clazz), copying all properties of accessibleClass. The
+	 * instance is created with the given strategy.
+	 */
+	public static Object convert(Object object, Class<?> clazz, Class<?> accessibleClass, InstantiationStrategy strategy) throws InstantiationException, IllegalAccessException,
+		NoSuchMethodException, IllegalArgumentException, InvocationTargetException, SecurityException {
+		Object unwrapped = unwrap(object);
+		if (unwrapped != null) {
+			return unwrapped;
 		}
-		return converted;
+		return CopyPlan.of(clazz, accessibleClass, strategy).copy(object);
 	}
 
-	private static Object createBaseObject(Class<?> clazz, Class<?> accessibleClass) throws NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
-		Constructor<?> constructor = clazz.getDeclaredConstructor();
-		constructor.setAccessible(true);
-		return constructor.newInstance();
+	static List<Method[]> findProperties(Class<?> accessibleClass) {
+		return propertiesOf(accessibleClass).getReadWritablePropertyPairs();
 	}
 
-	private static List<Method[]> findProperties(Class<?> accessibleClass) {
+	static List<Method[]> findReadableProperties(Class<?> accessibleClass) {
+		return propertiesOf(accessibleClass).getReadablePropertyPairs();
+	}
+
+	private static Converter propertiesOf(Class<?> accessibleClass) {
 		Converter converter = new Converter();
-		for (Method method : accessibleClass.getDeclaredMethods()) {
+		for (Method method : MemberIndex.of(accessibleClass).methods()) {
 			if (isSetter(method)) {
 				converter.addSetter(method);
 			} else if (isGetter(method) || isBooleanGetter(method)) {
 				converter.addGetter(method);
 			}
 		}
-		return converter.getReadWritablePropertyPairs();
+		return converter;
+	}
+
+	private static class ArgumentsConversion implements Conversion {
+
+		private Conversion[] slots;
+
+		ArgumentsConversion(Conversion[] slots) {
+			this.slots = slots;
+		}
+
+		@Override
+		public Object convert(Object value) throws ReflectiveOperationException {
+			Object[] args = (Object[]) value;
+			if (args == null) {
+				args = new Object[0];
+			}
+			Object[] converted = new Object[args.length];
+			for (int i = 0; i < args.length; i++) {
+				converted[i] = slots[i].convert(args[i]);
+			}
+			return converted;
+		}
+
+	}
+
+	private static class UnwrapOrCopyConversion implements Conversion {
+
+		private Class<?> targetType;
+		private Class<?> methodType;
+
+		UnwrapOrCopyConversion(Class<?> targetType, Class<?> methodType) {
+			this.targetType = targetType;
+			this.methodType = methodType;
+		}
+
+		@Override
+		public Object convert(Object value) throws ReflectiveOperationException {
+			if (value == null) {
+				return null;
+			}
+			Object unwrapped = unwrap(value);
+			if (unwrapped != null) {
+				return unwrapped;
+			}
+			return Converter.convert(value, methodType, targetType);
+		}
+
+	}
+
+	private static class WrapConversion<T> implements Conversion {
+
+		private Class<T> targetType;
+		private volatile Unlocker<T> template;
+
+		@SuppressWarnings("unchecked")
+		WrapConversion(Class<?> targetType) {
+			this.targetType = (Class<T>) targetType;
+		}
+
+		@Override
+		public Object convert(Object value) {
+			if (value == null) {
+				return null;
+			}
+			Unlocker<T> template = this.template;
+			if (template == null || template.getType() != value.getClass()) {
+				template = ObjectAccess.template(value.getClass(), targetType);
+				this.template = template;
+			}
+			return template.bind(value);
+		}
+
 	}
 
-}
\ No newline at end of file
+}
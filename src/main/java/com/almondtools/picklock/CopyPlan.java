@@ -0,0 +1,157 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compiled copy operation of {@link Converter#convert(Object, Class, Class)}: the instantiation of the converted class (its default constructor, or
+ * an allocation without constructor if there is none, see {@link InstantiationStrategy}) and one copy operation for each
+ * property (getter/setter pair) of the accessible interface. Each copy operation is a single method handle reading the property of the source object
+ * and writing it into the converted object (through the handler the setter is resolved to, typically a field setter).
+ * 
+ * <p>
+ * Plans are cached per converted class and accessible interface (see {@link ClassCache}). Plans with other strategies than
+ * {@link InstantiationStrategy#DEFAULT} share the copy operations of the cached plan.
+ */
+final class CopyPlan {
+
+	private static final ClassCache<List<Class<?>>, CopyPlan> PLANS = new ClassCache<List<Class<?>>, CopyPlan>();
+	private static final MethodHandle NEW_INSTANCE = newInstance();
+
+	private MethodHandle constructor;
+	private MethodHandle[] copiers;
+
+	private CopyPlan(MethodHandle constructor, MethodHandle[] copiers) {
+		this.constructor = constructor;
+		this.copiers = copiers;
+	}
+
+	/**
+	 * returns the cached plan for the given classes, or compiles (and caches) it if there is none.
+	 * 
+	 * @param clazz
+	 *            the class of the converted objects
+	 * @param accessibleClass
+	 *            the interface providing the properties to copy
+	 * @return the plan
+	 * @throws NoSuchMethodException
+	 *             if clazz has no default constructor and cannot be allocated without constructor
+	 * @throws PicklockException
+	 *             if a method of the accessible interface cannot be mapped to clazz
+	 * @throws IllegalAccessException
+	 *             if the constructor cannot be accessed
+	 */
+	static CopyPlan of(Class<?> clazz, Class<?> accessibleClass) throws NoSuchMethodException, IllegalAccessException {
+		List<Class<?>> key = Arrays.<Class<?>> asList(clazz, accessibleClass);
+		CopyPlan plan = PLANS.get(key, clazz, accessibleClass);
+		if (plan == null) {
+			plan = compile(clazz, accessibleClass);
+			plan = PLANS.putIfAbsent(key, plan, clazz, accessibleClass);
+		}
+		return plan;
+	}
+
+	/**
+	 * returns a plan for the given classes creating the converted objects with the given strategy. The copy operations are taken from the cached plan
+	 * (see {@link #of(Class, Class)}), but the plan itself is not cached (unless the strategy is {@link InstantiationStrategy#DEFAULT}).
+	 * 
+	 * @param clazz
+	 *            the class of the converted objects
+	 * @param accessibleClass
+	 *            the interface providing the properties to copy
+	 * @param strategy
+	 *            the strategy creating the converted objects
+	 * @return the plan
+	 * @throws NoSuchMethodException
+	 *             if the strategy cannot instantiate clazz
+	 * @throws PicklockException
+	 *             if a method of the accessible interface cannot be mapped to clazz
+	 * @throws IllegalAccessException
+	 *             if the constructor cannot be accessed
+	 */
+	static CopyPlan of(Class<?> clazz, Class<?> accessibleClass, InstantiationStrategy strategy) throws NoSuchMethodException, IllegalAccessException {
+		if (strategy == InstantiationStrategy.DEFAULT) {
+			return of(clazz, accessibleClass);
+		}
+		if (!strategy.canInstantiate(clazz)) {
+			throw new NoSuchMethodException(clazz.getName() + ".<init>()");
+		}
+		List<Class<?>> key = Arrays.<Class<?>> asList(clazz, accessibleClass);
+		CopyPlan plan = PLANS.get(key, clazz, accessibleClass);
+		MethodHandle[] copiers = plan != null ? plan.copiers : compileCopiers(clazz, accessibleClass);
+		MethodHandle constructor = MethodHandles.insertArguments(NEW_INSTANCE, 0, strategy, clazz);
+		return new CopyPlan(constructor, copiers);
+	}
+
+	private static MethodHandle newInstance() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(InstantiationStrategy.class, "newInstance", methodType(Object.class, Class.class));
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	private static CopyPlan compile(Class<?> clazz, Class<?> accessibleClass) throws NoSuchMethodException, IllegalAccessException {
+		MethodHandle constructorHandle = Instantiator.of(clazz).handle();
+		if (constructorHandle == null) {
+			throw new NoSuchMethodException(clazz.getName() + ".<init>()");
+		}
+		return new CopyPlan(constructorHandle, compileCopiers(clazz, accessibleClass));
+	}
+
+	private static MethodHandle[] compileCopiers(Class<?> clazz, Class<?> accessibleClass) throws IllegalAccessException {
+		DispatchTable<MethodInvocationHandler> handlers = handlersOf(clazz, accessibleClass);
+		List<MethodHandle> copiers = new ArrayList<MethodHandle>();
+		for (Method[] getSetPair : Converter.findProperties(accessibleClass)) {
+			Method get = getSetPair[0];
+			get.setAccessible(true);
+			Method set = getSetPair[1];
+			Class<?> propertyType = get.getReturnType();
+			MethodHandle getter = MethodHandles.lookup().unreflect(get).asType(methodType(propertyType, Object.class));
+			MethodHandle setter = Handles.handleOf(handlers.get(set), methodType(void.class, Object.class, propertyType));
+			copiers.add(MethodHandles.filterArguments(setter, 1, getter));
+		}
+		return copiers.toArray(new MethodHandle[0]);
+	}
+
+	private static DispatchTable<MethodInvocationHandler> handlersOf(Class<?> clazz, Class<?> accessibleClass) {
+		try {
+			return InvocationPlanCache.objectPlan(new InvocationResolver(clazz, InvokerFactory.METHOD_HANDLES), accessibleClass).getDispatch();
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + clazz);
+		}
+	}
+
+	/**
+	 * creates a new object of the converted class and copies all properties of object into it
+	 * 
+	 * @param object
+	 *            the object to copy
+	 * @return the converted object
+	 * @throws InvocationTargetException
+	 *             if the constructor, a getter or a setter failed
+	 * @throws PicklockException
+	 *             if picklock failed to instantiate the converted class or to access a property (not wrapped)
+	 */
+	Object copy(Object object) throws InvocationTargetException {
+		try {
+			Object converted = (Object) constructor.invokeExact();
+			for (MethodHandle copier : copiers) {
+				copier.invokeExact(converted, object);
+			}
+			return converted;
+		} catch (PicklockException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+	}
+
+}
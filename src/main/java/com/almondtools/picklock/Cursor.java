@@ -0,0 +1,50 @@
+package com.almondtools.picklock;
+
+/**
+ * A Cursor is a single view of a feature interface that may be retargeted to other objects of one class. The interface is resolved once when the cursor
+ * is created (see {@link ObjectAccess#cursor(Class, Class)}), retargeting the cursor neither resolves any members nor allocates a new proxy, e.g.
+ * 
+ * <p>
+ * <code>Cursor&lt;InterfaceOfTheDecorator&gt; cursor = ObjectAccess.cursor(ClassToUnlock.class, InterfaceOfTheDecorator.class);</code><br/>
+ * <code>for (Object object : objects) {</code><br/>
+ * <code>&nbsp;&nbsp;InterfaceOfTheDecorator unlocked = cursor.bind(object);</code><br/>
+ * <code>&nbsp;&nbsp;...</code><br/>
+ * <code>}</code>
+ * 
+ * <p>
+ * Cursors are not thread-safe. The view must not be kept beyond the next call to {@link #bind(Object)}, use an {@link Unlocker} if the views should be
+ * retained.
+ * 
+ * @param <T>
+ *            the feature interface
+ * @author Stefan Mandel
+ */
+public interface Cursor<T> {
+
+	/**
+	 * @return the class the cursor was resolved against
+	 */
+	Class<?> getType();
+
+	/**
+	 * @return the feature interface of the cursor
+	 */
+	Class<T> getInterfaceClass();
+
+	/**
+	 * retargets the view of this cursor to the given object
+	 * 
+	 * @param object
+	 *            the object to unlock (an instance of {@link #getType()})
+	 * @return the view of this cursor (the same instance for each call, now mapped to the members of the given object)
+	 * @throws PicklockException
+	 *             if the object is not an instance of {@link #getType()}
+	 */
+	T bind(Object object);
+
+	/**
+	 * @return the view of this cursor (mapped to the members of the object bound last)
+	 */
+	T get();
+
+}
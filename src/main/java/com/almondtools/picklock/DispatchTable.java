@@ -0,0 +1,217 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A DispatchTable maps the methods of feature interfaces to their handlers. Each method gets an ordinal (assigned once at resolution time), the handlers
+ * are stored in a dense array indexed by this ordinal.
+ * 
+ * <p>
+ * Methods are looked up by identity (the method instances passed by a proxy class are the same on each call). The first lookup of a method instance that is
+ * equal but not identical to a resolved method (e.g. the copy held by a {@link java.lang.reflect.Proxy} class) falls back to {@link Method#equals(Object)}
+ * and registers this instance as alias of the resolved ordinal, so later lookups are again identity lookups.
+ * 
+ * <p>
+ * DispatchTables are immutable with respect to their handlers. The alias index is replaced as a whole and published through a volatile field, so a
+ * table may be shared by multiple threads without locking.
+ * 
+ * @param <H>
+ *            the type of the handlers ({@link MethodInvocationHandler} or {@link StaticMethodInvocationHandler})
+ */
+public final class DispatchTable<H> {
+
+	private static final int MIN_CAPACITY = 8;
+
+	private final Method[] methods;
+	private final Object[] handlers;
+	private volatile Index index;
+
+	public DispatchTable(Map<Method, ? extends H> handlers) {
+		int size = handlers.size();
+		this.methods = new Method[size];
+		this.handlers = new Object[size];
+		int ordinal = 0;
+		for (Map.Entry<Method, ? extends H> entry : handlers.entrySet()) {
+			this.methods[ordinal] = entry.getKey();
+			this.handlers[ordinal] = entry.getValue();
+			ordinal++;
+		}
+		this.index = Index.of(methods);
+	}
+
+	private DispatchTable(Method[] methods, Object[] handlers) {
+		this.methods = methods;
+		this.handlers = handlers;
+		this.index = Index.of(methods);
+	}
+
+	/**
+	 * @return the number of resolved methods (the upper bound of the ordinals)
+	 */
+	public int size() {
+		return methods.length;
+	}
+
+	/**
+	 * @param ordinal
+	 *            the ordinal of a method
+	 * @return the method with the given ordinal
+	 */
+	public Method method(int ordinal) {
+		return methods[ordinal];
+	}
+
+	/**
+	 * @param ordinal
+	 *            the ordinal of a method
+	 * @return the handler of the method with the given ordinal
+	 */
+	@SuppressWarnings("unchecked")
+	public H handler(int ordinal) {
+		return (H) handlers[ordinal];
+	}
+
+	/**
+	 * @param method
+	 *            the method to look up
+	 * @return the ordinal of the given method, or -1 if the method was not resolved
+	 */
+	public int ordinal(Method method) {
+		Index index = this.index;
+		Method[] keys = index.keys;
+		int mask = keys.length - 1;
+		int slot = System.identityHashCode(method) & mask;
+		while (true) {
+			Method key = keys[slot];
+			if (key == method) {
+				return index.ordinals[slot];
+			} else if (key == null) {
+				return alias(method);
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * @param method
+	 *            the method to look up
+	 * @return the handler of the given method, or null if the method was not resolved
+	 */
+	@SuppressWarnings("unchecked")
+	public H get(Method method) {
+		int ordinal = ordinal(method);
+		if (ordinal < 0) {
+			return null;
+		}
+		return (H) handlers[ordinal];
+	}
+
+	/**
+	 * merges this table with another one. Methods resolved by this table take precedence over the methods of other.
+	 * 
+	 * @param other
+	 *            the table to merge with
+	 * @return a new table containing the methods of both tables (or this table if other contains no further methods)
+	 */
+	public DispatchTable<H> merge(DispatchTable<H> other) {
+		Method[] mergedMethods = Arrays.copyOf(methods, methods.length + other.methods.length);
+		Object[] mergedHandlers = Arrays.copyOf(handlers, handlers.length + other.handlers.length);
+		int size = methods.length;
+		for (int i = 0; i < other.methods.length; i++) {
+			if (indexOf(other.methods[i]) < 0) {
+				mergedMethods[size] = other.methods[i];
+				mergedHandlers[size] = other.handlers[i];
+				size++;
+			}
+		}
+		if (size == methods.length) {
+			return this;
+		}
+		return new DispatchTable<H>(Arrays.copyOf(mergedMethods, size), Arrays.copyOf(mergedHandlers, size));
+	}
+
+	/**
+	 * @return an unmodifiable map of the resolved methods to their handlers (in order of their ordinals)
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<Method, H> toMap() {
+		Map<Method, H> map = new LinkedHashMap<Method, H>();
+		for (int i = 0; i < methods.length; i++) {
+			map.put(methods[i], (H) handlers[i]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	private int indexOf(Method method) {
+		for (int i = 0; i < methods.length; i++) {
+			if (methods[i].equals(method)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int alias(Method method) {
+		int ordinal = indexOf(method);
+		if (ordinal >= 0) {
+			index = index.with(method, ordinal);
+		}
+		return ordinal;
+	}
+
+	private static class Index {
+
+		private final Method[] keys;
+		private final int[] ordinals;
+		private final int size;
+
+		Index(int capacity, int size) {
+			this.keys = new Method[capacity];
+			this.ordinals = new int[capacity];
+			this.size = size;
+		}
+
+		static Index of(Method[] methods) {
+			Index index = new Index(capacity(methods.length), methods.length);
+			for (int i = 0; i < methods.length; i++) {
+				index.put(methods[i], i);
+			}
+			return index;
+		}
+
+		Index with(Method method, int ordinal) {
+			Index index = new Index(capacity(size + 1), size + 1);
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] != null) {
+					index.put(keys[i], ordinals[i]);
+				}
+			}
+			index.put(method, ordinal);
+			return index;
+		}
+
+		private void put(Method method, int ordinal) {
+			int mask = keys.length - 1;
+			int slot = System.identityHashCode(method) & mask;
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = method;
+			ordinals[slot] = ordinal;
+		}
+
+		private static int capacity(int size) {
+			int capacity = MIN_CAPACITY;
+			while (capacity < size * 2) {
+				capacity <<= 1;
+			}
+			return capacity;
+		}
+
+	}
+
+}
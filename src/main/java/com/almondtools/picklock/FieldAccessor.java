@@ -0,0 +1,68 @@
+package com.almondtools.picklock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single (private) field of objects of a given class (see {@link Picklock#field(Class, String, Class)}). Other than feature interfaces
+ * the field is accessed without proxy, dispatch or argument arrays.
+ * 
+ * @param <T>
+ *            the class declaring (or inheriting) the field
+ * @param <V>
+ *            the type of the field
+ * @author Stefan Mandel
+ */
+public final class FieldAccessor<T, V> {
+
+	private final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+		this.field = field;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @param object
+	 *            the object to read the field from
+	 * @return the value of the field
+	 * @throws PicklockException
+	 *             if the field could not be read
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(T object) {
+		try {
+			return (V) (Object) getter.invokeExact((Object) object);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot get " + field, e);
+		}
+	}
+
+	/**
+	 * @param object
+	 *            the object to write the field of
+	 * @param value
+	 *            the new value of the field
+	 * @throws PicklockException
+	 *             if the field could not be written
+	 */
+	public void set(T object, V value) {
+		try {
+			setter.invokeExact((Object) object, (Object) value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot set " + field, e);
+		}
+	}
+
+}
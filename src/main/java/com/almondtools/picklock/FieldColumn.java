@@ -0,0 +1,503 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads a single (private) primitive field of many objects of a given class into a primitive array (a column), or reduces it to a sum, minimum,
+ * maximum or count (see {@link Picklock#column(Class, String)}), e.g.
+ *
+ * <p>
+ * <code>FieldColumn&lt;Safe&gt; locked = Picklock.column(Safe.class, "locked");</code><br/>
+ * <code>int lockedSafes = locked.count(safes);</code>
+ *
+ * <p>
+ * The field is resolved once, values are read with method handles (of the widened primitive type), such that no value is boxed. A parallel column (see
+ * {@link #parallel()}) splits large inputs into chunks processed in a {@link ForkJoinPool} (the common pool on Java 8, a pool owned by picklock on
+ * Java 7). Columns are immutable and may be shared between threads. Arrays of objects may be passed with {@link java.util.Arrays#asList(Object...)}.
+ *
+ * @param <T>
+ *            the class declaring (or inheriting) the field
+ * @author Stefan Mandel
+ */
+public final class FieldColumn<T> {
+
+	private static final int THRESHOLD = 1 << 12;
+
+	private final Field field;
+	private final MethodHandle intGetter;
+	private final MethodHandle longGetter;
+	private final MethodHandle doubleGetter;
+	private final MethodHandle booleanGetter;
+	private final boolean parallel;
+
+	FieldColumn(Field field, MethodHandle getter) {
+		Class<?> type = BoxingUtil.getUnboxed(field.getType());
+		if (!type.isPrimitive()) {
+			throw new PicklockException("cannot read " + field + " as column, expected primitive type but was " + field.getType());
+		}
+		this.field = field;
+		this.intGetter = getter(getter, type, int.class);
+		this.longGetter = getter(getter, type, long.class);
+		this.doubleGetter = getter(getter, type, double.class);
+		this.booleanGetter = getter(getter, type, boolean.class);
+		this.parallel = false;
+	}
+
+	private FieldColumn(FieldColumn<T> column, boolean parallel) {
+		this.field = column.field;
+		this.intGetter = column.intGetter;
+		this.longGetter = column.longGetter;
+		this.doubleGetter = column.doubleGetter;
+		this.booleanGetter = column.booleanGetter;
+		this.parallel = parallel;
+	}
+
+	private static MethodHandle getter(MethodHandle getter, Class<?> type, Class<?> target) {
+		try {
+			MethodHandles.identity(type).asType(methodType(target, type));
+			return getter.asType(methodType(target, Object.class));
+		} catch (WrongMethodTypeException e) {
+			return null;
+		}
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @return a column processing large inputs in parallel
+	 */
+	public FieldColumn<T> parallel() {
+		return parallel ? this : new FieldColumn<T>(this, true);
+	}
+
+	/**
+	 * @return a column processing all inputs in the calling thread
+	 */
+	public FieldColumn<T> sequential() {
+		return parallel ? new FieldColumn<T>(this, false) : this;
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the values of the field (in the order of the objects)
+	 * @throws PicklockException
+	 *             if the field cannot be widened to int
+	 */
+	public int[] ints(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		int[] column = new int[elements.length];
+		run(new Extract(valid(intGetter, int.class), elements, column, 0, elements.length));
+		return column;
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the values of the field (in the order of the objects)
+	 * @throws PicklockException
+	 *             if the field cannot be widened to long
+	 */
+	public long[] longs(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		long[] column = new long[elements.length];
+		run(new Extract(valid(longGetter, long.class), elements, column, 0, elements.length));
+		return column;
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the values of the field (in the order of the objects)
+	 * @throws PicklockException
+	 *             if the field cannot be widened to double
+	 */
+	public double[] doubles(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		double[] column = new double[elements.length];
+		run(new Extract(valid(doubleGetter, double.class), elements, column, 0, elements.length));
+		return column;
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the values of the field (in the order of the objects)
+	 * @throws PicklockException
+	 *             if the field is not boolean
+	 */
+	public boolean[] booleans(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		boolean[] column = new boolean[elements.length];
+		run(new Extract(valid(booleanGetter, boolean.class), elements, column, 0, elements.length));
+		return column;
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the exact sum of the values of the field (0 for no objects)
+	 * @throws PicklockException
+	 *             if the field cannot be widened to long
+	 * @throws ArithmeticException
+	 *             if the sum does not fit into long
+	 */
+	public long sumLong(List<? extends T> objects) {
+		long[] reduction = reduceLong(objects);
+		if (reduction[3] != reduction[0] >> 63) {
+			throw new ArithmeticException("sum of " + field + " overflows long");
+		}
+		return reduction[0];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the minimum of the values of the field
+	 * @throws PicklockException
+	 *             if the field cannot be widened to long
+	 * @throws NoSuchElementException
+	 *             if there are no objects
+	 */
+	public long minLong(List<? extends T> objects) {
+		return nonEmpty(objects, reduceLong(objects))[1];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the maximum of the values of the field
+	 * @throws PicklockException
+	 *             if the field cannot be widened to long
+	 * @throws NoSuchElementException
+	 *             if there are no objects
+	 */
+	public long maxLong(List<? extends T> objects) {
+		return nonEmpty(objects, reduceLong(objects))[2];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the sum of the values of the field (0 for no objects)
+	 * @throws PicklockException
+	 *             if the field cannot be widened to double
+	 */
+	public double sum(List<? extends T> objects) {
+		return reduceDouble(objects)[0];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the minimum of the values of the field
+	 * @throws PicklockException
+	 *             if the field cannot be widened to double
+	 * @throws NoSuchElementException
+	 *             if there are no objects
+	 */
+	public double min(List<? extends T> objects) {
+		return nonEmpty(objects, reduceDouble(objects))[1];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the maximum of the values of the field
+	 * @throws PicklockException
+	 *             if the field cannot be widened to double
+	 * @throws NoSuchElementException
+	 *             if there are no objects
+	 */
+	public double max(List<? extends T> objects) {
+		return nonEmpty(objects, reduceDouble(objects))[2];
+	}
+
+	/**
+	 * @param objects
+	 *            the objects to read the field from
+	 * @return the number of objects with a field value of true
+	 * @throws PicklockException
+	 *             if the field is not boolean
+	 */
+	public int count(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		return run(new Count(valid(booleanGetter, boolean.class), elements, 0, elements.length));
+	}
+
+	private long[] reduceLong(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		return run(new LongReduction(valid(longGetter, long.class), elements, 0, elements.length));
+	}
+
+	private double[] reduceDouble(List<? extends T> objects) {
+		Object[] elements = objects.toArray();
+		return run(new DoubleReduction(valid(doubleGetter, double.class), elements, 0, elements.length));
+	}
+
+	private static <R> R nonEmpty(List<?> objects, R result) {
+		if (objects.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return result;
+	}
+
+	private MethodHandle valid(MethodHandle getter, Class<?> type) {
+		if (getter == null) {
+			throw new PicklockException("cannot read " + field + " as " + type.getName());
+		}
+		return getter;
+	}
+
+	private <R> R run(Chunk<R> chunk) {
+		if (parallel && chunk.size() > THRESHOLD) {
+			return Pool.INSTANCE.invoke(chunk);
+		} else {
+			return chunk.sequential();
+		}
+	}
+
+	/**
+	 * holds the pool of parallel columns, created on first use. The common pool is a Java 8 API and looked up reflectively.
+	 */
+	private static final class Pool {
+
+		static final ForkJoinPool INSTANCE = pool();
+
+		private static ForkJoinPool pool() {
+			try {
+				return (ForkJoinPool) ForkJoinPool.class.getMethod("commonPool").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				return new ForkJoinPool();
+			}
+		}
+
+	}
+
+	private abstract static class Chunk<R> extends RecursiveTask<R> {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final MethodHandle getter;
+		protected final Object[] elements;
+		protected final int from;
+		protected final int to;
+
+		Chunk(MethodHandle getter, Object[] elements, int from, int to) {
+			this.getter = getter;
+			this.elements = elements;
+			this.from = from;
+			this.to = to;
+		}
+
+		int size() {
+			return to - from;
+		}
+
+		R sequential() {
+			try {
+				return leaf();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new PicklockException(e);
+			}
+		}
+
+		@Override
+		protected R compute() {
+			if (size() <= THRESHOLD) {
+				return sequential();
+			}
+			int middle = (from + to) >>> 1;
+			Chunk<R> left = split(from, middle);
+			Chunk<R> right = split(middle, to);
+			left.fork();
+			R rightResult = right.compute();
+			return combine(left.join(), rightResult);
+		}
+
+		protected abstract R leaf() throws Throwable;
+
+		protected abstract Chunk<R> split(int from, int to);
+
+		protected abstract R combine(R left, R right);
+
+	}
+
+	private static class Extract extends Chunk<Void> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object column;
+
+		Extract(MethodHandle getter, Object[] elements, Object column, int from, int to) {
+			super(getter, elements, from, to);
+			this.column = column;
+		}
+
+		@Override
+		protected Void leaf() throws Throwable {
+			if (column instanceof int[]) {
+				int[] values = (int[]) column;
+				for (int i = from; i < to; i++) {
+					values[i] = (int) getter.invokeExact(elements[i]);
+				}
+			} else if (column instanceof long[]) {
+				long[] values = (long[]) column;
+				for (int i = from; i < to; i++) {
+					values[i] = (long) getter.invokeExact(elements[i]);
+				}
+			} else if (column instanceof double[]) {
+				double[] values = (double[]) column;
+				for (int i = from; i < to; i++) {
+					values[i] = (double) getter.invokeExact(elements[i]);
+				}
+			} else {
+				boolean[] values = (boolean[]) column;
+				for (int i = from; i < to; i++) {
+					values[i] = (boolean) getter.invokeExact(elements[i]);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected Chunk<Void> split(int from, int to) {
+			return new Extract(getter, elements, column, from, to);
+		}
+
+		@Override
+		protected Void combine(Void left, Void right) {
+			return null;
+		}
+
+	}
+
+	private static class LongReduction extends Chunk<long[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		LongReduction(MethodHandle getter, Object[] elements, int from, int to) {
+			super(getter, elements, from, to);
+		}
+
+		@Override
+		protected long[] leaf() throws Throwable {
+			long sum = 0;
+			long high = 0;
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			for (int i = from; i < to; i++) {
+				long value = (long) getter.invokeExact(elements[i]);
+				long low = sum + value;
+				high += (value >> 63) + carry(sum, low);
+				sum = low;
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			return new long[] { sum, min, max, high };
+		}
+
+		@Override
+		protected Chunk<long[]> split(int from, int to) {
+			return new LongReduction(getter, elements, from, to);
+		}
+
+		@Override
+		protected long[] combine(long[] left, long[] right) {
+			long sum = left[0] + right[0];
+			long high = left[3] + right[3] + carry(left[0], sum);
+			return new long[] { sum, Math.min(left[1], right[1]), Math.max(left[2], right[2]), high };
+		}
+
+		/**
+		 * @return 1 if the unsigned addition yielding sum from summand carried out of the low 64 bits, otherwise 0
+		 */
+		private static long carry(long summand, long sum) {
+			return (sum ^ Long.MIN_VALUE) < (summand ^ Long.MIN_VALUE) ? 1 : 0;
+		}
+
+	}
+
+	private static class DoubleReduction extends Chunk<double[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		DoubleReduction(MethodHandle getter, Object[] elements, int from, int to) {
+			super(getter, elements, from, to);
+		}
+
+		@Override
+		protected double[] leaf() throws Throwable {
+			double sum = 0;
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = from; i < to; i++) {
+				double value = (double) getter.invokeExact(elements[i]);
+				sum += value;
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			return new double[] { sum, min, max };
+		}
+
+		@Override
+		protected Chunk<double[]> split(int from, int to) {
+			return new DoubleReduction(getter, elements, from, to);
+		}
+
+		@Override
+		protected double[] combine(double[] left, double[] right) {
+			return new double[] { left[0] + right[0], Math.min(left[1], right[1]), Math.max(left[2], right[2]) };
+		}
+
+	}
+
+	private static class Count extends Chunk<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		Count(MethodHandle getter, Object[] elements, int from, int to) {
+			super(getter, elements, from, to);
+		}
+
+		@Override
+		protected Integer leaf() throws Throwable {
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				if ((boolean) getter.invokeExact(elements[i])) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		protected Chunk<Integer> split(int from, int to) {
+			return new Count(getter, elements, from, to);
+		}
+
+		@Override
+		protected Integer combine(Integer left, Integer right) {
+			return left + right;
+		}
+
+	}
+
+}
@@ -1,22 +1,23 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.resultConversion;
 
 import java.lang.reflect.Field;
 
 /**
- * Wraps a field with read (getter) access.
+ * Wraps a field with read (getter) access. Primitive fields may also be read without boxing (see {@link PrimitiveGetter}).
  */
-public class FieldGetter implements MethodInvocationHandler {
+public class FieldGetter implements MethodInvocationHandler, PrimitiveGetter {
 
 	private Field field;
-	private Class<?> target;
+	private Conversion result;
 
 	/**
 	 * Gets a value on the given field.
 	 * @param field the field to access
 	 */
 	public FieldGetter(Field field) {
+		this.result = Conversion.NONE;
 		this.field = field;
 		field.setAccessible(true);
 	}
@@ -29,7 +30,9 @@ public class FieldGetter implements MethodInvocationHandler {
 	 */
 	public FieldGetter(Field field, Class<?> target) {
 		this(field);
-		this.target = target;
+		if (target != null) {
+			this.result = resultConversion(target, field.getType());
+		}
 	}
 
 	@Override
@@ -40,11 +43,28 @@ public class FieldGetter implements MethodInvocationHandler {
 		return r(field.get(object));
 	}
 
-	private Object r(Object result) throws NoSuchMethodException {
-		if (target == null) {
-			return result;
-		}
-		return convertResult(target, field.getType(), result);
+	@Override
+	public int getInt(Object object) throws IllegalAccessException {
+		return field.getInt(object);
+	}
+
+	@Override
+	public long getLong(Object object) throws IllegalAccessException {
+		return field.getLong(object);
+	}
+
+	@Override
+	public double getDouble(Object object) throws IllegalAccessException {
+		return field.getDouble(object);
+	}
+
+	@Override
+	public boolean getBoolean(Object object) throws IllegalAccessException {
+		return field.getBoolean(object);
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
 	}
 
 }
@@ -0,0 +1,116 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.resultConversion;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+
+/**
+ * Wraps a field with read (getter) access. Beyond {@link FieldGetter} the field is read by a method handle (access is checked only once on construction).
+ * Primitive fields may also be read without boxing (see {@link PrimitiveGetter}).
+ */
+public class FieldHandleGetter implements MethodInvocationHandler, PrimitiveGetter, MethodHandleBacked {
+
+	private Field field;
+	private Conversion result;
+	private MethodHandle handle;
+	private MethodHandle getter;
+	private MethodHandle intGetter;
+	private MethodHandle longGetter;
+	private MethodHandle doubleGetter;
+	private MethodHandle booleanGetter;
+
+	/**
+	 * Gets a value on the given field.
+	 * @param field the field to access
+	 * @throws IllegalAccessException if the field could not be unreflected
+	 */
+	public FieldHandleGetter(Field field) throws IllegalAccessException {
+		this.result = Conversion.NONE;
+		this.field = field;
+		field.setAccessible(true);
+		this.handle = MethodHandles.lookup().unreflectGetter(field);
+		this.getter = handle.asType(methodType(Object.class, Object.class));
+		this.intGetter = primitive(handle, int.class);
+		this.longGetter = primitive(handle, long.class);
+		this.doubleGetter = primitive(handle, double.class);
+		this.booleanGetter = primitive(handle, boolean.class);
+	}
+
+	/**
+	 * Gets a value on the given field. Beyond {@link #FieldHandleGetter(Field)} this constructor also converts the result
+	 * @param field the field to access
+	 * @param target the target signature (target result)
+	 * @throws IllegalAccessException if the field could not be unreflected
+	 * @see Convert 
+	 */
+	public FieldHandleGetter(Field field, Class<?> target) throws IllegalAccessException {
+		this(field);
+		if (target != null) {
+			this.result = resultConversion(target, field.getType());
+		}
+	}
+
+	private static MethodHandle primitive(MethodHandle handle, Class<?> type) {
+		if (!handle.type().returnType().isPrimitive()) {
+			return null;
+		}
+		try {
+			return handle.asType(methodType(type, Object.class));
+		} catch (WrongMethodTypeException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (result != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object object, Object... args) throws Throwable {
+		if (args != null && args.length != 0) {
+			throw new IllegalArgumentException("getters can only be invoked with no argument, was " + args.length + " arguments");
+		}
+		return r((Object) getter.invokeExact(object));
+	}
+
+	@Override
+	public int getInt(Object object) throws Throwable {
+		return (int) valid(intGetter, int.class).invokeExact(object);
+	}
+
+	@Override
+	public long getLong(Object object) throws Throwable {
+		return (long) valid(longGetter, long.class).invokeExact(object);
+	}
+
+	@Override
+	public double getDouble(Object object) throws Throwable {
+		return (double) valid(doubleGetter, double.class).invokeExact(object);
+	}
+
+	@Override
+	public boolean getBoolean(Object object) throws Throwable {
+		return (boolean) valid(booleanGetter, boolean.class).invokeExact(object);
+	}
+
+	private MethodHandle valid(MethodHandle getter, Class<?> type) {
+		if (getter == null) {
+			throw new IllegalArgumentException("cannot get " + field.getName() + " of type " + field.getType().getSimpleName() + " as " + type.getSimpleName());
+		}
+		return getter;
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
+	}
+
+}
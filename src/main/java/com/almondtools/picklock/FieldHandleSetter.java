@@ -0,0 +1,125 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.argumentConversion;
+import static com.almondtools.picklock.FinalUtil.ensureNonFinal;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+
+/**
+ * Wraps a field with modification (setter) access. Beyond {@link FieldSetter} the field is written by a method handle (access is checked only once on construction).
+ * Primitive fields may also be written without boxing (see {@link PrimitiveSetter}).
+ */
+public class FieldHandleSetter implements MethodInvocationHandler, PrimitiveSetter, MethodHandleBacked {
+
+	private Field field;
+	private Class<?> boxed;
+	private Conversion argument;
+	private MethodHandle handle;
+	private MethodHandle setter;
+	private MethodHandle intSetter;
+	private MethodHandle longSetter;
+	private MethodHandle doubleSetter;
+	private MethodHandle booleanSetter;
+
+	/**
+	 * Sets a value on the given field.
+	 * @param field the field to access
+	 * @throws IllegalAccessException if the field could not be unreflected (e.g. if it is final and cannot be made accessible)
+	 */
+	public FieldHandleSetter(Field field) throws IllegalAccessException {
+		this.argument = Conversion.NONE;
+		this.field = field;
+		this.boxed = BoxingUtil.getBoxed(field.getType());
+		field.setAccessible(true);
+		ensureNonFinal(field);
+		this.handle = MethodHandles.lookup().unreflectSetter(field);
+		this.setter = handle.asType(methodType(void.class, Object.class, Object.class));
+		this.intSetter = primitive(handle, int.class);
+		this.longSetter = primitive(handle, long.class);
+		this.doubleSetter = primitive(handle, double.class);
+		this.booleanSetter = primitive(handle, boolean.class);
+	}
+
+	/**
+	 * Sets a value on the given field. Beyond {@link #FieldHandleSetter(Field)} this constructor also converts the argument
+	 * @param field the field to access
+	 * @param target the target signature (source arguments)
+	 * @throws IllegalAccessException if the field could not be unreflected (e.g. if it is final and cannot be made accessible)
+	 * @see Convert 
+	 */
+	public FieldHandleSetter(Field field, Class<?> target) throws IllegalAccessException {
+		this(field);
+		if (target != null) {
+			this.argument = argumentConversion(target, field.getType());
+		}
+	}
+
+	private static MethodHandle primitive(MethodHandle handle, Class<?> type) {
+		if (!handle.type().parameterType(1).isPrimitive()) {
+			return null;
+		}
+		try {
+			return handle.asType(methodType(void.class, Object.class, type));
+		} catch (WrongMethodTypeException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (argument != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object object, Object... args) throws Throwable {
+		if (args == null || args.length != 1) {
+			throw new IllegalArgumentException("setters can only be invoked with exactly one argument, was " + (args == null ? "null" : String.valueOf(args.length)) + " arguments");
+		}
+		Object arg = a(args[0]);
+		if (arg != null && !boxed.isInstance(arg)) {
+			throw new ClassCastException("defined type of " + field.getName() + " is " + arg.getClass().getSimpleName() + ", but assigned type was " + field.getType().getSimpleName());
+		}
+		setter.invokeExact(object, arg);
+		return null;
+	}
+
+	@Override
+	public void setInt(Object object, int value) throws Throwable {
+		valid(intSetter, int.class).invokeExact(object, value);
+	}
+
+	@Override
+	public void setLong(Object object, long value) throws Throwable {
+		valid(longSetter, long.class).invokeExact(object, value);
+	}
+
+	@Override
+	public void setDouble(Object object, double value) throws Throwable {
+		valid(doubleSetter, double.class).invokeExact(object, value);
+	}
+
+	@Override
+	public void setBoolean(Object object, boolean value) throws Throwable {
+		valid(booleanSetter, boolean.class).invokeExact(object, value);
+	}
+
+	private MethodHandle valid(MethodHandle setter, Class<?> type) {
+		if (setter == null) {
+			throw new IllegalArgumentException("cannot set " + field.getName() + " of type " + field.getType().getSimpleName() + " to " + type.getSimpleName());
+		}
+		return setter;
+	}
+
+	private Object a(Object arg) throws ReflectiveOperationException {
+		return argument.convert(arg);
+	}
+
+}
@@ -1,25 +1,27 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertArgument;
+import static com.almondtools.picklock.Converter.argumentConversion;
 import static com.almondtools.picklock.FinalUtil.ensureNonFinal;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 
 /**
- * Wraps a field with modification (setter) access.
+ * Wraps a field with modification (setter) access. Primitive fields may also be written without boxing (see {@link PrimitiveSetter}).
  */
-public class FieldSetter implements MethodInvocationHandler {
+public class FieldSetter implements MethodInvocationHandler, PrimitiveSetter {
 
 	private Field field;
-	private Class<?> target;
+	private Class<?> boxed;
+	private Conversion argument;
 
 	/**
 	 * Sets a value on the given field.
 	 * @param field the field to access
 	 */
 	public FieldSetter(Field field) {
+		this.argument = Conversion.NONE;
 		this.field = field;
+		this.boxed = BoxingUtil.getBoxed(field.getType());
 		field.setAccessible(true);
 		ensureNonFinal(field);
 	}
@@ -32,7 +34,9 @@ public class FieldSetter implements MethodInvocationHandler {
 	 */
 	public FieldSetter(Field field, Class<?> target) {
 		this(field);
-		this.target = target;
+		if (target != null) {
+			this.argument = argumentConversion(target, field.getType());
+		}
 		ensureNonFinal(field);
 	}
 
@@ -42,18 +46,35 @@ public class FieldSetter implements MethodInvocationHandler {
 			throw new IllegalArgumentException("setters can only be invoked with exactly one argument, was " + (args == null ? "null" : String.valueOf(args.length)) + " arguments");
 		}
 		Object arg = a(args[0]);
-		if (arg != null && !BoxingUtil.getBoxed(field.getType()).isInstance(arg)) {
+		if (arg != null && !boxed.isInstance(arg)) {
 			throw new ClassCastException("defined type of " + field.getName() + " is " + arg.getClass().getSimpleName() + ", but assigned type was " + field.getType().getSimpleName());
 		}
 		field.set(object, arg);
 		return null;
 	}
 
-	private Object a(Object arg) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-		if (target == null) {
-			return arg;
-		}
-		return convertArgument(target, field.getType(), arg);
+	@Override
+	public void setInt(Object object, int value) throws IllegalAccessException {
+		field.setInt(object, value);
+	}
+
+	@Override
+	public void setLong(Object object, long value) throws IllegalAccessException {
+		field.setLong(object, value);
+	}
+
+	@Override
+	public void setDouble(Object object, double value) throws IllegalAccessException {
+		field.setDouble(object, value);
+	}
+
+	@Override
+	public void setBoolean(Object object, boolean value) throws IllegalAccessException {
+		field.setBoolean(object, value);
+	}
+
+	private Object a(Object arg) throws ReflectiveOperationException {
+		return argument.convert(arg);
 	}
 
 }
@@ -0,0 +1,336 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.BoxingUtil.getBoxed;
+import static com.almondtools.picklock.Converter.argumentConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
+import static com.almondtools.picklock.SignatureUtil.CONSTRUCTOR;
+import static com.almondtools.picklock.SignatureUtil.isCompliant;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * Binds single (private) members to functional interfaces (interfaces with a single abstract method, e.g. those of <code>java.util.function</code>), see
+ * {@link Picklock#function(Class, String, Class)} and {@link Picklock#staticFunction(Class, String, Class)}.
+ *
+ * <p>
+ * Members are resolved by {@link InvocationResolver} and {@link StaticInvocationResolver} (see {@link MemberSignature}): methods (of the class and
+ * its super classes) are preferred to fields, fields are found by the usual property name patterns, and {@link Convert} annotations of the functional
+ * interface are honored. Type variables of generic functional interfaces match any type within their bounds. Methods and constructors are bound with
+ * <code>java.lang.invoke.LambdaMetafactory</code> (if the running JVM provides it and allows private lookups into the declaring class), such that the
+ * result is a class like the one of a hand written lambda. Fields, converted members (and members that cannot be bound this way) are bound with
+ * {@link MethodHandleProxies}.
+ *
+ * <p>
+ * Bound functions do not keep any state, so they are cached per class, member and functional interface (see {@link ClassCache}).
+ */
+final class FunctionBinder {
+
+	private static final MethodHandle METAFACTORY = metafactory();
+	private static final MethodHandle PRIVATE_LOOKUP_IN = privateLookupIn();
+	private static final MethodHandle CONVERT = convert();
+
+	private static final ClassCache<Key, Object> FUNCTIONS = new ClassCache<Key, Object>();
+
+	private FunctionBinder() {
+	}
+
+	private static MethodHandle metafactory() {
+		try {
+			Class<?> lambdaMetafactory = Class.forName("java.lang.invoke.LambdaMetafactory");
+			MethodType type = methodType(CallSite.class, Lookup.class, String.class, MethodType.class, MethodType.class, MethodHandle.class, MethodType.class);
+			return MethodHandles.publicLookup().findStatic(lambdaMetafactory, "metafactory", type);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle privateLookupIn() {
+		try {
+			return MethodHandles.publicLookup().findStatic(MethodHandles.class, "privateLookupIn", methodType(Lookup.class, Class.class, Lookup.class));
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle convert() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(Conversion.class, "convert", methodType(Object.class, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	/**
+	 * binds a non-static member of type to the functional interface. The first parameter of the functional interface is the receiver, the remaining
+	 * parameters are the arguments of the member.
+	 */
+	static <F> F bind(Class<?> type, String name, Class<F> functionalInterface) {
+		return bind(type, name, functionalInterface, false);
+	}
+
+	/**
+	 * binds a static member (or constructor) of type to the functional interface. All parameters of the functional interface are arguments of the member.
+	 */
+	static <F> F bindStatic(Class<?> type, String name, Class<F> functionalInterface) {
+		return bind(type, name, functionalInterface, true);
+	}
+
+	private static <F> F bind(Class<?> type, String name, Class<F> functionalInterface, boolean statics) {
+		Key key = new Key(type, name, functionalInterface, statics);
+		Object function = FUNCTIONS.get(key, type, functionalInterface);
+		if (function == null) {
+			Method sam = abstractMethodOf(functionalInterface);
+			Member member = statics ? findStaticMember(type, name, sam) : findMember(type, name, sam);
+			if (member == null || Modifier.isStatic(member.getModifiers()) != statics && !(member instanceof Constructor<?>)) {
+				throw new PicklockException("cannot resolve member " + name + " on " + type + " matching " + sam);
+			}
+			function = create(functionalInterface, sam, member, MemberSignature.of(name, sam, statics ? 0 : 1));
+			function = FUNCTIONS.putIfAbsent(key, function, type, functionalInterface);
+		}
+		return functionalInterface.cast(function);
+	}
+
+	private static Method abstractMethodOf(Class<?> functionalInterface) {
+		if (!functionalInterface.isInterface()) {
+			throw new PicklockException(functionalInterface + " is not an interface");
+		}
+		Method sam = null;
+		for (Method method : functionalInterface.getMethods()) {
+			if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+				continue;
+			}
+			if (sam != null && !(sam.getName().equals(method.getName()) && Arrays.equals(sam.getParameterTypes(), method.getParameterTypes()))) {
+				throw new PicklockException(functionalInterface + " has more than one abstract method");
+			}
+			sam = method;
+		}
+		if (sam == null) {
+			throw new PicklockException(functionalInterface + " has no abstract method");
+		}
+		return sam;
+	}
+
+	private static boolean isObjectMethod(Method method) {
+		for (Method objectMethod : Object.class.getMethods()) {
+			if (objectMethod.getName().equals(method.getName()) && Arrays.equals(objectMethod.getParameterTypes(), method.getParameterTypes())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Member findMember(Class<?> type, String name, Method sam) {
+		Type[] parameterTypes = sam.getGenericParameterTypes();
+		if (parameterTypes.length == 0 || !isCompliant(parameterTypes[0], type, null)) {
+			return null;
+		}
+		MemberSignature signature = MemberSignature.of(name, sam, 1);
+		InvocationResolver resolver = new InvocationResolver(type);
+		Member member = resolver.resolveMethod(signature);
+		if (member == null) {
+			member = resolveField(resolver, signature);
+		}
+		return member;
+	}
+
+	private static Member findStaticMember(Class<?> type, String name, Method sam) {
+		MemberSignature signature = MemberSignature.of(name, sam, 0);
+		StaticInvocationResolver resolver = new StaticInvocationResolver(type);
+		Member member = resolver.resolveMethod(signature);
+		if (member == null && isConstructor(signature, type)) {
+			member = resolver.resolveConstructor(signature);
+		}
+		if (member == null) {
+			member = resolveStaticField(resolver, signature);
+		}
+		return member;
+	}
+
+	private static boolean isConstructor(MemberSignature signature, Class<?> type) {
+		return signature.getName().equals(CONSTRUCTOR)
+			&& (signature.convertResult() != null || signature.getReturnClass().isAssignableFrom(type));
+	}
+
+	private static Field resolveField(InvocationResolver resolver, MemberSignature signature) {
+		Type propertyType = propertyTypeOf(signature);
+		if (propertyType == null) {
+			return null;
+		}
+		return resolver.resolveField(signature.getName(), propertyType, propertyAnnotationsOf(signature));
+	}
+
+	private static Field resolveStaticField(StaticInvocationResolver resolver, MemberSignature signature) {
+		Type propertyType = propertyTypeOf(signature);
+		if (propertyType == null) {
+			return null;
+		}
+		return resolver.resolveField(signature.getName(), propertyType, propertyAnnotationsOf(signature));
+	}
+
+	private static Type propertyTypeOf(MemberSignature signature) {
+		if (signature.getArity() == 0 && signature.getReturnType() != void.class) {
+			return signature.getReturnType();
+		} else if (signature.getArity() == 1 && signature.getReturnType() == void.class) {
+			return signature.getParameterTypes()[0];
+		} else {
+			return null;
+		}
+	}
+
+	private static Annotation[] propertyAnnotationsOf(MemberSignature signature) {
+		if (signature.getArity() == 0) {
+			return signature.getAnnotations();
+		} else {
+			return signature.getParameterAnnotations()[0];
+		}
+	}
+
+	private static Object create(Class<?> functionalInterface, Method sam, Member member, MemberSignature signature) {
+		MethodType samType = methodType(sam.getReturnType(), sam.getParameterTypes());
+		if (!(member instanceof Field) && !signature.isConverted()) {
+			Object function = metafactory(functionalInterface, sam, samType, member);
+			if (function != null) {
+				return function;
+			}
+		}
+		try {
+			MethodHandle handle = handleOf(member, samType);
+			if (signature.isConverted()) {
+				handle = convert(handle, signature, samType.parameterCount() - signature.getArity());
+			}
+			return MethodHandleProxies.asInterfaceInstance(functionalInterface, handle.asType(samType));
+		} catch (IllegalAccessException e) {
+			throw new PicklockException("cannot access " + member, e);
+		}
+	}
+
+	private static MethodHandle convert(MethodHandle handle, MemberSignature signature, int offset) {
+		Class<?>[] parameterClasses = signature.getParameterClasses();
+		String[] convertArguments = signature.convertArguments();
+		for (int i = 0; i < parameterClasses.length; i++) {
+			if (convertArguments[i] != null) {
+				Class<?> memberType = handle.type().parameterType(offset + i);
+				Conversion conversion = argumentConversion(parameterClasses[i], memberType);
+				handle = MethodHandles.filterArguments(handle, offset + i, CONVERT.bindTo(conversion).asType(methodType(memberType, parameterClasses[i])));
+			}
+		}
+		Class<?> memberResultType = handle.type().returnType();
+		if (signature.convertResult() != null && memberResultType != void.class) {
+			Conversion conversion = resultConversion(signature.getReturnClass(), memberResultType);
+			handle = MethodHandles.filterReturnValue(handle, CONVERT.bindTo(conversion).asType(methodType(signature.getReturnClass(), memberResultType)));
+		}
+		return handle;
+	}
+
+	private static Object metafactory(Class<?> functionalInterface, Method sam, MethodType samType, Member member) {
+		if (METAFACTORY == null || PRIVATE_LOOKUP_IN == null) {
+			return null;
+		}
+		try {
+			Lookup lookup = (Lookup) PRIVATE_LOOKUP_IN.invokeExact(member.getDeclaringClass(), MethodHandles.lookup());
+			MethodHandle implementation = member instanceof Method
+				? lookup.unreflect((Method) member)
+				: lookup.unreflectConstructor((Constructor<?>) member);
+			MethodType instantiatedType = instantiatedType(samType, implementation.type());
+			CallSite site = (CallSite) METAFACTORY.invokeExact(lookup, sam.getName(), methodType(functionalInterface), samType, implementation, instantiatedType);
+			return site.getTarget().invoke();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			// IllegalAccessException (no private access to the declaring class) or LambdaConversionException (not bindable as lambda)
+			return null;
+		}
+	}
+
+	private static MethodType instantiatedType(MethodType samType, MethodType implementationType) {
+		Class<?>[] parameterTypes = new Class<?>[samType.parameterCount()];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			parameterTypes[i] = specialize(samType.parameterType(i), implementationType.parameterType(i));
+		}
+		Class<?> returnType = samType.returnType() == void.class ? void.class : specialize(samType.returnType(), implementationType.returnType());
+		return methodType(returnType, parameterTypes);
+	}
+
+	private static Class<?> specialize(Class<?> samType, Class<?> implementationType) {
+		if (samType.isPrimitive()) {
+			return samType;
+		}
+		Class<?> boxed = getBoxed(implementationType);
+		if (samType.isAssignableFrom(boxed)) {
+			return boxed;
+		}
+		return samType;
+	}
+
+	private static MethodHandle handleOf(Member member, MethodType samType) throws IllegalAccessException {
+		Lookup lookup = MethodHandles.lookup();
+		if (member instanceof Method) {
+			Method method = (Method) member;
+			method.setAccessible(true);
+			return lookup.unreflect(method);
+		} else if (member instanceof Constructor<?>) {
+			Constructor<?> constructor = (Constructor<?>) member;
+			constructor.setAccessible(true);
+			return lookup.unreflectConstructor(constructor);
+		} else {
+			Field field = (Field) member;
+			field.setAccessible(true);
+			if (samType.returnType() == void.class) {
+				return lookup.unreflectSetter(field);
+			} else {
+				return lookup.unreflectGetter(field);
+			}
+		}
+	}
+
+	private static class Key {
+
+		private Class<?> type;
+		private String name;
+		private Class<?> functionalInterface;
+		private boolean statics;
+
+		public Key(Class<?> type, String name, Class<?> functionalInterface, boolean statics) {
+			this.type = type;
+			this.name = name;
+			this.functionalInterface = functionalInterface;
+			this.statics = statics;
+		}
+
+		@Override
+		public int hashCode() {
+			return ((type.hashCode() * 31 + name.hashCode()) * 31 + functionalInterface.hashCode()) * 31 + (statics ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key that = (Key) obj;
+			return this.type == that.type
+				&& this.name.equals(that.name)
+				&& this.functionalInterface == that.functionalInterface
+				&& this.statics == that.statics;
+		}
+
+	}
+
+}
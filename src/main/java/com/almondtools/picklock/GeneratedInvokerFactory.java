@@ -0,0 +1,359 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates invocation handlers based on method handles (as {@link MethodHandleInvokerFactory}) and proxies of generated classes (instead of
+ * {@link java.lang.reflect.Proxy}). Each method of a generated class calls the method handle of its member directly (see {@link ProxyClassGenerator}).
+ * 
+ * <p>
+ * Proxy classes are generated once for each pair of unlocked class and feature interface and then shared by all proxies of this pair (see
+ * {@link ClassCache}). If the JVM does not allow to define classes (or if the class loader of the feature interface cannot see picklock), proxies are
+ * created with {@link java.lang.reflect.Proxy}. Interface methods without handler are implemented by stubs throwing a {@link PicklockException}.
+ * Templates ({@link Unlocker}) of generated classes bind an object with one allocation (the proxy holding the object), cursors ({@link Cursor}) of
+ * generated classes retarget their proxy without any allocation.
+ * 
+ * <p>
+ * Getters and setters of primitive fields that cannot be linked as method handle are linked to the primitive-specialized methods of
+ * {@link PrimitiveGetter} and {@link PrimitiveSetter}, such that generated proxies never box primitive field values.
+ * 
+ * <p>
+ * Beyond {@link java.lang.reflect.Proxy} generated proxies do not wrap undeclared checked exceptions into
+ * {@link java.lang.reflect.UndeclaredThrowableException} and do not dispatch the methods of {@link Object} to the unlocked object.
+ */
+public class GeneratedInvokerFactory extends MethodHandleInvokerFactory {
+
+	private static final MethodHandle INVOKE = invoker(MethodInvocationHandler.class, methodType(Object.class, Object.class, Object[].class));
+	private static final MethodHandle STATIC_INVOKE = invoker(StaticMethodInvocationHandler.class, methodType(Object.class, Object[].class));
+	private static final Map<Class<?>, MethodHandle> PRIMITIVE_GETTERS = primitiveInvokers(PrimitiveGetter.class, "get");
+	private static final Map<Class<?>, MethodHandle> PRIMITIVE_SETTERS = primitiveInvokers(PrimitiveSetter.class, "set");
+
+	private ClassCache<List<Class<?>>, GeneratedClass> objectClasses;
+	private ClassCache<List<Class<?>>, GeneratedClass> staticClasses;
+
+	public GeneratedInvokerFactory() {
+		this.objectClasses = new ClassCache<List<Class<?>>, GeneratedClass>();
+		this.staticClasses = new ClassCache<List<Class<?>>, GeneratedClass>();
+	}
+
+	private static MethodHandle invoker(Class<?> handlerClass, MethodType type) {
+		try {
+			return MethodHandles.publicLookup().findVirtual(handlerClass, "invoke", type).asFixedArity();
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	private static Map<Class<?>, MethodHandle> primitiveInvokers(Class<?> handlerClass, String prefix) {
+		Map<Class<?>, MethodHandle> invokers = new HashMap<Class<?>, MethodHandle>();
+		for (Method method : handlerClass.getMethods()) {
+			if (method.getName().startsWith(prefix)) {
+				try {
+					Class<?> type = prefix.equals("get") ? method.getReturnType() : method.getParameterTypes()[1];
+					invokers.put(type, MethodHandles.publicLookup().unreflect(method));
+				} catch (IllegalAccessException e) {
+					throw new PicklockException(e);
+				}
+			}
+		}
+		return invokers;
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ObjectAccess access) {
+		if (access.getClass() != ObjectAccess.class) {
+			return super.createProxy(interfaceClass, access);
+		}
+		Object object = access.getObject();
+		GeneratedClass generated = generatedClass(objectClasses, object.getClass(), interfaceClass, access.getHandlers(), true);
+		if (generated.constructor == null) {
+			return super.createProxy(interfaceClass, access);
+		}
+		try {
+			return interfaceClass.cast((Object) generated.constructor.invokeExact(object));
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ClassAccess access) {
+		if (access.getClass() != ClassAccess.class) {
+			return super.createProxy(interfaceClass, access);
+		}
+		GeneratedClass generated = generatedClass(staticClasses, access.getType(), interfaceClass, access.getHandlers(), false);
+		if (generated.instance == null) {
+			return super.createProxy(interfaceClass, access);
+		}
+		return interfaceClass.cast(generated.instance);
+	}
+
+	@Override
+	public <T> Unlocker<T> createUnlocker(Class<T> interfaceClass, InvocationPlan plan) {
+		GeneratedClass generated = generatedClass(objectClasses, plan.getType(), interfaceClass, plan.getDispatch(), true);
+		if (generated.constructor == null) {
+			return super.createUnlocker(interfaceClass, plan);
+		}
+		return new GeneratedUnlocker<T>(plan.getType(), interfaceClass, generated.constructor);
+	}
+
+	@Override
+	public <T> Cursor<T> createCursor(Class<T> interfaceClass, InvocationPlan plan) {
+		GeneratedClass generated = generatedClass(objectClasses, plan.getType(), interfaceClass, plan.getDispatch(), true);
+		if (generated.constructor == null) {
+			return super.createCursor(interfaceClass, plan);
+		}
+		try {
+			Object view = (Object) generated.constructor.invokeExact((Object) null);
+			return new GeneratedCursor<T>(plan.getType(), interfaceClass, interfaceClass.cast(view), ProxyClassGenerator.targetSetter(view.getClass()));
+		} catch (PicklockException e) {
+			return super.createCursor(interfaceClass, plan);
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+	/**
+	 * creates a proxy of a generated class, each method handle of this class retrieves its target from the context. Beyond the other proxies of
+	 * generated classes the class of a context proxy is not shared, so context proxies should be created once and then shared.
+	 */
+	@Override
+	public <T> T createContextProxy(Class<T> interfaceClass, InvocationPlan plan, ThreadLocal<?> context) {
+		MethodHandle target = MethodHandles.dropArguments(MethodHandles.insertArguments(ContextInvocationHandler.TARGET, 0, context, plan.getType()), 0, Object.class);
+		GeneratedClass generated = generate(interfaceClass, plan.getDispatch(), true, target);
+		if (generated.constructor == null) {
+			return super.createContextProxy(interfaceClass, plan, context);
+		}
+		try {
+			return interfaceClass.cast((Object) generated.constructor.invokeExact((Object) null));
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+	private GeneratedClass generatedClass(ClassCache<List<Class<?>>, GeneratedClass> classes, Class<?> type, Class<?> interfaceClass, DispatchTable<?> handlers, boolean bound) {
+		List<Class<?>> key = Arrays.<Class<?>> asList(type, interfaceClass);
+		GeneratedClass generated = classes.get(key, type, interfaceClass, getClass());
+		if (generated == null) {
+			generated = generate(interfaceClass, handlers, bound);
+			generated = classes.putIfAbsent(key, generated, type, interfaceClass, getClass());
+		}
+		return generated;
+	}
+
+	private GeneratedClass generate(Class<?> interfaceClass, DispatchTable<?> handlers, boolean bound) {
+		return generate(interfaceClass, handlers, bound, null);
+	}
+
+	private GeneratedClass generate(Class<?> interfaceClass, DispatchTable<?> handlers, boolean bound, MethodHandle target) {
+		if (!ProxyClassGenerator.isSupported()) {
+			return new GeneratedClass();
+		}
+		try {
+			List<Method> methods = new ArrayList<Method>();
+			List<MethodHandle> handles = new ArrayList<MethodHandle>();
+			for (Method method : ProxyClassGenerator.implementableMethods(interfaceClass)) {
+				Object handler = handlers.get(method);
+				if (handler == null) {
+					handler = new UnmappedInvocationHandler(method);
+				}
+				MethodHandle handle = bound
+					? handleOf((MethodInvocationHandler) handler, method)
+					: handleOf((StaticMethodInvocationHandler) handler, method);
+				if (target != null) {
+					handle = MethodHandles.filterArguments(handle, 0, target);
+				}
+				methods.add(method);
+				handles.add(handle);
+			}
+			Class<?> proxyClass = ProxyClassGenerator.generate(interfaceClass, methods, handles, bound);
+			if (bound) {
+				MethodHandle constructor = MethodHandles.publicLookup().findConstructor(proxyClass, methodType(void.class, Object.class));
+				return new GeneratedClass(constructor.asType(methodType(Object.class, Object.class)));
+			} else {
+				return new GeneratedClass(proxyClass.getConstructor().newInstance());
+			}
+		} catch (PicklockException e) {
+			return new GeneratedClass();
+		} catch (ReflectiveOperationException e) {
+			return new GeneratedClass();
+		} catch (LinkageError e) {
+			return new GeneratedClass();
+		}
+	}
+
+	private static MethodHandle handleOf(MethodInvocationHandler handler, Method method) {
+		MethodType type = methodType(method.getReturnType(), method.getParameterTypes()).insertParameterTypes(0, Object.class);
+		if (handler instanceof MethodHandleBacked) {
+			MethodHandle handle = ((MethodHandleBacked) handler).handleOf(type);
+			if (handle != null) {
+				return handle;
+			}
+		}
+		MethodHandle primitive = primitiveHandleOf(handler, method);
+		if (primitive != null) {
+			return primitive.asType(type);
+		}
+		return INVOKE.bindTo(handler)
+			.asCollector(Object[].class, method.getParameterTypes().length)
+			.asType(type);
+	}
+
+	private static MethodHandle primitiveHandleOf(MethodInvocationHandler handler, Method method) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		if (handler instanceof PrimitiveGetter && parameterTypes.length == 0) {
+			MethodHandle getter = PRIMITIVE_GETTERS.get(method.getReturnType());
+			if (getter != null) {
+				return getter.bindTo(handler);
+			}
+		} else if (handler instanceof PrimitiveSetter && parameterTypes.length == 1 && method.getReturnType() == void.class) {
+			MethodHandle setter = PRIMITIVE_SETTERS.get(parameterTypes[0]);
+			if (setter != null) {
+				return setter.bindTo(handler);
+			}
+		}
+		return null;
+	}
+
+	private static MethodHandle handleOf(StaticMethodInvocationHandler handler, Method method) {
+		MethodType type = methodType(method.getReturnType(), method.getParameterTypes());
+		if (handler instanceof MethodHandleBacked) {
+			MethodHandle handle = ((MethodHandleBacked) handler).handleOf(type);
+			if (handle != null) {
+				return handle;
+			}
+		}
+		return STATIC_INVOKE.bindTo(handler)
+			.asCollector(Object[].class, method.getParameterTypes().length)
+			.asType(type);
+	}
+
+	private static class UnmappedInvocationHandler implements MethodInvocationHandler, StaticMethodInvocationHandler {
+
+		private Method method;
+
+		UnmappedInvocationHandler(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		public Object invoke(Object object, Object... args) throws Throwable {
+			return invoke(args);
+		}
+
+		@Override
+		public Object invoke(Object... args) throws Throwable {
+			throw new PicklockException("no member mapped to " + method);
+		}
+
+	}
+
+	private static class GeneratedUnlocker<T> implements Unlocker<T> {
+
+		private Class<?> type;
+		private Class<T> interfaceClass;
+		private MethodHandle constructor;
+
+		GeneratedUnlocker(Class<?> type, Class<T> interfaceClass, MethodHandle constructor) {
+			this.type = type;
+			this.interfaceClass = interfaceClass;
+			this.constructor = constructor;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return type;
+		}
+
+		@Override
+		public Class<T> getInterfaceClass() {
+			return interfaceClass;
+		}
+
+		@Override
+		public T bind(Object object) {
+			if (!type.isInstance(object)) {
+				throw new PicklockException("cannot bind " + (object == null ? null : object.getClass()) + " to template of " + type);
+			}
+			try {
+				return interfaceClass.cast((Object) constructor.invokeExact(object));
+			} catch (Throwable e) {
+				throw new PicklockException("cannot instantiate proxy class for " + interfaceClass.getName(), e);
+			}
+		}
+
+	}
+
+	private static class GeneratedCursor<T> implements Cursor<T> {
+
+		private Class<?> type;
+		private Class<T> interfaceClass;
+		private T view;
+		private MethodHandle target;
+
+		GeneratedCursor(Class<?> type, Class<T> interfaceClass, T view, MethodHandle target) {
+			this.type = type;
+			this.interfaceClass = interfaceClass;
+			this.view = view;
+			this.target = target;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return type;
+		}
+
+		@Override
+		public Class<T> getInterfaceClass() {
+			return interfaceClass;
+		}
+
+		@Override
+		public T bind(Object object) {
+			if (!type.isInstance(object)) {
+				throw new PicklockException("cannot bind " + (object == null ? null : object.getClass()) + " to cursor of " + type);
+			}
+			try {
+				target.invokeExact((Object) view, object);
+			} catch (Throwable e) {
+				throw new PicklockException("cannot retarget proxy of " + interfaceClass.getName(), e);
+			}
+			return view;
+		}
+
+		@Override
+		public T get() {
+			return view;
+		}
+
+	}
+
+	private static class GeneratedClass {
+
+		private MethodHandle constructor;
+		private Object instance;
+
+		GeneratedClass() {
+		}
+
+		GeneratedClass(MethodHandle constructor) {
+			this.constructor = constructor;
+		}
+
+		GeneratedClass(Object instance) {
+			this.instance = instance;
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+
+/**
+ * Adapts invocation handlers to method handles of a given type. Handlers backed by a method handle (see {@link MethodHandleBacked}) are linked directly,
+ * any other handler is invoked through {@link MethodInvocationHandler#invoke(Object, Object...)}.
+ */
+final class Handles {
+
+	private static final MethodHandle INVOKE = invoker();
+
+	private Handles() {
+	}
+
+	private static MethodHandle invoker() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(MethodInvocationHandler.class, "invoke", methodType(Object.class, Object.class, Object[].class)).asFixedArity();
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException(e);
+		}
+	}
+
+	/**
+	 * @param handler
+	 *            the handler to adapt
+	 * @param type
+	 *            the type of the result handle (the receiver is the first parameter)
+	 * @return a method handle of the given type invoking the handler
+	 */
+	static MethodHandle handleOf(MethodInvocationHandler handler, MethodType type) {
+		if (handler instanceof MethodHandleBacked) {
+			try {
+				MethodHandle handle = ((MethodHandleBacked) handler).handleOf(type);
+				if (handle != null) {
+					return handle;
+				}
+			} catch (WrongMethodTypeException e) {
+				// fall through to the generic invocation
+			}
+		}
+		return INVOKE.bindTo(handler)
+			.asCollector(Object[].class, type.parameterCount() - 1)
+			.asType(type);
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.almondtools.picklock;
+
+/**
+ * Creates the instances objects are converted to (see {@link Converter#convert(Object, Class, Class, InstantiationStrategy)}). There are two
+ * predefined strategies:
+ *
+ * <ul>
+ * <li>{@link #DEFAULT} runs the default constructor if there is one, otherwise it allocates the instance without constructor (see
+ * {@link Instantiator#newInstance()})</li>
+ * <li>{@link #ALLOCATION} allocates the instance without constructor if the JVM permits it, otherwise it runs the default constructor (see
+ * {@link Instantiator#allocate()})</li>
+ * </ul>
+ *
+ * Custom strategies (e.g. calling factory methods or constructors with arguments) may be supplied to conversions. A strategy should be stateless or
+ * thread safe, conversions may call it from multiple threads.
+ */
+public interface InstantiationStrategy {
+
+	InstantiationStrategy DEFAULT = new InstantiationStrategy() {
+
+		@Override
+		public boolean canInstantiate(Class<?> type) {
+			return Instantiator.of(type).handle() != null;
+		}
+
+		@Override
+		public Object newInstance(Class<?> type) {
+			return Instantiator.of(type).newInstance();
+		}
+
+	};
+
+	InstantiationStrategy ALLOCATION = new InstantiationStrategy() {
+
+		@Override
+		public boolean canInstantiate(Class<?> type) {
+			return Instantiator.of(type).allocationHandle() != null;
+		}
+
+		@Override
+		public Object newInstance(Class<?> type) {
+			return Instantiator.of(type).allocate();
+		}
+
+	};
+
+	/**
+	 * @param type
+	 *            the class to instantiate
+	 * @return true if this strategy can create instances of type
+	 */
+	boolean canInstantiate(Class<?> type);
+
+	/**
+	 * @param type
+	 *            the class to instantiate
+	 * @return a new instance of type
+	 * @throws PicklockException
+	 *             if no instance of type can be created
+	 */
+	Object newInstance(Class<?> type);
+
+}
@@ -0,0 +1,209 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Creates instances of a class, with or without running a constructor. Each class has one instantiator (see {@link #of(Class)}), which looks up its
+ * instantiation handles once:
+ *
+ * <ul>
+ * <li>the default constructor of the class (if it has one)</li>
+ * <li>an allocation handle creating instances without running any constructor of the class (if the JVM permits it), this is
+ * <code>sun.misc.Unsafe.allocateInstance</code> or the constructor the JVM creates for deserialization</li>
+ * </ul>
+ *
+ * {@link #newInstance()} prefers the default constructor (such that field initializers are run) and falls back to allocation, {@link #allocate()}
+ * prefers allocation and falls back to the default constructor. Instantiators are immutable and may be shared between threads. Conversions create
+ * their instances with an {@link InstantiationStrategy}, the predefined strategies are based on instantiators.
+ *
+ * @author Stefan Mandel
+ */
+public final class Instantiator {
+
+	private static final MethodHandle ALLOCATE_INSTANCE = allocateInstance();
+	private static final Object REFLECTION_FACTORY = reflectionFactory();
+	private static final Method NEW_CONSTRUCTOR_FOR_SERIALIZATION = newConstructorForSerialization();
+
+	private static final ClassValue<Instantiator> INSTANTIATORS = new ClassValue<Instantiator>() {
+
+		@Override
+		protected Instantiator computeValue(Class<?> type) {
+			return new Instantiator(type);
+		}
+
+	};
+
+	private final Class<?> type;
+	private final MethodHandle constructor;
+	private final MethodHandle allocator;
+
+	private Instantiator(Class<?> type) {
+		this.type = type;
+		this.constructor = constructorOf(type);
+		this.allocator = allocatorOf(type);
+	}
+
+	private static MethodHandle allocateInstance() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+			return MethodHandles.publicLookup().findVirtual(unsafeClass, "allocateInstance", methodType(Object.class, Class.class)).bindTo(unsafe);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Object reflectionFactory() {
+		try {
+			return Class.forName("sun.reflect.ReflectionFactory").getMethod("getReflectionFactory").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Method newConstructorForSerialization() {
+		if (REFLECTION_FACTORY == null) {
+			return null;
+		}
+		try {
+			return REFLECTION_FACTORY.getClass().getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle constructorOf(Class<?> type) {
+		if (!isInstantiable(type)) {
+			return null;
+		}
+		try {
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(constructor).asType(methodType(Object.class));
+		} catch (ReflectiveOperationException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle allocatorOf(Class<?> type) {
+		if (!isInstantiable(type)) {
+			return null;
+		}
+		if (ALLOCATE_INSTANCE != null) {
+			return ALLOCATE_INSTANCE.bindTo(type);
+		}
+		if (NEW_CONSTRUCTOR_FOR_SERIALIZATION != null) {
+			try {
+				Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION.invoke(REFLECTION_FACTORY, type, Object.class.getDeclaredConstructor());
+				constructor.setAccessible(true);
+				return MethodHandles.lookup().unreflectConstructor(constructor).asType(methodType(Object.class));
+			} catch (ReflectiveOperationException e) {
+				return null;
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isInstantiable(Class<?> type) {
+		return !type.isPrimitive()
+			&& !type.isArray()
+			&& !type.isInterface()
+			&& !Modifier.isAbstract(type.getModifiers());
+	}
+
+	/**
+	 * returns the instantiator of the given class, the instantiator is computed on the first call and shared afterwards.
+	 *
+	 * @param type
+	 *            the class to instantiate
+	 * @return the instantiator of type
+	 */
+	public static Instantiator of(Class<?> type) {
+		return INSTANTIATORS.get(type);
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return true if the class has a default constructor
+	 */
+	public boolean canConstruct() {
+		return constructor != null;
+	}
+
+	/**
+	 * @return true if the JVM permits to create instances of the class without running a constructor
+	 */
+	public boolean canAllocate() {
+		return allocator != null;
+	}
+
+	/**
+	 * creates a new instance, preferring the default constructor
+	 *
+	 * @return the new instance
+	 * @throws PicklockException
+	 *             if the class can neither be constructed nor allocated or if the constructor failed
+	 */
+	public Object newInstance() {
+		return invoke(handle());
+	}
+
+	/**
+	 * creates a new instance, preferring allocation without constructor (all fields have default values)
+	 *
+	 * @return the new instance
+	 * @throws PicklockException
+	 *             if the class can neither be allocated nor constructed or if the constructor failed
+	 */
+	public Object allocate() {
+		return invoke(allocationHandle());
+	}
+
+	/**
+	 * @return a handle of type ()Object creating instances, preferring the default constructor (or null if the class cannot be instantiated)
+	 */
+	MethodHandle handle() {
+		return constructor != null ? constructor : allocator;
+	}
+
+	/**
+	 * @return a handle of type ()Object creating instances, preferring allocation without constructor (or null if the class cannot be instantiated)
+	 */
+	MethodHandle allocationHandle() {
+		return allocator != null ? allocator : constructor;
+	}
+
+	private Object invoke(MethodHandle handle) {
+		if (handle == null) {
+			throw new PicklockException("cannot instantiate " + type.getName());
+		}
+		try {
+			return (Object) handle.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate " + type.getName(), e);
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.isConverted;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An InvocationPlan is the resolved mapping of a feature interface (and its super interfaces) to the members of a class. It does not depend on a specific object
+ * of this class, so one plan may be shared by all objects of the class (see {@link InvocationPlanCache}).
+ * 
+ * @author Stefan Mandel
+ */
+public class InvocationPlan {
+
+	private Class<?> type;
+	private Class<?> interfaceClass;
+	private Map<Method, MethodInvocationHandler> handlers;
+	private DispatchTable<MethodInvocationHandler> dispatch;
+
+	public InvocationPlan(Class<?> type, Class<?> interfaceClass, Map<Method, MethodInvocationHandler> handlers) {
+		this.type = type;
+		this.interfaceClass = interfaceClass;
+		this.handlers = Collections.unmodifiableMap(handlers);
+		this.dispatch = new DispatchTable<MethodInvocationHandler>(handlers);
+	}
+
+	/**
+	 * resolves all methods of the given interface and its super interfaces with the given resolver
+	 * 
+	 * @param resolver
+	 *            the resolver mapping interface methods to members
+	 * @param interfaceClass
+	 *            the interface to resolve
+	 * @return the plan containing all resolved handlers
+	 * @throws NoSuchMethodException
+	 *             if a method of the interface could not be mapped
+	 */
+	public static InvocationPlan resolve(InvocationResolver resolver, Class<?> interfaceClass) throws NoSuchMethodException {
+		Map<Method, MethodInvocationHandler> handlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		for (Method method : methodsOf(interfaceClass)) {
+			handlers.put(method, resolver.findInvocationHandler(method));
+		}
+		return new InvocationPlan(resolver.getType(), interfaceClass, handlers);
+	}
+
+	/**
+	 * resolves all methods of the given interfaces and their super interfaces with the given resolver into one plan. Methods with the same signature
+	 * (declared by several interfaces) are resolved only once and share their handler.
+	 * 
+	 * @param resolver
+	 *            the resolver mapping interface methods to members
+	 * @param interfaceClasses
+	 *            the interfaces to resolve (the first one is the interface of the plan)
+	 * @return the plan containing all resolved handlers
+	 * @throws NoSuchMethodException
+	 *             if a method of one of the interfaces could not be mapped
+	 */
+	public static InvocationPlan resolve(InvocationResolver resolver, List<Class<?>> interfaceClasses) throws NoSuchMethodException {
+		Map<Method, MethodInvocationHandler> handlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		Map<List<Object>, MethodInvocationHandler> signatures = new HashMap<List<Object>, MethodInvocationHandler>();
+		for (Class<?> interfaceClass : interfaceClasses) {
+			for (Method method : methodsOf(interfaceClass)) {
+				if (handlers.containsKey(method)) {
+					continue;
+				}
+				List<Object> signature = isConverted(method) ? null : signatureOf(method);
+				MethodInvocationHandler handler = signature == null ? null : signatures.get(signature);
+				if (handler == null) {
+					handler = resolver.findInvocationHandler(method);
+					if (signature != null) {
+						signatures.put(signature, handler);
+					}
+				}
+				handlers.put(method, handler);
+			}
+		}
+		return new InvocationPlan(resolver.getType(), interfaceClasses.get(0), handlers);
+	}
+
+	private static List<Object> signatureOf(Method method) {
+		return Arrays.<Object> asList(method.getName(), method.getReturnType(), Arrays.asList(method.getParameterTypes()), Arrays.asList(method.getExceptionTypes()));
+	}
+
+	/**
+	 * creates a plan for all methods of the given interface and its super interfaces without resolving them. Each method is resolved with the given
+	 * resolver on its first invocation (see {@link LazyMethodInvocationHandler}).
+	 * 
+	 * @param resolver
+	 *            the resolver mapping interface methods to members
+	 * @param interfaceClass
+	 *            the interface to resolve
+	 * @return the plan containing lazy handlers
+	 */
+	public static InvocationPlan lazy(InvocationResolver resolver, Class<?> interfaceClass) {
+		Map<Method, MethodInvocationHandler> handlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		for (Method method : methodsOf(interfaceClass)) {
+			handlers.put(method, new LazyMethodInvocationHandler(resolver, method));
+		}
+		return new InvocationPlan(resolver.getType(), interfaceClass, handlers);
+	}
+
+	private static Set<Method> methodsOf(Class<?> interfaceClass) {
+		Set<Method> methods = new LinkedHashSet<Method>();
+		List<Class<?>> todo = new ArrayList<Class<?>>();
+		Set<Class<?>> done = new HashSet<Class<?>>();
+		todo.add(interfaceClass);
+		while (!todo.isEmpty()) {
+			Class<?> currentClass = todo.remove(0);
+			done.add(currentClass);
+			for (Method method : MemberIndex.of(currentClass).methods()) {
+				methods.add(method);
+			}
+			for (Class<?> superInterfaceClazz : currentClass.getInterfaces()) {
+				if (!done.contains(superInterfaceClazz)) {
+					todo.add(superInterfaceClazz);
+				}
+			}
+		}
+		return methods;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public Class<?> getInterfaceClass() {
+		return interfaceClass;
+	}
+
+	/**
+	 * @return an unmodifiable map of all interface methods to their handlers
+	 */
+	public Map<Method, MethodInvocationHandler> getHandlers() {
+		return handlers;
+	}
+
+	/**
+	 * @return the dispatch table of all interface methods (with ordinals in resolution order)
+	 */
+	public DispatchTable<MethodInvocationHandler> getDispatch() {
+		return dispatch;
+	}
+
+}
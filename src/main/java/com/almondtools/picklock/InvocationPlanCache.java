@@ -0,0 +1,224 @@
+package com.almondtools.picklock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The process-wide cache of resolved invocation plans. Plans are cached per unlocked class, feature interface and {@link InvokerFactory}, such that
+ * unlocking further objects of the same class only binds the object to the already resolved plan.
+ * 
+ * <p>
+ * The cache is thread-safe. Plans are attached to the unlocked class, the feature interface or the class of the {@link InvokerFactory}, whichever has
+ * the most specific class loader (see {@link ClassCache}), so cached plans do not prevent any of these classes from being unloaded. Plans for classes of
+ * unrelated class loaders are not cached.
+ * 
+ * <p>
+ * Invoker factories are compared with <code>equals</code>, factories that create the same handlers should be equal (the predefined factories are equal
+ * to all factories of their class). Plans of factories that do not override <code>equals</code> are not cached at all, otherwise each new instance of
+ * such a factory would add further plans to the cache.
+ * 
+ * @author Stefan Mandel
+ */
+public final class InvocationPlanCache {
+
+	private static final ClassCache<Key, InvocationPlan> OBJECT_PLANS = new ClassCache<Key, InvocationPlan>();
+	private static final ClassCache<Key, InvocationPlan> LAZY_OBJECT_PLANS = new ClassCache<Key, InvocationPlan>();
+	private static final ClassCache<Key, StaticInvocationPlan> STATIC_PLANS = new ClassCache<Key, StaticInvocationPlan>();
+
+	private static final ClassValue<Boolean> COMPARABLE = new ClassValue<Boolean>() {
+
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+
+	};
+
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	private InvocationPlanCache() {
+	}
+
+	/**
+	 * returns the cached plan for the type and invokers of the given resolver, or resolves (and caches) it if there is none.
+	 * 
+	 * @param resolver
+	 *            the resolver to resolve the plan with (on cache misses)
+	 * @param interfaceClass
+	 *            the feature interface
+	 * @return the plan
+	 * @throws NoSuchMethodException
+	 *             if a method of the interface could not be mapped (failed resolutions are not cached)
+	 */
+	public static InvocationPlan objectPlan(InvocationResolver resolver, Class<?> interfaceClass) throws NoSuchMethodException {
+		if (!isComparable(resolver.getInvokers())) {
+			MISSES.incrementAndGet();
+			return InvocationPlan.resolve(resolver, interfaceClass);
+		}
+		Key key = new Key(resolver.getType(), interfaceClass, resolver.getInvokers());
+		InvocationPlan plan = OBJECT_PLANS.get(key, key.classes());
+		if (plan != null) {
+			HITS.incrementAndGet();
+			return plan;
+		}
+		MISSES.incrementAndGet();
+		plan = InvocationPlan.resolve(resolver, interfaceClass);
+		return OBJECT_PLANS.putIfAbsent(key, plan, key.classes());
+	}
+
+	/**
+	 * returns the cached plan for the type and invokers of the given resolver and the given interfaces (see
+	 * {@link InvocationPlan#resolve(InvocationResolver, List)}), or resolves (and caches) it if there is none.
+	 * 
+	 * @param resolver
+	 *            the resolver to resolve the plan with (on cache misses)
+	 * @param interfaceClasses
+	 *            the feature interfaces
+	 * @return the plan
+	 * @throws NoSuchMethodException
+	 *             if a method of one of the interfaces could not be mapped (failed resolutions are not cached)
+	 */
+	public static InvocationPlan objectPlan(InvocationResolver resolver, List<Class<?>> interfaceClasses) throws NoSuchMethodException {
+		if (!isComparable(resolver.getInvokers())) {
+			MISSES.incrementAndGet();
+			return InvocationPlan.resolve(resolver, interfaceClasses);
+		}
+		Key key = new Key(resolver.getType(), interfaceClasses, resolver.getInvokers());
+		InvocationPlan plan = OBJECT_PLANS.get(key, key.classes());
+		if (plan != null) {
+			HITS.incrementAndGet();
+			return plan;
+		}
+		MISSES.incrementAndGet();
+		plan = InvocationPlan.resolve(resolver, interfaceClasses);
+		return OBJECT_PLANS.putIfAbsent(key, plan, key.classes());
+	}
+
+	/**
+	 * returns the cached lazy plan (see {@link InvocationPlan#lazy(InvocationResolver, Class)}) for the type and invokers of the given resolver, or creates
+	 * (and caches) it if there is none. The methods of cached lazy plans are resolved once for all objects of the type.
+	 * 
+	 * @param resolver
+	 *            the resolver providing type and invokers (the plan itself resolves with a new resolver, so it does not keep the given one)
+	 * @param interfaceClass
+	 *            the feature interface
+	 * @return the plan
+	 */
+	public static InvocationPlan lazyObjectPlan(InvocationResolver resolver, Class<?> interfaceClass) {
+		if (!isComparable(resolver.getInvokers())) {
+			MISSES.incrementAndGet();
+			return InvocationPlan.lazy(new InvocationResolver(resolver.getType(), resolver.getInvokers()), interfaceClass);
+		}
+		Key key = new Key(resolver.getType(), interfaceClass, resolver.getInvokers());
+		InvocationPlan plan = LAZY_OBJECT_PLANS.get(key, key.classes());
+		if (plan != null) {
+			HITS.incrementAndGet();
+			return plan;
+		}
+		MISSES.incrementAndGet();
+		plan = InvocationPlan.lazy(new InvocationResolver(resolver.getType(), resolver.getInvokers()), interfaceClass);
+		return LAZY_OBJECT_PLANS.putIfAbsent(key, plan, key.classes());
+	}
+
+	/**
+	 * returns the cached static plan for the type and invokers of the given resolver, or resolves (and caches) it if there is none.
+	 * 
+	 * @param resolver
+	 *            the resolver to resolve the plan with (on cache misses)
+	 * @param interfaceClass
+	 *            the feature interface
+	 * @return the plan
+	 * @throws NoSuchMethodException
+	 *             if a method of the interface could not be mapped (failed resolutions are not cached)
+	 */
+	public static StaticInvocationPlan staticPlan(StaticInvocationResolver resolver, Class<?> interfaceClass) throws NoSuchMethodException {
+		if (!isComparable(resolver.getInvokers())) {
+			MISSES.incrementAndGet();
+			return StaticInvocationPlan.resolve(resolver, interfaceClass);
+		}
+		Key key = new Key(resolver.getType(), interfaceClass, resolver.getInvokers());
+		StaticInvocationPlan plan = STATIC_PLANS.get(key, key.classes());
+		if (plan != null) {
+			HITS.incrementAndGet();
+			return plan;
+		}
+		MISSES.incrementAndGet();
+		plan = StaticInvocationPlan.resolve(resolver, interfaceClass);
+		return STATIC_PLANS.putIfAbsent(key, plan, key.classes());
+	}
+
+	private static boolean isComparable(InvokerFactory invokers) {
+		return COMPARABLE.get(invokers.getClass());
+	}
+
+	/**
+	 * @return the number of plans served from the cache (since start of the JVM)
+	 */
+	public static long getHits() {
+		return HITS.get();
+	}
+
+	/**
+	 * @return the number of plans that had to be resolved (since start of the JVM)
+	 */
+	public static long getMisses() {
+		return MISSES.get();
+	}
+
+	private static class Key {
+
+		private Class<?> type;
+		private List<Class<?>> interfaces;
+		private InvokerFactory invokers;
+
+		Key(Class<?> type, Class<?> interfaceClass, InvokerFactory invokers) {
+			this.type = type;
+			this.interfaces = new ArrayList<Class<?>>(1);
+			this.interfaces.add(interfaceClass);
+			this.invokers = invokers;
+		}
+
+		Key(Class<?> type, List<Class<?>> interfaceClasses, InvokerFactory invokers) {
+			this.type = type;
+			this.interfaces = new ArrayList<Class<?>>(interfaceClasses);
+			this.invokers = invokers;
+		}
+
+		Class<?>[] classes() {
+			Class<?>[] classes = new Class<?>[interfaces.size() + 2];
+			classes[0] = type;
+			classes[1] = invokers.getClass();
+			for (int i = 0; i < interfaces.size(); i++) {
+				classes[i + 2] = interfaces.get(i);
+			}
+			return classes;
+		}
+
+		@Override
+		public int hashCode() {
+			return (type.hashCode() * 31 + interfaces.hashCode()) * 31 + invokers.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key that = (Key) obj;
+			return this.type == that.type
+				&& this.interfaces.equals(that.interfaces)
+				&& this.invokers.equals(that.invokers);
+		}
+
+	}
+
+}
@@ -1,15 +1,14 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.determineNeededConversions;
 import static com.almondtools.picklock.Converter.isConverted;
 import static com.almondtools.picklock.SignatureUtil.computeFieldNames;
+import static com.almondtools.picklock.SignatureUtil.erasure;
 import static com.almondtools.picklock.SignatureUtil.fieldSignature;
 import static com.almondtools.picklock.SignatureUtil.findTargetTypeName;
 import static com.almondtools.picklock.SignatureUtil.isBooleanGetter;
 import static com.almondtools.picklock.SignatureUtil.isCompliant;
 import static com.almondtools.picklock.SignatureUtil.isGetter;
 import static com.almondtools.picklock.SignatureUtil.isSetter;
-import static com.almondtools.picklock.SignatureUtil.matchesSignature;
 import static com.almondtools.picklock.SignatureUtil.methodSignature;
 import static com.almondtools.picklock.SignatureUtil.propertyAnnotationsOf;
 import static com.almondtools.picklock.SignatureUtil.propertyOf;
@@ -18,44 +17,178 @@ import static com.almondtools.picklock.SignatureUtil.propertyTypeOf;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class InvocationResolver {
 
-	private Map<String, Field> fieldCache;
+	private static final ClassCache<List<Object>, Boolean> UNRESOLVABLE = new ClassCache<List<Object>, Boolean>();
+
 	private Class<?> innerClass;
+	private InvokerFactory invokers;
 
 	public InvocationResolver(Class<?> clazz) {
+		this(clazz, InvokerFactory.REFLECTION);
+	}
+
+	public InvocationResolver(Class<?> clazz, InvokerFactory invokers) {
 		this.innerClass = clazz;
-		this.fieldCache = new HashMap<String, Field>();
+		this.invokers = invokers;
+	}
+
+	public Class<?> getType() {
+		return innerClass;
 	}
 
+	public InvokerFactory getInvokers() {
+		return invokers;
+	}
+
+	/**
+	 * resolves the given interface method to a handler invoking the mapped member.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler
+	 * @throws NoSuchMethodException
+	 *             if the method cannot be mapped to a member of the resolved class
+	 */
 	protected MethodInvocationHandler findInvocationHandler(Method method) throws NoSuchMethodException {
+		MethodInvocationHandler handler = resolveInvocationHandler(method);
+		if (handler == null) {
+			throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves the given interface method to a handler invoking the mapped member. Other than {@link #findInvocationHandler(Method)} this method does
+	 * not throw if the method cannot be mapped. Failed resolutions are cached for the resolved class, so repeatedly resolving a method that cannot be
+	 * mapped is cheap. This cache is only used if the class of this resolver does not override any resolution hook (overridden hooks may depend on the
+	 * state of the resolver).
+	 * 
+	 * <p>
+	 * The method is resolved with the hooks {@link #resolveMethodInvocator(Method)}, {@link #resolveSetterInvocator(Method)} and
+	 * {@link #resolveGetterInvocator(Method)}, subclasses may override these hooks to customize resolution. If a subclass overrides one of the
+	 * deprecated hooks {@link #createMethodInvocator(Method)}, {@link #createSetterInvocator(Method)}, {@link #createGetterInvocator(Method)} or
+	 * {@link #findField(String, Class, Annotation[])}, the deprecated hook is called instead of its replacement.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if the method cannot be mapped to a member of the resolved class
+	 */
+	protected MethodInvocationHandler resolveInvocationHandler(Method method) {
+		Set<String> hooks = OverriddenHooks.of(getClass());
+		List<Object> key = Arrays.<Object> asList(innerClass, method);
+		if (hooks.isEmpty() && UNRESOLVABLE.get(key, innerClass, method.getDeclaringClass()) != null) {
+			return null;
+		}
+		MethodInvocationHandler handler = methodInvocator(hooks, method);
+		if (handler == null) {
+			if (isSetter(method)) {
+				handler = setterInvocator(hooks, method);
+			} else if (isGetter(method) || isBooleanGetter(method)) {
+				handler = getterInvocator(hooks, method);
+			}
+		}
+		if (handler == null && hooks.isEmpty()) {
+			UNRESOLVABLE.putIfAbsent(key, Boolean.TRUE, innerClass, method.getDeclaringClass());
+		}
+		return handler;
+	}
+
+	@SuppressWarnings("deprecation")
+	private MethodInvocationHandler methodInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createMethodInvocator")) {
+			return resolveMethodInvocator(method);
+		}
 		try {
 			return createMethodInvocator(method);
 		} catch (NoSuchMethodException e) {
-			try {
-				if (isSetter(method)) {
-					return createSetterInvocator(method);
-				} else if (isGetter(method) || isBooleanGetter(method)) {
-					return createGetterInvocator(method);
-				} else {
-					throw e;
-				}
-			} catch (NoSuchFieldException e2) {
-				throw e;
-			}
+			return null;
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private MethodInvocationHandler setterInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createSetterInvocator")) {
+			return resolveSetterInvocator(method);
+		}
+		try {
+			return createSetterInvocator(method);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private MethodInvocationHandler getterInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createGetterInvocator")) {
+			return resolveGetterInvocator(method);
+		}
+		try {
+			return createGetterInvocator(method);
+		} catch (NoSuchFieldException e) {
+			return null;
 		}
 	}
 
+	/**
+	 * @deprecated override {@link #resolveSetterInvocator(Method)} to customize the resolution of setters. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected MethodInvocationHandler createSetterInvocator(Method method) throws NoSuchFieldException {
-		return new FieldSetter(findField(method), convertedPropertyTypeOf(method));
+		MethodInvocationHandler handler = resolveSetterInvocator(method);
+		if (handler == null) {
+			throw noSuchField(method);
+		}
+		return handler;
 	}
 
+	/**
+	 * @deprecated override {@link #resolveGetterInvocator(Method)} to customize the resolution of getters. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected MethodInvocationHandler createGetterInvocator(Method method) throws NoSuchFieldException {
-		return new FieldGetter(findField(method), convertedPropertyTypeOf(method));
+		MethodInvocationHandler handler = resolveGetterInvocator(method);
+		if (handler == null) {
+			throw noSuchField(method);
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves a setter method to a handler setting the mapped field (see {@link #resolveField(String, Class, Annotation[])}).
+	 * 
+	 * @param method
+	 *            the setter method
+	 * @return the handler, or null if there is no mapped field
+	 */
+	protected MethodInvocationHandler resolveSetterInvocator(Method method) {
+		Field field = fieldFor(method);
+		if (field == null) {
+			return null;
+		}
+		return invokers.createFieldSetter(field, convertedPropertyTypeOf(method));
+	}
+
+	/**
+	 * resolves a getter method to a handler getting the mapped field (see {@link #resolveField(String, Class, Annotation[])}).
+	 * 
+	 * @param method
+	 *            the getter method
+	 * @return the handler, or null if there is no mapped field
+	 */
+	protected MethodInvocationHandler resolveGetterInvocator(Method method) {
+		Field field = fieldFor(method);
+		if (field == null) {
+			return null;
+		}
+		return invokers.createFieldGetter(field, convertedPropertyTypeOf(method));
 	}
 
 	private Class<?> convertedPropertyTypeOf(Method method) {
@@ -65,54 +198,155 @@ public class InvocationResolver {
 		return propertyTypeOf(method);
 	}
 
-	private Field findField(Method method) throws NoSuchFieldException {
+	private NoSuchFieldException noSuchField(Method method) {
+		return new NoSuchFieldException(fieldSignature(computeFieldNames(propertyOf(method)), propertyTypeOf(method)));
+	}
+
+	private Field fieldFor(Method method) {
 		if (isConverted(method)) {
-			return findField(propertyOf(method), propertyTypeOf(method), propertyAnnotationsOf(method));
+			return field(propertyOf(method), propertyTypeOf(method), propertyAnnotationsOf(method));
 		} else {
-			return findField(propertyOf(method), propertyTypeOf(method), new Annotation[0]);
+			return field(propertyOf(method), propertyTypeOf(method), new Annotation[0]);
 		}
 	}
 
+	@SuppressWarnings("deprecation")
+	private Field field(String fieldPattern, Class<?> type, Annotation[] annotations) {
+		if (!OverriddenHooks.of(getClass()).contains("findField")) {
+			return resolveField(fieldPattern, type, annotations);
+		}
+		try {
+			return findField(fieldPattern, type, annotations);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @deprecated override {@link #resolveField(String, Class, Annotation[])} to customize the resolution of fields. It is only called during
+	 *             resolution if a subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected Field findField(String fieldPattern, Class<?> type, Annotation[] annotations) throws NoSuchFieldException {
-		String convert = findTargetTypeName(annotations, type);
+		Field field = resolveField(fieldPattern, type, annotations);
+		if (field == null) {
+			throw new NoSuchFieldException(fieldSignature(computeFieldNames(fieldPattern), type));
+		}
+		return field;
+	}
+
+	/**
+	 * resolves a field matching one of the names derived from the field pattern (see {@link SignatureUtil#computeFieldNames(String)}), searching the
+	 * resolved class and then its super classes.
+	 * 
+	 * @param fieldPattern
+	 *            the property name
+	 * @param type
+	 *            the type of the property
+	 * @param annotations
+	 *            the annotations of the property (determining conversions)
+	 * @return the field, or null if there is no matching field
+	 */
+	protected Field resolveField(String fieldPattern, Class<?> type, Annotation[] annotations) {
+		return resolveField(fieldPattern, (Type) type, annotations);
+	}
+
+	/**
+	 * resolves a field like {@link #resolveField(String, Class, Annotation[])}, but for a possibly generic type (see {@link MemberSignature}).
+	 * 
+	 * @param fieldPattern
+	 *            the property name
+	 * @param type
+	 *            the type of the property
+	 * @param annotations
+	 *            the annotations of the property (determining conversions)
+	 * @return the field, or null if there is no matching field
+	 */
+	Field resolveField(String fieldPattern, Type type, Annotation[] annotations) {
+		String convert = findTargetTypeName(annotations, erasure(type));
 		List<String> fieldNames = computeFieldNames(fieldPattern);
-		Class<?> currentClass = this.innerClass;
-		while (currentClass != Object.class) {
+		for (MemberIndex index : MemberIndex.of(innerClass).hierarchy()) {
 			for (String fieldName : fieldNames) {
-				try {
-					Field field = fieldCache.get(fieldName);
-					if (field == null) {
-						field = currentClass.getDeclaredField(fieldName);
-						fieldCache.put(fieldName, field);
-					}
-					if (isCompliant(type, field.getType(), convert)) {
-						return field;
-					}
-				} catch (NoSuchFieldException e) {
+				Field field = index.field(fieldName);
+				if (field != null && isCompliant(type, field.getType(), convert)) {
+					return field;
 				}
 			}
-			currentClass = currentClass.getSuperclass();
 		}
-		throw new NoSuchFieldException(fieldSignature(fieldNames, type));
+		return null;
 	}
 
+	/**
+	 * resolves a field matching one of the names derived from the field pattern (like {@link #resolveField(String, Class, Annotation[])}), but of any
+	 * type.
+	 * 
+	 * @param fieldPattern
+	 *            the property name
+	 * @return the field, or null if there is no matching field
+	 */
+	Field resolveField(String fieldPattern) {
+		List<String> fieldNames = computeFieldNames(fieldPattern);
+		for (MemberIndex index : MemberIndex.of(innerClass).hierarchy()) {
+			for (String fieldName : fieldNames) {
+				Field field = index.field(fieldName);
+				if (field != null) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @deprecated override {@link #resolveMethodInvocator(Method)} to customize the resolution of methods. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected MethodInvocationHandler createMethodInvocator(Method method) throws NoSuchMethodException {
-		Class<?> currentClass = this.innerClass;
-		while (currentClass != Object.class) {
-			try {
-				return new MethodInvoker(findMethod(method, currentClass), findConversionTarget(method));
-			} catch (NoSuchMethodException e) {
+		MethodInvocationHandler handler = resolveMethodInvocator(method);
+		if (handler == null) {
+			throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves an interface method to a handler invoking the mapped method (of the resolved class or one of its super classes).
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if there is no mapped method
+	 */
+	protected MethodInvocationHandler resolveMethodInvocator(Method method) {
+		Method candidate = resolveMethod(MemberSignature.of(method));
+		if (candidate == null) {
+			return null;
+		}
+		return invokers.createMethodInvoker(candidate, findConversionTarget(method));
+	}
+
+	/**
+	 * resolves the method (of the resolved class or one of its super classes) matching the given signature.
+	 * 
+	 * @param signature
+	 *            the signature of an interface method or a function
+	 * @return the method, or null if there is no matching method
+	 */
+	Method resolveMethod(MemberSignature signature) {
+		for (MemberIndex index : MemberIndex.of(innerClass).hierarchy()) {
+			Method candidate = findMethod(signature, index);
+			if (candidate != null) {
+				return candidate;
 			}
-			currentClass = currentClass.getSuperclass();
 		}
-		throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		return null;
 	}
 
-	private Method findMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		if (isConverted(method)) {
-			return findConvertibleMethod(method, clazz);
+	private Method findMethod(MemberSignature signature, MemberIndex index) {
+		if (signature.isConverted()) {
+			return findConvertibleMethod(signature, index);
 		} else {
-			return findMatchingMethod(method, clazz);
+			return findMatchingMethod(signature, index);
 		}
 	}
 
@@ -124,23 +358,27 @@ public class InvocationResolver {
 		}
 	}
 
-	private Method findConvertibleMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		String[] convertArguments = determineNeededConversions(method.getParameterAnnotations(), method.getParameterTypes());
-		String convertResult = findTargetTypeName(method.getAnnotations(), method.getReturnType());
-		for (Method candidate : clazz.getDeclaredMethods()) {
-			if (matchesSignature(method, candidate, convertArguments, convertResult)) {
+	private Method findConvertibleMethod(MemberSignature signature, MemberIndex index) {
+		String[] convertArguments = signature.convertArguments();
+		String convertResult = signature.convertResult();
+		for (Method candidate : index.methods(signature.getName(), signature.getArity())) {
+			if (signature.matches(candidate, convertArguments, convertResult)) {
 				return candidate;
 			}
 		}
-		throw new NoSuchMethodException();
+		return null;
 	}
 
-	private Method findMatchingMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		Method candidate = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
-		if (matchesSignature(method, candidate, null, null)) {
-			return candidate;
+	private Method findMatchingMethod(MemberSignature signature, MemberIndex index) {
+		List<Method> candidates = signature.isGeneric()
+			? index.methods(signature.getName(), signature.getArity())
+			: index.methods(signature.getName(), signature.getParameterClasses());
+		for (Method candidate : candidates) {
+			if (signature.matches(candidate, null, null)) {
+				return candidate;
+			}
 		}
-		throw new NoSuchMethodException();
+		return null;
 	}
 
 }
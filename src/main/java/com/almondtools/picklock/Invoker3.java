@@ -0,0 +1,54 @@
+package com.almondtools.picklock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a single (private) method with 3 parameters on objects of a given class (see {@link Picklock#method(Class, String, Class, Class, Class, Class)}). Other than
+ * feature interfaces the method is invoked without proxy, dispatch or argument arrays.
+ * 
+ * @param <T>
+ *            the class declaring (or inheriting) the method
+ * @param <A1>
+ *            the type of the first parameter
+ * @param <A2>
+ *            the type of the second parameter
+ * @param <A3>
+ *            the type of the third parameter
+ * @param <R>
+ *            the result type of the method ({@link Void} for void methods)
+ * @author Stefan Mandel
+ */
+public final class Invoker3<T, A1, A2, A3, R> {
+
+	private final Method method;
+	private final MethodHandle handle;
+
+	Invoker3(Method method, MethodHandle handle) {
+		this.method = method;
+		this.handle = handle;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * @param object
+	 *            the object to invoke the method on
+	 * @param a1
+	 *            the first argument
+	 * @param a2
+	 *            the second argument
+	 * @param a3
+	 *            the third argument
+	 * @return the result of the method (null for void methods)
+	 * @throws Throwable
+	 *             any exception thrown by the method (not wrapped)
+	 */
+	@SuppressWarnings("unchecked")
+	public R invoke(T object, A1 a1, A2 a2, A3 a3) throws Throwable {
+		return (R) (Object) handle.invokeExact((Object) object, (Object) a1, (Object) a2, (Object) a3);
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Creates the invocation handlers a resolver maps the members of a class to. There are two predefined factories:
+ * 
+ * <ul>
+ * <li>{@link #REFLECTION} invokes members with the reflection api ({@link MethodInvoker}, {@link FieldGetter}, ...)</li>
+ * <li>{@link #METHOD_HANDLES} invokes members with pre-bound and type-adapted method handles ({@link MethodHandleInvoker}, {@link FieldHandleGetter}, ...), falling back to reflection for members that cannot be unreflected</li>
+ * <li>{@link #GENERATED} invokes members like {@link #METHOD_HANDLES}, but instead of a {@link java.lang.reflect.Proxy} it creates proxies of generated classes calling the method handles directly</li>
+ * </ul>
+ * 
+ * Resolved plans are cached per factory (see {@link InvocationPlanCache}). Custom factories that create the same handlers should be equal, plans of
+ * factories that do not override <code>equals</code> are not cached.
+ * 
+ * @author Stefan Mandel
+ */
+public interface InvokerFactory {
+
+	InvokerFactory REFLECTION = new ReflectionInvokerFactory();
+	InvokerFactory METHOD_HANDLES = new MethodHandleInvokerFactory();
+	InvokerFactory GENERATED = new GeneratedInvokerFactory();
+
+	MethodInvocationHandler createMethodInvoker(Method method, Method target);
+
+	MethodInvocationHandler createFieldGetter(Field field, Class<?> target);
+
+	MethodInvocationHandler createFieldSetter(Field field, Class<?> target);
+
+	StaticMethodInvocationHandler createStaticMethodInvoker(Class<?> type, Method method, Method target);
+
+	StaticMethodInvocationHandler createConstructorInvoker(Constructor<?> constructor, Method target);
+
+	StaticMethodInvocationHandler createStaticGetter(Class<?> type, Field field, Class<?> target);
+
+	StaticMethodInvocationHandler createStaticSetter(Class<?> type, Field field, Class<?> target);
+
+	/**
+	 * creates a proxy of the given interface, dispatching each method to the handler resolved by access
+	 * 
+	 * @param interfaceClass
+	 *            the interface of the proxy (all methods of this interface are already resolved)
+	 * @param access
+	 *            the access providing the object and the resolved handlers
+	 * @return the proxy
+	 */
+	<T> T createProxy(Class<T> interfaceClass, ObjectAccess access);
+
+	/**
+	 * creates a proxy of the given interface, dispatching each method to the static handler resolved by access
+	 * 
+	 * @param interfaceClass
+	 *            the interface of the proxy (all methods of this interface are already resolved)
+	 * @param access
+	 *            the access providing the resolved static handlers
+	 * @return the proxy
+	 */
+	<T> T createProxy(Class<T> interfaceClass, ClassAccess access);
+
+	/**
+	 * creates a template binding objects to the given interface, dispatching each method to the handler resolved in plan
+	 * 
+	 * @param interfaceClass
+	 *            the interface of the proxies created by the template
+	 * @param plan
+	 *            the plan containing the handlers for all methods of the interface
+	 * @return the template
+	 */
+	<T> Unlocker<T> createUnlocker(Class<T> interfaceClass, InvocationPlan plan);
+
+	/**
+	 * creates a cursor with a single view of the given interface, dispatching each method to the handler resolved in plan
+	 * 
+	 * @param interfaceClass
+	 *            the interface of the view of the cursor
+	 * @param plan
+	 *            the plan containing the handlers for all methods of the interface
+	 * @return the cursor
+	 */
+	<T> Cursor<T> createCursor(Class<T> interfaceClass, InvocationPlan plan);
+
+	/**
+	 * creates a proxy of the given interface, dispatching each method to the handler resolved in plan and to the object bound to the given context
+	 * at the time of the call
+	 * 
+	 * @param interfaceClass
+	 *            the interface of the proxy
+	 * @param plan
+	 *            the plan containing the handlers for all methods of the interface
+	 * @param context
+	 *            the context providing the object of each call
+	 * @return the proxy
+	 */
+	<T> T createContextProxy(Class<T> interfaceClass, InvocationPlan plan, ThreadLocal<?> context);
+
+}
@@ -55,18 +55,19 @@ public class IsEquivalent<S, T extends Matcher<S>> extends BaseMatcher<S> {
 	}
 
 	private Object propertyValueFor(Class<?> itemClass, Object item, String name) {
-		Class<?> currentClass = itemClass;
-		while (currentClass != null) {
+		for (MemberIndex index : MemberIndex.of(itemClass).hierarchy()) {
 			for (String fieldName : SignatureUtil.computeFieldNames(name)) {
+				Field field = index.field(fieldName);
+				if (field == null) {
+					continue;
+				}
 				try {
-					Field field = currentClass.getDeclaredField(fieldName);
 					field.setAccessible(true);
 					return field.get(item);
 				} catch (Exception e) {
 					continue;
 				}
 			}
-			currentClass = currentClass.getSuperclass();
 		}
 		return null;
 	}
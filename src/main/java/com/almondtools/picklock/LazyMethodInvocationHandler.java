@@ -0,0 +1,53 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A handler resolving its interface method on first invocation (see {@link ObjectAccess#lazyFeatures(Class)}). The resolved handler is installed
+ * atomically, concurrent first invocations resolve the method more than once but all of them use the same (first installed) handler.
+ */
+public final class LazyMethodInvocationHandler implements MethodInvocationHandler {
+
+	private static final AtomicReferenceFieldUpdater<LazyMethodInvocationHandler, MethodInvocationHandler> RESOLVED = AtomicReferenceFieldUpdater.newUpdater(
+		LazyMethodInvocationHandler.class, MethodInvocationHandler.class, "resolved");
+
+	private final InvocationResolver resolver;
+	private final Method method;
+	private volatile MethodInvocationHandler resolved;
+
+	public LazyMethodInvocationHandler(InvocationResolver resolver, Method method) {
+		this.resolver = resolver;
+		this.method = method;
+	}
+
+	public boolean isResolved() {
+		return resolved != null;
+	}
+
+	/**
+	 * @return the handler the interface method is resolved to (resolving it if not yet done)
+	 * @throws PicklockException
+	 *             if the method could not be resolved
+	 */
+	public MethodInvocationHandler resolve() {
+		MethodInvocationHandler handler = resolved;
+		if (handler == null) {
+			try {
+				handler = resolver.findInvocationHandler(method);
+			} catch (NoSuchMethodException e) {
+				throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + resolver.getType());
+			}
+			if (!RESOLVED.compareAndSet(this, null, handler)) {
+				handler = resolved;
+			}
+		}
+		return handler;
+	}
+
+	@Override
+	public Object invoke(Object object, Object... args) throws Throwable {
+		return resolve().invoke(object, args);
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The index of all members declared by a class. The reflective data of a class (declared fields, methods and constructors) is requested only once and
+ * then shared by all resolvers, snoops and converters. Methods are indexed by name, by name and arity and by name and parameter types, constructors by
+ * arity.
+ *
+ * <p>
+ * Indexes are attached to the indexed class (with {@link ClassValue}) and are immutable, so they may be shared between threads. An index only contains the
+ * members declared by its class, {@link #hierarchy()} provides the indexes of the class and all its super classes.
+ *
+ * @author Stefan Mandel
+ */
+public final class MemberIndex {
+
+	private static final ClassValue<MemberIndex> INDEXES = new ClassValue<MemberIndex>() {
+
+		@Override
+		protected MemberIndex computeValue(Class<?> type) {
+			return new MemberIndex(type);
+		}
+
+	};
+
+	private final Class<?> type;
+	private final List<Field> fields;
+	private final Map<String, Field> fieldsByName;
+	private final List<Method> methods;
+	private final Map<String, List<Method>> methodsByName;
+	private final Map<Signature, List<Method>> methodsByArity;
+	private final Map<Signature, List<Method>> methodsByParameterTypes;
+	private final Map<Integer, List<Constructor<?>>> constructorsByArity;
+	private volatile List<MemberIndex> hierarchy;
+
+	private MemberIndex(Class<?> type) {
+		this.type = type;
+		Field[] declaredFields = type.getDeclaredFields();
+		this.fields = Collections.unmodifiableList(Arrays.asList(declaredFields));
+		this.fieldsByName = new HashMap<String, Field>();
+		for (Field field : declaredFields) {
+			fieldsByName.put(field.getName(), field);
+		}
+		Method[] declaredMethods = type.getDeclaredMethods();
+		this.methods = Collections.unmodifiableList(Arrays.asList(declaredMethods));
+		this.methodsByName = new HashMap<String, List<Method>>();
+		this.methodsByArity = new HashMap<Signature, List<Method>>();
+		this.methodsByParameterTypes = new HashMap<Signature, List<Method>>();
+		for (Method method : declaredMethods) {
+			add(methodsByName, method.getName(), method);
+			add(methodsByArity, new Signature(method.getName(), method.getParameterTypes().length), method);
+			add(methodsByParameterTypes, new Signature(method.getName(), method.getParameterTypes()), method);
+		}
+		this.constructorsByArity = new LinkedHashMap<Integer, List<Constructor<?>>>();
+		for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+			add(constructorsByArity, constructor.getParameterTypes().length, constructor);
+		}
+	}
+
+	private static <K, V> void add(Map<K, List<V>> index, K key, V value) {
+		List<V> values = index.get(key);
+		if (values == null) {
+			values = new ArrayList<V>(1);
+			index.put(key, values);
+		}
+		values.add(value);
+	}
+
+	/**
+	 * returns the index of the given class, the index is computed on the first call and shared afterwards.
+	 *
+	 * @param type
+	 *            the class to index
+	 * @return the index of the members declared by type
+	 */
+	public static MemberIndex of(Class<?> type) {
+		return INDEXES.get(type);
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return the indexes of the type and its super classes (most specific first, without {@link Object})
+	 */
+	public List<MemberIndex> hierarchy() {
+		List<MemberIndex> current = hierarchy;
+		if (current == null) {
+			List<MemberIndex> indexes = new ArrayList<MemberIndex>();
+			indexes.add(this);
+			Class<?> currentClass = type.getSuperclass();
+			while (currentClass != null && currentClass != Object.class) {
+				indexes.add(of(currentClass));
+				currentClass = currentClass.getSuperclass();
+			}
+			current = Collections.unmodifiableList(indexes);
+			hierarchy = current;
+		}
+		return current;
+	}
+
+	/**
+	 * @return all declared fields
+	 */
+	public List<Field> fields() {
+		return fields;
+	}
+
+	/**
+	 * @param name
+	 *            the name of the field
+	 * @return the declared field with the given name, or null if there is none
+	 */
+	public Field field(String name) {
+		return fieldsByName.get(name);
+	}
+
+	/**
+	 * @return all declared methods
+	 */
+	public List<Method> methods() {
+		return methods;
+	}
+
+	/**
+	 * @param name
+	 *            the name of the methods
+	 * @return all declared methods with the given name
+	 */
+	public List<Method> methods(String name) {
+		return unmodifiable(methodsByName.get(name));
+	}
+
+	/**
+	 * @param name
+	 *            the name of the methods
+	 * @param arity
+	 *            the number of parameters of the methods
+	 * @return all declared methods with the given name and number of parameters
+	 */
+	public List<Method> methods(String name, int arity) {
+		return unmodifiable(methodsByArity.get(new Signature(name, arity)));
+	}
+
+	/**
+	 * @param name
+	 *            the name of the methods
+	 * @param parameterTypes
+	 *            the parameter types of the methods
+	 * @return all declared methods with the given name and parameter types (more than one only if the class declares bridge methods)
+	 */
+	public List<Method> methods(String name, Class<?>[] parameterTypes) {
+		return unmodifiable(methodsByParameterTypes.get(new Signature(name, parameterTypes)));
+	}
+
+	/**
+	 * @param arity
+	 *            the number of parameters of the constructors
+	 * @return all declared constructors with the given number of parameters
+	 */
+	public List<Constructor<?>> constructors(int arity) {
+		return unmodifiable(constructorsByArity.get(arity));
+	}
+
+	private static <T> List<T> unmodifiable(List<T> list) {
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	private static class Signature {
+
+		private String name;
+		private int arity;
+		private Class<?>[] parameterTypes;
+
+		public Signature(String name, int arity) {
+			this.name = name;
+			this.arity = arity;
+		}
+
+		public Signature(String name, Class<?>[] parameterTypes) {
+			this.name = name;
+			this.arity = parameterTypes.length;
+			this.parameterTypes = parameterTypes;
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() * 31 + arity;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Signature that = (Signature) obj;
+			return this.name.equals(that.name)
+				&& this.arity == that.arity
+				&& Arrays.equals(this.parameterTypes, that.parameterTypes);
+		}
+
+	}
+
+}
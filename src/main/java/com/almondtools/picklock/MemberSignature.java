@@ -0,0 +1,167 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.determineNeededConversions;
+import static com.almondtools.picklock.SignatureUtil.CONSTRUCTOR;
+import static com.almondtools.picklock.SignatureUtil.erasure;
+import static com.almondtools.picklock.SignatureUtil.findTargetTypeName;
+import static com.almondtools.picklock.SignatureUtil.isCompliant;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * The signature members are resolved by (see {@link InvocationResolver} and {@link StaticInvocationResolver}): a name, parameter types, a result type
+ * (each with its annotations determining conversions) and exception types.
+ *
+ * <p>
+ * Signatures of interface methods ({@link #of(Method)}) contain only classes, which are matched exactly (unless converted). Signatures of functional
+ * interfaces ({@link #of(String, Method, int)}) keep the type variables of the interface, which match any type within their bounds (see
+ * {@link SignatureUtil#isCompliant(Type, Class, String)}).
+ */
+final class MemberSignature {
+
+	private final String name;
+	private final Type[] parameterTypes;
+	private final Annotation[][] parameterAnnotations;
+	private final Type returnType;
+	private final Annotation[] annotations;
+	private final Class<?>[] exceptionTypes;
+
+	private MemberSignature(String name, Type[] parameterTypes, Annotation[][] parameterAnnotations, Type returnType, Annotation[] annotations, Class<?>[] exceptionTypes) {
+		this.name = name;
+		this.parameterTypes = parameterTypes;
+		this.parameterAnnotations = parameterAnnotations;
+		this.returnType = returnType;
+		this.annotations = annotations;
+		this.exceptionTypes = exceptionTypes;
+	}
+
+	/**
+	 * @param method
+	 *            an interface method
+	 * @return the signature of the method
+	 */
+	static MemberSignature of(Method method) {
+		return new MemberSignature(method.getName(), method.getParameterTypes(), method.getParameterAnnotations(), method.getReturnType(), method.getAnnotations(), method.getExceptionTypes());
+	}
+
+	/**
+	 * @param name
+	 *            the name of the member to resolve
+	 * @param function
+	 *            the abstract method of a functional interface
+	 * @param skip
+	 *            the number of leading parameters of the function that are not arguments of the member (e.g. the receiver)
+	 * @return the signature of the function with the given name and without the skipped parameters
+	 */
+	static MemberSignature of(String name, Method function, int skip) {
+		Type[] parameterTypes = function.getGenericParameterTypes();
+		Annotation[][] parameterAnnotations = function.getParameterAnnotations();
+		return new MemberSignature(name,
+			Arrays.copyOfRange(parameterTypes, skip, parameterTypes.length),
+			Arrays.copyOfRange(parameterAnnotations, skip, parameterAnnotations.length),
+			function.getGenericReturnType(),
+			function.getAnnotations(),
+			function.getExceptionTypes());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getArity() {
+		return parameterTypes.length;
+	}
+
+	public Type[] getParameterTypes() {
+		return parameterTypes;
+	}
+
+	public Class<?>[] getParameterClasses() {
+		Class<?>[] parameterClasses = new Class<?>[parameterTypes.length];
+		for (int i = 0; i < parameterClasses.length; i++) {
+			parameterClasses[i] = erasure(parameterTypes[i]);
+		}
+		return parameterClasses;
+	}
+
+	public Annotation[][] getParameterAnnotations() {
+		return parameterAnnotations;
+	}
+
+	public Type getReturnType() {
+		return returnType;
+	}
+
+	public Class<?> getReturnClass() {
+		return erasure(returnType);
+	}
+
+	public Annotation[] getAnnotations() {
+		return annotations;
+	}
+
+	/**
+	 * @return true if the signature contains type variables (and so cannot be matched by exact parameter types)
+	 */
+	public boolean isGeneric() {
+		if (SignatureUtil.isGeneric(returnType)) {
+			return true;
+		}
+		for (Type parameterType : parameterTypes) {
+			if (SignatureUtil.isGeneric(parameterType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the result or a parameter is annotated with {@link Convert} (like {@link Converter#isConverted(Method)})
+	 */
+	public boolean isConverted() {
+		if (convertResult() != null) {
+			return true;
+		}
+		for (String convert : convertArguments()) {
+			if (convert != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public String[] convertArguments() {
+		return determineNeededConversions(parameterAnnotations, getParameterClasses());
+	}
+
+	public String convertResult() {
+		return findTargetTypeName(annotations, getReturnClass());
+	}
+
+	public boolean matches(Method candidate, String[] convertArguments, String convertResult) {
+		if (!candidate.getName().equals(name)) {
+			return false;
+		}
+		return isCompliant(parameterTypes, candidate.getParameterTypes(), convertArguments)
+			&& isCompliant(returnType, candidate.getReturnType(), convertResult)
+			&& isCompliant(exceptionTypes, candidate.getExceptionTypes(), null);
+	}
+
+	public boolean matches(Constructor<?> candidate, String[] convertArguments) {
+		if (!name.equals(CONSTRUCTOR)) {
+			return false;
+		}
+		return isCompliant(parameterTypes, candidate.getParameterTypes(), convertArguments)
+			&& isCompliant(exceptionTypes, candidate.getExceptionTypes(), null);
+	}
+
+	@Override
+	public String toString() {
+		return SignatureUtil.methodSignature(name, getReturnClass(), getParameterClasses(), exceptionTypes);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.almondtools.picklock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+/**
+ * An invocation handler that is backed by a method handle. The handle of such a handler may be linked directly into generated classes (see {@link GeneratedInvokerFactory}).
+ */
+public interface MethodHandleBacked {
+
+	/**
+	 * returns the method handle of this invocation handler adapted to the given type
+	 * 
+	 * @param type
+	 *            the type of the result handle (the receiver of non-static members is the first parameter)
+	 * @return the adapted method handle or null if the handler cannot be expressed by a plain method handle (e.g. because it converts arguments or results)
+	 */
+	MethodHandle handleOf(MethodType type);
+
+}
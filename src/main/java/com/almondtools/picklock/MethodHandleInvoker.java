@@ -0,0 +1,76 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
+import static java.lang.invoke.MethodType.genericMethodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given method with a method handle. Beyond {@link MethodInvoker} access is checked only once (on construction) and
+ * exceptions are thrown directly (not wrapped into {@link InvocationTargetException}).
+ */
+public class MethodHandleInvoker implements MethodInvocationHandler, MethodHandleBacked {
+
+	private Method method;
+	private Conversion arguments;
+	private Conversion result;
+	private MethodHandle handle;
+	private MethodHandle invoker;
+
+	/**
+	 * Invokes the given method
+	 * @param method the method to invoke
+	 * @throws IllegalAccessException if the method could not be unreflected
+	 */
+	public MethodHandleInvoker(Method method) throws IllegalAccessException {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
+		this.method = method;
+		method.setAccessible(true);
+		this.handle = MethodHandles.lookup().unreflect(method);
+		this.invoker = handle.asType(genericMethodType(handle.type().parameterCount()))
+			.asSpreader(Object[].class, method.getParameterTypes().length);
+	}
+
+	/**
+	 * Invokes a given method. Beyond {@link #MethodHandleInvoker(Method)} this constructor also converts the method signature
+	 * @param method the method to invoke
+	 * @param target the target signature (source arguments, target result)
+	 * @throws IllegalAccessException if the method could not be unreflected
+	 * @see Convert
+	 */
+	public MethodHandleInvoker(Method method, Method target) throws IllegalAccessException {
+		this(method);
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), method.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), method.getReturnType());
+		}
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (arguments != Conversion.NONE || result != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object object, Object... args) throws Throwable {
+		return r((Object) invoker.invokeExact(object, a(args)));
+	}
+
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
+	}
+
+}
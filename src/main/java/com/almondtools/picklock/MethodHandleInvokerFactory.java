@@ -0,0 +1,121 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Creates invocation handlers based on method handles. Members that cannot be unreflected to a method handle (e.g. static final fields)
+ * are handled by the reflection based handlers of {@link ReflectionInvokerFactory}.
+ */
+public class MethodHandleInvokerFactory implements InvokerFactory {
+
+	private InvokerFactory fallback;
+
+	public MethodHandleInvokerFactory() {
+		this.fallback = new ReflectionInvokerFactory();
+	}
+
+	@Override
+	public MethodInvocationHandler createMethodInvoker(Method method, Method target) {
+		try {
+			return new MethodHandleInvoker(method, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createMethodInvoker(method, target);
+		}
+	}
+
+	@Override
+	public MethodInvocationHandler createFieldGetter(Field field, Class<?> target) {
+		try {
+			return new FieldHandleGetter(field, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createFieldGetter(field, target);
+		}
+	}
+
+	@Override
+	public MethodInvocationHandler createFieldSetter(Field field, Class<?> target) {
+		try {
+			return new FieldHandleSetter(field, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createFieldSetter(field, target);
+		}
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticMethodInvoker(Class<?> type, Method method, Method target) {
+		try {
+			return new StaticMethodHandleInvoker(type, method, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createStaticMethodInvoker(type, method, target);
+		}
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createConstructorInvoker(Constructor<?> constructor, Method target) {
+		try {
+			return new ConstructorHandleInvoker(constructor, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createConstructorInvoker(constructor, target);
+		}
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticGetter(Class<?> type, Field field, Class<?> target) {
+		try {
+			return new StaticHandleGetter(type, field, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createStaticGetter(type, field, target);
+		}
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticSetter(Class<?> type, Field field, Class<?> target) {
+		try {
+			return new StaticHandleSetter(type, field, target);
+		} catch (IllegalAccessException e) {
+			return fallback.createStaticSetter(type, field, target);
+		}
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ObjectAccess access) {
+		return fallback.createProxy(interfaceClass, access);
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ClassAccess access) {
+		return fallback.createProxy(interfaceClass, access);
+	}
+
+	@Override
+	public <T> Unlocker<T> createUnlocker(Class<T> interfaceClass, InvocationPlan plan) {
+		return fallback.createUnlocker(interfaceClass, plan);
+	}
+
+	@Override
+	public <T> Cursor<T> createCursor(Class<T> interfaceClass, InvocationPlan plan) {
+		return fallback.createCursor(interfaceClass, plan);
+	}
+
+	@Override
+	public <T> T createContextProxy(Class<T> interfaceClass, InvocationPlan plan, ThreadLocal<?> context) {
+		return fallback.createContextProxy(interfaceClass, plan, context);
+	}
+
+	/**
+	 * factories of this class are stateless (besides caches), so all of them create the same handlers and share their cached plans (see
+	 * {@link InvocationPlanCache}).
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj != null && obj.getClass() == getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
+}
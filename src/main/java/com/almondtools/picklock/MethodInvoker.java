@@ -1,7 +1,7 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertArguments;
-import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -12,13 +12,16 @@ import java.lang.reflect.Method;
 public class MethodInvoker implements MethodInvocationHandler {
 
 	private Method method;
-	private Method target;
+	private Conversion arguments;
+	private Conversion result;
 
 	/**
 	 * Invokes the given method
 	 * @param method the method to invoke
 	 */
 	public MethodInvoker(Method method) {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
 		this.method = method;
 		method.setAccessible(true);
 	}
@@ -31,7 +34,10 @@ public class MethodInvoker implements MethodInvocationHandler {
 	 */
 	public MethodInvoker(Method method, Method target) {
 		this(method);
-		this.target = target;
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), method.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), method.getReturnType());
+		}
 	}
 
 	@Override
@@ -43,18 +49,12 @@ public class MethodInvoker implements MethodInvocationHandler {
 		}
 	}
 
-	private Object[] a(Object[] args) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-		if (target == null) {
-			return args;
-		}
-		return convertArguments(target.getParameterTypes(), method.getParameterTypes(), args);
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
 	}
 
-	private Object r(Object result) throws NoSuchMethodException {
-		if (target == null) {
-			return result;
-		}
-		return convertResult(target.getReturnType(), method.getReturnType(), result);
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
 	}
 
 }
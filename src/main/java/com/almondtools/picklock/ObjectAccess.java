@@ -4,11 +4,13 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * ObjectAccess is a Decorator for any object that should get a new public interface. Usage:
@@ -68,12 +70,19 @@ import java.util.Set;
  */
 public class ObjectAccess extends InvocationResolver implements InvocationHandler {
 
-	private Map<Method, MethodInvocationHandler> methods;
-	private Object object;
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ObjectAccess, DispatchTable> METHODS = AtomicReferenceFieldUpdater.newUpdater(ObjectAccess.class, DispatchTable.class, "methods");
+
+	private volatile DispatchTable<MethodInvocationHandler> methods;
+	private final Object object;
 
 	public ObjectAccess(Object object) {
-		super(object.getClass());
-		this.methods = new HashMap<Method, MethodInvocationHandler>();
+		this(object, InvokerFactory.REFLECTION);
+	}
+
+	public ObjectAccess(Object object, InvokerFactory invokers) {
+		super(object.getClass(), invokers);
+		this.methods = new DispatchTable<MethodInvocationHandler>(Collections.<Method, MethodInvocationHandler> emptyMap());
 		this.object = object;
 	}
 
@@ -92,6 +101,249 @@ public class ObjectAccess extends InvocationResolver implements InvocationHandle
 		return new ObjectAccess(object);
 	}
 
+	/**
+	 * wraps the given object. Beyond {@link #unlock(Object)} the members of the object are invoked by handlers of the given factory, e.g.
+	 * 
+	 * <p>
+	 * <code>ObjectAccess.unlock(object, InvokerFactory.METHOD_HANDLES).features(InterfaceOfTheDecorator.class);</code>
+	 * 
+	 * @param object
+	 *            the object to unlock/decorate
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of object
+	 * @return the wrapped object
+	 */
+	public static ObjectAccess unlock(Object object, InvokerFactory invokers) {
+		return new ObjectAccess(object, invokers);
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a template binding objects of this class to the interface, e.g.
+	 * 
+	 * <p>
+	 * <code>Unlocker&lt;InterfaceOfTheDecorator&gt; unlocker = ObjectAccess.template(ClassToUnlock.class, InterfaceOfTheDecorator.class);</code><br/>
+	 * <code>InterfaceOfTheDecorator unlocked = unlocker.bind(object);</code>
+	 * 
+	 * <p>
+	 * Binding an object to a template does not resolve any members, so templates should be preferred if many objects of the same class are unlocked.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the bound objects)
+	 * @return the template
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped
+	 */
+	public static <T> Unlocker<T> template(Class<?> type, Class<T> interfaceClass) {
+		return template(type, interfaceClass, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a template binding objects of this class to the interface. Beyond
+	 * {@link #template(Class, Class)} the members are invoked by handlers of the given factory. Templates of {@link InvokerFactory#GENERATED} bind an object
+	 * with a single allocation.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the bound objects)
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of bound objects
+	 * @return the template
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped
+	 */
+	public static <T> Unlocker<T> template(Class<?> type, Class<T> interfaceClass, InvokerFactory invokers) {
+		try {
+			InvocationPlan plan = InvocationPlanCache.objectPlan(new InvocationResolver(type, invokers), interfaceClass);
+			return invokers.createUnlocker(interfaceClass, plan);
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + type);
+		}
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a cursor with a single view, that may be retargeted to objects of this
+	 * class, e.g.
+	 * 
+	 * <p>
+	 * <code>Cursor&lt;InterfaceOfTheDecorator&gt; cursor = ObjectAccess.cursor(ClassToUnlock.class, InterfaceOfTheDecorator.class);</code><br/>
+	 * <code>InterfaceOfTheDecorator unlocked = cursor.bind(object);</code>
+	 * 
+	 * <p>
+	 * Beyond templates retargeting a cursor does not allocate a new view, so cursors should be preferred for iterating many objects in tight loops.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the view)
+	 * @return the cursor
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped
+	 */
+	public static <T> Cursor<T> cursor(Class<?> type, Class<T> interfaceClass) {
+		return cursor(type, interfaceClass, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a cursor with a single view. Beyond {@link #cursor(Class, Class)} the members
+	 * are invoked by handlers of the given factory. Cursors of {@link InvokerFactory#GENERATED} are retargeted without any allocation.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the view)
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of bound objects
+	 * @return the cursor
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped
+	 */
+	public static <T> Cursor<T> cursor(Class<?> type, Class<T> interfaceClass, InvokerFactory invokers) {
+		try {
+			InvocationPlan plan = InvocationPlanCache.objectPlan(new InvocationResolver(type, invokers), interfaceClass);
+			return invokers.createCursor(interfaceClass, plan);
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + type);
+		}
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a single proxy, that invokes each method on the object bound to the given
+	 * context at the time of the call, e.g.
+	 * 
+	 * <p>
+	 * <code>ThreadLocal&lt;ClassToUnlock&gt; current = new ThreadLocal&lt;ClassToUnlock&gt;();</code><br/>
+	 * <code>InterfaceOfTheDecorator unlocked = ObjectAccess.contextual(ClassToUnlock.class, InterfaceOfTheDecorator.class, current);</code><br/>
+	 * <code>current.set(object);</code><br/>
+	 * <code>unlocked.method(); // invoked on object</code>
+	 * 
+	 * <p>
+	 * The proxy may be shared by all threads, each thread invokes the methods on the object it bound to the context. Other contexts (e.g. scoped
+	 * values) may be adapted by a subclass of {@link ThreadLocal} overriding {@link ThreadLocal#get()}.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the proxy)
+	 * @param context
+	 *            the context providing the object of each call
+	 * @return the proxy
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped (on creation) or if the context does not contain an instance of type (on
+	 *             invocation)
+	 */
+	public static <T> T contextual(Class<?> type, Class<T> interfaceClass, ThreadLocal<?> context) {
+		return contextual(type, interfaceClass, context, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * resolves the given interface against the given class once and returns a single proxy, that invokes each method on the object bound to the given
+	 * context. Beyond {@link #contextual(Class, Class, ThreadLocal)} the members are invoked by handlers of the given factory.
+	 * 
+	 * @param type
+	 *            the class to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the proxy)
+	 * @param context
+	 *            the context providing the object of each call
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of the context objects
+	 * @return the proxy
+	 * @throws PicklockException
+	 *             if a method of the interface class could not be mapped (on creation) or if the context does not contain an instance of type (on
+	 *             invocation)
+	 */
+	public static <T> T contextual(Class<?> type, Class<T> interfaceClass, ThreadLocal<?> context, InvokerFactory invokers) {
+		try {
+			InvocationPlan plan = InvocationPlanCache.objectPlan(new InvocationResolver(type, invokers), interfaceClass);
+			return invokers.createContextProxy(interfaceClass, plan, context);
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + type);
+		}
+	}
+
+	/**
+	 * returns a template binding objects of the given class or any of its subclasses to the given interface, e.g.
+	 *
+	 * <p>
+	 * <code>Unlocker&lt;InterfaceOfTheDecorator&gt; unlocker = ObjectAccess.polymorphicTemplate(BaseClassToUnlock.class, InterfaceOfTheDecorator.class);</code><br/>
+	 * <code>InterfaceOfTheDecorator unlocked = unlocker.bind(objectOfAnySubclass);</code>
+	 *
+	 * <p>
+	 * The interface is resolved once for each concrete class of the bound objects (see {@link PolymorphicUnlocker}).
+	 *
+	 * @param type
+	 *            the base class of the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the bound objects)
+	 * @return the template
+	 */
+	public static <T> PolymorphicUnlocker<T> polymorphicTemplate(Class<?> type, Class<T> interfaceClass) {
+		return polymorphicTemplate(type, interfaceClass, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * returns a template binding objects of the given class or any of its subclasses to the given interface. Beyond
+	 * {@link #polymorphicTemplate(Class, Class)} the members are invoked by handlers of the given factory.
+	 *
+	 * @param type
+	 *            the base class of the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the bound objects)
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of bound objects
+	 * @return the template
+	 */
+	public static <T> PolymorphicUnlocker<T> polymorphicTemplate(Class<?> type, Class<T> interfaceClass, InvokerFactory invokers) {
+		return new PolymorphicUnlocker<T>(type, interfaceClass, invokers);
+	}
+
+	/**
+	 * unlocks all objects of the given collection with the given interface, e.g.
+	 * 
+	 * <p>
+	 * <code>List&lt;InterfaceOfTheDecorator&gt; unlocked = ObjectAccess.unlockAll(objects, InterfaceOfTheDecorator.class);</code>
+	 * 
+	 * <p>
+	 * The interface is resolved once for each class of the objects (see {@link #polymorphicTemplate(Class, Class)}), not once for each object.
+	 * 
+	 * @param objects
+	 *            the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the unlocked objects)
+	 * @return the unlocked objects (in the order of the collection)
+	 * @throws PicklockException
+	 *             if an object is null or if a method of the interface could not be mapped for the class of an object
+	 */
+	public static <T> List<T> unlockAll(Collection<?> objects, Class<T> interfaceClass) {
+		return unlockAll(objects, interfaceClass, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * unlocks all objects of the given collection with the given interface. Beyond {@link #unlockAll(Collection, Class)} the members are invoked by
+	 * handlers of the given factory.
+	 * 
+	 * @param objects
+	 *            the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the unlocked objects)
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of the unlocked objects
+	 * @return the unlocked objects (in the order of the collection)
+	 * @throws PicklockException
+	 *             if an object is null or if a method of the interface could not be mapped for the class of an object
+	 */
+	public static <T> List<T> unlockAll(Collection<?> objects, Class<T> interfaceClass, InvokerFactory invokers) {
+		Unlocker<T> unlocker = polymorphicTemplate(Object.class, interfaceClass, invokers);
+		List<T> unlocked = new ArrayList<T>(objects.size());
+		for (Object object : objects) {
+			unlocked.add(unlocker.bind(object));
+		}
+		return unlocked;
+	}
+
 	/**
 	 * wraps the given class. The result of this method is a {@link ObjectSnoop} object which enables the user to check if a wrapped object (of the given class)
 	 * could be target of a mapping from a specific interface. Note that a class (not an object) is wrapped, but the result will check the instance interface of this class
@@ -114,32 +366,107 @@ public class ObjectAccess extends InvocationResolver implements InvocationHandle
 	 * @throws NoSuchMethodException
 	 *             if a method of the interface class could not be mapped according to the upper rules
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> T features(Class<T> interfaceClass) {
 		try {
-			List<Class<?>> todo = new ArrayList<Class<?>>();
-			Set<Class<?>> done = new HashSet<Class<?>>();
-			todo.add(interfaceClass);
-			while (!todo.isEmpty()) {
-				Class<?> currentClass = todo.remove(0);
-				done.add(currentClass);
-				for (Method method : currentClass.getDeclaredMethods()) {
-					if (!methods.containsKey(method)) {
-						methods.put(method, findInvocationHandler(method));
-					}
-					for (Class<?> superInterfaceClazz : currentClass.getInterfaces()) {
-						if (!done.contains(superInterfaceClazz)) {
-							todo.add(superInterfaceClazz);
-						}
-					}
-				}
-			}
-			return (T) Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, this);
+			InvocationPlan plan = resolvePlan(interfaceClass);
+			install(plan.getDispatch());
+			return getInvokers().createProxy(interfaceClass, this);
 		} catch (NoSuchMethodException e) {
 			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + object.getClass());
 		}
 	}
 
+	/**
+	 * maps all given interfaces to the wrapped object, the result is a single proxy implementing all of them, e.g.
+	 * 
+	 * <p>
+	 * <code>Object unlocked = ObjectAccess.unlock(object).features(Readable.class, Mutable.class);</code>
+	 * 
+	 * <p>
+	 * All interfaces are resolved into one plan (methods declared by several interfaces are resolved once), the proxy dispatches with a single table.
+	 * Such proxies are always instances of {@link Proxy} (independent of the invoker factory).
+	 * 
+	 * @param interfaceClass
+	 *            the first interface class (defining the type of the result)
+	 * @param interfaceClasses
+	 *            further interface classes (the result may be cast to each of them)
+	 * @return an object implementing all given interfaces (mapped to the members of the wrapped object)
+	 * @throws PicklockException
+	 *             if a method of one of the interface classes could not be mapped according to the upper rules
+	 */
+	public <T> T features(Class<T> interfaceClass, Class<?>... interfaceClasses) {
+		Set<Class<?>> all = new LinkedHashSet<Class<?>>();
+		all.add(interfaceClass);
+		all.addAll(Arrays.asList(interfaceClasses));
+		List<Class<?>> interfaces = new ArrayList<Class<?>>(all);
+		try {
+			InvocationPlan plan = getClass() == ObjectAccess.class
+				? InvocationPlanCache.objectPlan(this, interfaces)
+				: InvocationPlan.resolve(this, interfaces);
+			install(plan.getDispatch());
+			return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), interfaces.toArray(new Class<?>[0]), this));
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + object.getClass());
+		}
+	}
+
+	/**
+	 * maps the given interface to the wrapped object like {@link #features(Class)}, but resolves each method of the interface on its first invocation. This
+	 * is useful for large interfaces where only few methods are actually called.
+	 * 
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the result)
+	 * @return an object of the type of interfaceClass (mapped to the members of the wrapped object)
+	 * @throws PicklockException
+	 *             on invocation of a method of the interface class that could not be mapped
+	 */
+	public <T> T lazyFeatures(Class<T> interfaceClass) {
+		InvocationPlan plan = getClass() == ObjectAccess.class
+			? InvocationPlanCache.lazyObjectPlan(this, interfaceClass)
+			: InvocationPlan.lazy(this, interfaceClass);
+		install(plan.getDispatch());
+		return getInvokers().createProxy(interfaceClass, this);
+	}
+
+	/**
+	 * resolves the plan for the given interface. Plans of plain object accesses are shared through the {@link InvocationPlanCache}, subclasses overriding the
+	 * resolution are resolved for each object.
+	 */
+	private InvocationPlan resolvePlan(Class<?> interfaceClass) throws NoSuchMethodException {
+		if (getClass() == ObjectAccess.class) {
+			return InvocationPlanCache.objectPlan(this, interfaceClass);
+		} else {
+			return InvocationPlan.resolve(this, interfaceClass);
+		}
+	}
+
+	/**
+	 * installs the given handlers (merged with the already installed handlers). The installed table is immutable and replaced atomically, so concurrent
+	 * calls to {@link #features(Class)} do not lose handlers and concurrent invocations always see a complete table.
+	 */
+	private void install(DispatchTable<MethodInvocationHandler> table) {
+		while (true) {
+			DispatchTable<MethodInvocationHandler> current = methods;
+			DispatchTable<MethodInvocationHandler> next = current.size() == 0 ? table : current.merge(table);
+			if (current == next || METHODS.compareAndSet(this, current, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param method
+	 *            a method of an interface passed to {@link #features(Class)}
+	 * @return the handler the given method is mapped to, or null if the method was not mapped
+	 */
+	public MethodInvocationHandler getHandler(Method method) {
+		return methods.get(method);
+	}
+
+	DispatchTable<MethodInvocationHandler> getHandlers() {
+		return methods;
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 		MethodInvocationHandler handler = methods.get(method);
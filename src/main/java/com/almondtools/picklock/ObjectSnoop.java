@@ -28,10 +28,8 @@ public class ObjectSnoop extends InvocationResolver {
 	 */
 	public List<Method> isUnlockable(Class<?> interfaceClazz) {
 		List<Method> conflicts = new LinkedList<Method>();
-		for (Method method : interfaceClazz.getDeclaredMethods()) {
-			try {
-				findInvocationHandler(method);
-			} catch (NoSuchMethodException e) {
+		for (Method method : MemberIndex.of(interfaceClazz).methods()) {
+			if (resolveInvocationHandler(method) == null) {
 				conflicts.add(method);
 			}
 		}
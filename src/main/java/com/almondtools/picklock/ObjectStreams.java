@@ -0,0 +1,71 @@
+package com.almondtools.picklock;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Unlocks the elements of streams (see {@link ObjectAccess#unlockAll(java.util.Collection, Class)} for collections). This class is the only part of
+ * picklock depending on <code>java.util.stream</code>, so it requires Java 8 while the rest of picklock works with Java 7.
+ */
+public final class ObjectStreams {
+
+	private ObjectStreams() {
+	}
+
+	/**
+	 * projects all objects of the given stream to the given interface, e.g.
+	 * 
+	 * <p>
+	 * <code>Stream&lt;InterfaceOfTheDecorator&gt; unlocked = ObjectStreams.stream(objects.stream(), InterfaceOfTheDecorator.class);</code>
+	 * 
+	 * <p>
+	 * The interface is resolved once for each class of the objects and shared by all elements (see
+	 * {@link ObjectAccess#polymorphicTemplate(Class, Class)}). The projection is thread-safe, so the stream may be parallel (elements of a parallel stream
+	 * are unlocked concurrently).
+	 * 
+	 * @param source
+	 *            the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the unlocked objects)
+	 * @return the stream of unlocked objects
+	 * @throws PicklockException
+	 *             (on consuming the stream) if an element is null or if a method of the interface could not be mapped for the class of an element
+	 */
+	public static <T> Stream<T> stream(Stream<?> source, Class<T> interfaceClass) {
+		return stream(source, interfaceClass, InvokerFactory.REFLECTION);
+	}
+
+	/**
+	 * projects all objects of the given stream to the given interface. Beyond {@link #stream(Stream, Class)} the members are invoked by handlers of the
+	 * given factory.
+	 * 
+	 * @param source
+	 *            the objects to unlock/decorate
+	 * @param interfaceClass
+	 *            the given interface class (defining the type of the unlocked objects)
+	 * @param invokers
+	 *            the factory for the handlers invoking the members of the unlocked objects
+	 * @return the stream of unlocked objects
+	 * @throws PicklockException
+	 *             (on consuming the stream) if an element is null or if a method of the interface could not be mapped for the class of an element
+	 */
+	public static <T> Stream<T> stream(Stream<?> source, Class<T> interfaceClass, InvokerFactory invokers) {
+		return source.map(new Bind<T>(ObjectAccess.polymorphicTemplate(Object.class, interfaceClass, invokers)));
+	}
+
+	private static class Bind<T> implements Function<Object, T> {
+
+		private Unlocker<T> unlocker;
+
+		Bind(Unlocker<T> unlocker) {
+			this.unlocker = unlocker;
+		}
+
+		@Override
+		public T apply(Object object) {
+			return unlocker.bind(object);
+		}
+
+	}
+
+}
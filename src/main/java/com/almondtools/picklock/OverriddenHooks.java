@@ -0,0 +1,64 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Determines which resolution hooks (the protected methods of {@link InvocationResolver} and {@link StaticInvocationResolver}, besides
+ * <code>findInvocationHandler</code> and <code>resolveInvocationHandler</code>) a resolver class overrides. Resolvers call overridden deprecated hooks
+ * (e.g. <code>createMethodInvocator</code>) instead of their replacements, and cache failed resolutions only if no hook is overridden (results of
+ * overridden hooks may depend on the state of the resolver).
+ */
+final class OverriddenHooks {
+
+	private static final ClassValue<Set<String>> HOOKS = new ClassValue<Set<String>>() {
+
+		@Override
+		protected Set<String> computeValue(Class<?> type) {
+			Set<String> hooks = new HashSet<String>();
+			for (Class<?> current = type; current != null && !isResolver(current); current = current.getSuperclass()) {
+				for (Method method : current.getDeclaredMethods()) {
+					if (isHook(baseOf(type), method)) {
+						hooks.add(method.getName());
+					}
+				}
+			}
+			return Collections.unmodifiableSet(hooks);
+		}
+	};
+
+	private OverriddenHooks() {
+	}
+
+	/**
+	 * @param resolverClass
+	 *            a sub class of {@link InvocationResolver} or {@link StaticInvocationResolver}
+	 * @return the names of the hooks overridden by resolverClass (or one of its super classes)
+	 */
+	static Set<String> of(Class<?> resolverClass) {
+		return HOOKS.get(resolverClass);
+	}
+
+	private static boolean isResolver(Class<?> type) {
+		return type == InvocationResolver.class || type == StaticInvocationResolver.class;
+	}
+
+	private static Class<?> baseOf(Class<?> type) {
+		return InvocationResolver.class.isAssignableFrom(type) ? InvocationResolver.class : StaticInvocationResolver.class;
+	}
+
+	private static boolean isHook(Class<?> base, Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || method.getName().equals("findInvocationHandler") || method.getName().equals("resolveInvocationHandler")) {
+			return false;
+		}
+		try {
+			return Modifier.isProtected(base.getDeclaredMethod(method.getName(), method.getParameterTypes()).getModifiers());
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,278 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.SignatureUtil.methodSignature;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Picklock provides accessors for single (private) members of a class, e.g.
+ * 
+ * <p>
+ * <code>FieldAccessor&lt;House, Key&gt; houseKey = Picklock.field(House.class, "houseKey", Key.class);</code><br/>
+ * <code>Key key = houseKey.get(house);</code>
+ * 
+ * <p>
+ * Members are resolved with the rules of {@link ObjectAccess} (fields and methods of the class and its super classes) once, when the accessor is created.
+ * Accessors are backed by method handles and invoked without proxy, dispatch or argument arrays, so they are the thinnest way to access a member if no
+ * feature interface is needed. Accessors are immutable and may be shared between threads.
+ * 
+ * @author Stefan Mandel
+ */
+public final class Picklock {
+
+	private Picklock() {
+	}
+
+	/**
+	 * returns an accessor for the field with the given name and type
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the field
+	 * @param name
+	 *            the name of the field
+	 * @param fieldType
+	 *            the type of the field
+	 * @return the accessor
+	 * @throws PicklockException
+	 *             if the class has no field of the given name and type or if this field is static
+	 */
+	public static <T, V> FieldAccessor<T, V> field(Class<T> type, String name, Class<V> fieldType) {
+		Field field = instanceField(type, name, new InvocationResolver(type).resolveField(name, fieldType, new Annotation[0]));
+		InvokerFactory invokers = InvokerFactory.METHOD_HANDLES;
+		MethodHandle getter = Handles.handleOf(invokers.createFieldGetter(field, null), methodType(Object.class, Object.class));
+		MethodHandle setter = Handles.handleOf(invokers.createFieldSetter(field, null), methodType(void.class, Object.class, Object.class));
+		return new FieldAccessor<T, V>(field, getter, setter);
+	}
+
+	private static Field instanceField(Class<?> type, String name, Field field) {
+		if (field == null) {
+			throw new PicklockException("cannot resolve property " + name + " on " + type);
+		}
+		if (Modifier.isStatic(field.getModifiers())) {
+			throw new PicklockException("cannot access static field " + field.getName() + " of " + type + " as instance field");
+		}
+		return field;
+	}
+
+	/**
+	 * returns a plan reading and writing all properties (getter/setter pairs) of the given interface at once, e.g.
+	 * 
+	 * <p>
+	 * <code>Map&lt;String, Object&gt; state = Picklock.properties(House.class, PicklockedHouse.class).dehydrateToMap(house);</code>
+	 * 
+	 * @param type
+	 *            the class of the objects to read and write
+	 * @param interfaceClass
+	 *            the interface providing the properties
+	 * @return the plan
+	 * @throws PicklockException
+	 *             if a property of the interface cannot be mapped to type
+	 */
+	public static <T> PropertyPlan<T> properties(Class<T> type, Class<?> interfaceClass) {
+		return PropertyPlan.of(type, interfaceClass);
+	}
+
+	/**
+	 * returns the binary snapshot of the given class, writing the primitive and string fields of its objects into byte buffers, e.g.
+	 * 
+	 * <p>
+	 * <code>Picklock.snapshot(House.class).writeAll(houses, buffer);</code>
+	 * 
+	 * @param type
+	 *            the class of the objects to write
+	 * @return the snapshot (shared by all callers)
+	 */
+	public static <T> BinarySnapshot<T> snapshot(Class<T> type) {
+		return BinarySnapshot.of(type);
+	}
+
+	/**
+	 * returns a binary snapshot of the given class like {@link #snapshot(Class)}, but resolving the fields of the schema with the given resolver. Such
+	 * snapshots are not cached.
+	 * 
+	 * @param type
+	 *            the class of the objects to write
+	 * @param resolver
+	 *            the resolver of the fields (resolving type)
+	 * @return the snapshot
+	 */
+	public static <T> BinarySnapshot<T> snapshot(Class<T> type, InvocationResolver resolver) {
+		return BinarySnapshot.of(type, resolver);
+	}
+
+	/**
+	 * returns a column reading the primitive field with the given name of many objects at once, e.g.
+	 * 
+	 * <p>
+	 * <code>long total = Picklock.column(Account.class, "balance").parallel().sumLong(accounts);</code>
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the field
+	 * @param name
+	 *            the name of the field (resolved with the same name patterns as {@link #field(Class, String, Class)})
+	 * @return the column
+	 * @throws PicklockException
+	 *             if the class has no field of the given name, if this field is static or if it is neither primitive nor boxed primitive
+	 */
+	public static <T> FieldColumn<T> column(Class<T> type, String name) {
+		Field field = instanceField(type, name, new InvocationResolver(type).resolveField(name));
+		MethodInvocationHandler getter = InvokerFactory.METHOD_HANDLES.createFieldGetter(field, null);
+		return new FieldColumn<T>(field, Handles.handleOf(getter, methodType(field.getType(), Object.class)));
+	}
+
+	/**
+	 * returns an invoker for the method with the given name and result type (without parameters)
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the method
+	 * @param name
+	 *            the name of the method
+	 * @param returnType
+	 *            the result type of the method
+	 * @return the invoker
+	 * @throws PicklockException
+	 *             if the class has no method of the given signature
+	 */
+	public static <T, R> Invoker0<T, R> method(Class<T> type, String name, Class<R> returnType) {
+		Method method = findMethod(type, name, returnType);
+		return new Invoker0<T, R>(method, handleOf(method));
+	}
+
+	/**
+	 * returns an invoker for the method with the given name, result type and parameter type
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the method
+	 * @param name
+	 *            the name of the method
+	 * @param returnType
+	 *            the result type of the method
+	 * @param a1
+	 *            the type of the parameter
+	 * @return the invoker
+	 * @throws PicklockException
+	 *             if the class has no method of the given signature
+	 */
+	public static <T, A1, R> Invoker1<T, A1, R> method(Class<T> type, String name, Class<R> returnType, Class<A1> a1) {
+		Method method = findMethod(type, name, returnType, a1);
+		return new Invoker1<T, A1, R>(method, handleOf(method));
+	}
+
+	/**
+	 * returns an invoker for the method with the given name, result type and parameter types
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the method
+	 * @param name
+	 *            the name of the method
+	 * @param returnType
+	 *            the result type of the method
+	 * @param a1
+	 *            the type of the first parameter
+	 * @param a2
+	 *            the type of the second parameter
+	 * @return the invoker
+	 * @throws PicklockException
+	 *             if the class has no method of the given signature
+	 */
+	public static <T, A1, A2, R> Invoker2<T, A1, A2, R> method(Class<T> type, String name, Class<R> returnType, Class<A1> a1, Class<A2> a2) {
+		Method method = findMethod(type, name, returnType, a1, a2);
+		return new Invoker2<T, A1, A2, R>(method, handleOf(method));
+	}
+
+	/**
+	 * returns an invoker for the method with the given name, result type and parameter types
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the method
+	 * @param name
+	 *            the name of the method
+	 * @param returnType
+	 *            the result type of the method
+	 * @param a1
+	 *            the type of the first parameter
+	 * @param a2
+	 *            the type of the second parameter
+	 * @param a3
+	 *            the type of the third parameter
+	 * @return the invoker
+	 * @throws PicklockException
+	 *             if the class has no method of the given signature
+	 */
+	public static <T, A1, A2, A3, R> Invoker3<T, A1, A2, A3, R> method(Class<T> type, String name, Class<R> returnType, Class<A1> a1, Class<A2> a2, Class<A3> a3) {
+		Method method = findMethod(type, name, returnType, a1, a2, a3);
+		return new Invoker3<T, A1, A2, A3, R>(method, handleOf(method));
+	}
+
+	/**
+	 * binds the member with the given name to the given functional interface (an interface with a single abstract method), e.g.
+	 * 
+	 * <p>
+	 * <code>Function&lt;House, Key&gt; houseKey = Picklock.function(House.class, "houseKey", Function.class);</code>
+	 * 
+	 * <p>
+	 * The first parameter of the functional interface is the object to access, the remaining parameters are passed to the member. The member may be
+	 * a method (with matching arity) or a field (read if the functional interface returns a value, written if it is void). Methods are bound like
+	 * hand written lambdas where the JVM allows it.
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the member
+	 * @param name
+	 *            the name of the member (or the property name of the field)
+	 * @param functionalInterface
+	 *            the functional interface to bind to
+	 * @return an object of the functional interface delegating to the member
+	 * @throws PicklockException
+	 *             if the class has no member matching the functional interface
+	 */
+	public static <F> F function(Class<?> type, String name, Class<F> functionalInterface) {
+		return FunctionBinder.bind(type, name, functionalInterface);
+	}
+
+	/**
+	 * binds the static member with the given name to the given functional interface (an interface with a single abstract method), e.g.
+	 * 
+	 * <p>
+	 * <code>Supplier&lt;TheOneAndOnly&gt; instance = Picklock.staticFunction(TheOneAndOnly.class, "instance", Supplier.class);</code>
+	 * 
+	 * <p>
+	 * All parameters of the functional interface are passed to the member. The member may be a static method, a static field or (if the name is
+	 * <code>create</code>) a constructor.
+	 * 
+	 * @param type
+	 *            the class declaring (or inheriting) the member
+	 * @param name
+	 *            the name of the member (or the property name of the field)
+	 * @param functionalInterface
+	 *            the functional interface to bind to
+	 * @return an object of the functional interface delegating to the member
+	 * @throws PicklockException
+	 *             if the class has no static member matching the functional interface
+	 */
+	public static <F> F staticFunction(Class<?> type, String name, Class<F> functionalInterface) {
+		return FunctionBinder.bindStatic(type, name, functionalInterface);
+	}
+
+	private static Method findMethod(Class<?> type, String name, Class<?> returnType, Class<?>... parameterTypes) {
+		for (MemberIndex index : MemberIndex.of(type).hierarchy()) {
+			for (Method candidate : index.methods(name, parameterTypes)) {
+				if (candidate.getReturnType() == returnType && !Modifier.isStatic(candidate.getModifiers())) {
+					return candidate;
+				}
+			}
+		}
+		throw new PicklockException("cannot resolve method " + methodSignature(name, returnType, parameterTypes, new Class<?>[0]) + " on " + type);
+	}
+
+	private static MethodHandle handleOf(Method method) {
+		MethodInvocationHandler handler = InvokerFactory.METHOD_HANDLES.createMethodInvoker(method, null);
+		return Handles.handleOf(handler, genericMethodType(method.getParameterTypes().length + 1));
+	}
+
+}
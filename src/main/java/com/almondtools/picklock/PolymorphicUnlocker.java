@@ -0,0 +1,192 @@
+package com.almondtools.picklock;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A template binding objects of a common base class (and any of its subclasses) to a feature interface (see
+ * {@link ObjectAccess#polymorphicTemplate(Class, Class)}). For each concrete class of a bound object the interface is resolved once.
+ *
+ * <p>
+ * The templates of the first observed classes are kept in a small inline cache, that is searched by identity of the class. Once more classes than
+ * the limit of the inline cache are observed, the template turns megamorphic and looks up further classes in a cache shared by all polymorphic
+ * templates (see {@link ClassCache}).
+ *
+ * <p>
+ * Polymorphic templates are thread-safe.
+ *
+ * @param <T>
+ *            the feature interface
+ * @author Stefan Mandel
+ */
+public final class PolymorphicUnlocker<T> implements Unlocker<T> {
+
+	/**
+	 * the default number of classes kept in the inline cache
+	 */
+	public static final int DEFAULT_LIMIT = 4;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<PolymorphicUnlocker, Entry[]> ENTRIES = AtomicReferenceFieldUpdater.newUpdater(PolymorphicUnlocker.class,
+		Entry[].class, "entries");
+
+	private static final ClassCache<Key, Unlocker<?>> TEMPLATES = new ClassCache<Key, Unlocker<?>>();
+
+	private final Class<?> type;
+	private final Class<T> interfaceClass;
+	private final InvokerFactory invokers;
+	private final int limit;
+	private volatile Entry[] entries;
+	private volatile boolean megamorphic;
+
+	public PolymorphicUnlocker(Class<?> type, Class<T> interfaceClass, InvokerFactory invokers) {
+		this(type, interfaceClass, invokers, DEFAULT_LIMIT);
+	}
+
+	public PolymorphicUnlocker(Class<?> type, Class<T> interfaceClass, InvokerFactory invokers, int limit) {
+		this.type = type;
+		this.interfaceClass = interfaceClass;
+		this.invokers = invokers;
+		this.limit = limit;
+		this.entries = new Entry[0];
+	}
+
+	@Override
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public Class<T> getInterfaceClass() {
+		return interfaceClass;
+	}
+
+	/**
+	 * @return the classes in the inline cache (in the order of their first observation)
+	 */
+	public Class<?>[] getCachedTypes() {
+		Entry[] current = entries;
+		Class<?>[] types = new Class<?>[current.length];
+		for (int i = 0; i < current.length; i++) {
+			types[i] = current[i].type;
+		}
+		return types;
+	}
+
+	/**
+	 * @return true if more classes than the limit of the inline cache were observed
+	 */
+	public boolean isMegamorphic() {
+		return megamorphic;
+	}
+
+	/**
+	 * binds the given object to the template resolved for its class (resolving it if this class was not yet observed)
+	 *
+	 * @param object
+	 *            the object to unlock (an instance of {@link #getType()} or one of its subclasses)
+	 * @return an object of the feature interface (mapped to the members of the given object)
+	 * @throws PicklockException
+	 *             if the object is not an instance of {@link #getType()} or if a method of the interface could not be mapped for the class of the object
+	 */
+	@Override
+	public T bind(Object object) {
+		if (!type.isInstance(object)) {
+			throw new PicklockException("cannot bind " + object + " to template of " + type);
+		}
+		return templateFor(object.getClass()).bind(object);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Unlocker<T> templateFor(Class<?> clazz) {
+		Entry[] current = entries;
+		for (int i = 0; i < current.length; i++) {
+			Entry entry = current[i];
+			if (entry.type == clazz) {
+				return (Unlocker<T>) entry.unlocker;
+			}
+		}
+		Unlocker<T> unlocker = sharedTemplateFor(clazz);
+		if (!megamorphic) {
+			cache(clazz, unlocker);
+		}
+		return unlocker;
+	}
+
+	private void cache(Class<?> clazz, Unlocker<T> unlocker) {
+		while (true) {
+			Entry[] current = entries;
+			for (Entry entry : current) {
+				if (entry.type == clazz) {
+					return;
+				}
+			}
+			if (current.length >= limit) {
+				megamorphic = true;
+				return;
+			}
+			Entry[] next = new Entry[current.length + 1];
+			System.arraycopy(current, 0, next, 0, current.length);
+			next[current.length] = new Entry(clazz, unlocker);
+			if (ENTRIES.compareAndSet(this, current, next)) {
+				return;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Unlocker<T> sharedTemplateFor(Class<?> clazz) {
+		Key key = new Key(clazz, interfaceClass, invokers);
+		Unlocker<T> unlocker = (Unlocker<T>) TEMPLATES.get(key, clazz, interfaceClass, invokers.getClass());
+		if (unlocker == null) {
+			unlocker = ObjectAccess.template(clazz, interfaceClass, invokers);
+			unlocker = (Unlocker<T>) TEMPLATES.putIfAbsent(key, unlocker, clazz, interfaceClass, invokers.getClass());
+		}
+		return unlocker;
+	}
+
+	private static class Entry {
+
+		private final Class<?> type;
+		private final Unlocker<?> unlocker;
+
+		Entry(Class<?> type, Unlocker<?> unlocker) {
+			this.type = type;
+			this.unlocker = unlocker;
+		}
+
+	}
+
+	private static class Key {
+
+		private Class<?> type;
+		private Class<?> interfaceClass;
+		private InvokerFactory invokers;
+
+		public Key(Class<?> type, Class<?> interfaceClass, InvokerFactory invokers) {
+			this.type = type;
+			this.interfaceClass = interfaceClass;
+			this.invokers = invokers;
+		}
+
+		@Override
+		public int hashCode() {
+			return (type.hashCode() * 31 + interfaceClass.hashCode()) * 31 + invokers.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key that = (Key) obj;
+			return this.type == that.type
+				&& this.interfaceClass == that.interfaceClass
+				&& this.invokers == that.invokers;
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.almondtools.picklock;
+
+/**
+ * A field getter with primitive-specialized variants. These variants read the field without boxing the value, the same widening conversions as in
+ * {@link java.lang.reflect.Field#getInt(Object)}, {@link java.lang.reflect.Field#getLong(Object)}, ... apply.
+ */
+public interface PrimitiveGetter {
+
+	/**
+	 * @param object
+	 *            the object to read the field from
+	 * @return the value of the field
+	 * @throws IllegalArgumentException
+	 *             if the field type cannot be converted to int
+	 */
+	int getInt(Object object) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to read the field from
+	 * @return the value of the field
+	 * @throws IllegalArgumentException
+	 *             if the field type cannot be converted to long
+	 */
+	long getLong(Object object) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to read the field from
+	 * @return the value of the field
+	 * @throws IllegalArgumentException
+	 *             if the field type cannot be converted to double
+	 */
+	double getDouble(Object object) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to read the field from
+	 * @return the value of the field
+	 * @throws IllegalArgumentException
+	 *             if the field is not of type boolean
+	 */
+	boolean getBoolean(Object object) throws Throwable;
+
+}
@@ -0,0 +1,49 @@
+package com.almondtools.picklock;
+
+/**
+ * A field setter with primitive-specialized variants. These variants write the field without boxing the value, the same widening conversions as in
+ * {@link java.lang.reflect.Field#setInt(Object, int)}, {@link java.lang.reflect.Field#setLong(Object, long)}, ... apply.
+ */
+public interface PrimitiveSetter {
+
+	/**
+	 * @param object
+	 *            the object to write the field of
+	 * @param value
+	 *            the new value of the field
+	 * @throws IllegalArgumentException
+	 *             if int cannot be converted to the field type
+	 */
+	void setInt(Object object, int value) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to write the field of
+	 * @param value
+	 *            the new value of the field
+	 * @throws IllegalArgumentException
+	 *             if long cannot be converted to the field type
+	 */
+	void setLong(Object object, long value) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to write the field of
+	 * @param value
+	 *            the new value of the field
+	 * @throws IllegalArgumentException
+	 *             if double cannot be converted to the field type
+	 */
+	void setDouble(Object object, double value) throws Throwable;
+
+	/**
+	 * @param object
+	 *            the object to write the field of
+	 * @param value
+	 *            the new value of the field
+	 * @throws IllegalArgumentException
+	 *             if the field is not of type boolean
+	 */
+	void setBoolean(Object object, boolean value) throws Throwable;
+
+}
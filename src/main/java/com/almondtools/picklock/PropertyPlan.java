@@ -0,0 +1,258 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.SignatureUtil.propertyOf;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads all properties (getters, with or without setter) of a feature interface from an object into an array or map (dehydrate) and writes them back
+ * from such structures (hydrate), see {@link Picklock#properties(Class, Class)}, e.g.
+ * 
+ * <p>
+ * <code>PropertyPlan&lt;House&gt; plan = Picklock.properties(House.class, PicklockedHouse.class);</code><br/>
+ * <code>Map&lt;String, Object&gt; state = plan.dehydrateToMap(house);</code><br/>
+ * <code>plan.hydrate(otherHouse, state);</code>
+ * 
+ * <p>
+ * The properties are resolved once with the rules of {@link ObjectAccess} (typically to fields), each property is read and written by a single method
+ * handle without proxy or dispatch. Properties are ordered by name, the names are decapitalized (the property of <code>getHouseKey</code> is named
+ * <code>houseKey</code>). Read-only properties (getters without setter) are dehydrated, but skipped on hydration. Plans are cached per class and
+ * interface (see {@link ClassCache}), they are immutable and may be shared between threads.
+ * 
+ * @param <T>
+ *            the class of the objects to read and write
+ * @author Stefan Mandel
+ */
+public final class PropertyPlan<T> {
+
+	private static final ClassCache<List<Class<?>>, PropertyPlan<?>> PLANS = new ClassCache<List<Class<?>>, PropertyPlan<?>>();
+
+	private final Class<T> type;
+	private final String[] names;
+	private final MethodHandle[] getters;
+	private final MethodHandle[] setters;
+
+	private PropertyPlan(Class<T> type, String[] names, MethodHandle[] getters, MethodHandle[] setters) {
+		this.type = type;
+		this.names = names;
+		this.getters = getters;
+		this.setters = setters;
+	}
+
+	/**
+	 * returns the cached plan for the given classes, or compiles (and caches) it if there is none.
+	 * 
+	 * @param type
+	 *            the class of the objects to read and write
+	 * @param interfaceClass
+	 *            the interface providing the properties
+	 * @return the plan
+	 * @throws PicklockException
+	 *             if a property of the interface cannot be mapped to type
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> PropertyPlan<T> of(Class<T> type, Class<?> interfaceClass) {
+		List<Class<?>> key = Arrays.<Class<?>> asList(type, interfaceClass);
+		PropertyPlan<T> plan = (PropertyPlan<T>) PLANS.get(key, type, interfaceClass);
+		if (plan == null) {
+			plan = compile(type, interfaceClass);
+			plan = (PropertyPlan<T>) PLANS.putIfAbsent(key, plan, type, interfaceClass);
+		}
+		return plan;
+	}
+
+	private static <T> PropertyPlan<T> compile(Class<T> type, Class<?> interfaceClass) {
+		DispatchTable<MethodInvocationHandler> handlers = handlersOf(type, interfaceClass);
+		List<Method[]> properties = Converter.findReadableProperties(interfaceClass);
+		Method[][] pairs = properties.toArray(new Method[properties.size()][]);
+		Arrays.sort(pairs, new Comparator<Method[]>() {
+			@Override
+			public int compare(Method[] o1, Method[] o2) {
+				return propertyOf(o1[0]).compareTo(propertyOf(o2[0]));
+			}
+		});
+		String[] names = new String[pairs.length];
+		MethodHandle[] getters = new MethodHandle[pairs.length];
+		MethodHandle[] setters = new MethodHandle[pairs.length];
+		for (int i = 0; i < pairs.length; i++) {
+			names[i] = decapitalize(propertyOf(pairs[i][0]));
+			getters[i] = Handles.handleOf(handlers.get(pairs[i][0]), methodType(Object.class, Object.class));
+			if (pairs[i][1] != null) {
+				setters[i] = Handles.handleOf(handlers.get(pairs[i][1]), methodType(void.class, Object.class, Object.class));
+			}
+		}
+		return new PropertyPlan<T>(type, names, getters, setters);
+	}
+
+	private static DispatchTable<MethodInvocationHandler> handlersOf(Class<?> type, Class<?> interfaceClass) {
+		try {
+			return InvocationPlanCache.objectPlan(new InvocationResolver(type, InvokerFactory.METHOD_HANDLES), interfaceClass).getDispatch();
+		} catch (NoSuchMethodException e) {
+			throw new PicklockException("cannot resolve method/property " + e.getMessage() + " on " + type);
+		}
+	}
+
+	private static String decapitalize(String name) {
+		if (name.isEmpty() || name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * @return the names of all properties (in the order of the values of {@link #dehydrate(Object)})
+	 */
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	/**
+	 * @return the number of properties
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * @param object
+	 *            the object to read
+	 * @return the values of all properties (in the order of {@link #getNames()})
+	 * @throws PicklockException
+	 *             if a property could not be read
+	 */
+	public Object[] dehydrate(T object) {
+		Object[] values = new Object[names.length];
+		dehydrate(object, values);
+		return values;
+	}
+
+	/**
+	 * reads all properties of the given object into the given (reusable) array
+	 * 
+	 * @param object
+	 *            the object to read
+	 * @param values
+	 *            the array to store the values in (in the order of {@link #getNames()}), at least of length {@link #size()}
+	 * @throws PicklockException
+	 *             if the array is shorter than {@link #size()} or if a property could not be read
+	 */
+	public void dehydrate(T object, Object[] values) {
+		if (values.length < getters.length) {
+			throw new PicklockException("expected space for " + getters.length + " values, but was " + values.length);
+		}
+		int i = 0;
+		try {
+			for (; i < getters.length; i++) {
+				values[i] = (Object) getters[i].invokeExact((Object) object);
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot get " + names[i] + " of " + type.getName(), e);
+		}
+	}
+
+	/**
+	 * @param object
+	 *            the object to read
+	 * @return a map from the names of all properties to their values
+	 * @throws PicklockException
+	 *             if a property could not be read
+	 */
+	public Map<String, Object> dehydrateToMap(T object) {
+		Map<String, Object> values = new LinkedHashMap<String, Object>();
+		dehydrate(object, values);
+		return values;
+	}
+
+	/**
+	 * reads all properties of the given object into the given (reusable) map
+	 * 
+	 * @param object
+	 *            the object to read
+	 * @param values
+	 *            the map to put the values in (keyed by the names of the properties)
+	 * @throws PicklockException
+	 *             if a property could not be read
+	 */
+	public void dehydrate(T object, Map<String, Object> values) {
+		int i = 0;
+		try {
+			for (; i < getters.length; i++) {
+				values.put(names[i], (Object) getters[i].invokeExact((Object) object));
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot get " + names[i] + " of " + type.getName(), e);
+		}
+	}
+
+	/**
+	 * writes all properties of the given object from the given array. The values of read-only properties are skipped.
+	 * 
+	 * @param object
+	 *            the object to write
+	 * @param values
+	 *            the values of all properties (in the order of {@link #getNames()})
+	 * @throws PicklockException
+	 *             if the array has less than {@link #size()} values or if a property could not be written (e.g. because its value does not match the
+	 *             type of the property)
+	 */
+	public void hydrate(T object, Object[] values) {
+		if (values.length < setters.length) {
+			throw new PicklockException("expected " + setters.length + " values, but was " + values.length);
+		}
+		int i = 0;
+		try {
+			for (; i < setters.length; i++) {
+				if (setters[i] != null) {
+					setters[i].invokeExact((Object) object, values[i]);
+				}
+			}
+		} catch (PicklockException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot set " + names[i] + " of " + type.getName(), e);
+		}
+	}
+
+	/**
+	 * writes the properties of the given object from the given map. Properties without entry in the map and read-only properties are not written.
+	 * 
+	 * @param object
+	 *            the object to write
+	 * @param values
+	 *            the values of the properties (keyed by the names of the properties)
+	 * @throws PicklockException
+	 *             if a property could not be written (e.g. because its value does not match the type of the property)
+	 */
+	public void hydrate(T object, Map<String, ?> values) {
+		int i = 0;
+		try {
+			for (; i < setters.length; i++) {
+				String name = names[i];
+				Object value = values.get(name);
+				if (setters[i] != null && (value != null || values.containsKey(name))) {
+					setters[i].invokeExact((Object) object, value);
+				}
+			}
+		} catch (PicklockException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PicklockException("cannot set " + names[i] + " of " + type.getName(), e);
+		}
+	}
+
+}
@@ -0,0 +1,309 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.ClassFileWriter.AALOAD;
+import static com.almondtools.picklock.ClassFileWriter.ACC_FINAL;
+import static com.almondtools.picklock.ClassFileWriter.ACC_PRIVATE;
+import static com.almondtools.picklock.ClassFileWriter.ACC_PUBLIC;
+import static com.almondtools.picklock.ClassFileWriter.ACC_STATIC;
+import static com.almondtools.picklock.ClassFileWriter.ACC_SUPER;
+import static com.almondtools.picklock.ClassFileWriter.DUP;
+import static com.almondtools.picklock.ClassFileWriter.GETFIELD;
+import static com.almondtools.picklock.ClassFileWriter.GETSTATIC;
+import static com.almondtools.picklock.ClassFileWriter.INVOKESPECIAL;
+import static com.almondtools.picklock.ClassFileWriter.INVOKESTATIC;
+import static com.almondtools.picklock.ClassFileWriter.INVOKEVIRTUAL;
+import static com.almondtools.picklock.ClassFileWriter.LDC_W;
+import static com.almondtools.picklock.ClassFileWriter.POP;
+import static com.almondtools.picklock.ClassFileWriter.PUTFIELD;
+import static com.almondtools.picklock.ClassFileWriter.PUTSTATIC;
+import static com.almondtools.picklock.ClassFileWriter.RETURN;
+import static com.almondtools.picklock.ClassFileWriter.descriptor;
+import static com.almondtools.picklock.ClassFileWriter.internalName;
+import static com.almondtools.picklock.ClassFileWriter.methodDescriptor;
+import static com.almondtools.picklock.ClassFileWriter.returnOpcode;
+import static com.almondtools.picklock.ClassFileWriter.slots;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates classes implementing a feature interface. Each interface method of a generated class invokes a static final method handle
+ * (with invokeExact), so the JIT may inline the unlocked member into the caller. Generated classes are defined in the package (and class loader)
+ * of the feature interface, such that also non-public interfaces can be implemented. Classes are only generated if picklock is visible from this class
+ * loader (the static initializer of a generated class links to picklock), and they are initialized before they are handed out, so a class that cannot
+ * be linked is never returned.
+ * 
+ * <p>
+ * Generated classes bound to an object have a constructor taking this object, and pass the object as first argument to each method handle. The field
+ * holding this object is not final, so it may be retargeted (see {@link #targetSetter(Class)}). Unbound (static) generated classes have a default
+ * constructor.
+ */
+public final class ProxyClassGenerator {
+
+	private static final String SUFFIX = "$$Picklock$";
+	private static final String OBJECT = "java/lang/Object";
+	private static final String HANDLE = "Ljava/lang/invoke/MethodHandle;";
+	private static final String TARGET = "object";
+
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+	private static final ConcurrentMap<String, MethodHandle[]> PENDING = new ConcurrentHashMap<String, MethodHandle[]>();
+
+	private static final Method PRIVATE_LOOKUP_IN = method(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+	private static final Method LOOKUP_DEFINE_CLASS = method(MethodHandles.Lookup.class, "defineClass", byte[].class);
+	private static final Method CLASSLOADER_DEFINE_CLASS = declaredMethod(ClassLoader.class, "defineClass", String.class, byte[].class, int.class, int.class);
+
+	private ProxyClassGenerator() {
+	}
+
+	private static Method method(Class<?> clazz, String name, Class<?>... parameterTypes) {
+		try {
+			return clazz.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static Method declaredMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+		if (PRIVATE_LOOKUP_IN != null) {
+			return null;
+		}
+		try {
+			Method method = clazz.getDeclaredMethod(name, parameterTypes);
+			method.setAccessible(true);
+			return method;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if this JVM allows to define generated classes, false otherwise
+	 */
+	public static boolean isSupported() {
+		return PRIVATE_LOOKUP_IN != null && LOOKUP_DEFINE_CLASS != null
+			|| CLASSLOADER_DEFINE_CLASS != null;
+	}
+
+	/**
+	 * @param interfaceClass
+	 *            the interface to implement
+	 * @return true if picklock (this class) is visible from the class loader of the given interface, i.e. if a class implementing this interface
+	 *         could be generated
+	 */
+	public static boolean isVisible(Class<?> interfaceClass) {
+		ClassLoader loader = interfaceClass.getClassLoader();
+		if (loader == null) {
+			return false;
+		}
+		try {
+			return Class.forName(ProxyClassGenerator.class.getName(), false, loader) == ProxyClassGenerator.class;
+		} catch (ClassNotFoundException e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * hands out the method handles of a generated class. This method is called by the static initializer of generated classes and should not be called otherwise.
+	 * 
+	 * @param className
+	 *            the name of the generated class
+	 * @return the method handles of the generated class (in the order of the methods)
+	 */
+	public static MethodHandle[] handles(String className) {
+		MethodHandle[] handles = PENDING.remove(className);
+		if (handles == null) {
+			throw new PicklockException("no method handles registered for " + className);
+		}
+		return handles;
+	}
+
+	/**
+	 * collects the methods a generated class has to implement, i.e. all non-static methods of the interface and its super interfaces
+	 * (methods with identical names and descriptors are collected only once).
+	 * 
+	 * @param interfaceClass
+	 *            the interface to implement
+	 * @return the methods to implement
+	 */
+	public static List<Method> implementableMethods(Class<?> interfaceClass) {
+		Map<String, Method> methods = new LinkedHashMap<String, Method>();
+		for (Method method : interfaceClass.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			String key = method.getName() + methodDescriptor(method.getReturnType(), method.getParameterTypes());
+			if (!methods.containsKey(key)) {
+				methods.put(key, method);
+			}
+		}
+		return new ArrayList<Method>(methods.values());
+	}
+
+	/**
+	 * generates and defines a class implementing the given interface.
+	 * 
+	 * @param interfaceClass
+	 *            the interface to implement
+	 * @param methods
+	 *            the methods to implement
+	 * @param handles
+	 *            the method handles the methods delegate to. The type of each handle must equal the type of the method (prefixed by an Object parameter if bound)
+	 * @param bound
+	 *            true if the generated class should be bound to an object, false if it should be static
+	 * @return the generated (and initialized) class
+	 * @throws PicklockException
+	 *             if the class could not be defined or initialized (e.g. because picklock is not visible from the class loader of the interface)
+	 */
+	public static Class<?> generate(Class<?> interfaceClass, List<Method> methods, List<MethodHandle> handles, boolean bound) {
+		if (!isVisible(interfaceClass)) {
+			throw new PicklockException("cannot define proxy class for " + interfaceClass.getName() + ", picklock is not visible from its class loader");
+		}
+		String name = interfaceClass.getName() + SUFFIX + COUNTER.incrementAndGet();
+		String internal = name.replace('.', '/');
+		ClassFileWriter writer = new ClassFileWriter(ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internal, OBJECT, internalName(interfaceClass));
+
+		for (int i = 0; i < methods.size(); i++) {
+			writer.field(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, handleName(i), HANDLE);
+		}
+		if (bound) {
+			writer.field(ACC_PRIVATE, TARGET, descriptor(Object.class));
+		}
+
+		writeStaticInitializer(writer, name, internal, methods.size());
+		writeConstructor(writer, internal, bound);
+		for (int i = 0; i < methods.size(); i++) {
+			writeMethod(writer, internal, i, methods.get(i), bound);
+		}
+
+		byte[] bytes = writer.toByteArray();
+		PENDING.put(name, handles.toArray(new MethodHandle[0]));
+		try {
+			Class<?> proxyClass = define(interfaceClass, name, bytes);
+			return Class.forName(name, true, proxyClass.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			PENDING.remove(name);
+			throw new PicklockException("cannot initialize proxy class for " + interfaceClass.getName(), e);
+		} catch (RuntimeException e) {
+			PENDING.remove(name);
+			throw e;
+		} catch (LinkageError e) {
+			PENDING.remove(name);
+			throw new PicklockException("cannot define proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+	/**
+	 * returns a method handle setting the object a bound generated class delegates to.
+	 * 
+	 * @param proxyClass
+	 *            a bound class generated by {@link #generate(Class, List, List, boolean)}
+	 * @return the setter of type (Object proxy, Object object)void
+	 * @throws PicklockException
+	 *             if the given class is no bound generated class
+	 */
+	public static MethodHandle targetSetter(Class<?> proxyClass) {
+		try {
+			Field target = proxyClass.getDeclaredField(TARGET);
+			target.setAccessible(true);
+			return MethodHandles.lookup().unreflectSetter(target).asType(methodType(void.class, Object.class, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException("cannot retarget proxy class " + proxyClass.getName(), e);
+		} catch (RuntimeException e) {
+			throw new PicklockException("cannot retarget proxy class " + proxyClass.getName(), e);
+		}
+	}
+
+	private static String handleName(int i) {
+		return "h" + i;
+	}
+
+	private static void writeStaticInitializer(ClassFileWriter writer, String name, String internal, int count) {
+		ClassFileWriter.Code code = writer.method(ACC_STATIC, "<clinit>", "()V")
+			.op(LDC_W, writer.stringConstant(name))
+			.op(INVOKESTATIC, writer.methodConstant(internalName(ProxyClassGenerator.class), "handles", methodDescriptor(MethodHandle[].class, String.class)));
+		for (int i = 0; i < count; i++) {
+			code.op(DUP)
+				.push(i)
+				.op(AALOAD)
+				.op(PUTSTATIC, writer.fieldConstant(internal, handleName(i), HANDLE));
+		}
+		code.op(POP)
+			.op(RETURN)
+			.end(3, 0);
+	}
+
+	private static void writeConstructor(ClassFileWriter writer, String internal, boolean bound) {
+		int objectInit = writer.methodConstant(OBJECT, "<init>", "()V");
+		if (bound) {
+			writer.method(ACC_PUBLIC, "<init>", methodDescriptor(void.class, Object.class))
+				.load(Object.class, 0)
+				.op(INVOKESPECIAL, objectInit)
+				.load(Object.class, 0)
+				.load(Object.class, 1)
+				.op(PUTFIELD, writer.fieldConstant(internal, TARGET, descriptor(Object.class)))
+				.op(RETURN)
+				.end(2, 2);
+		} else {
+			writer.method(ACC_PUBLIC, "<init>", methodDescriptor(void.class))
+				.load(Object.class, 0)
+				.op(INVOKESPECIAL, objectInit)
+				.op(RETURN)
+				.end(1, 1);
+		}
+	}
+
+	private static void writeMethod(ClassFileWriter writer, String internal, int index, Method method, boolean bound) {
+		Class<?> returnType = method.getReturnType();
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		ClassFileWriter.Code code = writer.method(ACC_PUBLIC | ACC_FINAL, method.getName(), methodDescriptor(returnType, parameterTypes))
+			.op(GETSTATIC, writer.fieldConstant(internal, handleName(index), HANDLE));
+		int stack = 1;
+		Class<?>[] invokeTypes = parameterTypes;
+		if (bound) {
+			code.load(Object.class, 0)
+				.op(GETFIELD, writer.fieldConstant(internal, TARGET, descriptor(Object.class)));
+			stack++;
+			invokeTypes = new Class<?>[parameterTypes.length + 1];
+			invokeTypes[0] = Object.class;
+			System.arraycopy(parameterTypes, 0, invokeTypes, 1, parameterTypes.length);
+		}
+		int local = 1;
+		for (Class<?> parameterType : parameterTypes) {
+			code.load(parameterType, local);
+			local += slots(parameterType);
+		}
+		stack += local - 1;
+		code.op(INVOKEVIRTUAL, writer.methodConstant(internalName(MethodHandle.class), "invokeExact", methodDescriptor(returnType, invokeTypes)))
+			.op(returnOpcode(returnType))
+			.end(Math.max(stack, slots(returnType)), local);
+	}
+
+	private static Class<?> define(Class<?> interfaceClass, String name, byte[] bytes) {
+		try {
+			if (PRIVATE_LOOKUP_IN != null && LOOKUP_DEFINE_CLASS != null) {
+				Object lookup = PRIVATE_LOOKUP_IN.invoke(null, interfaceClass, MethodHandles.lookup());
+				return (Class<?>) LOOKUP_DEFINE_CLASS.invoke(lookup, bytes);
+			} else if (CLASSLOADER_DEFINE_CLASS != null && interfaceClass.getClassLoader() != null) {
+				return (Class<?>) CLASSLOADER_DEFINE_CLASS.invoke(interfaceClass.getClassLoader(), name, bytes, 0, bytes.length);
+			} else {
+				throw new PicklockException("cannot define proxy class for " + interfaceClass.getName() + " on this jvm");
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new PicklockException("cannot define proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Proxy;
+
+import com.almondtools.picklock.ProxyUnlocker.BoundInvocationHandler;
+
+/**
+ * A {@link Cursor} with a view created by {@link java.lang.reflect.Proxy}. The proxy and its invocation handler are allocated once, retargeting the
+ * cursor replaces the object held by the invocation handler.
+ */
+public class ProxyCursor<T> implements Cursor<T> {
+
+	private Class<?> type;
+	private Class<T> interfaceClass;
+	private BoundInvocationHandler handler;
+	private T view;
+
+	public ProxyCursor(Class<T> interfaceClass, InvocationPlan plan) {
+		this.type = plan.getType();
+		this.interfaceClass = interfaceClass;
+		this.handler = new BoundInvocationHandler(plan.getDispatch(), null);
+		this.view = interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, handler));
+	}
+
+	@Override
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public Class<T> getInterfaceClass() {
+		return interfaceClass;
+	}
+
+	@Override
+	public T bind(Object object) {
+		if (!type.isInstance(object)) {
+			throw new PicklockException("cannot bind " + (object == null ? null : object.getClass()) + " to cursor of " + type);
+		}
+		handler.setObject(object);
+		return view;
+	}
+
+	@Override
+	public T get() {
+		return view;
+	}
+
+}
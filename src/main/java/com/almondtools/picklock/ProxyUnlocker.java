@@ -0,0 +1,94 @@
+package com.almondtools.picklock;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * An {@link Unlocker} creating proxies with {@link java.lang.reflect.Proxy}. The proxy class and its constructor are looked up once, binding an
+ * object allocates the proxy and a small invocation handler holding the object.
+ */
+public class ProxyUnlocker<T> implements Unlocker<T> {
+
+	private Class<?> type;
+	private Class<T> interfaceClass;
+	private DispatchTable<MethodInvocationHandler> handlers;
+	private MethodHandle constructor;
+
+	public ProxyUnlocker(Class<T> interfaceClass, InvocationPlan plan) {
+		this.type = plan.getType();
+		this.interfaceClass = interfaceClass;
+		this.handlers = plan.getDispatch();
+		this.constructor = proxyConstructor(interfaceClass);
+	}
+
+	@SuppressWarnings("deprecation")
+	private static MethodHandle proxyConstructor(Class<?> interfaceClass) {
+		try {
+			Class<?> proxyClass = Proxy.getProxyClass(interfaceClass.getClassLoader(), interfaceClass);
+			MethodHandle constructor = MethodHandles.publicLookup().findConstructor(proxyClass, methodType(void.class, InvocationHandler.class));
+			return constructor.asType(methodType(Object.class, InvocationHandler.class));
+		} catch (ReflectiveOperationException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public Class<T> getInterfaceClass() {
+		return interfaceClass;
+	}
+
+	@Override
+	public T bind(Object object) {
+		if (!type.isInstance(object)) {
+			throw new PicklockException("cannot bind " + (object == null ? null : object.getClass()) + " to template of " + type);
+		}
+		InvocationHandler handler = new BoundInvocationHandler(handlers, object);
+		if (constructor == null) {
+			return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, handler));
+		}
+		try {
+			return interfaceClass.cast((Object) constructor.invokeExact(handler));
+		} catch (Throwable e) {
+			throw new PicklockException("cannot instantiate proxy class for " + interfaceClass.getName(), e);
+		}
+	}
+
+	static class BoundInvocationHandler implements InvocationHandler {
+
+		private DispatchTable<MethodInvocationHandler> handlers;
+		private Object object;
+
+		BoundInvocationHandler(DispatchTable<MethodInvocationHandler> handlers, Object object) {
+			this.handlers = handlers;
+			this.object = object;
+		}
+
+		public Object getObject() {
+			return object;
+		}
+
+		void setObject(Object object) {
+			this.object = object;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			MethodInvocationHandler handler = handlers.get(method);
+			return handler.invoke(object, args);
+		}
+
+	}
+
+}
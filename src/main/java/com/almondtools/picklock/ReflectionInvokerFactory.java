@@ -0,0 +1,88 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates invocation handlers based on the reflection api. This is the default for {@link ObjectAccess} and {@link ClassAccess}.
+ */
+public class ReflectionInvokerFactory implements InvokerFactory {
+
+	@Override
+	public MethodInvocationHandler createMethodInvoker(Method method, Method target) {
+		return new MethodInvoker(method, target);
+	}
+
+	@Override
+	public MethodInvocationHandler createFieldGetter(Field field, Class<?> target) {
+		return new FieldGetter(field, target);
+	}
+
+	@Override
+	public MethodInvocationHandler createFieldSetter(Field field, Class<?> target) {
+		return new FieldSetter(field, target);
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticMethodInvoker(Class<?> type, Method method, Method target) {
+		return new StaticMethodInvoker(type, method, target);
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createConstructorInvoker(Constructor<?> constructor, Method target) {
+		return new ConstructorInvoker(constructor, target);
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticGetter(Class<?> type, Field field, Class<?> target) {
+		return new StaticGetter(type, field, target);
+	}
+
+	@Override
+	public StaticMethodInvocationHandler createStaticSetter(Class<?> type, Field field, Class<?> target) {
+		return new StaticSetter(type, field, target);
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ObjectAccess access) {
+		return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, access));
+	}
+
+	@Override
+	public <T> T createProxy(Class<T> interfaceClass, ClassAccess access) {
+		return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, access));
+	}
+
+	@Override
+	public <T> Unlocker<T> createUnlocker(Class<T> interfaceClass, InvocationPlan plan) {
+		return new ProxyUnlocker<T>(interfaceClass, plan);
+	}
+
+	@Override
+	public <T> Cursor<T> createCursor(Class<T> interfaceClass, InvocationPlan plan) {
+		return new ProxyCursor<T>(interfaceClass, plan);
+	}
+
+	@Override
+	public <T> T createContextProxy(Class<T> interfaceClass, InvocationPlan plan, ThreadLocal<?> context) {
+		ContextInvocationHandler handler = new ContextInvocationHandler(plan, context);
+		return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class[] { interfaceClass }, handler));
+	}
+
+	/**
+	 * factories of this class are stateless (besides caches), so all of them create the same handlers and share their cached plans (see
+	 * {@link InvocationPlanCache}).
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj != null && obj.getClass() == getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
+}
@@ -1,10 +1,16 @@
 package com.almondtools.picklock;
 
+import static com.almondtools.picklock.BoxingUtil.getBoxed;
 import static com.almondtools.picklock.BoxingUtil.getUnboxed;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -12,6 +18,7 @@ import java.util.List;
 public final class SignatureUtil {
 
 	public static final String CONSTRUCTOR = "create";
+	public static final String ALLOCATOR = "allocate";
 	public static final String IS = "is";
 	public static final String GET = "get";
 	public static final String SET = "set";
@@ -26,6 +33,14 @@ public final class SignatureUtil {
 			&& !method.getReturnType().isPrimitive();
 	}
 
+	public static boolean isAllocator(Method method) {
+		String name = method.getName();
+		return name.equals(ALLOCATOR)
+			&& method.getParameterTypes().length == 0
+			&& method.getReturnType() != void.class
+			&& !method.getReturnType().isPrimitive();
+	}
+
 	public static boolean isBooleanGetter(Method method) {
 		String name = method.getName();
 		Class<?>[] parameterTypes = method.getParameterTypes();
@@ -199,6 +214,53 @@ public final class SignatureUtil {
 			|| candidateType.getSimpleName().equals(annotatedName);
 	}
 
+	/**
+	 * checks the compliance of a (possibly generic) required type. Type variables (as in the methods of generic functional interfaces) are compliant to
+	 * any (boxed) type within their bounds, all other types are checked with {@link #isCompliant(Class, Class, String)}.
+	 */
+	public static boolean isCompliant(Type[] requiredTypes, Class<?>[] candidateTypes, String[] annotatedNames) {
+		if (candidateTypes.length != requiredTypes.length) {
+			return false;
+		}
+		if (annotatedNames == null) {
+			annotatedNames = new String[requiredTypes.length];
+		}
+		for (int i = 0; i < candidateTypes.length; i++) {
+			if (!isCompliant(requiredTypes[i], candidateTypes[i], annotatedNames[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * checks the compliance of a (possibly generic) required type, see {@link #isCompliant(Type[], Class[], String[])}.
+	 */
+	public static boolean isCompliant(Type requiredType, Class<?> candidateType, String annotatedName) {
+		if (requiredType instanceof TypeVariable<?>) {
+			return candidateType != void.class && erasure(requiredType).isAssignableFrom(getBoxed(candidateType));
+		}
+		return isCompliant(erasure(requiredType), candidateType, annotatedName);
+	}
+
+	public static boolean isGeneric(Type type) {
+		return type instanceof TypeVariable<?>;
+	}
+
+	public static Class<?> erasure(Type type) {
+		if (type instanceof Class<?>) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return erasure(((ParameterizedType) type).getRawType());
+		} else if (type instanceof TypeVariable<?>) {
+			return erasure(((TypeVariable<?>) type).getBounds()[0]);
+		} else if (type instanceof GenericArrayType) {
+			return Array.newInstance(erasure(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		} else {
+			return Object.class;
+		}
+	}
+
 	public static String findTargetTypeName(Annotation[] annotations, Class<?> defaultType) {
 		for (Annotation annotation : annotations) {
 			if (annotation.annotationType() == Convert.class) {
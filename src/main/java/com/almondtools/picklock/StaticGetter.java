@@ -1,6 +1,6 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.resultConversion;
 
 import java.lang.reflect.Field;
 
@@ -11,7 +11,7 @@ public class StaticGetter implements StaticMethodInvocationHandler {
 
 	private Class<?> type;
 	private Field field;
-	private Class<?> target;
+	private Conversion result;
 
 	/**
 	 * Gets a value on the given field.
@@ -19,6 +19,7 @@ public class StaticGetter implements StaticMethodInvocationHandler {
 	 * @param field the field to access
 	 */
 	public StaticGetter(Class<?> type, Field field) {
+		this.result = Conversion.NONE;
 		this.type = type;
 		this.field = field;
 		field.setAccessible(true);
@@ -33,7 +34,9 @@ public class StaticGetter implements StaticMethodInvocationHandler {
 	 */
 	public StaticGetter(Class<?> type, Field field, Class<?> target) {
 		this(type, field);
-		this.target = target;
+		if (target != null) {
+			this.result = resultConversion(target, field.getType());
+		}
 	}
 
 	@Override
@@ -44,11 +47,8 @@ public class StaticGetter implements StaticMethodInvocationHandler {
 		return r(field.get(type));
 	}
 
-	private Object r(Object result) throws NoSuchMethodException {
-		if (target == null) {
-			return result;
-		}
-		return convertResult(target, field.getType(), result);
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
 	}
 
 }
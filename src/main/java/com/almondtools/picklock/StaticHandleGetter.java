@@ -0,0 +1,79 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.resultConversion;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Wraps a static field with read (getter) access. Beyond {@link StaticGetter} the field is read by a method handle (access is checked only once on construction).
+ */
+public class StaticHandleGetter implements StaticMethodInvocationHandler, MethodHandleBacked {
+
+	private Class<?> type;
+	private Field field;
+	private Conversion result;
+	private MethodHandle handle;
+	private MethodHandle getter;
+
+	/**
+	 * Gets a value on the given field.
+	 * @param type the static type of the field to access
+	 * @param field the field to access
+	 * @throws IllegalAccessException if the field could not be unreflected
+	 */
+	public StaticHandleGetter(Class<?> type, Field field) throws IllegalAccessException {
+		this.result = Conversion.NONE;
+		this.type = type;
+		this.field = field;
+		field.setAccessible(true);
+		this.handle = MethodHandles.lookup().unreflectGetter(field);
+		this.getter = handle.asType(methodType(Object.class));
+	}
+
+	/**
+	 * Gets a value on the given field. Beyond {@link #StaticHandleGetter(Class, Field)} this constructor also converts the result
+	 * @param type the static type of the field to access
+	 * @param field the field to access
+	 * @param target the target signature (target result)
+	 * @throws IllegalAccessException if the field could not be unreflected
+	 * @see Convert 
+	 */
+	public StaticHandleGetter(Class<?> type, Field field, Class<?> target) throws IllegalAccessException {
+		this(type, field);
+		if (target != null) {
+			this.result = resultConversion(target, field.getType());
+		}
+	}
+
+	/**
+	 * @return the static type of the field to access
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (result != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object... args) throws Throwable {
+		if (args != null && args.length != 0) {
+			throw new IllegalArgumentException("getters can only be invoked with no argument, was " + args.length + " arguments");
+		}
+		return r((Object) getter.invokeExact());
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
+	}
+
+}
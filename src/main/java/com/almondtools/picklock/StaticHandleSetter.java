@@ -0,0 +1,97 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.argumentConversion;
+import static com.almondtools.picklock.FinalUtil.ensureNonFinal;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Wraps a static field with modification (setter) access. Beyond {@link StaticSetter} the field is written by a method handle (access is checked only once on construction).
+ * 
+ * static final fields cannot be unreflected for modification on newer JVMs, such fields should be accessed with {@link StaticSetter}.
+ */
+public class StaticHandleSetter implements StaticMethodInvocationHandler, MethodHandleBacked {
+
+	private Class<?> type;
+	private Field field;
+	private Conversion argument;
+	private MethodHandle handle;
+	private MethodHandle setter;
+
+	/**
+	 * Sets a value on the given field.
+	 * 
+	 * @param type
+	 *            the static type of the field to access
+	 * @param field
+	 *            the field to access
+	 * @throws IllegalAccessException
+	 *             if the field could not be unreflected (e.g. if it is final)
+	 */
+	public StaticHandleSetter(Class<?> type, Field field) throws IllegalAccessException {
+		this.argument = Conversion.NONE;
+		this.type = type;
+		this.field = field;
+		field.setAccessible(true);
+		ensureNonFinal(field);
+		this.handle = MethodHandles.lookup().unreflectSetter(field);
+		this.setter = handle.asType(methodType(void.class, Object.class));
+	}
+
+	/**
+	 * Sets a value on the given field. Beyond {@link #StaticHandleSetter(Class, Field)} this constructor also converts the argument
+	 * 
+	 * @param type
+	 *            the static type of the field to access
+	 * @param field
+	 *            the field to access
+	 * @param target
+	 *            the target signature (source arguments)
+	 * @throws IllegalAccessException
+	 *             if the field could not be unreflected (e.g. if it is final)
+	 * @see Convert
+	 */
+	public StaticHandleSetter(Class<?> type, Field field, Class<?> target) throws IllegalAccessException {
+		this(type, field);
+		if (target != null) {
+			this.argument = argumentConversion(target, field.getType());
+		}
+	}
+
+	/**
+	 * @return the static type of the field to access
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (argument != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object... args) throws Throwable {
+		if (args == null || args.length != 1) {
+			throw new IllegalArgumentException("setters can only be invoked with exactly one argument, was " + (args == null ? "null" : String.valueOf(args.length)) + " arguments");
+		}
+		Object arg = a(args[0]);
+		if (arg != null && !BoxingUtil.getBoxed(field.getType()).isInstance(arg)) {
+			throw new ClassCastException("defined type of " + field.getName() + " is " + arg.getClass().getSimpleName() + ", but assigned type was " + field.getType().getSimpleName());
+		}
+		setter.invokeExact(arg);
+		return null;
+	}
+
+	private Object a(Object arg) throws ReflectiveOperationException {
+		return argument.convert(arg);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.almondtools.picklock;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A StaticInvocationPlan is the resolved mapping of a feature interface to the static members (and constructors) of a class (see {@link InvocationPlanCache}).
+ * 
+ * @author Stefan Mandel
+ */
+public class StaticInvocationPlan {
+
+	private Class<?> type;
+	private Class<?> interfaceClass;
+	private Map<Method, StaticMethodInvocationHandler> handlers;
+	private DispatchTable<StaticMethodInvocationHandler> dispatch;
+
+	public StaticInvocationPlan(Class<?> type, Class<?> interfaceClass, Map<Method, StaticMethodInvocationHandler> handlers) {
+		this.type = type;
+		this.interfaceClass = interfaceClass;
+		this.handlers = Collections.unmodifiableMap(handlers);
+		this.dispatch = new DispatchTable<StaticMethodInvocationHandler>(handlers);
+	}
+
+	/**
+	 * resolves all methods of the given interface with the given resolver
+	 * 
+	 * @param resolver
+	 *            the resolver mapping interface methods to static members
+	 * @param interfaceClass
+	 *            the interface to resolve
+	 * @return the plan containing all resolved handlers
+	 * @throws NoSuchMethodException
+	 *             if a method of the interface could not be mapped
+	 */
+	public static StaticInvocationPlan resolve(StaticInvocationResolver resolver, Class<?> interfaceClass) throws NoSuchMethodException {
+		Map<Method, StaticMethodInvocationHandler> handlers = new LinkedHashMap<Method, StaticMethodInvocationHandler>();
+		for (Method method : MemberIndex.of(interfaceClass).methods()) {
+			handlers.put(method, resolver.findInvocationHandler(method));
+		}
+		return new StaticInvocationPlan(resolver.getType(), interfaceClass, handlers);
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public Class<?> getInterfaceClass() {
+		return interfaceClass;
+	}
+
+	/**
+	 * @return an unmodifiable map of all interface methods to their handlers
+	 */
+	public Map<Method, StaticMethodInvocationHandler> getHandlers() {
+		return handlers;
+	}
+
+	/**
+	 * @return the dispatch table of all interface methods (with ordinals in resolution order)
+	 */
+	public DispatchTable<StaticMethodInvocationHandler> getDispatch() {
+		return dispatch;
+	}
+
+}
@@ -1,15 +1,16 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.determineNeededConversions;
 import static com.almondtools.picklock.Converter.isConverted;
+import static com.almondtools.picklock.SignatureUtil.computeFieldNames;
+import static com.almondtools.picklock.SignatureUtil.erasure;
 import static com.almondtools.picklock.SignatureUtil.findTargetTypeName;
 import static com.almondtools.picklock.SignatureUtil.fieldSignature;
+import static com.almondtools.picklock.SignatureUtil.isAllocator;
 import static com.almondtools.picklock.SignatureUtil.isBooleanGetter;
 import static com.almondtools.picklock.SignatureUtil.isCompliant;
 import static com.almondtools.picklock.SignatureUtil.isConstructor;
 import static com.almondtools.picklock.SignatureUtil.isGetter;
 import static com.almondtools.picklock.SignatureUtil.isSetter;
-import static com.almondtools.picklock.SignatureUtil.matchesSignature;
 import static com.almondtools.picklock.SignatureUtil.methodSignature;
 import static com.almondtools.picklock.SignatureUtil.propertyAnnotationsOf;
 import static com.almondtools.picklock.SignatureUtil.propertyOf;
@@ -19,83 +20,258 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class StaticInvocationResolver {
 
-	private Map<String, Field> fieldCache;
+	private static final ClassCache<List<Object>, Boolean> UNRESOLVABLE = new ClassCache<List<Object>, Boolean>();
+
 	private Class<?> type;
+	private InvokerFactory invokers;
 
 	public StaticInvocationResolver(Class<?> type) {
+		this(type, InvokerFactory.REFLECTION);
+	}
+
+	public StaticInvocationResolver(Class<?> type, InvokerFactory invokers) {
 		this.type = type;
-		this.fieldCache = new HashMap<String, Field>();
+		this.invokers = invokers;
 	}
 	
 	public Class<?> getType() {
 		return type;
 	}
 
+	public InvokerFactory getInvokers() {
+		return invokers;
+	}
+
+	/**
+	 * resolves the given interface method to a handler invoking the mapped static member or constructor.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler
+	 * @throws NoSuchMethodException
+	 *             if the method cannot be mapped to a static member or constructor of the resolved class
+	 */
 	protected StaticMethodInvocationHandler findInvocationHandler(Method method) throws NoSuchMethodException {
+		StaticMethodInvocationHandler handler = resolveInvocationHandler(method);
+		if (handler == null) {
+			throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves the given interface method to a handler invoking the mapped static member or constructor. Other than
+	 * {@link #findInvocationHandler(Method)} this method does not throw if the method cannot be mapped. Failed resolutions are cached for the resolved
+	 * class, so repeatedly resolving a method that cannot be mapped is cheap. This cache is only used if the class of this resolver does not override any
+	 * resolution hook (overridden hooks may depend on the state of the resolver).
+	 * 
+	 * <p>
+	 * The method is resolved with the hooks {@link #resolveMethodInvocator(Method)}, {@link #resolveConstructorInvocator(Method)},
+	 * {@link #resolveAllocatorInvocator(Method)}, {@link #resolveSetterInvocator(Method)} and {@link #resolveGetterInvocator(Method)}, subclasses may
+	 * override these hooks to customize resolution. If a subclass overrides one of the deprecated hooks {@link #createMethodInvocator(Method)},
+	 * {@link #createConstructorInvocator(Method)}, {@link #createSetterInvocator(Method)}, {@link #createGetterInvocator(Method)} or
+	 * {@link #findField(String, Class, Annotation[])}, the deprecated hook is called instead of its replacement.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if the method cannot be mapped to a static member or constructor of the resolved class
+	 */
+	protected StaticMethodInvocationHandler resolveInvocationHandler(Method method) {
+		Set<String> hooks = OverriddenHooks.of(getClass());
+		List<Object> key = Arrays.<Object> asList(type, method);
+		if (hooks.isEmpty() && UNRESOLVABLE.get(key, type, method.getDeclaringClass()) != null) {
+			return null;
+		}
+		StaticMethodInvocationHandler handler = methodInvocator(hooks, method);
+		if (handler == null) {
+			if (isConstructor(method)) {
+				handler = constructorInvocator(hooks, method);
+			} else if (isAllocator(method)) {
+				handler = resolveAllocatorInvocator(method);
+			} else if (isSetter(method)) {
+				handler = setterInvocator(hooks, method);
+			} else if (isGetter(method) || isBooleanGetter(method)) {
+				handler = getterInvocator(hooks, method);
+			}
+		}
+		if (handler == null && hooks.isEmpty()) {
+			UNRESOLVABLE.putIfAbsent(key, Boolean.TRUE, type, method.getDeclaringClass());
+		}
+		return handler;
+	}
+
+	@SuppressWarnings("deprecation")
+	private StaticMethodInvocationHandler methodInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createMethodInvocator")) {
+			return resolveMethodInvocator(method);
+		}
 		try {
 			return createMethodInvocator(method);
 		} catch (NoSuchMethodException e) {
-			try {
-				if (isConstructor(method)) {
-					return createConstructorInvocator(method);
-				} else if (isSetter(method)) {
-					return createSetterInvocator(method);
-				} else if (isGetter(method) || isBooleanGetter(method)) {
-					return createGetterInvocator(method);
-				} else {
-					throw e;
-				}
-			} catch (NoSuchFieldException e2) {
-				throw e;
-			}
+			return null;
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private StaticMethodInvocationHandler constructorInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createConstructorInvocator")) {
+			return resolveConstructorInvocator(method);
+		}
+		try {
+			return createConstructorInvocator(method);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private StaticMethodInvocationHandler setterInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createSetterInvocator")) {
+			return resolveSetterInvocator(method);
+		}
+		try {
+			return createSetterInvocator(method);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private StaticMethodInvocationHandler getterInvocator(Set<String> hooks, Method method) {
+		if (!hooks.contains("createGetterInvocator")) {
+			return resolveGetterInvocator(method);
+		}
+		try {
+			return createGetterInvocator(method);
+		} catch (NoSuchFieldException e) {
+			return null;
 		}
 	}
 
+	/**
+	 * @deprecated override {@link #resolveConstructorInvocator(Method)} to customize the resolution of constructors. It is only called during
+	 *             resolution if a subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected StaticMethodInvocationHandler createConstructorInvocator(Method method) throws NoSuchMethodException {
-		return new ConstructorInvoker(findConstructor(method, type), findConversionTarget(method));
+		StaticMethodInvocationHandler handler = resolveConstructorInvocator(method);
+		if (handler == null) {
+			throw new NoSuchMethodException(type.getSimpleName() + Arrays.asList(method.getParameterTypes()));
+		}
+		return handler;
 	}
 
-	private Constructor<?> findConstructor(Method method, Class<?> clazz) throws NoSuchMethodException {
-		if (isConverted(method)) {
-			return findConvertibleConstructor(method, type);
-		} else {
-			return findMatchingConstructor(method, type);
+	/**
+	 * resolves a constructor method (see {@link SignatureUtil#isConstructor(Method)}) to a handler invoking the mapped constructor.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if there is no mapped constructor
+	 */
+	protected StaticMethodInvocationHandler resolveConstructorInvocator(Method method) {
+		Constructor<?> constructor = resolveConstructor(MemberSignature.of(method));
+		if (constructor == null) {
+			return null;
 		}
+		return invokers.createConstructorInvoker(constructor, findConversionTarget(method));
 	}
 
-	private Constructor<?> findConvertibleConstructor(Method method, Class<?> clazz) throws NoSuchMethodException {
-		String[] convertArguments = determineNeededConversions(method.getParameterAnnotations(), method.getParameterTypes());
-		String convertResult = findTargetTypeName(method.getAnnotations(), method.getReturnType());
-		for (Constructor<?> candidate : clazz.getDeclaredConstructors()) {
-			if (matchesSignature(method, candidate, convertArguments, convertResult)) {
-				return candidate;
-			}
+	/**
+	 * resolves an allocator method (see {@link SignatureUtil#isAllocator(Method)}) to a handler creating instances without running any constructor
+	 * (see {@link Instantiator#allocate()}). Instances are only allocated if the interface declares such a method, a class without matching constructor
+	 * does not match a constructor method.
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if the result type does not accept the resolved class or the JVM does not permit allocation without constructor
+	 */
+	protected StaticMethodInvocationHandler resolveAllocatorInvocator(Method method) {
+		if (isConverted(method)
+			|| !method.getReturnType().isAssignableFrom(type)
+			|| !Instantiator.of(type).canAllocate()) {
+			return null;
 		}
-		throw new NoSuchMethodException(clazz.getSimpleName() + Arrays.asList(method.getParameterTypes()));
+		return new AllocationInvoker(type);
 	}
 
-	private Constructor<?> findMatchingConstructor(Method method, Class<?> clazz) throws NoSuchMethodException {
-		for (Constructor<?> candidate : clazz.getDeclaredConstructors()) {
-			if (matchesSignature(method, candidate, null, null)) {
+	/**
+	 * resolves the constructor of the resolved class matching the given signature (named {@link SignatureUtil#CONSTRUCTOR}).
+	 * 
+	 * @param signature
+	 *            the signature of an interface method or a function
+	 * @return the constructor, or null if there is no matching constructor
+	 */
+	Constructor<?> resolveConstructor(MemberSignature signature) {
+		String[] convertArguments = signature.isConverted() ? signature.convertArguments() : null;
+		for (Constructor<?> candidate : MemberIndex.of(type).constructors(signature.getArity())) {
+			if (signature.matches(candidate, convertArguments)) {
 				return candidate;
 			}
 		}
-		throw new NoSuchMethodException(clazz.getSimpleName() + Arrays.asList(method.getParameterTypes()));
+		return null;
 	}
 
+	/**
+	 * @deprecated override {@link #resolveGetterInvocator(Method)} to customize the resolution of getters. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected StaticMethodInvocationHandler createGetterInvocator(Method method) throws NoSuchFieldException {
-		return new StaticGetter(type, findField(method), convertedPropertyTypeOf(method));
+		StaticMethodInvocationHandler handler = resolveGetterInvocator(method);
+		if (handler == null) {
+			throw noSuchField(method);
+		}
+		return handler;
 	}
 
+	/**
+	 * @deprecated override {@link #resolveSetterInvocator(Method)} to customize the resolution of setters. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected StaticMethodInvocationHandler createSetterInvocator(Method method) throws NoSuchFieldException {
-		return new StaticSetter(type, findField(method), convertedPropertyTypeOf(method));
+		StaticMethodInvocationHandler handler = resolveSetterInvocator(method);
+		if (handler == null) {
+			throw noSuchField(method);
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves a getter method to a handler getting the mapped static field (see {@link #resolveField(String, Class, Annotation[])}).
+	 * 
+	 * @param method
+	 *            the getter method
+	 * @return the handler, or null if there is no mapped field
+	 */
+	protected StaticMethodInvocationHandler resolveGetterInvocator(Method method) {
+		Field field = fieldFor(method);
+		if (field == null) {
+			return null;
+		}
+		return invokers.createStaticGetter(type, field, convertedPropertyTypeOf(method));
+	}
+
+	/**
+	 * resolves a setter method to a handler setting the mapped static field (see {@link #resolveField(String, Class, Annotation[])}).
+	 * 
+	 * @param method
+	 *            the setter method
+	 * @return the handler, or null if there is no mapped field
+	 */
+	protected StaticMethodInvocationHandler resolveSetterInvocator(Method method) {
+		Field field = fieldFor(method);
+		if (field == null) {
+			return null;
+		}
+		return invokers.createStaticSetter(type, field, convertedPropertyTypeOf(method));
 	}
 
 	private Class<?> convertedPropertyTypeOf(Method method) {
@@ -105,55 +281,134 @@ public class StaticInvocationResolver {
 		return propertyTypeOf(method);
 	}
 
-	private Field findField(Method method) throws NoSuchFieldException {
+	private NoSuchFieldException noSuchField(Method method) {
+		return new NoSuchFieldException(fieldSignature(computeFieldNames(propertyOf(method)), propertyTypeOf(method)));
+	}
+
+	private Field fieldFor(Method method) {
 		if (isConverted(method)) {
-			return findField(propertyOf(method), propertyTypeOf(method), propertyAnnotationsOf(method));
+			return field(propertyOf(method), propertyTypeOf(method), propertyAnnotationsOf(method));
 		} else {
-			return findField(propertyOf(method), propertyTypeOf(method), new Annotation[0]);
+			return field(propertyOf(method), propertyTypeOf(method), new Annotation[0]);
 		}
 	}
 
+	@SuppressWarnings("deprecation")
+	private Field field(String fieldPattern, Class<?> type, Annotation[] annotations) {
+		if (!OverriddenHooks.of(getClass()).contains("findField")) {
+			return resolveField(fieldPattern, type, annotations);
+		}
+		try {
+			return findField(fieldPattern, type, annotations);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @deprecated override {@link #resolveField(String, Class, Annotation[])} to customize the resolution of fields. It is only called during
+	 *             resolution if a subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected Field findField(String fieldPattern, Class<?> type, Annotation[] annotations) throws NoSuchFieldException {
-		String convert = findTargetTypeName(annotations, type);
-		List<String> fieldNames = SignatureUtil.computeFieldNames(fieldPattern);
-		Class<?> currentClass = this.type;
-		while (currentClass != Object.class) {
+		Field field = resolveField(fieldPattern, type, annotations);
+		if (field == null) {
+			throw new NoSuchFieldException(fieldSignature(computeFieldNames(fieldPattern), type));
+		}
+		return field;
+	}
+
+	/**
+	 * resolves a field matching one of the names derived from the field pattern (see {@link SignatureUtil#computeFieldNames(String)}), searching the
+	 * resolved class and then its super classes.
+	 * 
+	 * @param fieldPattern
+	 *            the property name
+	 * @param type
+	 *            the type of the property
+	 * @param annotations
+	 *            the annotations of the property (determining conversions)
+	 * @return the field, or null if there is no matching field
+	 */
+	protected Field resolveField(String fieldPattern, Class<?> type, Annotation[] annotations) {
+		return resolveField(fieldPattern, (Type) type, annotations);
+	}
+
+	/**
+	 * resolves a field like {@link #resolveField(String, Class, Annotation[])}, but for a possibly generic type (see {@link MemberSignature}).
+	 * 
+	 * @param fieldPattern
+	 *            the property name
+	 * @param type
+	 *            the type of the property
+	 * @param annotations
+	 *            the annotations of the property (determining conversions)
+	 * @return the field, or null if there is no matching field
+	 */
+	Field resolveField(String fieldPattern, Type type, Annotation[] annotations) {
+		String convert = findTargetTypeName(annotations, erasure(type));
+		List<String> fieldNames = computeFieldNames(fieldPattern);
+		for (MemberIndex index : MemberIndex.of(this.type).hierarchy()) {
 			for (String fieldName : fieldNames) {
-				try {
-					Field field = fieldCache.get(fieldName);
-					if (field == null) {
-						field = currentClass.getDeclaredField(fieldName);
-						fieldCache.put(fieldName, field);
-					}
-					if (isCompliant(type, field.getType(), convert)) {
-						return field;
-					}
-				} catch (NoSuchFieldException e) {
+				Field field = index.field(fieldName);
+				if (field != null && isCompliant(type, field.getType(), convert)) {
+					return field;
 				}
 			}
-			currentClass = currentClass.getSuperclass();
 		}
-		throw new NoSuchFieldException(fieldSignature(fieldNames, type));
+		return null;
 	}
 
+	/**
+	 * @deprecated override {@link #resolveMethodInvocator(Method)} to customize the resolution of methods. It is only called during resolution if a
+	 *             subclass overrides it (instead of its replacement)
+	 */
+	@Deprecated
 	protected StaticMethodInvocationHandler createMethodInvocator(Method method) throws NoSuchMethodException {
-		Class<?> currentClass = type;
-		while (currentClass != Object.class) {
-			try {
-				Method candidate = findMethod(method, currentClass);
-				return new StaticMethodInvoker(currentClass, candidate, findConversionTarget(method));
-			} catch (NoSuchMethodException e) {
+		StaticMethodInvocationHandler handler = resolveMethodInvocator(method);
+		if (handler == null) {
+			throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		}
+		return handler;
+	}
+
+	/**
+	 * resolves an interface method to a handler invoking the mapped static method (of the resolved class or one of its super classes).
+	 * 
+	 * @param method
+	 *            the interface method
+	 * @return the handler, or null if there is no mapped method
+	 */
+	protected StaticMethodInvocationHandler resolveMethodInvocator(Method method) {
+		Method candidate = resolveMethod(MemberSignature.of(method));
+		if (candidate == null) {
+			return null;
+		}
+		return invokers.createStaticMethodInvoker(candidate.getDeclaringClass(), candidate, findConversionTarget(method));
+	}
+
+	/**
+	 * resolves the method (of the resolved class or one of its super classes) matching the given signature.
+	 * 
+	 * @param signature
+	 *            the signature of an interface method or a function
+	 * @return the method, or null if there is no matching method
+	 */
+	Method resolveMethod(MemberSignature signature) {
+		for (MemberIndex index : MemberIndex.of(type).hierarchy()) {
+			Method candidate = findMethod(signature, index);
+			if (candidate != null) {
+				return candidate;
 			}
-			currentClass = currentClass.getSuperclass();
 		}
-		throw new NoSuchMethodException(methodSignature(method.getName(), method.getReturnType(), method.getParameterTypes(), method.getExceptionTypes()));
+		return null;
 	}
 
-	private Method findMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		if (isConverted(method)) {
-			return findConvertibleMethod(method, clazz);
+	private Method findMethod(MemberSignature signature, MemberIndex index) {
+		if (signature.isConverted()) {
+			return findConvertibleMethod(signature, index);
 		} else {
-			return findMatchingMethod(method, clazz);
+			return findMatchingMethod(signature, index);
 		}
 	}
 
@@ -165,23 +420,27 @@ public class StaticInvocationResolver {
 		}
 	}
 
-	private Method findConvertibleMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		String[] convertArguments = determineNeededConversions(method.getParameterAnnotations(), method.getParameterTypes());
-		String convertResult = findTargetTypeName(method.getAnnotations(), method.getReturnType());
-		for (Method candidate : clazz.getDeclaredMethods()) {
-			if (matchesSignature(method, candidate, convertArguments, convertResult)) {
+	private Method findConvertibleMethod(MemberSignature signature, MemberIndex index) {
+		String[] convertArguments = signature.convertArguments();
+		String convertResult = signature.convertResult();
+		for (Method candidate : index.methods(signature.getName(), signature.getArity())) {
+			if (signature.matches(candidate, convertArguments, convertResult)) {
 				return candidate;
 			}
 		}
-		throw new NoSuchMethodException();
+		return null;
 	}
 
-	private Method findMatchingMethod(Method method, Class<?> clazz) throws NoSuchMethodException {
-		Method candidate = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
-		if (matchesSignature(method, candidate, null, null)) {
-			return candidate;
+	private Method findMatchingMethod(MemberSignature signature, MemberIndex index) {
+		List<Method> candidates = signature.isGeneric()
+			? index.methods(signature.getName(), signature.getArity())
+			: index.methods(signature.getName(), signature.getParameterClasses());
+		for (Method candidate : candidates) {
+			if (signature.matches(candidate, null, null)) {
+				return candidate;
+			}
 		}
-		throw new NoSuchMethodException();
+		return null;
 	}
 
 }
@@ -0,0 +1,87 @@
+package com.almondtools.picklock;
+
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
+import static java.lang.invoke.MethodType.genericMethodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given static method with a method handle. Beyond {@link StaticMethodInvoker} access is checked only once (on construction) and
+ * exceptions are thrown directly (not wrapped into {@link InvocationTargetException}).
+ */
+public class StaticMethodHandleInvoker implements StaticMethodInvocationHandler, MethodHandleBacked {
+
+	private Class<?> type;
+	private Method method;
+	private Conversion arguments;
+	private Conversion result;
+	private MethodHandle handle;
+	private MethodHandle invoker;
+
+	/**
+	 * Invokes the given method
+	 * @param type the static type to invoke the method on
+	 * @param method the method to invoke
+	 * @throws IllegalAccessException if the method could not be unreflected
+	 */
+	public StaticMethodHandleInvoker(Class<?> type, Method method) throws IllegalAccessException {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
+		this.type = type;
+		this.method = method;
+		method.setAccessible(true);
+		this.handle = MethodHandles.lookup().unreflect(method);
+		this.invoker = handle.asType(genericMethodType(handle.type().parameterCount()))
+			.asSpreader(Object[].class, method.getParameterTypes().length);
+	}
+
+	/**
+	 * Invokes a given method. Beyond {@link #StaticMethodHandleInvoker(Class, Method)} this constructor also converts the method signature
+	 * @param type the static type to invoke the method on
+	 * @param method the method to invoke
+	 * @param target the target signature (source arguments, target result)
+	 * @throws IllegalAccessException if the method could not be unreflected
+	 * @see Convert
+	 */
+	public StaticMethodHandleInvoker(Class<?> type, Method method, Method target) throws IllegalAccessException {
+		this(type, method);
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), method.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), method.getReturnType());
+		}
+	}
+
+	/**
+	 * @return the static type the method is invoked on
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public MethodHandle handleOf(MethodType type) {
+		if (arguments != Conversion.NONE || result != Conversion.NONE) {
+			return null;
+		}
+		return handle.asType(type);
+	}
+
+	@Override
+	public Object invoke(Object... args) throws Throwable {
+		return r((Object) invoker.invokeExact(a(args)));
+	}
+
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
+	}
+
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
+	}
+
+}
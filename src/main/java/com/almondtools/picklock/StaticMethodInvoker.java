@@ -1,7 +1,7 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertArguments;
-import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.argumentsConversion;
+import static com.almondtools.picklock.Converter.resultConversion;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -13,7 +13,8 @@ public class StaticMethodInvoker implements StaticMethodInvocationHandler {
 
 	private Class<?> type;
 	private Method method;
-	private Method target;
+	private Conversion arguments;
+	private Conversion result;
 
 	/**
 	 * Invokes the given method
@@ -21,6 +22,8 @@ public class StaticMethodInvoker implements StaticMethodInvocationHandler {
 	 * @param method the method to invoke
 	 */
 	public StaticMethodInvoker(Class<?> type, Method method) {
+		this.arguments = Conversion.NONE;
+		this.result = Conversion.NONE;
 		this.type = type;
 		this.method = method;
 		method.setAccessible(true);
@@ -35,7 +38,10 @@ public class StaticMethodInvoker implements StaticMethodInvocationHandler {
 	 */
 	public StaticMethodInvoker(Class<?> type, Method method, Method target) {
 		this(type, method);
-		this.target = target;
+		if (target != null) {
+			this.arguments = argumentsConversion(target.getParameterTypes(), method.getParameterTypes());
+			this.result = resultConversion(target.getReturnType(), method.getReturnType());
+		}
 	}
 
 	@Override
@@ -47,18 +53,12 @@ public class StaticMethodInvoker implements StaticMethodInvocationHandler {
 		}
 	}
 
-	private Object[] a(Object[] args) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-		if (target == null) {
-			return args;
-		}
-		return convertArguments(target.getParameterTypes(), method.getParameterTypes(), args);
+	private Object[] a(Object[] args) throws ReflectiveOperationException {
+		return (Object[]) arguments.convert(args);
 	}
 
-	private Object r(Object result) throws NoSuchMethodException {
-		if (target == null) {
-			return result;
-		}
-		return convertResult(target.getReturnType(), method.getReturnType(), result);
+	private Object r(Object result) throws ReflectiveOperationException {
+		return this.result.convert(result);
 	}
 
 }
@@ -1,10 +1,9 @@
 package com.almondtools.picklock;
 
-import static com.almondtools.picklock.Converter.convertArgument;
+import static com.almondtools.picklock.Converter.argumentConversion;
 import static com.almondtools.picklock.FinalUtil.ensureNonFinal;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 
 /**
  * Wraps a static field with modification (setter) access.
@@ -16,7 +15,7 @@ public class StaticSetter implements StaticMethodInvocationHandler {
 
 	private Class<?> type;
 	private Field field;
-	private Class<?> target;
+	private Conversion argument;
 
 	/**
 	 * Sets a value on the given field.
@@ -27,6 +26,7 @@ public class StaticSetter implements StaticMethodInvocationHandler {
 	 *            the field to access
 	 */
 	public StaticSetter(Class<?> type, Field field) {
+		this.argument = Conversion.NONE;
 		this.type = type;
 		this.field = field;
 		field.setAccessible(true);
@@ -46,7 +46,9 @@ public class StaticSetter implements StaticMethodInvocationHandler {
 	 */
 	public StaticSetter(Class<?> type, Field field, Class<?> target) {
 		this(type, field);
-		this.target = target;
+		if (target != null) {
+			this.argument = argumentConversion(target, field.getType());
+		}
 		ensureNonFinal(field);
 	}
 
@@ -63,11 +65,8 @@ public class StaticSetter implements StaticMethodInvocationHandler {
 		return null;
 	}
 
-	private Object a(Object arg) throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-		if (target == null) {
-			return arg;
-		}
-		return convertArgument(target, field.getType(), arg);
+	private Object a(Object arg) throws ReflectiveOperationException {
+		return argument.convert(arg);
 	}
 
 }
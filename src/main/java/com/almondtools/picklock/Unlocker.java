@@ -0,0 +1,34 @@
+package com.almondtools.picklock;
+
+/**
+ * An Unlocker is a template binding objects of one class to a feature interface. The interface is resolved once when the template is created (see
+ * {@link ObjectAccess#template(Class, Class)}), binding an object to the template does not resolve any members.
+ * 
+ * @param <T>
+ *            the feature interface
+ * @author Stefan Mandel
+ */
+public interface Unlocker<T> {
+
+	/**
+	 * @return the class the template was resolved against
+	 */
+	Class<?> getType();
+
+	/**
+	 * @return the feature interface of the template
+	 */
+	Class<T> getInterfaceClass();
+
+	/**
+	 * binds the given object to the template
+	 * 
+	 * @param object
+	 *            the object to unlock (an instance of {@link #getType()})
+	 * @return an object of the feature interface (mapped to the members of the given object)
+	 * @throws PicklockException
+	 *             if the object is not an instance of {@link #getType()}
+	 */
+	T bind(Object object);
+
+}
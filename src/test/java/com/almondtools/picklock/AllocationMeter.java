@@ -0,0 +1,53 @@
+package com.almondtools.picklock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Measures the bytes allocated by the current thread. The measurement relies on <code>com.sun.management.ThreadMXBean</code>, which is looked up
+ * reflectively, so tests using this meter also link on JVMs without this class (and may skip if {@link #isSupported()} is false).
+ */
+final class AllocationMeter {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+	private AllocationMeter() {
+	}
+
+	private static Method allocatedBytesMethod() {
+		try {
+			Class<?> allocations = Class.forName("com.sun.management.ThreadMXBean");
+			if (!allocations.isInstance(THREADS)
+				|| !(Boolean) allocations.getMethod("isThreadAllocatedMemorySupported").invoke(THREADS)
+				|| !(Boolean) allocations.getMethod("isThreadAllocatedMemoryEnabled").invoke(THREADS)) {
+				return null;
+			}
+			return allocations.getMethod("getThreadAllocatedBytes", long.class);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if this JVM can measure the bytes allocated by a thread
+	 */
+	static boolean isSupported() {
+		return ALLOCATED_BYTES != null;
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread so far
+	 */
+	static long allocatedBytes() {
+		try {
+			return (Long) ALLOCATED_BYTES.invoke(THREADS, Thread.currentThread().getId());
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,366 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class BinarySnapshotTest {
+
+	@Test
+	public void testSnapshotIsCached() throws Exception {
+		assertThat(Picklock.snapshot(Record.class), sameInstance(Picklock.snapshot(Record.class)));
+	}
+
+	@Test
+	public void testSchema() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+
+		List<String> names = new ArrayList<String>();
+		for (Field field : snapshot.getFields()) {
+			names.add(field.getName());
+		}
+
+		assertThat(names, equalTo(Arrays.asList("id", "code", "flag", "initial", "name", "ratio", "small", "tiny", "total", "weight")));
+		assertThat(snapshot.getSchema(), equalTo(Record.class.getName()
+			+ "{long id;int code;boolean flag;char initial;java.lang.String name;float ratio;short small;byte tiny;long total;double weight;}"));
+	}
+
+	@Test
+	public void testSchemaOfCustomResolver() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class, new InvocationResolver(Record.class) {
+			@Override
+			protected Field resolveField(String fieldPattern, Class<?> type, Annotation[] annotations) {
+				if (fieldPattern.equals("name")) {
+					return null;
+				}
+				return super.resolveField(fieldPattern, type, annotations);
+			}
+		});
+
+		assertThat(snapshot.getSchema(), equalTo(Record.class.getName()
+			+ "{long id;int code;boolean flag;char initial;float ratio;short small;byte tiny;long total;double weight;}"));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testResolverOfOtherClassFails() throws Exception {
+		Picklock.snapshot(Record.class, new InvocationResolver(Immutable.class));
+	}
+
+	@Test
+	public void testFieldsThatCannotBeSetAreRejected() throws Exception {
+		Class<?> hidden = defineHidden(FrozenValue.class);
+		assumeTrue(hidden != null);
+
+		try {
+			Picklock.snapshot(hidden);
+			fail("expected PicklockException");
+		} catch (PicklockException e) {
+			assertThat(e.getMessage(), containsString("value"));
+		}
+	}
+
+	@Test
+	public void testSizeOf() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+
+		assertThat(snapshot.sizeOf(new Record(1, "ab")), equalTo(8 + 4 + 1 + 2 + 4 + 4 + 4 + 2 + 1 + 8 + 8));
+		assertThat(snapshot.sizeOf(new Record(1, null)), equalTo(8 + 4 + 1 + 2 + 4 + 4 + 2 + 1 + 8 + 8));
+		assertThat(snapshot.sizeOf(Arrays.asList(new Record(1, "ab"), new Record(2, null))), equalTo(12L + 46 + 42));
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(snapshot.sizeOf(new Record(3, "ab")));
+
+		snapshot.write(new Record(3, "ab"), buffer);
+		buffer.flip();
+
+		assertThat(buffer.getLong(), equalTo(30L));
+		assertThat(buffer.getInt(), equalTo(3));
+		assertThat(buffer.get(), equalTo((byte) 1));
+		assertThat(buffer.getChar(), equalTo('a'));
+		assertThat(buffer.getInt(), equalTo(2));
+		assertThat(buffer.getChar(), equalTo('a'));
+		assertThat(buffer.getChar(), equalTo('b'));
+		assertThat(buffer.getFloat(), equalTo(1.5f));
+		assertThat(buffer.getShort(), equalTo((short) 6));
+		assertThat(buffer.get(), equalTo((byte) 4));
+		assertThat(buffer.getLong(), equalTo(3000000000L));
+		assertThat(buffer.getDouble(), equalTo(0.75));
+		assertThat(buffer.remaining(), equalTo(0));
+	}
+
+	@Test
+	public void testWriteAllToDirectBuffer() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		List<Record> records = Arrays.asList(new Record(1, "a"), new Record(2, null));
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) snapshot.sizeOf(records)).order(ByteOrder.LITTLE_ENDIAN);
+
+		snapshot.writeAll(records, buffer);
+		buffer.flip();
+
+		assertThat(buffer.getInt(), equalTo(BinarySnapshot.MAGIC));
+		assertThat(buffer.getInt(), equalTo(snapshot.getSchema().hashCode()));
+		assertThat(buffer.getInt(), equalTo(2));
+		assertThat(buffer.getLong(), equalTo(10L));
+		buffer.position(BinarySnapshot.HEADER_SIZE + snapshot.sizeOf(records.get(0)) + 15);
+		assertThat(buffer.getInt(), equalTo(-1));
+	}
+
+	@Test
+	public void testExport() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		List<Record> records = Arrays.asList(new Record(1, "a"), new Record(2, "b"));
+		File file = File.createTempFile("snapshot", ".bin");
+		file.deleteOnExit();
+
+		long size = snapshot.export(records, file);
+
+		assertThat(file.length(), equalTo(size));
+		try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+			assertThat(in.readInt(), equalTo(BinarySnapshot.MAGIC));
+			in.readInt();
+			assertThat(in.readInt(), equalTo(2));
+			assertThat(in.readLong(), equalTo(10L));
+		}
+	}
+
+	@Test
+	public void testSkipsUnsupportedStaticAndTransientFields() throws Exception {
+		BinarySnapshot<WithUnsupported> snapshot = Picklock.snapshot(WithUnsupported.class);
+
+		assertThat(snapshot.getFields().size(), equalTo(1));
+		assertThat(snapshot.getFields().get(0).getName(), equalTo("value"));
+	}
+
+	@Test
+	public void testReadWithoutDefaultConstructor() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(snapshot.sizeOf(new Record(3, "ab")));
+		snapshot.write(new Record(3, "ab"), buffer);
+		buffer.flip();
+
+		Record record = snapshot.read(buffer);
+
+		assertRecord(record, 3, "ab");
+		assertThat(buffer.remaining(), equalTo(0));
+	}
+
+	@Test
+	public void testReadIntoExistingObject() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(snapshot.sizeOf(new Record(5, null)));
+		snapshot.write(new Record(5, null), buffer);
+		buffer.flip();
+		Record record = new Record(1, "x");
+
+		snapshot.read(buffer, record);
+
+		assertRecord(record, 5, null);
+	}
+
+	@Test
+	public void testReadFinalFieldsWithoutConstructor() throws Exception {
+		BinarySnapshot<Immutable> snapshot = Picklock.snapshot(Immutable.class);
+		List<Immutable> values = Arrays.asList(new Immutable(7, "seven"));
+		ByteBuffer buffer = ByteBuffer.allocate((int) snapshot.sizeOf(values));
+		snapshot.writeAll(values, buffer);
+		buffer.flip();
+		int constructed = Immutable.constructed;
+
+		Immutable value = snapshot.readAll(buffer).get(0);
+
+		assertThat(Immutable.constructed, equalTo(constructed));
+		assertThat(value.value, equalTo(7));
+		assertThat(value.name, equalTo("seven"));
+		assertThat(value.derived, nullValue());
+	}
+
+	@Test
+	public void testReadAllInByteOrderOfBuffer() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		List<Record> records = Arrays.asList(new Record(1, "a"), new Record(2, null), new Record(3, "abc"));
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) snapshot.sizeOf(records)).order(ByteOrder.LITTLE_ENDIAN);
+		snapshot.writeAll(records, buffer);
+		buffer.flip();
+
+		List<Record> read = snapshot.readAll(buffer);
+
+		assertThat(read.size(), equalTo(3));
+		assertRecord(read.get(0), 1, "a");
+		assertRecord(read.get(1), 2, null);
+		assertRecord(read.get(2), 3, "abc");
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testReadHeaderOfOtherByteOrderFails() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(BinarySnapshot.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		snapshot.writeHeader(buffer, 0);
+		buffer.flip();
+
+		snapshot.readHeader(buffer.order(ByteOrder.BIG_ENDIAN));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testReadHeaderOfOtherSchemaFails() throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(BinarySnapshot.HEADER_SIZE);
+		Picklock.snapshot(WithUnsupported.class).writeHeader(buffer, 0);
+		buffer.flip();
+
+		Picklock.snapshot(Record.class).readHeader(buffer);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testReadAllWithNegativeCountFails() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(BinarySnapshot.HEADER_SIZE);
+		snapshot.writeHeader(buffer, -1);
+		buffer.flip();
+
+		snapshot.readAll(buffer);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testReadAllWithCountExceedingBufferFails() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		ByteBuffer buffer = ByteBuffer.allocate(BinarySnapshot.HEADER_SIZE);
+		snapshot.writeHeader(buffer, Integer.MAX_VALUE);
+		buffer.flip();
+
+		snapshot.readAll(buffer);
+	}
+
+	@Test
+	public void testImportFrom() throws Exception {
+		BinarySnapshot<Record> snapshot = Picklock.snapshot(Record.class);
+		List<Record> records = new ArrayList<Record>();
+		for (int i = 0; i < 1000; i++) {
+			records.add(new Record(i, i % 3 == 0 ? null : "r" + i));
+		}
+		File file = File.createTempFile("snapshot", ".bin");
+		file.deleteOnExit();
+		snapshot.export(records, file);
+
+		List<Record> read = snapshot.importFrom(file);
+
+		assertThat(read.size(), equalTo(1000));
+		for (int i = 0; i < 1000; i++) {
+			assertRecord(read.get(i), i, i % 3 == 0 ? null : "r" + i);
+		}
+	}
+
+	private static void assertRecord(Record record, int code, String name) {
+		Record expected = new Record(code, name);
+		assertThat(((Base) record).id, equalTo(((Base) expected).id));
+		assertThat(record.code, equalTo(expected.code));
+		assertThat(record.flag, equalTo(expected.flag));
+		assertThat(record.initial, equalTo(expected.initial));
+		assertThat(record.name, equalTo(expected.name));
+		assertThat(record.ratio, equalTo(expected.ratio));
+		assertThat(record.small, equalTo(expected.small));
+		assertThat(record.tiny, equalTo(expected.tiny));
+		assertThat(record.total, equalTo(expected.total));
+		assertThat(record.weight, equalTo(expected.weight));
+	}
+
+	private static class Base {
+		private long id;
+
+		Base(long id) {
+			this.id = id;
+		}
+	}
+
+	private static class Record extends Base {
+		private int code;
+		private boolean flag;
+		private char initial;
+		private String name;
+		private float ratio;
+		private short small;
+		private byte tiny;
+		private long total;
+		private double weight;
+
+		Record(int code, String name) {
+			super(code * 10L);
+			this.code = code;
+			this.flag = code % 2 == 1;
+			this.initial = name == null ? '-' : name.charAt(0);
+			this.name = name;
+			this.ratio = code * 0.5f;
+			this.small = (short) (code * 2);
+			this.tiny = (byte) (code + 1);
+			this.total = code * 1000000000L;
+			this.weight = code * 0.25;
+		}
+	}
+
+	private static class Immutable {
+		private static int constructed;
+		private final int value;
+		private final String name;
+		private final List<String> derived;
+
+		Immutable(int value, String name) {
+			constructed++;
+			this.value = value;
+			this.name = name;
+			this.derived = Arrays.asList(name);
+		}
+	}
+
+	private static Class<?> defineHidden(Class<?> clazz) throws Exception {
+		Class<?> option;
+		try {
+			option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+		try (InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+			Object options = Array.newInstance(option, 0);
+			Lookup lookup = (Lookup) Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass())
+				.invoke(MethodHandles.lookup(), out.toByteArray(), true, options);
+			return lookup.lookupClass();
+		}
+	}
+
+	private static class WithUnsupported {
+		private static int instances;
+		private transient int cached;
+		private Integer boxed;
+		private List<String> list;
+		private int value;
+	}
+
+}
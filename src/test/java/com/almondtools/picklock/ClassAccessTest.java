@@ -6,6 +6,14 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -30,6 +38,26 @@ public class ClassAccessTest {
 		assertThat(unlocked.create().getMyField(), equalTo("initialized"));
 	}
 
+	@Test
+	public void testConstructorlessInvocation() throws Exception {
+		for (InvokerFactory invokers : new InvokerFactory[] { InvokerFactory.REFLECTION, InvokerFactory.METHOD_HANDLES, InvokerFactory.GENERATED }) {
+			UnlockedWithoutDefaultConstructor unlocked = ClassAccess.unlock(WithoutDefaultConstructor.class, invokers).features(UnlockedWithoutDefaultConstructor.class);
+			WithoutDefaultConstructor created = unlocked.allocate();
+			assertThat(created.state, nullValue());
+			assertThat(unlocked.create("state").state, equalTo("state"));
+		}
+	}
+
+	@Test
+	public void testConstructorlessInvocationRequiresMatchingResult() throws Exception {
+		assertThat(WithoutDefaultConstructor.class, not(canBeTreatedAs(UnlockedWithOtherResult.class)));
+	}
+
+	@Test
+	public void testConstructorInvocationDoesNotAllocate() throws Exception {
+		assertThat(WithoutDefaultConstructor.class, not(canBeTreatedAs(UnlockedWithDefaultConstructor.class)));
+	}
+
 	@Test
 	public void testStaticInvocation() throws Exception {
 		unlocked.setDEFAULT(null);
@@ -53,11 +81,91 @@ public class ClassAccessTest {
 		assertThat(unlocked.getDEFAULT(), nullValue());
 	}
 
+	@Test
+	public void testConstructorAndStaticInvocationWithMethodHandles() throws Exception {
+		UnlockedObject unlocked = ClassAccess.unlock(LockedObjectWithPrivateConstructor.class, InvokerFactory.METHOD_HANDLES).features(UnlockedObject.class);
+		assertThat(unlocked.create().getMyField(), equalTo("initialized"));
+		assertThat(unlocked.reset().getMyField(), equalTo(unlocked.getDEFAULT()));
+	}
+
 	@Test(expected=PicklockException.class)
 	public void testWrongSignature() throws Exception {
 		ClassAccess.unlock(LockedObjectWithPrivateConstructor.class).features(UnlockedNotMatchingObject.class);
 	}
 
+	@Test
+	public void testConcurrentFeatures() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int round = 0; round < 50; round++) {
+				final ClassAccess access = ClassAccess.unlock(WithStaticFeatures.class);
+				final CyclicBarrier start = new CyclicBarrier(8);
+				List<Future<String>> results = new ArrayList<Future<String>>();
+				for (int i = 0; i < 8; i++) {
+					final boolean a = i % 2 == 0;
+					results.add(executor.submit(new Callable<String>() {
+						@Override
+						public String call() throws Exception {
+							start.await();
+							return a
+								? access.features(StaticFeatureA.class).getFEATURE_A()
+								: access.features(StaticFeatureB.class).getFEATURE_B();
+						}
+					}));
+				}
+				for (int i = 0; i < 8; i++) {
+					assertThat(results.get(i).get(), equalTo(i % 2 == 0 ? "A" : "B"));
+				}
+				assertThat(access.getHandler(StaticFeatureA.class.getDeclaredMethod("getFEATURE_A")) != null, equalTo(true));
+				assertThat(access.getHandler(StaticFeatureB.class.getDeclaredMethod("getFEATURE_B")) != null, equalTo(true));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public static interface StaticFeatureA {
+		String getFEATURE_A();
+	}
+
+	public static interface StaticFeatureB {
+		String getFEATURE_B();
+	}
+
+	@SuppressWarnings("unused")
+	private static class WithStaticFeatures {
+		private static String FEATURE_A = "A";
+		private static String FEATURE_B = "B";
+	}
+
+	interface UnlockedWithoutDefaultConstructor {
+
+		WithoutDefaultConstructor allocate();
+
+		WithoutDefaultConstructor create(String state);
+
+	}
+
+	interface UnlockedWithOtherResult {
+
+		String allocate();
+
+	}
+
+	interface UnlockedWithDefaultConstructor {
+
+		WithoutDefaultConstructor create();
+
+	}
+
+	private static class WithoutDefaultConstructor {
+		private String state;
+
+		WithoutDefaultConstructor(String state) {
+			this.state = state;
+		}
+	}
+
 	public static interface UnlockedObject {
 
 		public LockedObjectWithPrivateConstructor create();
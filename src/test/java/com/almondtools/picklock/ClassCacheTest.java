@@ -0,0 +1,100 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ClassCacheTest {
+
+	@Test
+	public void testOwnerIsClassOfMostSpecificLoader() throws Exception {
+		Class<?> child = new ChildClassLoader().define(Feature.class);
+
+		assertThat(ClassCache.ownerOf(String.class, child), sameInstance((Object) child));
+		assertThat(ClassCache.ownerOf(child, String.class), sameInstance((Object) child));
+		assertThat(ClassCache.ownerOf(Feature.class, child), sameInstance((Object) child));
+	}
+
+	@Test
+	public void testOwnerOfBootstrapClassesIsPicklock() throws Exception {
+		assertThat(ClassCache.ownerOf(String.class, Integer.class), sameInstance((Object) ClassCache.class));
+	}
+
+	@Test
+	public void testUnrelatedLoadersAreNotCached() throws Exception {
+		Class<?> child1 = new ChildClassLoader().define(Feature.class);
+		Class<?> child2 = new ChildClassLoader().define(Feature.class);
+		ClassCache<List<Class<?>>, String> cache = new ClassCache<List<Class<?>>, String>();
+		List<Class<?>> key = Arrays.<Class<?>> asList(child1, child2);
+
+		assertThat(ClassCache.ownerOf(child1, child2), nullValue());
+		assertThat(cache.putIfAbsent(key, "value", child1, child2), equalTo("value"));
+		assertThat(cache.get(key, child1, child2), nullValue());
+	}
+
+	@Test
+	public void testCache() throws Exception {
+		ClassCache<List<Class<?>>, String> cache = new ClassCache<List<Class<?>>, String>();
+		List<Class<?>> key = Arrays.<Class<?>> asList(String.class, Feature.class);
+
+		assertThat(cache.get(key, String.class, Feature.class), nullValue());
+		assertThat(cache.putIfAbsent(key, "value", String.class, Feature.class), equalTo("value"));
+		assertThat(cache.putIfAbsent(key, "other", String.class, Feature.class), equalTo("value"));
+		assertThat(cache.get(key, String.class, Feature.class), equalTo("value"));
+	}
+
+	@Test
+	public void testCachedEntryDoesNotPinChildLoader() throws Exception {
+		ClassCache<List<Class<?>>, Object> cache = new ClassCache<List<Class<?>>, Object>();
+		WeakReference<ClassLoader> loader = cacheChildEntry(cache);
+
+		for (int i = 0; i < 20 && loader.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertThat(loader.get(), nullValue());
+	}
+
+	private static WeakReference<ClassLoader> cacheChildEntry(ClassCache<List<Class<?>>, Object> cache) throws IOException {
+		ChildClassLoader loader = new ChildClassLoader();
+		Class<?> child = loader.define(Feature.class);
+		cache.putIfAbsent(Arrays.<Class<?>> asList(String.class, child), child, String.class, child);
+		return new WeakReference<ClassLoader>(loader);
+	}
+
+	public interface Feature {
+		int getNumber();
+	}
+
+	private static class ChildClassLoader extends ClassLoader {
+
+		ChildClassLoader() {
+			super(ClassCacheTest.class.getClassLoader());
+		}
+
+		Class<?> define(Class<?> clazz) throws IOException {
+			try (InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					out.write(buffer, 0, read);
+				}
+				byte[] bytes = out.toByteArray();
+				return defineClass(clazz.getName(), bytes, 0, bytes.length);
+			}
+		}
+	}
+
+}
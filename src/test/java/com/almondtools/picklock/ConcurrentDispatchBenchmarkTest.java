@@ -0,0 +1,98 @@
+package com.almondtools.picklock;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of proxy calls on one shared {@link ObjectAccess} with an increasing number of threads. With immutable dispatch tables the
+ * throughput grows with the number of threads (up to the number of available cores). The measurements are timing dependent, so they only run if
+ * enabled (and if there is more than one core) with
+ *
+ * <p>
+ * <code>mvn test -Dtest=ConcurrentDispatchBenchmarkTest -Dpicklock.benchmarks=true</code>
+ *
+ * <p>
+ * The test fails with the measured throughputs (in calls per ms) if a thread among several achieves less than half of the throughput of a single
+ * thread.
+ */
+public class ConcurrentDispatchBenchmarkTest {
+
+	private static final int CALLS = 5_000_000;
+	private static final int MAX_THREADS = 8;
+	private static final double SCALING = 0.5;
+
+	private int sink;
+
+	@Before
+	public void before() throws Exception {
+		assumeTrue(Boolean.getBoolean("picklock.benchmarks"));
+		assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+	}
+
+	@Test
+	public void testReadsScale() throws Exception {
+		Unlocked unlocked = ObjectAccess.unlock(new Benchmarked()).features(Unlocked.class);
+		int cores = Math.min(Runtime.getRuntime().availableProcessors(), MAX_THREADS);
+		measure(unlocked, cores);
+
+		double single = measure(unlocked, 1);
+		StringBuilder measurements = new StringBuilder("threads/calls per ms: 1/").append(single);
+		boolean scales = true;
+		for (int threads = 2; threads <= cores; threads *= 2) {
+			double throughput = measure(unlocked, threads);
+			measurements.append(", ").append(threads).append('/').append(throughput);
+			scales &= throughput / threads >= single * SCALING;
+		}
+
+		assertTrue(measurements.toString(), scales);
+	}
+
+	private double measure(final Unlocked unlocked, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+			for (int i = 0; i < threads; i++) {
+				tasks.add(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int sum = 0;
+						for (int j = 0; j < CALLS; j++) {
+							sum += unlocked.getA();
+						}
+						return sum;
+					}
+				});
+			}
+			long start = System.nanoTime();
+			int sum = 0;
+			for (Future<Integer> result : executor.invokeAll(tasks)) {
+				sum += result.get();
+			}
+			long time = System.nanoTime() - start;
+			sink += sum;
+			return (double) CALLS * threads / (time / 1_000_000d);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	interface Unlocked {
+		int getA();
+	}
+
+	@SuppressWarnings("unused")
+	private static class Benchmarked {
+		private int a = 1;
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class ConstructorHandleInvokerTest {
+
+	@Test
+	public void testInvokeWithoutProblems() throws Throwable {
+		Object result = new ConstructorHandleInvoker(WithConstructor.class.getDeclaredConstructor()).invoke(new Object[0]);
+		assertThat(result, instanceOf(WithConstructor.class));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testInvokeWithNPEConstructor() throws Throwable {
+		new ConstructorHandleInvoker(WithConstructor.class.getDeclaredConstructor(boolean.class)).invoke(new Object[] { Boolean.FALSE });
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvokeWithIOConstructor() throws Throwable {
+		new ConstructorHandleInvoker(WithConstructor.class.getDeclaredConstructor(boolean.class)).invoke(new Object[] { Boolean.TRUE });
+	}
+
+	@Test
+	public void testInvokeWithArgumentConversion() throws Throwable {
+		Method method = Constructors.class.getDeclaredMethod("create");
+		ConstructorHandleInvoker constructor = new ConstructorHandleInvoker(WithConvertedConstructor.class.getDeclaredConstructor(), method);
+		Object result = constructor.invoke(new Object[0]);
+		assertThat(result, instanceOf(ConvertedInterface.class));
+	}
+
+	@Test
+	public void testInvokeWithResultConversion() throws Throwable {
+		Method method = Constructors.class.getDeclaredMethod("create", ConvertedInterface.class);
+		ConstructorHandleInvoker constructor = new ConstructorHandleInvoker(WithConvertedConstructor.class.getDeclaredConstructor(WithConvertedConstructor.class), method);
+		Object result = constructor.invoke(new ConvertedInterface() {
+		});
+		assertThat(result, instanceOf(WithConvertedConstructor.class));
+	}
+
+	interface Constructors {
+		@Convert("WithConvertedConstructor") ConvertedInterface create();
+		WithConvertedConstructor create(@Convert("WithConvertedConstructor") ConvertedInterface i);
+	}
+
+	private static class WithConstructor {
+
+		public WithConstructor() {
+		}
+
+		public WithConstructor(boolean checked) throws IOException {
+			if (checked) {
+				throw new IOException();
+			} else {
+				throw new NullPointerException();
+			}
+		}
+	}
+
+	private static class WithConvertedConstructor {
+
+		public WithConvertedConstructor() {
+		}
+
+		public WithConvertedConstructor(WithConvertedConstructor e) {
+		}
+
+	}
+
+	interface ConvertedInterface {
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ContextInvocationHandlerTest {
+
+	@Test
+	public void testInvokeOnContextObject() throws Exception {
+		ThreadLocal<LockedObject> context = new ThreadLocal<LockedObject>();
+		UnlockedObject unlocked = ObjectAccess.contextual(LockedObject.class, UnlockedObject.class, context);
+		LockedObject object1 = new LockedObject();
+		LockedObject object2 = new LockedObject();
+
+		context.set(object1);
+		unlocked.setMyField("1");
+		context.set(object2);
+		unlocked.setMyField("2");
+
+		assertThat(unlocked, instanceOf(Proxy.class));
+		assertThat(object1.myPublicMethod(), equalTo(1));
+		assertThat(object2.myPublicMethod(), equalTo(2));
+		assertThat(unlocked.getMyField(), equalTo("2"));
+	}
+
+	@Test
+	public void testInvokeOnContextOfEachThread() throws Exception {
+		final ThreadLocal<LockedObject> context = new ThreadLocal<LockedObject>();
+		final UnlockedObject unlocked = ObjectAccess.contextual(LockedObject.class, UnlockedObject.class, context);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] results = new Future<?>[16];
+			for (int i = 0; i < results.length; i++) {
+				final String value = String.valueOf(i);
+				results[i] = executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						context.set(new LockedObject());
+						unlocked.setMyField(value);
+						Thread.yield();
+						return unlocked.getMyField();
+					}
+				});
+			}
+			for (int i = 0; i < results.length; i++) {
+				assertThat(results[i].get(), equalTo((Object) String.valueOf(i)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnwrap() throws Exception {
+		ThreadLocal<LockedObject> context = new ThreadLocal<LockedObject>();
+		UnlockedObject unlocked = ObjectAccess.contextual(LockedObject.class, UnlockedObject.class, context);
+		LockedObject object = new LockedObject();
+
+		assertThat(Converter.unwrap(unlocked), nullValue());
+		context.set(object);
+		assertThat(Converter.unwrap(unlocked), sameInstance((Object) object));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testInvokeWithoutContextObject() throws Exception {
+		ThreadLocal<LockedObject> context = new ThreadLocal<LockedObject>();
+		ObjectAccess.contextual(LockedObject.class, UnlockedObject.class, context).getMyField();
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testInvokeWithOtherContextObject() throws Exception {
+		ThreadLocal<Object> context = new ThreadLocal<Object>();
+		context.set("string");
+		ObjectAccess.contextual(LockedObject.class, UnlockedObject.class, context).getMyField();
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testUnresolvableInterface() throws Exception {
+		ObjectAccess.contextual(LockedObject.class, NotMatching.class, new ThreadLocal<Object>());
+	}
+
+	public static interface UnlockedObject {
+		void setMyField(String value);
+
+		String getMyField();
+	}
+
+	public static interface NotMatching {
+		void notExisting();
+	}
+
+}
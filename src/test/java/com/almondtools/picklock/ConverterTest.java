@@ -1,9 +1,14 @@
 package com.almondtools.picklock;
 
+import static com.almondtools.picklock.Converter.argumentConversion;
+import static com.almondtools.picklock.Converter.argumentsConversion;
 import static com.almondtools.picklock.Converter.convertArguments;
 import static com.almondtools.picklock.Converter.convertResult;
+import static com.almondtools.picklock.Converter.resultConversion;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.lang.reflect.Method;
@@ -57,6 +62,45 @@ public class ConverterTest {
 		assertThat(convertArguments(target.getParameterTypes(), method.getParameterTypes(), ObjectAccess.unlock(val).features(SimpleObjectInterface.class)), equalTo(new Object[] { val }));
 	}
 
+	@Test
+	public void testArgumentsConversionIdentity() throws Exception {
+		Method method = staticLongMethod();
+		Method target = interfaceLongMethod();
+		assertThat(argumentsConversion(target.getParameterTypes(), method.getParameterTypes()), sameInstance(Conversion.NONE));
+	}
+
+	@Test
+	public void testArgumentsConversionConvertingValues() throws Exception {
+		Method method = staticSimpleObjectMethod();
+		Method target = interfaceSimpleObjectMethod();
+		Conversion conversion = argumentsConversion(target.getParameterTypes(), method.getParameterTypes());
+		assertThat(conversion.convert(new Object[] { simpleObjectInterface("value") }), equalTo((Object) new Object[] { SimpleObject.build("value") }));
+		assertThat(conversion.convert(new Object[] { null }), equalTo((Object) new Object[] { null }));
+	}
+
+	@Test
+	public void testArgumentConversionUnwrapsPicklockedValues() throws Exception {
+		SimpleObject val = SimpleObject.build("value");
+		Conversion conversion = argumentConversion(SimpleObjectInterface.class, SimpleObject.class);
+		assertThat(conversion.convert(ObjectAccess.unlock(val).features(SimpleObjectInterface.class)), sameInstance((Object) val));
+		assertThat(conversion.convert(ObjectAccess.template(SimpleObject.class, SimpleObjectInterface.class).bind(val)), sameInstance((Object) val));
+	}
+
+	@Test
+	public void testResultConversionIdentity() throws Exception {
+		assertThat(resultConversion(Object.class, SimpleObject.class), sameInstance(Conversion.NONE));
+	}
+
+	@Test
+	public void testResultConversionConvertingValues() throws Exception {
+		Conversion conversion = resultConversion(SimpleObjectInterface.class, SimpleObject.class);
+		Object first = conversion.convert(SimpleObject.build("first"));
+		Object second = conversion.convert(SimpleObject.build("second"));
+		assertThat(((SimpleObjectInterface) first).getString(), equalTo("first"));
+		assertThat(((SimpleObjectInterface) second).getString(), equalTo("second"));
+		assertThat(conversion.convert(null), nullValue());
+	}
+
 	private Method staticLongMethod() throws NoSuchMethodException {
 		return ForSimpleObject.class.getDeclaredMethod("longMethod", long.class, String.class);
 	}
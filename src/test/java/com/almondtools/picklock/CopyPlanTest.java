@@ -0,0 +1,242 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class CopyPlanTest {
+
+	@Test
+	public void testPlanIsCached() throws Exception {
+		CopyPlan plan = CopyPlan.of(Point.class, PointInterface.class);
+		assertThat(CopyPlan.of(Point.class, PointInterface.class), sameInstance(plan));
+		assertThat(CopyPlan.of(Point.class, XInterface.class), not(sameInstance(plan)));
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		Object copy = CopyPlan.of(Point.class, PointInterface.class).copy(new PointValue(1, 2l, "p"));
+		assertThat(copy, instanceOf(Point.class));
+		assertThat(((Point) copy).x, equalTo(1));
+		assertThat(((Point) copy).y, equalTo(2l));
+		assertThat(((Point) copy).name, equalTo("p"));
+	}
+
+	@Test
+	public void testCopyCreatesNewObjects() throws Exception {
+		CopyPlan plan = CopyPlan.of(Point.class, PointInterface.class);
+		assertThat(plan.copy(new PointValue(1, 2l, "p")), not(sameInstance(plan.copy(new PointValue(1, 2l, "p")))));
+	}
+
+	@Test
+	public void testCopyOnlyReadWritableProperties() throws Exception {
+		Object copy = CopyPlan.of(Point.class, XInterface.class).copy(new PointValue(3, 4l, "p"));
+		assertThat(((Point) copy).x, equalTo(3));
+		assertThat(((Point) copy).y, equalTo(0l));
+	}
+
+	@Test(expected = InvocationTargetException.class)
+	public void testCopyFailingGetter() throws Exception {
+		CopyPlan.of(Point.class, XInterface.class).copy(new XInterface() {
+
+			@Override
+			public int getX() {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void setX(int x) {
+			}
+
+			@Override
+			public String getName() {
+				return null;
+			}
+		});
+	}
+
+	@Test
+	public void testWithoutDefaultConstructor() throws Exception {
+		Object copy = CopyPlan.of(NoDefaultConstructor.class, XInterface.class).copy(new PointValue(3, 4l, "p"));
+		assertThat(copy, instanceOf(NoDefaultConstructor.class));
+		assertThat(((NoDefaultConstructor) copy).x, equalTo(3));
+	}
+
+	@Test
+	public void testWithDefaultConstructorRunsConstructor() throws Exception {
+		Object copy = CopyPlan.of(InitializedPoint.class, XInterface.class).copy(new PointValue(3, 4l, "p"));
+		assertThat(((InitializedPoint) copy).x, equalTo(3));
+		assertThat(((InitializedPoint) copy).y, equalTo(42l));
+	}
+
+	@Test
+	public void testWithAllocationStrategySkipsConstructor() throws Exception {
+		Object copy = CopyPlan.of(InitializedPoint.class, XInterface.class, InstantiationStrategy.ALLOCATION).copy(new PointValue(3, 4l, "p"));
+		assertThat(((InitializedPoint) copy).x, equalTo(3));
+		assertThat(((InitializedPoint) copy).y, equalTo(0l));
+	}
+
+	@Test
+	public void testWithCustomStrategy() throws Exception {
+		InstantiationStrategy strategy = new InstantiationStrategy() {
+
+			@Override
+			public boolean canInstantiate(Class<?> type) {
+				return type == NoDefaultConstructor.class;
+			}
+
+			@Override
+			public Object newInstance(Class<?> type) {
+				return new NoDefaultConstructor(42);
+			}
+		};
+		Object copy = CopyPlan.of(NoDefaultConstructor.class, XInterface.class, strategy).copy(new PointValue(3, 4l, "p"));
+		assertThat(((NoDefaultConstructor) copy).x, equalTo(3));
+		assertThat(CopyPlan.of(NoDefaultConstructor.class, XInterface.class, InstantiationStrategy.DEFAULT), sameInstance(CopyPlan.of(NoDefaultConstructor.class, XInterface.class)));
+	}
+
+	@Test
+	public void testCopyDoesNotWrapPicklockExceptions() throws Exception {
+		final PicklockException failure = new PicklockException("cannot instantiate");
+		InstantiationStrategy strategy = new InstantiationStrategy() {
+
+			@Override
+			public boolean canInstantiate(Class<?> type) {
+				return true;
+			}
+
+			@Override
+			public Object newInstance(Class<?> type) {
+				throw failure;
+			}
+		};
+		try {
+			CopyPlan.of(Point.class, XInterface.class, strategy).copy(new PointValue(3, 4l, "p"));
+			fail("expected failure");
+		} catch (PicklockException e) {
+			assertThat(e, sameInstance(failure));
+		}
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testWithStrategyNotInstantiating() throws Exception {
+		CopyPlan.of(AbstractPoint.class, XInterface.class, InstantiationStrategy.ALLOCATION);
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testAbstractClass() throws Exception {
+		CopyPlan.of(AbstractPoint.class, XInterface.class);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testWithNotMatchingInterface() throws Exception {
+		CopyPlan.of(Point.class, NotMatching.class);
+	}
+
+	interface PointInterface {
+		int getX();
+
+		void setX(int x);
+
+		long getY();
+
+		void setY(long y);
+
+		String getName();
+
+		void setName(String name);
+	}
+
+	interface XInterface {
+		int getX();
+
+		void setX(int x);
+
+		String getName();
+	}
+
+	interface NotMatching {
+		int getZ();
+
+		void setZ(int z);
+	}
+
+	private static class PointValue implements PointInterface, XInterface {
+
+		private int x;
+		private long y;
+		private String name;
+
+		PointValue(int x, long y, String name) {
+			this.x = x;
+			this.y = y;
+			this.name = name;
+		}
+
+		@Override
+		public int getX() {
+			return x;
+		}
+
+		@Override
+		public void setX(int x) {
+			this.x = x;
+		}
+
+		@Override
+		public long getY() {
+			return y;
+		}
+
+		@Override
+		public void setY(long y) {
+			this.y = y;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+	private static class Point {
+		private int x;
+		private long y;
+		private String name;
+	}
+
+	@SuppressWarnings("unused")
+	private static class InitializedPoint {
+		private int x;
+		private long y = 42l;
+		private String name;
+	}
+
+	private abstract static class AbstractPoint {
+		private int x;
+	}
+
+	@SuppressWarnings("unused")
+	private static class NoDefaultConstructor {
+		private int x;
+		private String name;
+
+		NoDefaultConstructor(int x) {
+			this.x = x;
+		}
+	}
+
+}
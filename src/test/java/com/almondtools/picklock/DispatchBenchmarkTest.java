@@ -0,0 +1,166 @@
+package com.almondtools.picklock;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the cost per call of dispatching proxy calls with a {@link HashMap} keyed by {@link Method} (as {@link ObjectAccess} did before) and with a
+ * {@link DispatchTable}. The measurements are timing dependent, so they only run if enabled with
+ *
+ * <p>
+ * <code>mvn test -Dtest=DispatchBenchmarkTest -Dpicklock.benchmarks=true</code>
+ *
+ * <p>
+ * Each test fails with the measured times (in ns per call) if the dispatch table is slower than the map.
+ */
+public class DispatchBenchmarkTest {
+
+	private static final int WARMUP = 5;
+	private static final int ROUNDS = 5;
+	private static final int CALLS = 10_000_000;
+	private static final double TOLERANCE = 1.1;
+
+	private int sink;
+
+	@Before
+	public void before() throws Exception {
+		assumeTrue(Boolean.getBoolean("picklock.benchmarks"));
+	}
+
+	@Test
+	public void testLookup() throws Exception {
+		Method[] methods = proxyMethods();
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(Benchmarked.class), Unlocked.class);
+		Map<Method, MethodInvocationHandler> map = new HashMap<Method, MethodInvocationHandler>(plan.getHandlers());
+		DispatchTable<MethodInvocationHandler> table = plan.getDispatch();
+
+		for (int i = 0; i < WARMUP; i++) {
+			lookup(map, methods);
+			lookup(table, methods);
+		}
+		double mapTime = Double.MAX_VALUE;
+		double tableTime = Double.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; i++) {
+			mapTime = Math.min(mapTime, lookup(map, methods));
+			tableTime = Math.min(tableTime, lookup(table, methods));
+		}
+
+		assertTrue("lookup: HashMap<Method, handler> " + mapTime + " ns/call, DispatchTable " + tableTime + " ns/call", tableTime <= mapTime * TOLERANCE);
+	}
+
+	@Test
+	public void testProxyCall() throws Exception {
+		Benchmarked object = new Benchmarked();
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(Benchmarked.class), Unlocked.class);
+		Map<Method, MethodInvocationHandler> map = new HashMap<Method, MethodInvocationHandler>(plan.getHandlers());
+		Unlocked before = (Unlocked) Proxy.newProxyInstance(Unlocked.class.getClassLoader(), new Class[] { Unlocked.class }, new MapDispatch(map, object));
+		Unlocked after = ObjectAccess.unlock(object).features(Unlocked.class);
+
+		for (int i = 0; i < WARMUP; i++) {
+			call(before);
+			call(after);
+		}
+		double beforeTime = Double.MAX_VALUE;
+		double afterTime = Double.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; i++) {
+			beforeTime = Math.min(beforeTime, call(before));
+			afterTime = Math.min(afterTime, call(after));
+		}
+
+		assertTrue("proxy call: HashMap<Method, handler> " + beforeTime + " ns/call, DispatchTable " + afterTime + " ns/call", afterTime <= beforeTime * TOLERANCE);
+	}
+
+	private static Method[] proxyMethods() {
+		final Method[] methods = new Method[3];
+		Unlocked capture = (Unlocked) Proxy.newProxyInstance(Unlocked.class.getClassLoader(), new Class[] { Unlocked.class }, new InvocationHandler() {
+			private int i;
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				methods[i++] = method;
+				return method.getReturnType() == int.class ? (Object) 0 : null;
+			}
+		});
+		capture.getA();
+		capture.getB();
+		capture.setA(0);
+		return methods;
+	}
+
+	private double lookup(Map<Method, MethodInvocationHandler> map, Method[] methods) {
+		long start = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < CALLS; i++) {
+			if (map.get(methods[i % methods.length]) != null) {
+				found++;
+			}
+		}
+		sink += found;
+		return (System.nanoTime() - start) / (double) CALLS;
+	}
+
+	private double lookup(DispatchTable<MethodInvocationHandler> table, Method[] methods) {
+		long start = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < CALLS; i++) {
+			if (table.get(methods[i % methods.length]) != null) {
+				found++;
+			}
+		}
+		sink += found;
+		return (System.nanoTime() - start) / (double) CALLS;
+	}
+
+	private double call(Unlocked unlocked) {
+		long start = System.nanoTime();
+		int sum = 0;
+		for (int i = 0; i < CALLS; i++) {
+			unlocked.setA(i);
+			sum += unlocked.getA() + unlocked.getB();
+		}
+		sink += sum;
+		return (System.nanoTime() - start) / (double) CALLS / 3;
+	}
+
+	private static class MapDispatch implements InvocationHandler {
+
+		private Map<Method, MethodInvocationHandler> handlers;
+		private Object object;
+
+		MapDispatch(Map<Method, MethodInvocationHandler> handlers, Object object) {
+			this.handlers = handlers;
+			this.object = object;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			MethodInvocationHandler handler = handlers.get(method);
+			return handler.invoke(object, args);
+		}
+
+	}
+
+	interface Unlocked {
+		int getA();
+
+		int getB();
+
+		void setA(int a);
+	}
+
+	@SuppressWarnings("unused")
+	private static class Benchmarked {
+		private int a;
+		private int b = 1;
+	}
+
+}
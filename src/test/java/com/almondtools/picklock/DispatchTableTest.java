@@ -0,0 +1,130 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DispatchTableTest {
+
+	private Method getName;
+	private Method setName;
+	private Method other;
+	private MethodInvocationHandler getNameHandler;
+	private MethodInvocationHandler setNameHandler;
+
+	@Before
+	public void before() throws Exception {
+		getName = Named.class.getDeclaredMethod("getName");
+		setName = Named.class.getDeclaredMethod("setName", String.class);
+		other = Other.class.getDeclaredMethod("other");
+		getNameHandler = new Handler();
+		setNameHandler = new Handler();
+	}
+
+	@Test
+	public void testOrdinals() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+
+		assertThat(table.size(), equalTo(2));
+		assertThat(table.ordinal(getName), equalTo(0));
+		assertThat(table.ordinal(setName), equalTo(1));
+		assertThat(table.method(1), sameInstance(setName));
+		assertThat(table.handler(0), sameInstance(getNameHandler));
+		assertThat(table.handler(1), sameInstance(setNameHandler));
+	}
+
+	@Test
+	public void testGet() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+
+		assertThat(table.get(getName), sameInstance(getNameHandler));
+		assertThat(table.get(setName), sameInstance(setNameHandler));
+	}
+
+	@Test
+	public void testGetEqualMethodCopy() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+		Method copy = Named.class.getMethod("setName", String.class);
+
+		assertThat(table.get(copy), sameInstance(setNameHandler));
+		assertThat(table.get(copy), sameInstance(setNameHandler));
+		assertThat(table.ordinal(copy), equalTo(1));
+		assertThat(table.get(setName), sameInstance(setNameHandler));
+	}
+
+	@Test
+	public void testGetUnknownMethod() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+
+		assertThat(table.get(other), nullValue());
+		assertThat(table.ordinal(other), equalTo(-1));
+	}
+
+	@Test
+	public void testMerge() throws Exception {
+		MethodInvocationHandler otherHandler = new Handler();
+		MethodInvocationHandler overridingHandler = new Handler();
+		Map<Method, MethodInvocationHandler> otherHandlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		otherHandlers.put(setName, overridingHandler);
+		otherHandlers.put(other, otherHandler);
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+
+		DispatchTable<MethodInvocationHandler> merged = table.merge(new DispatchTable<MethodInvocationHandler>(otherHandlers));
+
+		assertThat(merged.size(), equalTo(3));
+		assertThat(merged.get(setName), sameInstance(setNameHandler));
+		assertThat(merged.get(other), sameInstance(otherHandler));
+		assertThat(merged.ordinal(other), equalTo(2));
+		assertThat(table.get(other), nullValue());
+	}
+
+	@Test
+	public void testToMap() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+
+		assertThat(table.toMap(), equalTo(handlers()));
+	}
+
+	@Test
+	public void testManyAliases() throws Exception {
+		DispatchTable<MethodInvocationHandler> table = new DispatchTable<MethodInvocationHandler>(handlers());
+		for (int i = 0; i < 100; i++) {
+			assertThat(table.get(Named.class.getMethod("getName")), sameInstance(getNameHandler));
+		}
+		assertThat(table.get(getName), sameInstance(getNameHandler));
+	}
+
+	private Map<Method, MethodInvocationHandler> handlers() {
+		Map<Method, MethodInvocationHandler> handlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		handlers.put(getName, getNameHandler);
+		handlers.put(setName, setNameHandler);
+		return handlers;
+	}
+
+	interface Named {
+		String getName();
+
+		void setName(String name);
+	}
+
+	interface Other {
+		void other();
+	}
+
+	private static class Handler implements MethodInvocationHandler {
+
+		@Override
+		public Object invoke(Object object, Object... args) throws Throwable {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class FieldColumnTest {
+
+	@Test
+	public void testInts() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "code");
+
+		assertArrayEquals(new int[] { 1, 2, 3 }, column.ints(safes(3)));
+	}
+
+	@Test
+	public void testLongsWidened() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "code");
+
+		assertArrayEquals(new long[] { 1, 2, 3 }, column.longs(safes(3)));
+	}
+
+	@Test
+	public void testDoubles() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "weight");
+
+		assertArrayEquals(new double[] { 0.5, 1.0, 1.5 }, column.doubles(safes(3)), 0.0);
+	}
+
+	@Test
+	public void testBooleans() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "locked");
+
+		boolean[] locked = column.booleans(safes(3));
+
+		assertThat(locked.length, equalTo(3));
+		assertThat(locked[0], equalTo(false));
+		assertThat(locked[1], equalTo(true));
+		assertThat(locked[2], equalTo(false));
+	}
+
+	@Test
+	public void testBoxedField() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "boxed");
+
+		assertArrayEquals(new long[] { 10, 20, 30 }, column.longs(safes(3)));
+	}
+
+	@Test
+	public void testSuperClassField() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "serial");
+
+		assertArrayEquals(new long[] { 100, 200, 300 }, column.longs(safes(3)));
+	}
+
+	@Test
+	public void testArraysAndLinkedLists() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "code");
+		Safe[] safes = safes(3).toArray(new Safe[0]);
+
+		assertArrayEquals(new int[] { 1, 2, 3 }, column.ints(Arrays.asList(safes)));
+		assertArrayEquals(new int[] { 1, 2, 3 }, column.ints(new LinkedList<Safe>(Arrays.asList(safes))));
+	}
+
+	@Test
+	public void testReductions() throws Exception {
+		List<Safe> safes = safes(10);
+
+		FieldColumn<Safe> code = Picklock.column(Safe.class, "code");
+		assertThat(code.sumLong(safes), equalTo(55L));
+		assertThat(code.minLong(safes), equalTo(1L));
+		assertThat(code.maxLong(safes), equalTo(10L));
+
+		FieldColumn<Safe> weight = Picklock.column(Safe.class, "weight");
+		assertThat(weight.sum(safes), equalTo(27.5));
+		assertThat(weight.min(safes), equalTo(0.5));
+		assertThat(weight.max(safes), equalTo(5.0));
+
+		assertThat(Picklock.column(Safe.class, "locked").count(safes), equalTo(5));
+	}
+
+	@Test
+	public void testReductionsOfEmptyList() throws Exception {
+		List<Safe> safes = Collections.emptyList();
+		FieldColumn<Safe> code = Picklock.column(Safe.class, "code");
+
+		assertThat(code.sumLong(safes), equalTo(0L));
+		assertThat(code.sum(safes), equalTo(0.0));
+		assertThat(Picklock.column(Safe.class, "locked").count(safes), equalTo(0));
+	}
+
+	@Test(expected = java.util.NoSuchElementException.class)
+	public void testMinOfEmptyList() throws Exception {
+		Picklock.column(Safe.class, "code").minLong(Collections.<Safe> emptyList());
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		List<Safe> safes = safes(100_000);
+		FieldColumn<Safe> code = Picklock.column(Safe.class, "code").parallel();
+
+		int[] codes = code.ints(safes);
+		for (int i = 0; i < codes.length; i++) {
+			assertThat(codes[i], equalTo(i + 1));
+		}
+		assertThat(code.isParallel(), equalTo(true));
+		assertThat(code.sumLong(safes), equalTo(100_000L * 100_001L / 2));
+		assertThat(code.minLong(safes), equalTo(1L));
+		assertThat(code.maxLong(safes), equalTo(100_000L));
+		assertThat(code.sum(safes), equalTo(100_000.0 * 100_001.0 / 2));
+		assertThat(Picklock.column(Safe.class, "locked").parallel().count(safes), equalTo(50_000));
+		assertThat(code.sequential().sumLong(safes), equalTo(code.sumLong(safes)));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNarrowingIsRejected() throws Exception {
+		Picklock.column(Safe.class, "serial").ints(safes(1));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBooleanAsNumberIsRejected() throws Exception {
+		Picklock.column(Safe.class, "locked").sumLong(safes(1));
+	}
+
+	@Test
+	public void testColumnByPropertyName() throws Exception {
+		FieldColumn<Safe> column = Picklock.column(Safe.class, "Code");
+
+		assertArrayEquals(new int[] { 1, 2, 3 }, column.ints(safes(3)));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNonPrimitiveField() throws Exception {
+		Picklock.column(Safe.class, "name");
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testStaticField() throws Exception {
+		Picklock.column(Safe.class, "instances");
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testSumLongOverflowFails() throws Exception {
+		Picklock.column(Vault.class, "serial").sumLong(Arrays.asList(new Vault(Long.MAX_VALUE), new Vault(1)));
+	}
+
+	@Test
+	public void testSumLongWithOverflowingPartialSums() throws Exception {
+		FieldColumn<Vault> serial = Picklock.column(Vault.class, "serial");
+		List<Vault> vaults = Arrays.asList(new Vault(Long.MAX_VALUE), new Vault(1), new Vault(-2));
+
+		assertThat(serial.sumLong(vaults), equalTo(Long.MAX_VALUE - 1));
+		assertThat(serial.minLong(Arrays.asList(new Vault(Long.MAX_VALUE), new Vault(Long.MAX_VALUE))), equalTo(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testParallelSumLongOverflowFails() throws Exception {
+		List<Vault> vaults = new ArrayList<Vault>();
+		for (int i = 0; i < 10_000; i++) {
+			vaults.add(new Vault(Long.MAX_VALUE / 5_000));
+		}
+		FieldColumn<Vault> serial = Picklock.column(Vault.class, "serial").parallel();
+		try {
+			serial.sumLong(vaults);
+			fail("expected overflow");
+		} catch (ArithmeticException e) {
+			assertThat(e.getMessage(), containsString("serial"));
+		}
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMissingField() throws Exception {
+		Picklock.column(Safe.class, "missing");
+	}
+
+	private static List<Safe> safes(int count) {
+		List<Safe> safes = new ArrayList<Safe>(count);
+		for (int i = 1; i <= count; i++) {
+			safes.add(new Safe(i));
+		}
+		return safes;
+	}
+
+	private static class Vault {
+		private long serial;
+
+		Vault(long serial) {
+			this.serial = serial;
+		}
+	}
+
+	private static class Safe extends Vault {
+		private static int instances;
+
+		private int code;
+		private double weight;
+		private boolean locked;
+		private Integer boxed;
+		private String name;
+
+		Safe(int code) {
+			super(code * 100L);
+			this.code = code;
+			this.weight = code * 0.5;
+			this.locked = code % 2 == 0;
+			this.boxed = code * 10;
+			this.name = "safe" + code;
+			instances++;
+		}
+	}
+
+}
@@ -63,6 +63,32 @@ public class FieldGetterTest {
 		assertThat(result, equalTo((Object) "hello"));
 	}
 
+	@Test
+	public void testGetPrimitives() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("i")).getInt(object), equalTo(1));
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("l")).getLong(object), equalTo(2l));
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("d")).getDouble(object), equalTo(3.5d));
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("b")).getBoolean(object), equalTo(true));
+	}
+
+	@Test
+	public void testGetPrimitivesWidening() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("i")).getLong(object), equalTo(1l));
+		assertThat(new FieldGetter(WithPrimitives.class.getDeclaredField("l")).getDouble(object), equalTo(2d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPrimitivesNarrowing() throws Throwable {
+		new FieldGetter(WithPrimitives.class.getDeclaredField("l")).getInt(new WithPrimitives());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPrimitivesOfObjectField() throws Throwable {
+		new FieldGetter(WithPrimitives.class.getDeclaredField("s")).getBoolean(new WithPrimitives());
+	}
+
 	interface ConvertingInterface {
 		String getContent();
 	}
@@ -96,4 +122,13 @@ public class FieldGetterTest {
 		private String field = "world";
 	}
 
+	private static class WithPrimitives {
+
+		private int i = 1;
+		private long l = 2l;
+		private double d = 3.5d;
+		private boolean b = true;
+		private String s = "s";
+	}
+
 }
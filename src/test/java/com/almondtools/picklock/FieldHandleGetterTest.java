@@ -0,0 +1,102 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class FieldHandleGetterTest {
+
+	@Test
+	public void testGetField() throws Throwable {
+		Object result = new FieldHandleGetter(WithField.class.getDeclaredField("field")).invoke(new WithField(), new Object[0]);
+		assertThat((String) result, equalTo("world"));
+	}
+
+	@Test
+	public void testGetPrimitiveField() throws Throwable {
+		Object result = new FieldHandleGetter(WithField.class.getDeclaredField("number")).invoke(new WithField(), new Object[0]);
+		assertThat(result, equalTo((Object) Integer.valueOf(42)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetFieldWithFailingSignatureOne() throws Throwable {
+		new FieldHandleGetter(WithField.class.getDeclaredField("field")).invoke(new WithField(), new Object[] { 1 });
+	}
+
+	@Test
+	public void testGetFieldWithFailingSignatureNull() throws Throwable {
+		Object result = new FieldHandleGetter(WithField.class.getDeclaredField("field")).invoke(new WithField(), (Object[]) null);
+		assertThat((String) result, equalTo("world"));
+	}
+
+	@Test
+	public void testConvertingGetField() throws Throwable {
+		Object result = new FieldHandleGetter(ConvertibleWithField.class.getDeclaredField("field"), ConvertingInterface.class).invoke(new ConvertibleWithField(), new Object[0]);
+		assertThat(result, instanceOf(ConvertingInterface.class));
+		assertThat(((ConvertingInterface) result).getContent(), equalTo("world"));
+	}
+
+	@Test
+	public void testGetPrimitives() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("i")).getInt(object), equalTo(1));
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("l")).getLong(object), equalTo(2l));
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("d")).getDouble(object), equalTo(3.5d));
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("b")).getBoolean(object), equalTo(true));
+	}
+
+	@Test
+	public void testGetPrimitivesWidening() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("i")).getLong(object), equalTo(1l));
+		assertThat(new FieldHandleGetter(WithPrimitives.class.getDeclaredField("l")).getDouble(object), equalTo(2d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPrimitivesNarrowing() throws Throwable {
+		new FieldHandleGetter(WithPrimitives.class.getDeclaredField("l")).getInt(new WithPrimitives());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPrimitivesOfObjectField() throws Throwable {
+		new FieldHandleGetter(WithPrimitives.class.getDeclaredField("s")).getBoolean(new WithPrimitives());
+	}
+
+	interface ConvertingInterface {
+		String getContent();
+	}
+
+	private static class ConvertibleWithField {
+
+		private ConvertibleField field = new ConvertibleField("world");
+	}
+
+	private static class ConvertibleField {
+
+		private String content;
+
+		public ConvertibleField(String content) {
+			this.content = content;
+		}
+
+	}
+
+	private static class WithField {
+
+		private String field = "world";
+		private int number = 42;
+	}
+
+	private static class WithPrimitives {
+
+		private int i = 1;
+		private long l = 2l;
+		private double d = 3.5d;
+		private boolean b = true;
+		private String s = "s";
+	}
+
+}
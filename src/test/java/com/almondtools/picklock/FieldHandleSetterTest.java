@@ -0,0 +1,142 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class FieldHandleSetterTest {
+
+	@Test
+	public void testSetField() throws Throwable {
+		WithField object = new WithField();
+		Object result = new FieldHandleSetter(WithField.class.getDeclaredField("field")).invoke(object, new Object[] { "hello" });
+		assertThat(result, nullValue());
+		assertThat(object.field, equalTo("hello"));
+	}
+
+	@Test
+	public void testSetPrimitiveField() throws Throwable {
+		WithField object = new WithField();
+		new FieldHandleSetter(WithField.class.getDeclaredField("number")).invoke(object, new Object[] { 42 });
+		assertThat(object.number, equalTo(42));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFieldFailingSignatureNone() throws Throwable {
+		WithField object = new WithField();
+		new FieldHandleSetter(WithField.class.getDeclaredField("field")).invoke(object, new Object[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFieldFailingSignatureNull() throws Throwable {
+		WithField object = new WithField();
+		new FieldHandleSetter(WithField.class.getDeclaredField("field")).invoke(object, (Object[]) null);
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testSetFieldWithoutMatchingType() throws Throwable {
+		WithField object = new WithField();
+		new FieldHandleSetter(WithField.class.getDeclaredField("field")).invoke(object, new Object[] { Integer.valueOf(1) });
+	}
+
+	@Test
+	public void testSetFieldFinal() throws Throwable {
+		WithFinalField object = new WithFinalField();
+		Object result = new FieldHandleSetter(WithFinalField.class.getDeclaredField("runtime")).invoke(object, new Object[] { "hello" });
+		assertThat(result, nullValue());
+		assertThat(object.runtime, equalTo("hello"));
+	}
+
+	@Test
+	public void testSetFieldConverted() throws Throwable {
+		ConvertingWithField object = new ConvertingWithField();
+		new FieldHandleSetter(ConvertingWithField.class.getDeclaredField("field"), ConvertingInterface.class).invoke(object, new Object[] { new ConvertingInterface() {
+
+			@Override
+			public String getContent() {
+				return "converted";
+			}
+
+			@Override
+			public void setContent(String s) {
+			}
+		} });
+		assertThat(object.field.content, equalTo("converted"));
+	}
+
+	@Test
+	public void testSetPrimitives() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("i")).setInt(object, 11);
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("l")).setLong(object, 12l);
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("d")).setDouble(object, 13.5d);
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("b")).setBoolean(object, false);
+		assertThat(object.i, equalTo(11));
+		assertThat(object.l, equalTo(12l));
+		assertThat(object.d, equalTo(13.5d));
+		assertThat(object.b, equalTo(false));
+	}
+
+	@Test
+	public void testSetPrimitivesWidening() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("l")).setInt(object, 21);
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("d")).setLong(object, 22l);
+		assertThat(object.l, equalTo(21l));
+		assertThat(object.d, equalTo(22d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPrimitivesNarrowing() throws Throwable {
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("i")).setDouble(new WithPrimitives(), 1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPrimitivesOfObjectField() throws Throwable {
+		new FieldHandleSetter(WithPrimitives.class.getDeclaredField("s")).setBoolean(new WithPrimitives(), true);
+	}
+
+	interface ConvertingInterface {
+		String getContent();
+
+		void setContent(String s);
+	}
+
+	private static class ConvertingWithField {
+
+		public ConvertibleField field = new ConvertibleField();
+	}
+
+	private static class ConvertibleField {
+
+		public String content = "world";
+
+		public ConvertibleField() {
+		}
+
+	}
+
+	private static class WithField {
+
+		private String field;
+		private int number;
+	}
+
+	private static class WithFinalField {
+
+		private final String runtime = "".toString();
+	}
+
+	private static class WithPrimitives {
+
+		private int i = 1;
+		private long l = 2l;
+		private double d = 3.5d;
+		private boolean b = true;
+		private String s = "s";
+	}
+
+}
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
 
+@SuppressWarnings("unused")
 public class FieldSetterTest {
 
 	@Test
@@ -121,6 +122,38 @@ public class FieldSetterTest {
 		};
 	}
 
+	@Test
+	public void testSetPrimitives() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		new FieldSetter(WithPrimitives.class.getDeclaredField("i")).setInt(object, 11);
+		new FieldSetter(WithPrimitives.class.getDeclaredField("l")).setLong(object, 12l);
+		new FieldSetter(WithPrimitives.class.getDeclaredField("d")).setDouble(object, 13.5d);
+		new FieldSetter(WithPrimitives.class.getDeclaredField("b")).setBoolean(object, false);
+		assertThat(object.i, equalTo(11));
+		assertThat(object.l, equalTo(12l));
+		assertThat(object.d, equalTo(13.5d));
+		assertThat(object.b, equalTo(false));
+	}
+
+	@Test
+	public void testSetPrimitivesWidening() throws Throwable {
+		WithPrimitives object = new WithPrimitives();
+		new FieldSetter(WithPrimitives.class.getDeclaredField("l")).setInt(object, 21);
+		new FieldSetter(WithPrimitives.class.getDeclaredField("d")).setLong(object, 22l);
+		assertThat(object.l, equalTo(21l));
+		assertThat(object.d, equalTo(22d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPrimitivesNarrowing() throws Throwable {
+		new FieldSetter(WithPrimitives.class.getDeclaredField("i")).setDouble(new WithPrimitives(), 1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPrimitivesOfObjectField() throws Throwable {
+		new FieldSetter(WithPrimitives.class.getDeclaredField("s")).setBoolean(new WithPrimitives(), true);
+	}
+
 	interface ConvertingInterface {
 		String getContent();
 
@@ -158,4 +191,13 @@ public class FieldSetterTest {
 		private final String compiletime = ""; // yet this line is inlined - in this case changes to it will not effect users of this variable
 	}
 
+	private static class WithPrimitives {
+
+		private int i = 1;
+		private long l = 2l;
+		private double d = 3.5d;
+		private boolean b = true;
+		private String s = "s";
+	}
+
 }
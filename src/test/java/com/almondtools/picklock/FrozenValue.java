@@ -0,0 +1,19 @@
+package com.almondtools.picklock;
+
+/**
+ * A class with a final field, defined as hidden class by {@link BinarySnapshotTest} (the final fields of hidden classes cannot be written). It is a
+ * top level class, because nested hidden classes do not agree with their declaring class on the inner class attributes.
+ */
+class FrozenValue {
+
+	private final int value;
+
+	FrozenValue(int value) {
+		this.value = value;
+	}
+
+	int getValue() {
+		return value;
+	}
+
+}
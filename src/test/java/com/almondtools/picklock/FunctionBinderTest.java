@@ -0,0 +1,196 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "unchecked", "unused" })
+public class FunctionBinderTest {
+
+	@Test
+	public void testMethodFunction() throws Exception {
+		Function<Counter, String> name = Picklock.function(Counter.class, "name", Function.class);
+
+		assertThat(name.apply(new Counter(2)), equalTo("counter 2"));
+		assertThat(name, not(instanceOf(Proxy.class)));
+	}
+
+	@Test
+	public void testMethodToIntFunction() throws Exception {
+		ToIntFunction<Counter> count = Picklock.function(Counter.class, "count", ToIntFunction.class);
+
+		assertThat(count.applyAsInt(new Counter(3)), equalTo(3));
+	}
+
+	@Test
+	public void testMethodBiFunction() throws Exception {
+		BiFunction<Counter, Integer, Integer> add = Picklock.function(Counter.class, "add", BiFunction.class);
+
+		assertThat(add.apply(new Counter(3), 4), equalTo(7));
+	}
+
+	@Test
+	public void testMethodOfSuperClass() throws Exception {
+		ToIntFunction<SubCounter> count = Picklock.function(SubCounter.class, "count", ToIntFunction.class);
+
+		assertThat(count.applyAsInt(new SubCounter()), equalTo(42));
+	}
+
+	@Test
+	public void testFieldGetter() throws Exception {
+		ToIntFunction<Counter> value = Picklock.function(Counter.class, "value", ToIntFunction.class);
+
+		assertThat(value.applyAsInt(new Counter(5)), equalTo(5));
+	}
+
+	@Test
+	public void testFieldSetter() throws Exception {
+		BiConsumer<Counter, Integer> value = Picklock.function(Counter.class, "value", BiConsumer.class);
+		Counter counter = new Counter(5);
+
+		value.accept(counter, 6);
+
+		assertThat(counter.value, equalTo(6));
+	}
+
+	@Test
+	public void testStaticMethod() throws Exception {
+		Supplier<String> prefix = Picklock.staticFunction(Counter.class, "prefix", Supplier.class);
+
+		assertThat(prefix.get(), equalTo("counter"));
+	}
+
+	@Test
+	public void testStaticField() throws Exception {
+		Consumer<String> label = Picklock.staticFunction(Counter.class, "label", Consumer.class);
+		Supplier<String> getLabel = Picklock.staticFunction(Counter.class, "label", Supplier.class);
+
+		label.accept("changed");
+
+		assertThat(getLabel.get(), equalTo("changed"));
+	}
+
+	@Test
+	public void testConstructor() throws Exception {
+		Function<Integer, Counter> create = Picklock.staticFunction(Counter.class, "create", Function.class);
+
+		assertThat(create.apply(7).value, equalTo(7));
+	}
+
+	@Test
+	public void testConvertedResult() throws Exception {
+		Doubled doubled = Picklock.function(Counter.class, "doubled", Doubled.class);
+
+		assertThat(doubled.doubled(new Counter(2)).getValue(), equalTo(4));
+	}
+
+	@Test
+	public void testConvertedArgument() throws Exception {
+		Plus plus = Picklock.function(Counter.class, "plus", Plus.class);
+
+		assertThat(plus.plus(new Counter(2), new Counted() {
+
+			@Override
+			public int getValue() {
+				return 3;
+			}
+
+			@Override
+			public void setValue(int value) {
+			}
+		}), equalTo(5));
+	}
+
+	@Test
+	public void testFunctionsAreCached() throws Exception {
+		assertThat(Picklock.function(Counter.class, "name", Function.class), sameInstance(Picklock.function(Counter.class, "name", Function.class)));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMissingMember() throws Exception {
+		Picklock.function(Counter.class, "missing", Function.class);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMismatchingArity() throws Exception {
+		Picklock.function(Counter.class, "add", Function.class);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testStaticMemberIsNotBoundToObjects() throws Exception {
+		Picklock.function(Counter.class, "prefix", Function.class);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNotFunctional() throws Exception {
+		Picklock.function(Counter.class, "name", Iterator.class);
+	}
+
+	private static class Counter {
+		private static String label = "label";
+		private int value;
+
+		Counter(int value) {
+			this.value = value;
+		}
+
+		private static String prefix() {
+			return "counter";
+		}
+
+		private String name() {
+			return prefix() + " " + value;
+		}
+
+		private int count() {
+			return value;
+		}
+
+		private int add(int i) {
+			return value + i;
+		}
+
+		private Counter doubled() {
+			return new Counter(value * 2);
+		}
+
+		private int plus(Counter other) {
+			return value + other.value;
+		}
+	}
+
+	public interface Counted {
+		int getValue();
+
+		void setValue(int value);
+	}
+
+	public interface Doubled {
+		@Convert("Counter")
+		Counted doubled(Counter counter);
+	}
+
+	public interface Plus {
+		int plus(Counter counter, @Convert("Counter") Counted other);
+	}
+
+	private static class SubCounter extends Counter {
+		SubCounter() {
+			super(42);
+		}
+	}
+
+}
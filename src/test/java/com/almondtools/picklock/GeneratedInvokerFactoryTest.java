@@ -0,0 +1,391 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class GeneratedInvokerFactoryTest {
+
+	@Test
+	public void testGeneratedProxy() throws Exception {
+		UnlockedMembers unlocked = ObjectAccess.unlock(new WithMembers(), InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		assertThat(unlocked, not(instanceOf(Proxy.class)));
+	}
+
+	@Test
+	public void testGeneratedProxyClassIsShared() throws Exception {
+		UnlockedMembers unlocked1 = ObjectAccess.unlock(new WithMembers(), InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		UnlockedMembers unlocked2 = ObjectAccess.unlock(new WithMembers(), InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		assertThat(unlocked1, not(sameInstance(unlocked2)));
+		assertThat(unlocked1.getClass(), sameInstance((Object) unlocked2.getClass()));
+	}
+
+	@Test
+	public void testGeneratedProxyIsBoundToObject() throws Exception {
+		WithMembers object1 = new WithMembers();
+		WithMembers object2 = new WithMembers();
+		UnlockedMembers unlocked1 = ObjectAccess.unlock(object1, InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		UnlockedMembers unlocked2 = ObjectAccess.unlock(object2, InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		unlocked1.setNumber(1);
+		unlocked2.setNumber(2);
+		assertThat(object1.number, equalTo(1));
+		assertThat(object2.number, equalTo(2));
+	}
+
+	@Test
+	public void testGeneratedTemplate() throws Exception {
+		Unlocker<UnlockedMembers> unlocker = ObjectAccess.template(WithMembers.class, UnlockedMembers.class, InvokerFactory.GENERATED);
+		WithMembers object1 = new WithMembers();
+		WithMembers object2 = new WithMembers();
+		UnlockedMembers unlocked1 = unlocker.bind(object1);
+		UnlockedMembers unlocked2 = unlocker.bind(object2);
+		unlocked1.setNumber(1);
+		unlocked2.setNumber(2);
+		assertThat(unlocked1, not(instanceOf(Proxy.class)));
+		assertThat(unlocked1.getClass(), sameInstance((Object) unlocked2.getClass()));
+		assertThat(object1.number, equalTo(1));
+		assertThat(object2.number, equalTo(2));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testGeneratedTemplateRejectsOtherClasses() throws Exception {
+		ObjectAccess.template(WithMembers.class, UnlockedMembers.class, InvokerFactory.GENERATED).bind(new Object());
+	}
+
+	@Test
+	public void testGeneratedCursor() throws Exception {
+		Cursor<UnlockedMembers> cursor = ObjectAccess.cursor(WithMembers.class, UnlockedMembers.class, InvokerFactory.GENERATED);
+		WithMembers object1 = new WithMembers();
+		WithMembers object2 = new WithMembers();
+		UnlockedMembers unlocked1 = cursor.bind(object1);
+		unlocked1.setNumber(1);
+		UnlockedMembers unlocked2 = cursor.bind(object2);
+		unlocked2.setNumber(2);
+		assertThat(unlocked1, not(instanceOf(Proxy.class)));
+		assertThat(unlocked1, sameInstance(unlocked2));
+		assertThat(object1.number, equalTo(1));
+		assertThat(object2.number, equalTo(2));
+		assertThat(cursor.bind(object1).getNumber(), equalTo(1));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testGeneratedCursorRejectsOtherClasses() throws Exception {
+		ObjectAccess.cursor(WithMembers.class, UnlockedMembers.class, InvokerFactory.GENERATED).bind(new Object());
+	}
+
+	@Test
+	public void testGeneratedCursorDoesNotAllocate() throws Exception {
+		assumeTrue(AllocationMeter.isSupported());
+
+		WithMembers[] objects = new WithMembers[] { new WithMembers(), new WithMembers(), new WithMembers() };
+		Cursor<UnlockedMembers> cursor = ObjectAccess.cursor(WithMembers.class, UnlockedMembers.class, InvokerFactory.GENERATED);
+		long sum = traverse(cursor, objects, 200_000);
+
+		long before = AllocationMeter.allocatedBytes();
+		sum += traverse(cursor, objects, 100_000);
+		long allocated = AllocationMeter.allocatedBytes() - before;
+
+		assertThat(sum > 0, equalTo(true));
+		assertThat("allocated " + allocated + " bytes", allocated < 1024, equalTo(true));
+	}
+
+	private static long traverse(Cursor<UnlockedMembers> cursor, WithMembers[] objects, int calls) {
+		long sum = 0;
+		for (int i = 0; i < calls; i++) {
+			UnlockedMembers unlocked = cursor.bind(objects[i % objects.length]);
+			unlocked.setNumber(i);
+			sum += unlocked.getNumber();
+		}
+		return sum;
+	}
+
+	@Test
+	public void testGeneratedContextProxy() throws Exception {
+		ThreadLocal<WithMembers> context = new ThreadLocal<WithMembers>();
+		UnlockedMembers unlocked = ObjectAccess.contextual(WithMembers.class, UnlockedMembers.class, context, InvokerFactory.GENERATED);
+		WithMembers object1 = new WithMembers();
+		WithMembers object2 = new WithMembers();
+		context.set(object1);
+		unlocked.setNumber(1);
+		context.set(object2);
+		unlocked.setNumber(2);
+		assertThat(unlocked, not(instanceOf(Proxy.class)));
+		assertThat(object1.number, equalTo(1));
+		assertThat(object2.number, equalTo(2));
+		assertThat(unlocked.add(1, 0.5d, 2), equalTo(3.5d));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testGeneratedContextProxyWithoutContextObject() throws Exception {
+		ObjectAccess.contextual(WithMembers.class, UnlockedMembers.class, new ThreadLocal<Object>(), InvokerFactory.GENERATED).getNumber();
+	}
+
+	@Test
+	public void testGeneratedMethods() throws Exception {
+		WithMembers object = new WithMembers();
+		UnlockedMembers unlocked = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		assertThat(unlocked.add(2l, 3.5d, 1), equalTo(6.5d));
+		unlocked.reset();
+		assertThat(object.number, equalTo(0));
+	}
+
+	@Test
+	public void testGeneratedFields() throws Exception {
+		WithMembers object = new WithMembers();
+		UnlockedMembers unlocked = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		unlocked.setNumber(42);
+		unlocked.setName("name");
+		assertThat(unlocked.getNumber(), equalTo(42));
+		assertThat(unlocked.getName(), equalTo("name"));
+		assertThat(unlocked.isFlag(), equalTo(true));
+	}
+
+	@Test
+	public void testGeneratedSuperInterfaceMethods() throws Exception {
+		WithMembers object = new WithMembers();
+		ExtendedUnlockedMembers unlocked = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(ExtendedUnlockedMembers.class);
+		unlocked.setNumber(4);
+		assertThat(unlocked.twice(), equalTo(8));
+	}
+
+	@Test
+	public void testGeneratedExceptions() throws Exception {
+		UnlockedMembers unlocked = ObjectAccess.unlock(new WithMembers(), InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		try {
+			unlocked.fail();
+			fail("expected io exception");
+		} catch (IOException e) {
+			assertThat(e.getMessage(), equalTo("failed"));
+		}
+	}
+
+	@Test
+	public void testGeneratedPrimitiveFieldsWithReflection() throws Exception {
+		WithMembers object = new WithMembers();
+		InvokerFactory reflectiveFields = new GeneratedInvokerFactory() {
+			@Override
+			public MethodInvocationHandler createFieldGetter(Field field, Class<?> target) {
+				return new FieldGetter(field, target);
+			}
+
+			@Override
+			public MethodInvocationHandler createFieldSetter(Field field, Class<?> target) {
+				return new FieldSetter(field, target);
+			}
+		};
+		UnlockedMembers unlocked = ObjectAccess.unlock(object, reflectiveFields).features(UnlockedMembers.class);
+		unlocked.setNumber(42);
+		assertThat(unlocked, not(instanceOf(Proxy.class)));
+		assertThat(object.number, equalTo(42));
+		assertThat(unlocked.getNumber(), equalTo(42));
+		assertThat(unlocked.isFlag(), equalTo(true));
+	}
+
+	@Test
+	public void testGeneratedProxyDoesNotAllocate() throws Exception {
+		assumeTrue(AllocationMeter.isSupported());
+
+		WithMembers object = new WithMembers();
+		UnlockedMembers unlocked = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(UnlockedMembers.class);
+		String name = "name";
+		double sum = exercise(unlocked, name, 200_000);
+
+		long before = AllocationMeter.allocatedBytes();
+		sum += exercise(unlocked, name, 100_000);
+		long allocated = AllocationMeter.allocatedBytes() - before;
+
+		assertThat(sum > 0, equalTo(true));
+		assertThat("allocated " + allocated + " bytes", allocated < 1024, equalTo(true));
+	}
+
+	private static double exercise(UnlockedMembers unlocked, String name, int calls) {
+		double sum = 0;
+		for (int i = 0; i < calls; i++) {
+			unlocked.setNumber(i);
+			unlocked.setName(name);
+			sum += unlocked.add(i, 0.5d, unlocked.getNumber());
+			if (unlocked.isFlag() && unlocked.getName() == name) {
+				sum++;
+			}
+		}
+		return sum;
+	}
+
+	@Test
+	public void testGeneratedConvertedMethods() throws Exception {
+		UnlockedConverted unlocked = ObjectAccess.unlock(new WithMembers(), InvokerFactory.GENERATED).features(UnlockedConverted.class);
+		assertThat(unlocked.getOther().getName(), equalTo("other"));
+	}
+
+	@Test
+	public void testGeneratedStaticProxy() throws Exception {
+		UnlockedStatic unlocked = ClassAccess.unlock(WithMembers.class, InvokerFactory.GENERATED).features(UnlockedStatic.class);
+		assertThat(unlocked, not(instanceOf(Proxy.class)));
+		assertThat(unlocked, sameInstance(ClassAccess.unlock(WithMembers.class, InvokerFactory.GENERATED).features(UnlockedStatic.class)));
+		unlocked.setCounter(3);
+		assertThat(unlocked.getCounter(), equalTo(3));
+		assertThat(unlocked.create("created").name, equalTo("created"));
+		assertThat(unlocked.count(), equalTo(4));
+	}
+
+	@Test
+	public void testGeneratedProxyFallsBackIfPicklockIsNotVisible() throws Exception {
+		@SuppressWarnings("unchecked")
+		Class<Object> isolated = (Class<Object>) new IsolatingClassLoader().isolate(IsolatedMembers.class);
+		assertThat(ProxyClassGenerator.isVisible(isolated), equalTo(false));
+		WithMembers object = new WithMembers();
+
+		Object unlocked1 = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(isolated);
+		Object unlocked2 = ObjectAccess.unlock(object, InvokerFactory.GENERATED).features(isolated);
+		isolated.getMethod("setNumber", int.class).invoke(unlocked1, 42);
+
+		assertThat(unlocked1, instanceOf(Proxy.class));
+		assertThat(unlocked2, instanceOf(Proxy.class));
+		assertThat(object.number, equalTo(42));
+		assertThat((Integer) isolated.getMethod("getNumber").invoke(unlocked2), equalTo(42));
+	}
+
+	@Test
+	public void testGeneratedStubForUnmappedMethod() throws Exception {
+		Map<Method, MethodInvocationHandler> handlers = new LinkedHashMap<Method, MethodInvocationHandler>();
+		handlers.put(PartiallyMapped.class.getMethod("getNumber"), InvokerFactory.GENERATED.createFieldGetter(WithMembers.class.getDeclaredField("number"), null));
+		InvocationPlan plan = new InvocationPlan(WithMembers.class, PartiallyMapped.class, handlers);
+		WithMembers object = new WithMembers();
+		object.number = 5;
+
+		PartiallyMapped unlocked = InvokerFactory.GENERATED.createUnlocker(PartiallyMapped.class, plan).bind(object);
+
+		assertThat(unlocked, not(instanceOf(Proxy.class)));
+		assertThat(unlocked.getNumber(), equalTo(5));
+		try {
+			unlocked.reset();
+			fail("expected picklock exception");
+		} catch (PicklockException e) {
+			assertThat(e.getMessage().contains("reset"), equalTo(true));
+		}
+	}
+
+	interface PartiallyMapped {
+		int getNumber();
+
+		void reset();
+	}
+
+	public interface IsolatedMembers {
+		void setNumber(int number);
+
+		int getNumber();
+	}
+
+	private static class IsolatingClassLoader extends ClassLoader {
+
+		IsolatingClassLoader() {
+			super(null);
+		}
+
+		Class<?> isolate(Class<?> clazz) throws IOException {
+			try (InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					out.write(buffer, 0, read);
+				}
+				byte[] bytes = out.toByteArray();
+				return defineClass(clazz.getName(), bytes, 0, bytes.length);
+			}
+		}
+	}
+
+	interface UnlockedMembers {
+		double add(long l, double d, int i);
+
+		void reset();
+
+		void fail() throws IOException;
+
+		void setNumber(int number);
+
+		int getNumber();
+
+		void setName(String name);
+
+		String getName();
+
+		boolean isFlag();
+	}
+
+	interface ExtendedUnlockedMembers extends UnlockedMembers {
+		int twice();
+	}
+
+	interface UnlockedConverted {
+		@Convert("WithMembers")
+		UnlockedMembers getOther();
+	}
+
+	interface UnlockedStatic {
+		WithMembers create(String name);
+
+		int count();
+
+		void setCounter(int counter);
+
+		int getCounter();
+	}
+
+	private static class WithMembers {
+
+		private static int counter;
+
+		private int number;
+		private String name;
+		private boolean flag = true;
+		private WithMembers other;
+
+		private WithMembers() {
+			this.other = this;
+			this.name = "other";
+		}
+
+		private WithMembers(String name) {
+			this.name = name;
+		}
+
+		private static int count() {
+			return ++counter;
+		}
+
+		private double add(long l, double d, int i) {
+			return l + d + i;
+		}
+
+		private void reset() {
+			number = 0;
+		}
+
+		private void fail() throws IOException {
+			throw new IOException("failed");
+		}
+
+		private int twice() {
+			return number * 2;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class InstantiatorTest {
+
+	@Test
+	public void testInstantiatorIsCached() throws Exception {
+		assertThat(Instantiator.of(WithDefaultConstructor.class), sameInstance(Instantiator.of(WithDefaultConstructor.class)));
+		assertThat(Instantiator.of(WithDefaultConstructor.class).getType(), equalTo((Object) WithDefaultConstructor.class));
+	}
+
+	@Test
+	public void testNewInstanceRunsDefaultConstructor() throws Exception {
+		Instantiator instantiator = Instantiator.of(WithDefaultConstructor.class);
+
+		Object instance = instantiator.newInstance();
+
+		assertThat(instantiator.canConstruct(), equalTo(true));
+		assertThat(instance, instanceOf(WithDefaultConstructor.class));
+		assertThat(((WithDefaultConstructor) instance).state, equalTo("initialized"));
+		assertThat(instantiator.newInstance(), not(sameInstance(instance)));
+	}
+
+	@Test
+	public void testAllocateSkipsConstructor() throws Exception {
+		Instantiator instantiator = Instantiator.of(WithDefaultConstructor.class);
+
+		Object instance = instantiator.allocate();
+
+		assertThat(instantiator.canAllocate(), equalTo(true));
+		assertThat(instance, instanceOf(WithDefaultConstructor.class));
+		assertThat(((WithDefaultConstructor) instance).state, nullValue());
+	}
+
+	@Test
+	public void testNewInstanceWithoutDefaultConstructor() throws Exception {
+		Instantiator instantiator = Instantiator.of(WithoutDefaultConstructor.class);
+
+		Object instance = instantiator.newInstance();
+
+		assertThat(instantiator.canConstruct(), equalTo(false));
+		assertThat(instance, instanceOf(WithoutDefaultConstructor.class));
+		assertThat(((WithoutDefaultConstructor) instance).state, nullValue());
+	}
+
+	@Test
+	public void testAbstractClass() throws Exception {
+		Instantiator instantiator = Instantiator.of(AbstractClass.class);
+
+		assertThat(instantiator.canConstruct(), equalTo(false));
+		assertThat(instantiator.canAllocate(), equalTo(false));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNewInstanceOfInterface() throws Exception {
+		Instantiator.of(List.class).newInstance();
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testAllocateOfAbstractClass() throws Exception {
+		Instantiator.of(AbstractClass.class).allocate();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailingConstructor() throws Exception {
+		Instantiator.of(WithFailingConstructor.class).newInstance();
+	}
+
+	private static class WithDefaultConstructor {
+		private String state;
+
+		WithDefaultConstructor() {
+			this.state = "initialized";
+		}
+	}
+
+	private static class WithoutDefaultConstructor {
+		private String state;
+
+		WithoutDefaultConstructor(String state) {
+			this.state = state;
+		}
+	}
+
+	private abstract static class AbstractClass {
+	}
+
+	private static class WithFailingConstructor {
+		WithFailingConstructor() {
+			throw new IllegalStateException();
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class InvocationPlanCacheTest {
+
+	@Test
+	public void testObjectPlanIsCachedPerClassAndInterface() throws Exception {
+		InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), CachedObject.class);
+		long hits = InvocationPlanCache.getHits();
+		long misses = InvocationPlanCache.getMisses();
+
+		InvocationPlan cached = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), CachedObject.class);
+
+		assertThat(cached, sameInstance(plan));
+		assertThat(InvocationPlanCache.getHits(), equalTo(hits + 1));
+		assertThat(InvocationPlanCache.getMisses(), equalTo(misses));
+	}
+
+	@Test
+	public void testObjectPlanIsCachedPerInvokers() throws Exception {
+		InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), CachedObject.class);
+		long misses = InvocationPlanCache.getMisses();
+
+		InvocationPlan other = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject(), InvokerFactory.METHOD_HANDLES), CachedObject.class);
+
+		assertThat(other, not(sameInstance(plan)));
+		assertThat(InvocationPlanCache.getMisses(), equalTo(misses + 1));
+	}
+
+	@Test
+	public void testObjectPlanIsSharedByEqualInvokers() throws Exception {
+		InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject(), new MethodHandleInvokerFactory()), CachedObject.class);
+		long misses = InvocationPlanCache.getMisses();
+
+		InvocationPlan cached = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject(), new MethodHandleInvokerFactory()), CachedObject.class);
+
+		assertThat(cached, sameInstance(plan));
+		assertThat(InvocationPlanCache.getMisses(), equalTo(misses));
+	}
+
+	@Test
+	public void testObjectPlanOfIncomparableInvokersIsNotCached() throws Exception {
+		InvokerFactory invokers = new IncomparableInvokers();
+		InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject(), invokers), CachedObject.class);
+		long misses = InvocationPlanCache.getMisses();
+
+		InvocationPlan other = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject(), invokers), CachedObject.class);
+
+		assertThat(other, not(sameInstance(plan)));
+		assertThat(InvocationPlanCache.getMisses(), equalTo(misses + 1));
+	}
+
+	@Test
+	public void testObjectPlanResolvesSuperInterfaces() throws Exception {
+		InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), CachedExtendedObject.class);
+
+		assertThat(plan.getHandlers().size(), equalTo(3));
+		assertThat(plan.getType(), equalTo((Object) LockedObject.class));
+		assertThat(plan.getInterfaceClass(), equalTo((Object) CachedExtendedObject.class));
+	}
+
+	@Test
+	public void testFeaturesUseCachedPlan() throws Exception {
+		ObjectAccess.unlock(new LockedObject()).features(CachedFeatures.class);
+		long hits = InvocationPlanCache.getHits();
+
+		LockedObject object = new LockedObject();
+		CachedFeatures unlocked = ObjectAccess.unlock(object).features(CachedFeatures.class);
+		unlocked.setMyField("42");
+
+		assertThat(object.myPublicMethod(), equalTo(42));
+		assertThat(InvocationPlanCache.getHits(), equalTo(hits + 1));
+	}
+
+	@Test
+	public void testStaticPlanIsCached() throws Exception {
+		StaticInvocationPlan plan = InvocationPlanCache.staticPlan(new ClassAccess(LockedObjectWithPrivateConstructor.class), CachedStatic.class);
+		long hits = InvocationPlanCache.getHits();
+
+		StaticInvocationPlan cached = InvocationPlanCache.staticPlan(new ClassAccess(LockedObjectWithPrivateConstructor.class), CachedStatic.class);
+
+		assertThat(cached, sameInstance(plan));
+		assertThat(InvocationPlanCache.getHits(), equalTo(hits + 1));
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testFailedResolutionIsNotCached() throws Exception {
+		InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), ObjectAccessTest.UnlockedNotMatchingMethodObject.class);
+	}
+
+	@Test
+	public void testConcurrentResolutionPublishesOnePlan() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<InvocationPlan>> futures = new ArrayList<Future<InvocationPlan>>();
+			for (int i = 0; i < 32; i++) {
+				futures.add(executor.submit(new Callable<InvocationPlan>() {
+					@Override
+					public InvocationPlan call() throws Exception {
+						return InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), ConcurrentObject.class);
+					}
+				}));
+			}
+			InvocationPlan plan = InvocationPlanCache.objectPlan(new ObjectAccess(new LockedObject()), ConcurrentObject.class);
+			for (Future<InvocationPlan> future : futures) {
+				assertThat(future.get(), sameInstance(plan));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public static interface CachedObject {
+		String getMyField();
+	}
+
+	public static interface CachedExtendedObject extends CachedObject {
+		void setMyField(String value);
+
+		int myMethod(String string, boolean flag);
+	}
+
+	public static interface CachedFeatures {
+		void setMyField(String value);
+	}
+
+	public static interface ConcurrentObject {
+		int myMethod(String string, boolean flag);
+	}
+
+	public static interface CachedStatic {
+		LockedObjectWithPrivateConstructor create();
+	}
+
+	private static class IncomparableInvokers implements InvokerFactory {
+
+		private InvokerFactory delegate = new ReflectionInvokerFactory();
+
+		@Override
+		public MethodInvocationHandler createMethodInvoker(Method method, Method target) {
+			return delegate.createMethodInvoker(method, target);
+		}
+
+		@Override
+		public MethodInvocationHandler createFieldGetter(Field field, Class<?> target) {
+			return delegate.createFieldGetter(field, target);
+		}
+
+		@Override
+		public MethodInvocationHandler createFieldSetter(Field field, Class<?> target) {
+			return delegate.createFieldSetter(field, target);
+		}
+
+		@Override
+		public StaticMethodInvocationHandler createStaticMethodInvoker(Class<?> type, Method method, Method target) {
+			return delegate.createStaticMethodInvoker(type, method, target);
+		}
+
+		@Override
+		public StaticMethodInvocationHandler createConstructorInvoker(Constructor<?> constructor, Method target) {
+			return delegate.createConstructorInvoker(constructor, target);
+		}
+
+		@Override
+		public StaticMethodInvocationHandler createStaticGetter(Class<?> type, Field field, Class<?> target) {
+			return delegate.createStaticGetter(type, field, target);
+		}
+
+		@Override
+		public StaticMethodInvocationHandler createStaticSetter(Class<?> type, Field field, Class<?> target) {
+			return delegate.createStaticSetter(type, field, target);
+		}
+
+		@Override
+		public <T> T createProxy(Class<T> interfaceClass, ObjectAccess access) {
+			return delegate.createProxy(interfaceClass, access);
+		}
+
+		@Override
+		public <T> T createProxy(Class<T> interfaceClass, ClassAccess access) {
+			return delegate.createProxy(interfaceClass, access);
+		}
+
+		@Override
+		public <T> Unlocker<T> createUnlocker(Class<T> interfaceClass, InvocationPlan plan) {
+			return delegate.createUnlocker(interfaceClass, plan);
+		}
+
+		@Override
+		public <T> Cursor<T> createCursor(Class<T> interfaceClass, InvocationPlan plan) {
+			return delegate.createCursor(interfaceClass, plan);
+		}
+
+		@Override
+		public <T> T createContextProxy(Class<T> interfaceClass, InvocationPlan plan, ThreadLocal<?> context) {
+			return delegate.createContextProxy(interfaceClass, plan, context);
+		}
+
+	}
+
+}
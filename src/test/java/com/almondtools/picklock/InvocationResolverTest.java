@@ -2,15 +2,18 @@ package com.almondtools.picklock;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 import org.junit.Test;
 
-@SuppressWarnings("unused")
+@SuppressWarnings({ "unused", "deprecation" })
 public class InvocationResolverTest {
 
 	@Test
@@ -21,6 +24,105 @@ public class InvocationResolverTest {
 		assertThat(resolver.findField("i", int.class, new Annotation[0]), notNullValue());
 	}
 
+	@Test
+	public void testFindShadowedSuperFieldAfterSubField() throws Exception {
+		InvocationResolver resolver = new InvocationResolver(ShadowingTestClass.class);
+		assertThat(resolver.findField("s", boolean.class, new Annotation[0]).getDeclaringClass(), equalTo((Object) ShadowingTestClass.class));
+		assertThat(resolver.findField("s", String.class, new Annotation[0]).getDeclaringClass(), equalTo((Object) TestClass.class));
+	}
+
+	@Test
+	public void testResolveInvocationHandler() throws Exception {
+		InvocationResolver resolver = new InvocationResolver(TestSubClass.class);
+		assertThat(resolver.resolveInvocationHandler(Methods.class.getDeclaredMethod("methoda")), notNullValue());
+		assertThat(resolver.resolveInvocationHandler(Getters.class.getDeclaredMethod("getS")), notNullValue());
+		assertThat(resolver.resolveInvocationHandler(Setters.class.getDeclaredMethod("setI", int.class)), notNullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerUnresolvable() throws Exception {
+		Method method = BadMethods.class.getDeclaredMethod("methodz");
+		assertThat(new InvocationResolver(TestSubClass.class).resolveInvocationHandler(method), nullValue());
+		assertThat(new InvocationResolver(TestSubClass.class).resolveInvocationHandler(method), nullValue());
+		assertThat(new InvocationResolver(TestClass.class).resolveInvocationHandler(BadGetters.class.getDeclaredMethod("getA")), nullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerCallsOverriddenHooks() throws Exception {
+		Method getter = BadGetters.class.getDeclaredMethod("getA");
+		Method method = BadMethods.class.getDeclaredMethod("methodz");
+		InvocationResolver resolver = new InvocationResolver(TestSubClass.class) {
+			@Override
+			protected MethodInvocationHandler resolveGetterInvocator(Method method) {
+				return MethodInvocationHandler.NULL;
+			}
+
+			@Override
+			protected MethodInvocationHandler resolveMethodInvocator(Method method) {
+				if (method.getName().equals("methodz")) {
+					return MethodInvocationHandler.NULL;
+				}
+				return super.resolveMethodInvocator(method);
+			}
+		};
+		assertThat(new InvocationResolver(TestSubClass.class).resolveInvocationHandler(getter), nullValue());
+		assertThat(new InvocationResolver(TestSubClass.class).resolveInvocationHandler(method), nullValue());
+
+		assertThat(resolver.resolveInvocationHandler(getter), sameInstance(MethodInvocationHandler.NULL));
+		assertThat(resolver.resolveInvocationHandler(method), sameInstance(MethodInvocationHandler.NULL));
+		assertThat(resolver.findInvocationHandler(method), sameInstance(MethodInvocationHandler.NULL));
+	}
+
+	@Test
+	public void testResolveFieldIsOverridable() throws Exception {
+		InvocationResolver resolver = new InvocationResolver(TestSubClass.class) {
+			@Override
+			protected Field resolveField(String fieldPattern, Class<?> type, Annotation[] annotations) {
+				return super.resolveField("i", int.class, annotations);
+			}
+		};
+		assertThat(resolver.resolveInvocationHandler(BadGetters.class.getDeclaredMethod("getA")), notNullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerCallsOverriddenDeprecatedHooks() throws Exception {
+		Method getter = BadGetters.class.getDeclaredMethod("getA");
+		Method method = BadMethods.class.getDeclaredMethod("methodz");
+		InvocationResolver resolver = new InvocationResolver(TestSubClass.class) {
+			@Override
+			protected MethodInvocationHandler createMethodInvocator(Method method) throws NoSuchMethodException {
+				if (method.getName().equals("methodz")) {
+					return MethodInvocationHandler.NULL;
+				}
+				return super.createMethodInvocator(method);
+			}
+
+			@Override
+			protected Field findField(String fieldPattern, Class<?> type, Annotation[] annotations) throws NoSuchFieldException {
+				return super.findField("s", type, annotations);
+			}
+		};
+
+		assertThat(resolver.resolveInvocationHandler(method), sameInstance(MethodInvocationHandler.NULL));
+		assertThat(resolver.resolveInvocationHandler(getter), notNullValue());
+		assertThat(resolver.resolveInvocationHandler(BadMethods.class.getDeclaredMethod("methodb")), nullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerOfOverriddenHooksIsNotCached() throws Exception {
+		Method getter = BadGetters.class.getDeclaredMethod("getA");
+		assertThat(new SwitchingResolver(false).resolveInvocationHandler(getter), nullValue());
+		assertThat(new SwitchingResolver(true).resolveInvocationHandler(getter), sameInstance(MethodInvocationHandler.NULL));
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testFindInvocationHandlerUnresolvableFailsRepeatedly() throws Exception {
+		Method method = BadSetters.class.getDeclaredMethod("setA", boolean.class);
+		InvocationResolver resolver = new InvocationResolver(TestSubClass.class);
+		assertThat(resolver.resolveInvocationHandler(method), nullValue());
+		resolver.findInvocationHandler(method);
+	}
+
 	@Test
 	public void testCreateGetterInvocator() throws Exception {
 		InvocationResolver resolver = new InvocationResolver(TestSubClass.class);
@@ -262,6 +364,21 @@ public class InvocationResolverTest {
 		String getContent();
 	}
 
+	private static class SwitchingResolver extends InvocationResolver {
+
+		private boolean resolvable;
+
+		SwitchingResolver(boolean resolvable) {
+			super(TestSubClass.class);
+			this.resolvable = resolvable;
+		}
+
+		@Override
+		protected MethodInvocationHandler resolveGetterInvocator(Method method) {
+			return resolvable ? MethodInvocationHandler.NULL : null;
+		}
+	}
+
 	private static class TestClass {
 		private String s;
 		private int i;
@@ -292,6 +409,10 @@ public class InvocationResolverTest {
 		}
 	}
 
+	private static class ShadowingTestClass extends TestClass {
+		private boolean s;
+	}
+
 	private static class ConvertibleTestClass {
 
 		private ConvertibleObject convertible;
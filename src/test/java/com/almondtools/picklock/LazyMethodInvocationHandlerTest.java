@@ -0,0 +1,54 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+public class LazyMethodInvocationHandlerTest {
+
+	@Test
+	public void testResolvesOnFirstInvocation() throws Throwable {
+		Method method = UnlockedObject.class.getDeclaredMethod("getMyField");
+		LazyMethodInvocationHandler handler = new LazyMethodInvocationHandler(new InvocationResolver(LockedObject.class), method);
+		assertThat(handler.isResolved(), equalTo(false));
+
+		LockedObject object = new LockedObject();
+		ObjectAccess.unlock(object).lazyFeatures(UnlockedObject.class).setMyField("value");
+
+		assertThat(handler.invoke(object), equalTo((Object) "value"));
+		assertThat(handler.isResolved(), equalTo(true));
+	}
+
+	@Test
+	public void testResolvesOnce() throws Throwable {
+		Method method = UnlockedObject.class.getDeclaredMethod("getMyField");
+		LazyMethodInvocationHandler handler = new LazyMethodInvocationHandler(new InvocationResolver(LockedObject.class), method);
+
+		MethodInvocationHandler resolved = handler.resolve();
+
+		assertThat(resolved, instanceOf(FieldGetter.class));
+		assertThat(handler.resolve(), sameInstance(resolved));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNotResolvable() throws Throwable {
+		Method method = UnlockedObject.class.getDeclaredMethod("notExisting");
+		LazyMethodInvocationHandler handler = new LazyMethodInvocationHandler(new InvocationResolver(LockedObject.class), method);
+
+		handler.invoke(new LockedObject());
+	}
+
+	public static interface UnlockedObject {
+		void setMyField(String value);
+
+		String getMyField();
+
+		void notExisting();
+	}
+
+}
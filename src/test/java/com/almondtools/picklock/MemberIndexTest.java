@@ -0,0 +1,98 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class MemberIndexTest {
+
+	@Test
+	public void testOfIsShared() throws Exception {
+		assertThat(MemberIndex.of(Sub.class), sameInstance(MemberIndex.of(Sub.class)));
+		assertThat(MemberIndex.of(Sub.class).getType(), equalTo((Object) Sub.class));
+	}
+
+	@Test
+	public void testFieldsAreDeclaredOnly() throws Exception {
+		MemberIndex index = MemberIndex.of(Sub.class);
+		assertThat(index.field("value").getType(), equalTo((Object) boolean.class));
+		assertThat(index.field("other"), nullValue());
+		assertThat(index.fields(), hasSize(1));
+	}
+
+	@Test
+	public void testHierarchy() throws Exception {
+		assertThat(MemberIndex.of(Sub.class).hierarchy(), contains(MemberIndex.of(Sub.class), MemberIndex.of(Super.class)));
+		assertThat(MemberIndex.of(Sub.class).hierarchy().get(1).field("value").getType(), equalTo((Object) String.class));
+	}
+
+	@Test
+	public void testHierarchyOfInterface() throws Exception {
+		assertThat(MemberIndex.of(Runnable.class).hierarchy(), contains(MemberIndex.of(Runnable.class)));
+	}
+
+	@Test
+	public void testMethodsByName() throws Exception {
+		MemberIndex index = MemberIndex.of(Super.class);
+		assertThat(index.methods("call"), hasSize(3));
+		assertThat(index.methods("missing"), empty());
+	}
+
+	@Test
+	public void testMethodsByArity() throws Exception {
+		MemberIndex index = MemberIndex.of(Super.class);
+		assertThat(index.methods("call", 0), hasSize(1));
+		assertThat(index.methods("call", 1), hasSize(2));
+		assertThat(index.methods("call", 2), empty());
+	}
+
+	@Test
+	public void testMethodsByParameterTypes() throws Exception {
+		MemberIndex index = MemberIndex.of(Super.class);
+		Method method = Super.class.getDeclaredMethod("call", int.class);
+		assertThat(index.methods("call", new Class<?>[] { int.class }), contains(method));
+		assertThat(index.methods("call", new Class<?>[] { long.class }), empty());
+	}
+
+	@Test
+	public void testConstructorsByArity() throws Exception {
+		MemberIndex index = MemberIndex.of(Super.class);
+		assertThat(index.constructors(0), hasSize(1));
+		assertThat(index.constructors(1), hasSize(1));
+		assertThat(index.constructors(2), empty());
+	}
+
+	private static class Super {
+		private String value;
+
+		Super() {
+		}
+
+		Super(String value) {
+			this.value = value;
+		}
+
+		private void call() {
+		}
+
+		private void call(int i) {
+		}
+
+		private void call(String s) {
+		}
+	}
+
+	private static class Sub extends Super {
+		private boolean value;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class MethodHandleInvokerFactoryTest {
+
+	@Test
+	public void testCreateHandleInvokers() throws Exception {
+		InvokerFactory invokers = new MethodHandleInvokerFactory();
+		assertThat(invokers.createMethodInvoker(WithMembers.class.getDeclaredMethod("method"), null), instanceOf(MethodHandleInvoker.class));
+		assertThat(invokers.createFieldGetter(WithMembers.class.getDeclaredField("field"), null), instanceOf(FieldHandleGetter.class));
+		assertThat(invokers.createFieldSetter(WithMembers.class.getDeclaredField("field"), null), instanceOf(FieldHandleSetter.class));
+		assertThat(invokers.createStaticMethodInvoker(WithMembers.class, WithMembers.class.getDeclaredMethod("staticMethod"), null), instanceOf(StaticMethodHandleInvoker.class));
+		assertThat(invokers.createConstructorInvoker(WithMembers.class.getDeclaredConstructor(), null), instanceOf(ConstructorHandleInvoker.class));
+		assertThat(invokers.createStaticGetter(WithMembers.class, WithMembers.class.getDeclaredField("staticField"), null), instanceOf(StaticHandleGetter.class));
+		assertThat(invokers.createStaticSetter(WithMembers.class, WithMembers.class.getDeclaredField("staticField"), null), instanceOf(StaticHandleSetter.class));
+	}
+
+	private static class WithMembers {
+
+		private static String staticField;
+		private String field;
+
+		private WithMembers() {
+		}
+
+		private String method() {
+			return field;
+		}
+
+		private static String staticMethod() {
+			return staticField;
+		}
+	}
+
+}
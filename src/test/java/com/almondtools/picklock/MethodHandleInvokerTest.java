@@ -0,0 +1,126 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class MethodHandleInvokerTest {
+
+	@Test
+	public void testInvoke() throws Throwable {
+		WithMethod object = new WithMethod();
+		Object invoke = new MethodHandleInvoker(method()).invoke(object, new Object[] { 1 });
+		assertThat((String) invoke, equalTo("1"));
+	}
+
+	@Test
+	public void testInvokeWithoutArguments() throws Throwable {
+		WithMethod object = new WithMethod();
+		Object invoke = new MethodHandleInvoker(WithMethod.class.getDeclaredMethod("noArgs")).invoke(object, (Object[]) null);
+		assertThat((String) invoke, equalTo("none"));
+	}
+
+	@Test
+	public void testInvokeVoid() throws Throwable {
+		WithMethod object = new WithMethod();
+		Object invoke = new MethodHandleInvoker(WithMethod.class.getDeclaredMethod("voidMethod", String.class)).invoke(object, new Object[] { "set" });
+		assertThat(invoke, equalTo(null));
+		assertThat(object.state, equalTo("set"));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testInvokeFailingSignature() throws Throwable {
+		WithMethod object = new WithMethod();
+		new MethodHandleInvoker(method()).invoke(object, new Object[] { "1" });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvokeFailingArgumentCount() throws Throwable {
+		WithMethod object = new WithMethod();
+		new MethodHandleInvoker(method()).invoke(object, new Object[] { 1, 2 });
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvokeCheckedException() throws Throwable {
+		WithMethod object = new WithMethod();
+		new MethodHandleInvoker(exceptionMethod()).invoke(object, new Object[] { 2 });
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testInvokeUncheckedException() throws Throwable {
+		WithMethod object = new WithMethod();
+		new MethodHandleInvoker(exceptionMethod()).invoke(object, new Object[] { 1 });
+	}
+
+	@Test
+	public void testConvertedInvoke() throws Throwable {
+		WithMethod object = new WithMethod();
+		Object invoke = new MethodHandleInvoker(method(), method()).invoke(object, new Object[] { 1 });
+		assertThat((String) invoke, equalTo("1"));
+	}
+
+	@Test
+	public void testInvokeWithResultConversion() throws Throwable {
+		ForConvertedObject object = new ForConvertedObject();
+		Method method = ForConvertedObject.class.getDeclaredMethod("create");
+		Method target = ConvertedMethods.class.getDeclaredMethod("create");
+		Object invoke = new MethodHandleInvoker(method, target).invoke(object);
+		assertThat(invoke, instanceOf(ConvertedInterface.class));
+	}
+
+	private Method method() throws NoSuchMethodException {
+		return WithMethod.class.getDeclaredMethod("method", int.class);
+	}
+
+	private Method exceptionMethod() throws NoSuchMethodException {
+		return WithMethod.class.getDeclaredMethod("exceptionMethod", int.class);
+	}
+
+	interface ConvertedMethods {
+		@Convert("ForConvertedObject") ConvertedInterface create();
+	}
+
+	interface ConvertedInterface {
+	}
+
+	private static class WithMethod {
+
+		private String state;
+
+		private String method(int i) {
+			return String.valueOf(i);
+		}
+
+		private String noArgs() {
+			return "none";
+		}
+
+		private void voidMethod(String state) {
+			this.state = state;
+		}
+
+		private String exceptionMethod(int i) throws IOException {
+			if (i == 1) {
+				throw new NullPointerException();
+			} else {
+				throw new IOException();
+			}
+		}
+
+	}
+
+	private static class ForConvertedObject {
+
+		private ForConvertedObject create() {
+			return new ForConvertedObject();
+		}
+
+	}
+
+}
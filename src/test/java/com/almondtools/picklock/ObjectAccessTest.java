@@ -4,10 +4,21 @@ import static com.almondtools.picklock.PicklockMatcher.providesFeaturesOf;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -52,6 +63,79 @@ public class ObjectAccessTest {
 		assertThat(unlocked.getMyField(), equalTo("ABC"));
 	}
 
+	@Test
+	public void testTemplate() throws Exception {
+		Unlocker<UnlockedObject> unlocker = ObjectAccess.template(LockedObject.class, UnlockedObject.class);
+		LockedObject other = new LockedObject();
+		UnlockedObject unlocked = unlocker.bind(object);
+		UnlockedObject unlockedOther = unlocker.bind(other);
+		unlocked.setMyField("123");
+		unlockedOther.setMyField("ABC");
+		assertThat(object.myPublicMethod(), equalTo(123));
+		assertThat(other.myPublicMethod(), equalTo(0));
+		assertThat(unlocked.myMethod("42", true), equalTo(42));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testTemplateWithNotMatchingInterface() throws Exception {
+		ObjectAccess.template(LockedObject.class, UnlockedNotMatchingMethodObject.class);
+	}
+
+	@Test
+	public void testLazyFeatures() throws Exception {
+		UnlockedPartially unlocked = ObjectAccess.unlock(object).lazyFeatures(UnlockedPartially.class);
+		unlocked.setMyField("123");
+		assertThat(unlocked.getMyField(), equalTo("123"));
+		assertThat(unlocked.myMethod("123", true), equalTo(123));
+		assertThat(unlocked.superMethod(), equalTo(5.0));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testLazyFeaturesNotResolvable() throws Exception {
+		UnlockedPartially unlocked = ObjectAccess.unlock(object).lazyFeatures(UnlockedPartially.class);
+		unlocked.notExistingMethod();
+	}
+
+	@Test
+	public void testLazyFeaturesShareResolution() throws Exception {
+		ObjectAccess access = ObjectAccess.unlock(object);
+		access.lazyFeatures(UnlockedPartially.class).getMyField();
+		ObjectAccess other = ObjectAccess.unlock(new LockedObject());
+		other.lazyFeatures(UnlockedPartially.class);
+		Method getMyField = UnlockedObject.class.getDeclaredMethod("getMyField");
+		assertThat(((LazyMethodInvocationHandler) other.getHandler(getMyField)).isResolved(), equalTo(true));
+	}
+
+	@Test
+	public void testMethodInvocationWithMethodHandles() throws Exception {
+		UnlockedObject unlocked = ObjectAccess.unlock(object, InvokerFactory.METHOD_HANDLES).features(UnlockedObject.class);
+		assertThat(unlocked.myMethod("123", true), equalTo(123));
+		assertThat(unlocked.myMethod("123", false), equalTo(0));
+		assertThat(unlocked.superMethod(), equalTo(5.0));
+	}
+
+	@Test
+	public void testSetGetFieldWithMethodHandles() throws Exception {
+		UnlockedObject unlocked = ObjectAccess.unlock(object, InvokerFactory.METHOD_HANDLES).features(UnlockedObject.class);
+		unlocked.setMyField("123");
+		assertThat(object.myPublicMethod(), equalTo(123));
+		assertThat(unlocked.getMyField(), equalTo("123"));
+
+		unlocked.setSuperField(1.0);
+		assertThat(unlocked.getSuperField(), equalTo(1.0));
+	}
+
+	@Test
+	public void testCorrectExceptionSignatureWithMethodHandles() throws Exception {
+		UnlockedWithCorrectExceptions unlocked = ObjectAccess.unlock(new LockedObjectWithDeclaredExceptions(), InvokerFactory.METHOD_HANDLES).features(UnlockedWithCorrectExceptions.class);
+		try {
+			String msg = unlocked.myMethod(null);
+			fail("expected io exception, but found: " + msg);
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
 	@Test
 	public void testNotExistingMethodInvocation() throws Exception {
 		try {
@@ -132,6 +216,178 @@ public class ObjectAccessTest {
 		assertThat(unlocked.getInteger(), equalTo(2));
 	}
 	
+	@Test
+	public void testMultipleFeatures() throws Exception {
+		Object unlocked = ObjectAccess.unlock(new WithFeatures()).features(FeatureA.class, FeatureB.class, FeatureC.class);
+
+		assertThat(((FeatureA) unlocked).getFeatureA(), equalTo("FeatureA"));
+		assertThat(((FeatureB) unlocked).getFeatureB(), equalTo("FeatureB"));
+		assertThat(((FeatureC) unlocked).getFeatureC(), equalTo("FeatureC"));
+		assertThat(unlocked instanceof FeatureD, equalTo(false));
+	}
+
+	@Test
+	public void testMultipleFeaturesShareCommonMethods() throws Exception {
+		ObjectAccess access = ObjectAccess.unlock(object);
+		ReadableObject unlocked = access.features(ReadableObject.class, MutableObject.class);
+		((MutableObject) unlocked).setMyField("42");
+
+		assertThat(unlocked.getMyField(), equalTo("42"));
+		assertThat(((MutableObject) unlocked).getMyField(), equalTo("42"));
+		assertThat(access.getHandler(ReadableObject.class.getDeclaredMethod("getMyField")), sameInstance(access.getHandler(MutableObject.class.getDeclaredMethod("getMyField"))));
+	}
+
+	@Test
+	public void testMultipleFeaturesAreCached() throws Exception {
+		ObjectAccess.unlock(new LockedObject()).features(ReadableObject.class, MutableObject.class);
+		long hits = InvocationPlanCache.getHits();
+
+		ObjectAccess.unlock(new LockedObject()).features(ReadableObject.class, MutableObject.class);
+
+		assertThat(InvocationPlanCache.getHits(), equalTo(hits + 1));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMultipleFeaturesNotMatching() throws Exception {
+		ObjectAccess.unlock(object).features(ReadableObject.class, UnlockedNotMatchingMethodObject.class);
+	}
+
+	public static interface ReadableObject {
+		String getMyField();
+	}
+
+	public static interface MutableObject {
+		String getMyField();
+
+		void setMyField(String value);
+	}
+
+	@Test
+	public void testConcurrentFeaturesAndInvocations() throws Exception {
+		final Class<?>[] interfaces = { FeatureA.class, FeatureB.class, FeatureC.class, FeatureD.class };
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int round = 0; round < 50; round++) {
+				final ObjectAccess access = ObjectAccess.unlock(new WithFeatures());
+				final CyclicBarrier start = new CyclicBarrier(8);
+				List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+				for (int i = 0; i < 8; i++) {
+					final Class<?> feature = interfaces[i % interfaces.length];
+					results.add(executor.submit(new Callable<Boolean>() {
+						@Override
+						public Boolean call() throws Exception {
+							start.await();
+							Object unlocked = access.features(feature);
+							for (int j = 0; j < 1000; j++) {
+								if (!value(unlocked).equals(feature.getSimpleName())) {
+									return false;
+								}
+							}
+							return true;
+						}
+					}));
+				}
+				for (Future<Boolean> result : results) {
+					assertThat(result.get(), equalTo(true));
+				}
+				for (Class<?> feature : interfaces) {
+					assertThat(access.getHandler(feature.getDeclaredMethods()[0]) != null, equalTo(true));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnlockAll() throws Exception {
+		List<Object> objects = new ArrayList<Object>();
+		objects.add(new WithFeatures());
+		objects.add(new WithOtherFeatures());
+		objects.add(new WithFeatures());
+
+		List<FeatureA> unlocked = ObjectAccess.unlockAll(objects, FeatureA.class);
+
+		assertThat(unlocked.size(), equalTo(3));
+		assertThat(unlocked.get(0).getFeatureA(), equalTo("FeatureA"));
+		assertThat(unlocked.get(1).getFeatureA(), equalTo("OtherFeatureA"));
+		assertThat(Converter.unwrap(unlocked.get(2)), sameInstance(objects.get(2)));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testUnlockAllNotMatching() throws Exception {
+		ObjectAccess.unlockAll(Arrays.asList(new WithFeatures(), new Object()), FeatureA.class);
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		List<Object> objects = new ArrayList<Object>();
+		objects.add(new WithFeatures());
+		objects.add(new WithOtherFeatures());
+
+		List<FeatureA> unlocked = ObjectStreams.stream(objects.stream(), FeatureA.class, InvokerFactory.GENERATED).collect(Collectors.<FeatureA> toList());
+
+		assertThat(unlocked.size(), equalTo(2));
+		assertThat(unlocked.get(0).getFeatureA(), equalTo("FeatureA"));
+		assertThat(unlocked.get(1).getFeatureA(), equalTo("OtherFeatureA"));
+	}
+
+	@Test
+	public void testParallelStream() throws Exception {
+		List<Object> objects = new ArrayList<Object>();
+		for (int i = 0; i < 100_000; i++) {
+			objects.add(i % 3 == 0 ? new WithOtherFeatures() : new WithFeatures());
+		}
+
+		List<FeatureA> unlocked = ObjectStreams.stream(objects.parallelStream(), FeatureA.class, InvokerFactory.GENERATED).collect(Collectors.<FeatureA> toList());
+
+		assertThat(unlocked.size(), equalTo(objects.size()));
+		for (int i = 0; i < objects.size(); i++) {
+			assertThat(unlocked.get(i).getFeatureA(), equalTo(i % 3 == 0 ? "OtherFeatureA" : "FeatureA"));
+		}
+	}
+
+	private static String value(Object unlocked) {
+		if (unlocked instanceof FeatureA) {
+			return ((FeatureA) unlocked).getFeatureA();
+		} else if (unlocked instanceof FeatureB) {
+			return ((FeatureB) unlocked).getFeatureB();
+		} else if (unlocked instanceof FeatureC) {
+			return ((FeatureC) unlocked).getFeatureC();
+		} else {
+			return ((FeatureD) unlocked).getFeatureD();
+		}
+	}
+
+	public static interface FeatureA {
+		String getFeatureA();
+	}
+
+	public static interface FeatureB {
+		String getFeatureB();
+	}
+
+	public static interface FeatureC {
+		String getFeatureC();
+	}
+
+	public static interface FeatureD {
+		String getFeatureD();
+	}
+
+	@SuppressWarnings("unused")
+	private static class WithFeatures {
+		private String featureA = "FeatureA";
+		private String featureB = "FeatureB";
+		private String featureC = "FeatureC";
+		private String featureD = "FeatureD";
+	}
+
+	@SuppressWarnings("unused")
+	private static class WithOtherFeatures {
+		private String featureA = "OtherFeatureA";
+	}
+
 	public static interface UnlockedObject {
 		void setMyField(String value);
 
@@ -151,6 +407,9 @@ public class ObjectAccessTest {
 
 	}
 
+	public static interface UnlockedPartially extends UnlockedObject, UnlockedNotMatchingMethodObject {
+	}
+
 	public static interface UnlockedNotMatchingMethodObject {
 
 		boolean notExistingMethod();
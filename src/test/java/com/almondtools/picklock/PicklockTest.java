@@ -0,0 +1,154 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class PicklockTest {
+
+	@Test
+	public void testFieldGetSet() throws Exception {
+		FieldAccessor<LockedObject, String> myField = Picklock.field(LockedObject.class, "myField", String.class);
+		LockedObject object = new LockedObject();
+
+		myField.set(object, "42");
+
+		assertThat(myField.get(object), equalTo("42"));
+		assertThat(object.myPublicMethod(), equalTo(42));
+	}
+
+	@Test
+	public void testFieldOfSuperClass() throws Exception {
+		FieldAccessor<LockedObject, Double> superField = Picklock.field(LockedObject.class, "superField", double.class);
+		LockedObject object = new LockedObject();
+
+		superField.set(object, 2.5);
+
+		assertThat(superField.get(object), equalTo(2.5));
+	}
+
+	@Test
+	public void testFieldFinal() throws Exception {
+		FieldAccessor<LockedObject, Integer> integer = Picklock.field(LockedObject.class, "integer", int.class);
+
+		assertThat(integer.get(new LockedObject()), equalTo(2));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testFieldMissing() throws Exception {
+		Picklock.field(LockedObject.class, "myField", int.class);
+	}
+
+	@Test
+	public void testFieldByPropertyName() throws Exception {
+		FieldAccessor<LockedObject, String> myField = Picklock.field(LockedObject.class, "MyField", String.class);
+		LockedObject object = new LockedObject();
+
+		myField.set(object, "42");
+
+		assertThat(object.myPublicMethod(), equalTo(42));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testFieldStatic() throws Exception {
+		Picklock.field(Methods.class, "instances", int.class);
+	}
+
+	@Test
+	public void testMethod0() throws Throwable {
+		Invoker0<Methods, String> method = Picklock.method(Methods.class, "name", String.class);
+
+		assertThat(method.invoke(new Methods()), equalTo("methods"));
+	}
+
+	@Test
+	public void testMethod0Void() throws Throwable {
+		Invoker0<Methods, Void> method = Picklock.method(Methods.class, "reset", void.class);
+		Methods methods = new Methods();
+
+		assertThat(method.invoke(methods), nullValue());
+		assertThat(methods.count, equalTo(0));
+	}
+
+	@Test
+	public void testMethod1() throws Throwable {
+		Invoker1<Methods, Integer, Integer> method = Picklock.method(Methods.class, "add", int.class, int.class);
+
+		assertThat(method.invoke(new Methods(), 3), equalTo(4));
+	}
+
+	@Test
+	public void testMethod2() throws Throwable {
+		Invoker2<LockedObject, String, Boolean, Integer> method = Picklock.method(LockedObject.class, "myMethod", int.class, String.class, boolean.class);
+
+		assertThat(method.invoke(new LockedObject(), "7", true), equalTo(7));
+		assertThat(method.invoke(new LockedObject(), "7", false), equalTo(0));
+	}
+
+	@Test
+	public void testMethod3() throws Throwable {
+		Invoker3<Methods, String, String, String, String> method = Picklock.method(Methods.class, "concat", String.class, String.class, String.class, String.class);
+
+		assertThat(method.invoke(new Methods(), "a", "b", "c"), equalTo("abc"));
+	}
+
+	@Test
+	public void testMethodOfSuperClass() throws Throwable {
+		Invoker0<LockedObject, Double> method = Picklock.method(LockedObject.class, "superMethod", double.class);
+
+		assertThat(method.invoke(new LockedObject()), equalTo(5.0));
+	}
+
+	@Test(expected = IOException.class)
+	public void testMethodThrowsUnwrapped() throws Throwable {
+		Invoker0<Methods, Void> method = Picklock.method(Methods.class, "fail", void.class);
+
+		method.invoke(new Methods());
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMethodWronglyTyped() throws Exception {
+		Picklock.method(Methods.class, "name", Object.class);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testMethodStatic() throws Exception {
+		Picklock.method(Methods.class, "create", Methods.class);
+	}
+
+	private static class Methods {
+		private static int instances;
+
+		private int count = 1;
+
+		private String name() {
+			return "methods";
+		}
+
+		private void reset() {
+			count = 0;
+		}
+
+		private int add(int i) {
+			return count + i;
+		}
+
+		private String concat(String a, String b, String c) {
+			return a + b + c;
+		}
+
+		private void fail() throws IOException {
+			throw new IOException();
+		}
+
+		private static Methods create() {
+			return new Methods();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class PolymorphicUnlockerTest {
+
+	@Test
+	public void testBindSubclasses() throws Exception {
+		PolymorphicUnlocker<UnlockedBase> unlocker = ObjectAccess.polymorphicTemplate(Base.class, UnlockedBase.class);
+
+		assertThat(unlocker.bind(new Base()).getId(), equalTo("base"));
+		assertThat(unlocker.bind(new First()).getId(), equalTo("first"));
+		assertThat(unlocker.bind(new Second()).getId(), equalTo("second"));
+		assertThat(unlocker.bind(new First()).getId(), equalTo("first"));
+		assertThat(unlocker.getCachedTypes(), equalTo(new Class<?>[] { Base.class, First.class, Second.class }));
+		assertThat(unlocker.isMegamorphic(), equalTo(false));
+	}
+
+	@Test
+	public void testBindResolvesMembersOfConcreteClass() throws Exception {
+		PolymorphicUnlocker<UnlockedName> unlocker = ObjectAccess.polymorphicTemplate(Base.class, UnlockedName.class, InvokerFactory.METHOD_HANDLES);
+
+		assertThat(unlocker.bind(new First()).name(), equalTo("First"));
+		assertThat(unlocker.bind(new Second()).name(), equalTo("Second"));
+	}
+
+	@Test
+	public void testBindGenerated() throws Exception {
+		PolymorphicUnlocker<UnlockedBase> unlocker = ObjectAccess.polymorphicTemplate(Base.class, UnlockedBase.class, InvokerFactory.GENERATED);
+
+		UnlockedBase unlocked = unlocker.bind(new Second());
+		unlocked.setId("changed");
+
+		assertThat(unlocked.getId(), equalTo("changed"));
+	}
+
+	@Test
+	public void testMegamorphic() throws Exception {
+		PolymorphicUnlocker<UnlockedBase> unlocker = new PolymorphicUnlocker<UnlockedBase>(Base.class, UnlockedBase.class, InvokerFactory.REFLECTION, 2);
+
+		assertThat(unlocker.bind(new Base()).getId(), equalTo("base"));
+		assertThat(unlocker.bind(new First()).getId(), equalTo("first"));
+		assertThat(unlocker.isMegamorphic(), equalTo(false));
+		assertThat(unlocker.bind(new Second()).getId(), equalTo("second"));
+		assertThat(unlocker.bind(new Second()).getId(), equalTo("second"));
+
+		assertThat(unlocker.isMegamorphic(), equalTo(true));
+		assertThat(unlocker.getCachedTypes(), equalTo(new Class<?>[] { Base.class, First.class }));
+		assertThat(unlocker.bind(new First()).getId(), equalTo("first"));
+	}
+
+	@Test
+	public void testTypes() throws Exception {
+		PolymorphicUnlocker<UnlockedBase> unlocker = ObjectAccess.polymorphicTemplate(Base.class, UnlockedBase.class);
+
+		assertThat(unlocker.getType(), equalTo((Object) Base.class));
+		assertThat(unlocker.getInterfaceClass(), equalTo(UnlockedBase.class));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindOtherClass() throws Exception {
+		ObjectAccess.polymorphicTemplate(Base.class, UnlockedBase.class).bind("string");
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindUnresolvable() throws Exception {
+		ObjectAccess.polymorphicTemplate(Base.class, UnlockedName.class).bind(new Base());
+	}
+
+	interface UnlockedBase {
+		String getId();
+
+		void setId(String id);
+	}
+
+	interface UnlockedName {
+		String name();
+	}
+
+	private static class Base {
+		private String id;
+
+		Base() {
+			this("base");
+		}
+
+		Base(String id) {
+			this.id = id;
+		}
+	}
+
+	private static class First extends Base {
+		First() {
+			super("first");
+		}
+
+		private String name() {
+			return "First";
+		}
+	}
+
+	private static class Second extends Base {
+		Second() {
+			super("second");
+		}
+
+		private String name() {
+			return "Second";
+		}
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+@SuppressWarnings("unused")
+public class PropertyPlanTest {
+
+	@Test
+	public void testNames() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+
+		assertArrayEquals(new String[] { "balance", "closed", "description", "owner" }, plan.getNames());
+		assertThat(plan.size(), equalTo(4));
+		assertThat(plan.getType(), equalTo(Account.class));
+	}
+
+	@Test
+	public void testPlanIsCached() throws Exception {
+		assertThat(Picklock.properties(Account.class, AccountState.class), sameInstance(Picklock.properties(Account.class, AccountState.class)));
+	}
+
+	@Test
+	public void testDehydrate() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+
+		Object[] values = plan.dehydrate(new Account("owner", 42L, true));
+
+		assertArrayEquals(new Object[] { 42L, true, "owner:42", "owner" }, values);
+	}
+
+	@Test
+	public void testDehydrateIntoReusedArray() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+		Object[] values = new Object[plan.size()];
+
+		plan.dehydrate(new Account("first", 1L, false), values);
+		plan.dehydrate(new Account("second", 2L, true), values);
+
+		assertArrayEquals(new Object[] { 2L, true, "second:2", "second" }, values);
+	}
+
+	@Test
+	public void testDehydrateToMap() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+
+		Map<String, Object> values = plan.dehydrateToMap(new Account("owner", 42L, true));
+
+		assertThat(values.size(), equalTo(4));
+		assertThat(values.get("description"), equalTo((Object) "owner:42"));
+		assertThat(values.get("owner"), equalTo((Object) "owner"));
+		assertThat(values.get("balance"), equalTo((Object) 42L));
+		assertThat(values.get("closed"), equalTo((Object) true));
+	}
+
+	@Test
+	public void testHydrate() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+		Account account = new Account(null, 0L, false);
+
+		plan.hydrate(account, new Object[] { 42L, true, "ignored", "owner" });
+
+		assertThat(account.owner, equalTo("owner"));
+		assertThat(account.balance, equalTo(42L));
+		assertThat(account.closed, equalTo(true));
+	}
+
+	@Test
+	public void testHydrateFromMap() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+		Account account = new Account("owner", 1L, true);
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("balance", 42L);
+		values.put("owner", null);
+
+		plan.hydrate(account, values);
+
+		assertThat(account.owner, nullValue());
+		assertThat(account.balance, equalTo(42L));
+		assertThat(account.closed, equalTo(true));
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+		Account account = new Account(null, 0L, false);
+
+		plan.hydrate(account, plan.dehydrateToMap(new Account("owner", 42L, true)));
+
+		assertArrayEquals(new Object[] { 42L, true, "owner:42", "owner" }, plan.dehydrate(account));
+	}
+
+	@Test
+	public void testHydrateSkipsReadOnlyProperties() throws Exception {
+		PropertyPlan<Account> plan = Picklock.properties(Account.class, AccountState.class);
+		Account account = new Account("owner", 1L, true);
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("description", "ignored");
+
+		plan.hydrate(account, values);
+
+		assertThat(account.getDescription(), equalTo("owner:1"));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testHydrateTooFewValues() throws Exception {
+		Picklock.properties(Account.class, AccountState.class).hydrate(new Account(null, 0L, false), new Object[] { 42L });
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testDehydrateIntoTooShortArray() throws Exception {
+		Picklock.properties(Account.class, AccountState.class).dehydrate(new Account(null, 0L, false), new Object[2]);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testHydrateWronglyTypedValue() throws Exception {
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("balance", "not a long");
+
+		Picklock.properties(Account.class, AccountState.class).hydrate(new Account(null, 0L, false), values);
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testHydrateNullForPrimitive() throws Exception {
+		Picklock.properties(Account.class, AccountState.class).hydrate(new Account(null, 0L, false), new Object[] { null, false, null, "owner" });
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testNotMatching() throws Exception {
+		Picklock.properties(Account.class, NotMatching.class);
+	}
+
+	interface AccountState {
+		String getOwner();
+
+		void setOwner(String owner);
+
+		long getBalance();
+
+		void setBalance(long balance);
+
+		boolean isClosed();
+
+		void setClosed(boolean closed);
+
+		String getDescription();
+	}
+
+	interface NotMatching {
+		int getMissing();
+
+		void setMissing(int missing);
+	}
+
+	private static class Account {
+		private String owner;
+		private long balance;
+		private boolean closed;
+
+		Account(String owner, long balance, boolean closed) {
+			this.owner = owner;
+			this.balance = balance;
+			this.closed = closed;
+		}
+
+		private String getDescription() {
+			return owner + ":" + balance;
+		}
+	}
+
+}
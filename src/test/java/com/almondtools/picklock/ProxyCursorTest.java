@@ -0,0 +1,86 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+public class ProxyCursorTest {
+
+	@Test
+	public void testBind() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		ProxyCursor<UnlockedObject> cursor = new ProxyCursor<UnlockedObject>(UnlockedObject.class, plan);
+		LockedObject object1 = new LockedObject();
+		LockedObject object2 = new LockedObject();
+
+		UnlockedObject unlocked1 = cursor.bind(object1);
+		unlocked1.setMyField("1");
+		UnlockedObject unlocked2 = cursor.bind(object2);
+		unlocked2.setMyField("2");
+
+		assertThat(unlocked1, instanceOf(Proxy.class));
+		assertThat(unlocked1, sameInstance(unlocked2));
+		assertThat(cursor.get(), sameInstance(unlocked2));
+		assertThat(object1.myPublicMethod(), equalTo(1));
+		assertThat(object2.myPublicMethod(), equalTo(2));
+		assertThat(cursor.bind(object1).getMyField(), equalTo("1"));
+	}
+
+	@Test
+	public void testBindSubclass() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedSuper.class), UnlockedSuper.class);
+		ProxyCursor<UnlockedSuper> cursor = new ProxyCursor<UnlockedSuper>(UnlockedSuper.class, plan);
+
+		UnlockedSuper unlocked = cursor.bind(new LockedObject());
+
+		assertThat(unlocked.superMethod(), equalTo(5.0));
+	}
+
+	@Test
+	public void testUnwrap() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		ProxyCursor<UnlockedObject> cursor = new ProxyCursor<UnlockedObject>(UnlockedObject.class, plan);
+		LockedObject object = new LockedObject();
+		
+		UnlockedObject unlocked = cursor.bind(object);
+		
+		assertThat(Converter.unwrap(unlocked), sameInstance((Object) object));
+	}
+
+	@Test
+	public void testTypes() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		ProxyCursor<UnlockedObject> cursor = new ProxyCursor<UnlockedObject>(UnlockedObject.class, plan);
+
+		assertThat(cursor.getType(), equalTo((Object) LockedObject.class));
+		assertThat(cursor.getInterfaceClass(), equalTo(UnlockedObject.class));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindOtherClass() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		new ProxyCursor<UnlockedObject>(UnlockedObject.class, plan).bind("string");
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindNull() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		new ProxyCursor<UnlockedObject>(UnlockedObject.class, plan).bind(null);
+	}
+
+	public static interface UnlockedObject {
+		void setMyField(String value);
+
+		String getMyField();
+	}
+
+	public static interface UnlockedSuper {
+		double superMethod();
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+public class ProxyUnlockerTest {
+
+	@Test
+	public void testBind() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		ProxyUnlocker<UnlockedObject> unlocker = new ProxyUnlocker<UnlockedObject>(UnlockedObject.class, plan);
+		LockedObject object1 = new LockedObject();
+		LockedObject object2 = new LockedObject();
+
+		UnlockedObject unlocked1 = unlocker.bind(object1);
+		UnlockedObject unlocked2 = unlocker.bind(object2);
+		unlocked1.setMyField("1");
+		unlocked2.setMyField("2");
+
+		assertThat(unlocked1, instanceOf(Proxy.class));
+		assertThat(unlocked1, not(sameInstance(unlocked2)));
+		assertThat(object1.myPublicMethod(), equalTo(1));
+		assertThat(object2.myPublicMethod(), equalTo(2));
+		assertThat(unlocked2.getMyField(), equalTo("2"));
+	}
+
+	@Test
+	public void testBindSubclass() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedSuper.class), UnlockedSuper.class);
+		ProxyUnlocker<UnlockedSuper> unlocker = new ProxyUnlocker<UnlockedSuper>(UnlockedSuper.class, plan);
+
+		UnlockedSuper unlocked = unlocker.bind(new LockedObject());
+
+		assertThat(unlocked.superMethod(), equalTo(5.0));
+	}
+
+	@Test
+	public void testTypes() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		ProxyUnlocker<UnlockedObject> unlocker = new ProxyUnlocker<UnlockedObject>(UnlockedObject.class, plan);
+
+		assertThat(unlocker.getType(), equalTo((Object) LockedObject.class));
+		assertThat(unlocker.getInterfaceClass(), equalTo(UnlockedObject.class));
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindOtherClass() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		new ProxyUnlocker<UnlockedObject>(UnlockedObject.class, plan).bind("string");
+	}
+
+	@Test(expected = PicklockException.class)
+	public void testBindNull() throws Exception {
+		InvocationPlan plan = InvocationPlan.resolve(new InvocationResolver(LockedObject.class), UnlockedObject.class);
+		new ProxyUnlocker<UnlockedObject>(UnlockedObject.class, plan).bind(null);
+	}
+
+	public static interface UnlockedObject {
+		void setMyField(String value);
+
+		String getMyField();
+	}
+
+	public static interface UnlockedSuper {
+		double superMethod();
+	}
+
+}
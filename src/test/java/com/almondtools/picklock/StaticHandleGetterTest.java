@@ -0,0 +1,51 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class StaticHandleGetterTest {
+
+	@Test
+	public void testGetField() throws Throwable {
+		Object result = new StaticHandleGetter(WithField.class, WithField.class.getDeclaredField("field")).invoke(new Object[0]);
+		assertThat((String) result, equalTo("world"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetFieldWithFailingSignatureOne() throws Throwable {
+		new StaticHandleGetter(WithField.class, WithField.class.getDeclaredField("field")).invoke(new Object[] { 1 });
+	}
+
+	@Test
+	public void testGetFieldWithFailingSignatureNull() throws Throwable {
+		Object result = new StaticHandleGetter(WithField.class, WithField.class.getDeclaredField("field")).invoke((Object[]) null);
+		assertThat((String) result, equalTo("world"));
+	}
+
+	@Test
+	public void testInvokeWithResultConversion() throws Throwable {
+		StaticHandleGetter staticMethod = new StaticHandleGetter(WithConvertedProperty.class, WithConvertedProperty.class.getDeclaredField("converted"), ConvertedInterface.class);
+		Object result = staticMethod.invoke();
+		assertThat(result, instanceOf(ConvertedInterface.class));
+	}
+
+	@SuppressWarnings("unused")
+	private static class WithField {
+
+		private static String field = "world";
+	}
+
+	@SuppressWarnings("unused")
+	private static class WithConvertedProperty {
+
+		private static WithConvertedProperty converted = new WithConvertedProperty();
+
+	}
+
+	interface ConvertedInterface {
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.almondtools.picklock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class StaticHandleSetterTest {
+
+	@Test
+	public void testSetField() throws Throwable {
+		Object result = new StaticHandleSetter(WithField.class, WithField.class.getDeclaredField("field")).invoke(new Object[] { "hello" });
+		assertThat(result, nullValue());
+		assertThat(WithField.field, equalTo("hello"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFieldFailingSignatureNone() throws Throwable {
+		new StaticHandleSetter(WithField.class, WithField.class.getDeclaredField("field")).invoke(new Object[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFieldFailingSignatureNull() throws Throwable {
+		new StaticHandleSetter(WithField.class, WithField.class.getDeclaredField("field")).invoke((Object[]) null);
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testSetFieldWithoutMatchingType() throws Throwable {
+		new StaticHandleSetter(WithField.class, WithField.class.getDeclaredField("field")).invoke(new Object[] { Integer.valueOf(1) });
+	}
+
+	@Test
+	public void testInvokeWithArgumentConversion() throws Throwable {
+		StaticHandleSetter staticMethod = new StaticHandleSetter(WithConvertedProperty.class, WithConvertedProperty.class.getDeclaredField("converted"), ConvertedInterface.class);
+		staticMethod.invoke(new ConvertedInterface() {
+		});
+		assertThat(WithConvertedProperty.converted, notNullValue());
+	}
+
+	private static class WithField {
+
+		private static String field;
+	}
+
+	private static class WithConvertedProperty {
+
+		private static WithConvertedProperty converted = null;
+
+	}
+
+	interface ConvertedInterface {
+	}
+}
@@ -2,18 +2,20 @@ package com.almondtools.picklock;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 import org.junit.Test;
 
 import com.almondtools.picklock.InvocationResolverTest.ConvertibleInterface;
 
-@SuppressWarnings("unused")
+@SuppressWarnings({ "unused", "deprecation" })
 public class StaticInvocationResolverTest {
 
 	@Test
@@ -22,6 +24,79 @@ public class StaticInvocationResolverTest {
 		assertThat(resolver.getType(), sameInstance((Object) TestSubClass.class));
 	}
 
+	@Test
+	public void testResolveInvocationHandler() throws Exception {
+		StaticInvocationResolver resolver = new StaticInvocationResolver(TestSubClass.class);
+		assertThat(resolver.resolveInvocationHandler(Methods.class.getDeclaredMethod("methoda")), notNullValue());
+		assertThat(resolver.resolveInvocationHandler(Constructors.class.getDeclaredMethod("create", String.class)), notNullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerUnresolvable() throws Exception {
+		Method method = BadConstructors.class.getDeclaredMethod("create", boolean.class);
+		assertThat(new StaticInvocationResolver(TestSubClass.class).resolveInvocationHandler(method), nullValue());
+		assertThat(new StaticInvocationResolver(TestSubClass.class).resolveInvocationHandler(method), nullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerCallsOverriddenHooks() throws Exception {
+		Method constructor = BadConstructors.class.getDeclaredMethod("create", boolean.class);
+		Method getter = BadGetters.class.getDeclaredMethods()[0];
+		StaticInvocationResolver resolver = new StaticInvocationResolver(TestSubClass.class) {
+			@Override
+			protected StaticMethodInvocationHandler resolveConstructorInvocator(Method method) {
+				return StaticMethodInvocationHandler.NULL;
+			}
+
+			@Override
+			protected StaticMethodInvocationHandler resolveGetterInvocator(Method method) {
+				return StaticMethodInvocationHandler.NULL;
+			}
+		};
+		assertThat(new StaticInvocationResolver(TestSubClass.class).resolveInvocationHandler(constructor), nullValue());
+		assertThat(new StaticInvocationResolver(TestSubClass.class).resolveInvocationHandler(getter), nullValue());
+
+		assertThat(resolver.resolveInvocationHandler(constructor), sameInstance(StaticMethodInvocationHandler.NULL));
+		assertThat(resolver.resolveInvocationHandler(getter), sameInstance(StaticMethodInvocationHandler.NULL));
+		assertThat(resolver.findInvocationHandler(constructor), sameInstance(StaticMethodInvocationHandler.NULL));
+	}
+
+	@Test
+	public void testResolveInvocationHandlerCallsOverriddenDeprecatedHooks() throws Exception {
+		Method constructor = BadConstructors.class.getDeclaredMethod("create", boolean.class);
+		Method getter = BadGetters.class.getDeclaredMethod("getA");
+		StaticInvocationResolver resolver = new StaticInvocationResolver(TestSubClass.class) {
+			@Override
+			protected StaticMethodInvocationHandler createConstructorInvocator(Method method) throws NoSuchMethodException {
+				return StaticMethodInvocationHandler.NULL;
+			}
+
+			@Override
+			protected Field findField(String fieldPattern, Class<?> type, Annotation[] annotations) throws NoSuchFieldException {
+				return super.findField("st", type, annotations);
+			}
+		};
+
+		assertThat(resolver.resolveInvocationHandler(constructor), sameInstance(StaticMethodInvocationHandler.NULL));
+		assertThat(resolver.resolveInvocationHandler(getter), notNullValue());
+		assertThat(resolver.resolveInvocationHandler(BadMethods.class.getDeclaredMethod("methodz")), nullValue());
+	}
+
+	@Test
+	public void testResolveInvocationHandlerOfOverriddenHooksIsNotCached() throws Exception {
+		Method getter = BadGetters.class.getDeclaredMethod("getA");
+		assertThat(new SwitchingResolver(false).resolveInvocationHandler(getter), nullValue());
+		assertThat(new SwitchingResolver(true).resolveInvocationHandler(getter), sameInstance(StaticMethodInvocationHandler.NULL));
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testFindInvocationHandlerUnresolvableFailsRepeatedly() throws Exception {
+		Method method = BadMethods.class.getDeclaredMethod("methodz");
+		StaticInvocationResolver resolver = new StaticInvocationResolver(TestSubClass.class);
+		assertThat(resolver.resolveInvocationHandler(method), nullValue());
+		resolver.findInvocationHandler(method);
+	}
+
 	@Test
 	public void testFindField() throws Exception {
 		StaticInvocationResolver resolver = new StaticInvocationResolver(TestSubClass.class);
@@ -341,6 +416,21 @@ public class StaticInvocationResolverTest {
 		@Convert ConvertibleInterface create(@Convert ConvertibleInterface i);
 	}
 
+	private static class SwitchingResolver extends StaticInvocationResolver {
+
+		private boolean resolvable;
+
+		SwitchingResolver(boolean resolvable) {
+			super(TestSubClass.class);
+			this.resolvable = resolvable;
+		}
+
+		@Override
+		protected StaticMethodInvocationHandler resolveGetterInvocator(Method method) {
+			return resolvable ? StaticMethodInvocationHandler.NULL : null;
+		}
+	}
+
 	private static class TestClass {
 		private static String st;
 		private static final int IN = 0;
@@ -79,6 +79,26 @@ public class ExampleObjectTest {
 		assertThat(unlockedExampleObject.useInnerStatic(s, ""), is(true));
 	}
 
+	@Test
+	public void testInnerStaticWithoutStandardConstructorArgument() throws Exception {
+		ExampleObject exampleObject = new ExampleObject("state");
+		UnlockedExampleWithoutStandardConstructor unlockedExampleObject = ObjectAccess.unlock(exampleObject).features(UnlockedExampleWithoutStandardConstructor.class);
+		InnerStaticWithoutStandardConstructor s = unlockedExampleObject.createInnerStaticWithoutStandardContructor();
+		assertThat(s.getState(), equalTo("state"));
+		assertThat(unlockedExampleObject.useInnerStatic(s), is(true));
+		assertThat(unlockedExampleObject.useInnerStatic(new InnerStaticWithoutStandardConstructor() {
+
+			@Override
+			public String getState() {
+				return "other";
+			}
+
+			@Override
+			public void setState(String state) {
+			}
+		}), is(true));
+	}
+
 	@Test
 	public void testInnerStaticGetter() throws Exception {
 		ExampleObject exampleObject = new ExampleObject("stateForGetter");
@@ -118,6 +138,19 @@ public class ExampleObjectTest {
 
 	}
 
+	interface UnlockedExampleWithoutStandardConstructor {
+		@Convert
+		InnerStaticWithoutStandardConstructor createInnerStaticWithoutStandardContructor();
+
+		boolean useInnerStatic(@Convert InnerStaticWithoutStandardConstructor arg);
+	}
+
+	interface InnerStaticWithoutStandardConstructor {
+		String getState();
+
+		void setState(String state);
+	}
+
 	interface UnlockedExampleGetSetter {
 
 		@Convert